@@ -0,0 +1,325 @@
+package hr.fer.zemris.java.hw01;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Skup cijelih brojeva pohranjen u samobalansirajuće binarno stablo (AVL
+ * stablo). Za razliku od stabla koje gradi metoda
+ * {@link UniqueNumbers#addNode(UniqueNumbers.TreeNode, int)}, visina ovog
+ * stabla uvijek je logaritamska u broju čvorova, pa dodavanje i pretraživanje
+ * imaju logaritamsku složenost i za sortirani unos. Sve metode su iterativne,
+ * pa ni za vrlo velika stabla ne dolazi do prelijevanja stoga.
+ * 
+ * @author Alen Magdić
+ *
+ */
+public class BalancedTree {
+
+    /**
+     * Najveća moguća visina stabla. AVL stablo s najviše 2^31 čvorova nije
+     * više od 46.
+     */
+    private static final int MAX_HEIGHT = 64;
+
+    /**
+     * Korijen stabla.
+     */
+    private Node root;
+    /**
+     * Broj čvorova stabla.
+     */
+    private int size;
+    /**
+     * Put od korijena do mjesta dodavanja, koristi se prilikom dodavanja.
+     */
+    private final Node[] path = new Node[MAX_HEIGHT];
+
+    /**
+     * Dodaje zadanu vrijednost u stablo. Ukoliko je vrijednost već pohranjena
+     * u stablu, ništa se ne mijenja.
+     * 
+     * @param value
+     *            vrijednost koju je potrebno dodati
+     * @return true ako je vrijednost dodana, false ako je već postojala
+     */
+    public boolean add(int value) {
+	if (root == null) {
+	    root = new Node(value);
+	    size = 1;
+	    return true;
+	}
+
+	int depth = 0;
+	Node node = root;
+	while (node != null) {
+	    if (value == node.value) {
+		return false;
+	    }
+	    path[depth++] = node;
+	    node = value < node.value ? node.left : node.right;
+	}
+
+	Node parent = path[depth - 1];
+	if (value < parent.value) {
+	    parent.left = new Node(value);
+	} else {
+	    parent.right = new Node(value);
+	}
+	size++;
+
+	// balansiranje od roditelja novog čvora prema korijenu; nakon rotacije
+	// ili ako se visina podstabla nije promijenila, stablo iznad je
+	// balansirano
+	for (int i = depth - 1; i >= 0; i--) {
+	    Node current = path[i];
+	    int oldHeight = current.height;
+	    Node balanced = rebalance(current);
+	    if (i == 0) {
+		root = balanced;
+	    } else if (path[i - 1].left == current) {
+		path[i - 1].left = balanced;
+	    } else {
+		path[i - 1].right = balanced;
+	    }
+	    if (balanced != current || current.height == oldHeight) {
+		break;
+	    }
+	}
+	for (int i = 0; i < depth; i++) {
+	    path[i] = null;
+	}
+	return true;
+    }
+
+    /**
+     * Metoda provjerava postoji li zadana vrijednost u stablu.
+     * 
+     * @param value
+     *            vrijednost čiju je prisutnost potrebno provjeriti
+     * @return true ako zadana vrijednost postoji u stablu, inače false
+     */
+    public boolean contains(int value) {
+	Node node = root;
+	while (node != null) {
+	    if (value == node.value) {
+		return true;
+	    }
+	    node = value < node.value ? node.left : node.right;
+	}
+	return false;
+    }
+
+    /**
+     * Vraća broj vrijednosti pohranjenih u stablu.
+     * 
+     * @return broj vrijednosti u stablu
+     */
+    public int size() {
+	return size;
+    }
+
+    /**
+     * Vraća visinu stabla. Visina praznog stabla je 0.
+     * 
+     * @return visina stabla
+     */
+    public int height() {
+	return height(root);
+    }
+
+    /**
+     * Vraća iterator koji obilazi vrijednosti od najmanje prema najvećoj.
+     * 
+     * @return iterator vrijednosti od najmanje prema najvećoj
+     */
+    public PrimitiveIterator.OfInt iterator() {
+	return new TreeIterator(false);
+    }
+
+    /**
+     * Vraća iterator koji obilazi vrijednosti od najveće prema najmanjoj.
+     * 
+     * @return iterator vrijednosti od najveće prema najmanjoj
+     */
+    public PrimitiveIterator.OfInt descendingIterator() {
+	return new TreeIterator(true);
+    }
+
+    /**
+     * Vraća visinu zadanog podstabla, 0 za prazno podstablo.
+     * 
+     * @param node
+     *            korijen podstabla ili null
+     * @return visina podstabla
+     */
+    private static int height(Node node) {
+	return node == null ? 0 : node.height;
+    }
+
+    /**
+     * Računa visinu zadanog čvora iz visina njegove djece.
+     * 
+     * @param node
+     *            čvor
+     */
+    private static void updateHeight(Node node) {
+	node.height = 1 + Math.max(height(node.left), height(node.right));
+    }
+
+    /**
+     * Ažurira visinu zadanog čvora te, ako se visine njegovih podstabala
+     * razlikuju za više od jedan, balansira podstablo rotacijom.
+     * 
+     * @param node
+     *            korijen podstabla
+     * @return novi korijen podstabla
+     */
+    private static Node rebalance(Node node) {
+	updateHeight(node);
+	int balance = height(node.left) - height(node.right);
+	if (balance > 1) {
+	    if (height(node.left.left) < height(node.left.right)) {
+		node.left = rotateLeft(node.left);
+	    }
+	    return rotateRight(node);
+	} else if (balance < -1) {
+	    if (height(node.right.right) < height(node.right.left)) {
+		node.right = rotateRight(node.right);
+	    }
+	    return rotateLeft(node);
+	}
+	return node;
+    }
+
+    /**
+     * Rotira podstablo udesno.
+     * 
+     * @param node
+     *            korijen podstabla
+     * @return novi korijen podstabla, lijevo dijete zadanog čvora
+     */
+    private static Node rotateRight(Node node) {
+	Node left = node.left;
+	node.left = left.right;
+	left.right = node;
+	updateHeight(node);
+	updateHeight(left);
+	return left;
+    }
+
+    /**
+     * Rotira podstablo ulijevo.
+     * 
+     * @param node
+     *            korijen podstabla
+     * @return novi korijen podstabla, desno dijete zadanog čvora
+     */
+    private static Node rotateLeft(Node node) {
+	Node right = node.right;
+	node.right = right.left;
+	right.left = node;
+	updateHeight(node);
+	updateHeight(right);
+	return right;
+    }
+
+    /**
+     * Čvor stabla. Sadrži reference na lijevo i desno dijete, vlastitu
+     * vrijednost te visinu podstabla kojem je korijen.
+     * 
+     * @author Alen Magdić
+     *
+     */
+    private static class Node {
+	/**
+	 * Referenca na lijevo dijete.
+	 */
+	Node left;
+	/**
+	 * Referenca na desno dijete.
+	 */
+	Node right;
+	/**
+	 * Vrijednost čvora.
+	 */
+	final int value;
+	/**
+	 * Visina podstabla kojem je ovaj čvor korijen.
+	 */
+	int height = 1;
+
+	/**
+	 * Konstruktor.
+	 * 
+	 * @param value
+	 *            vrijednost čvora
+	 */
+	Node(int value) {
+	    this.value = value;
+	}
+    }
+
+    /**
+     * Iterator koji obilazi stablo bez rekurzije, pamteći put do sljedećeg
+     * čvora na stogu.
+     * 
+     * @author Alen Magdić
+     *
+     */
+    private class TreeIterator implements PrimitiveIterator.OfInt {
+	/**
+	 * Čvorovi čije vrijednosti i podstabla u smjeru obilaska još nisu
+	 * obiđeni.
+	 */
+	private final Node[] stack = new Node[MAX_HEIGHT];
+	/**
+	 * Broj čvorova na stogu.
+	 */
+	private int depth;
+	/**
+	 * Zastavica koja određuje obilazi li se stablo od najveće vrijednosti.
+	 */
+	private final boolean descending;
+
+	/**
+	 * Konstruktor.
+	 * 
+	 * @param descending
+	 *            true ako se stablo obilazi od najveće vrijednosti
+	 */
+	TreeIterator(boolean descending) {
+	    this.descending = descending;
+	    push(root);
+	}
+
+	/**
+	 * Stavlja na stog zadani čvor i sve njegove potomke prema prvoj
+	 * vrijednosti u smjeru obilaska.
+	 * 
+	 * @param node
+	 *            čvor ili null
+	 */
+	private void push(Node node) {
+	    while (node != null) {
+		stack[depth++] = node;
+		node = descending ? node.right : node.left;
+	    }
+	}
+
+	@Override
+	public boolean hasNext() {
+	    return depth > 0;
+	}
+
+	@Override
+	public int nextInt() {
+	    if (depth == 0) {
+		throw new NoSuchElementException();
+	    }
+	    Node node = stack[--depth];
+	    push(descending ? node.left : node.right);
+	    return node.value;
+	}
+    }
+}
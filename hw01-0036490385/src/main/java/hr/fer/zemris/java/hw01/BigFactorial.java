@@ -0,0 +1,258 @@
+package hr.fer.zemris.java.hw01;
+
+import java.math.BigInteger;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Računa faktorijele proizvoljno velikih brojeva. Umnožak brojeva računa se
+ * binarnim dijeljenjem: raspon se dijeli na dvije polovice čiji se umnošci
+ * računaju zasebno pa množe, tako da se množe brojevi slične veličine, za što
+ * BigInteger koristi algoritme brže od školskog množenja. Polovice velikih
+ * raspona mogu se računati paralelno u zadanom ForkJoin bazenu.
+ * <p>
+ * Metoda {@link #factorial(int)} pamti zadnjih nekoliko izračunatih
+ * faktorijela, pa se faktorijel broja većeg od nekog zapamćenog računa samo
+ * množenjem zapamćenog faktorijela s umnoškom preostalih brojeva.
+ * </p>
+ * 
+ * @author Alen Magdić
+ *
+ */
+public class BigFactorial {
+
+    /**
+     * Najveći broj čiji faktorijel stane u tip long.
+     */
+    private static final int LONG_LIMIT = 20;
+    /**
+     * Rasponi s najviše ovoliko brojeva množe se u petlji.
+     */
+    private static final int LEAF_SIZE = 16;
+    /**
+     * Rasponi s najviše ovoliko brojeva ne dijele se na paralelne zadatke.
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
+    /**
+     * Broj faktorijela koje pamti metoda {@link #factorial(int)}.
+     */
+    private static final int CACHE_SIZE = 8;
+
+    /**
+     * Zapamćeni faktorijeli, od najdavnije do najnedavnije korištenog.
+     */
+    private static final Map<Integer, BigInteger> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * Faktorijeli brojeva do {@link #LONG_LIMIT}.
+     */
+    private static final long[] SMALL_FACTORIALS = new long[LONG_LIMIT + 1];
+
+    static {
+	SMALL_FACTORIALS[0] = 1;
+	for (int i = 1; i <= LONG_LIMIT; i++) {
+	    SMALL_FACTORIALS[i] = SMALL_FACTORIALS[i - 1] * i;
+	}
+    }
+
+    /**
+     * Vraća faktorijel zadanog broja. Ako je zapamćen faktorijel nekog broja
+     * koji nije veći od zadanog, množi se umnoškom preostalih brojeva, a inače
+     * se faktorijel računa od početka. Umnožak se računa paralelno u
+     * zajedničkom ForkJoin bazenu, a rezultat se pamti.
+     * 
+     * @param number
+     *            nenegativan broj čiji je faktorijel potrebno izračunati
+     * @return faktorijel zadanog broja
+     */
+    public static BigInteger factorial(int number) {
+	checkNumber(number);
+	if (number <= LONG_LIMIT) {
+	    return BigInteger.valueOf(SMALL_FACTORIALS[number]);
+	}
+
+	int start = 1;
+	BigInteger cached = BigInteger.ONE;
+	synchronized (CACHE) {
+	    for (Map.Entry<Integer, BigInteger> entry : CACHE.entrySet()) {
+		if (entry.getKey() <= number && entry.getKey() >= start) {
+		    start = entry.getKey();
+		    cached = entry.getValue();
+		}
+	    }
+	    if (start == number) {
+		return CACHE.get(number);
+	    }
+	}
+
+	BigInteger result = cached.multiply(product(start + 1, number, ForkJoinPool.commonPool()));
+	synchronized (CACHE) {
+	    CACHE.put(number, result);
+	    if (CACHE.size() > CACHE_SIZE) {
+		Iterator<Integer> eldest = CACHE.keySet().iterator();
+		eldest.next();
+		eldest.remove();
+	    }
+	}
+	return result;
+    }
+
+    /**
+     * Računa faktorijel zadanog broja binarnim dijeljenjem u jednoj dretvi,
+     * bez pamćenja rezultata.
+     * 
+     * @param number
+     *            nenegativan broj čiji je faktorijel potrebno izračunati
+     * @return faktorijel zadanog broja
+     */
+    public static BigInteger sequentialFactorial(int number) {
+	checkNumber(number);
+	return product(1, number);
+    }
+
+    /**
+     * Računa faktorijel zadanog broja binarnim dijeljenjem u zadanom ForkJoin
+     * bazenu, bez pamćenja rezultata.
+     * 
+     * @param number
+     *            nenegativan broj čiji je faktorijel potrebno izračunati
+     * @param pool
+     *            bazen u kojem se računaju umnošci
+     * @return faktorijel zadanog broja
+     */
+    public static BigInteger parallelFactorial(int number, ForkJoinPool pool) {
+	checkNumber(number);
+	return product(1, number, pool);
+    }
+
+    /**
+     * Briše zapamćene faktorijele.
+     */
+    public static void clearCache() {
+	synchronized (CACHE) {
+	    CACHE.clear();
+	}
+    }
+
+    /**
+     * Provjerava je li zadani broj nenegativan.
+     * 
+     * @param number
+     *            broj
+     */
+    private static void checkNumber(int number) {
+	if (number < 0) {
+	    throw new IllegalArgumentException("Faktorijel nije definiran za negativan broj " + number + ".");
+	}
+    }
+
+    /**
+     * Računa umnožak brojeva iz zadanog raspona u zadanom bazenu.
+     * 
+     * @param from
+     *            prvi broj raspona
+     * @param to
+     *            zadnji broj raspona, uključivo
+     * @param pool
+     *            bazen u kojem se računaju umnošci
+     * @return umnožak brojeva, 1 za prazan raspon
+     */
+    private static BigInteger product(int from, int to, ForkJoinPool pool) {
+	if (to - from < PARALLEL_THRESHOLD) {
+	    return product(from, to);
+	}
+	return pool.invoke(new ProductTask(from, to));
+    }
+
+    /**
+     * Računa umnožak brojeva iz zadanog raspona binarnim dijeljenjem.
+     * 
+     * @param from
+     *            prvi broj raspona
+     * @param to
+     *            zadnji broj raspona, uključivo
+     * @return umnožak brojeva, 1 za prazan raspon
+     */
+    static BigInteger product(int from, int to) {
+	if (to - from < LEAF_SIZE) {
+	    return leafProduct(from, to);
+	}
+	int middle = (from + to) >>> 1;
+	return product(from, middle).multiply(product(middle + 1, to));
+    }
+
+    /**
+     * Računa umnožak brojeva iz malog raspona u petlji, množeći u tipu long
+     * dok god umnožak ne bi mogao prekoračiti njegov raspon.
+     * 
+     * @param from
+     *            prvi broj raspona
+     * @param to
+     *            zadnji broj raspona, uključivo
+     * @return umnožak brojeva, 1 za prazan raspon
+     */
+    private static BigInteger leafProduct(int from, int to) {
+	BigInteger result = BigInteger.ONE;
+	long partial = 1;
+	for (long i = Math.max(from, 2); i <= to; i++) {
+	    if (partial > Long.MAX_VALUE / i) {
+		result = result.multiply(BigInteger.valueOf(partial));
+		partial = 1;
+	    }
+	    partial *= i;
+	}
+	return result.multiply(BigInteger.valueOf(partial));
+    }
+
+    /**
+     * Zadatak koji računa umnožak raspona brojeva tako da umnožak jedne
+     * polovice raspona računa paralelno s drugom.
+     * 
+     * @author Alen Magdić
+     *
+     */
+    private static class ProductTask extends RecursiveTask<BigInteger> {
+
+	/**
+	 * Serijski broj.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Prvi broj raspona.
+	 */
+	private final int from;
+	/**
+	 * Zadnji broj raspona, uključivo.
+	 */
+	private final int to;
+
+	/**
+	 * Konstruktor.
+	 * 
+	 * @param from
+	 *            prvi broj raspona
+	 * @param to
+	 *            zadnji broj raspona, uključivo
+	 */
+	ProductTask(int from, int to) {
+	    this.from = from;
+	    this.to = to;
+	}
+
+	@Override
+	protected BigInteger compute() {
+	    if (to - from < PARALLEL_THRESHOLD) {
+		return product(from, to);
+	    }
+	    int middle = (from + to) >>> 1;
+	    ProductTask left = new ProductTask(from, middle);
+	    left.fork();
+	    BigInteger right = new ProductTask(middle + 1, to).compute();
+	    return left.join().multiply(right);
+	}
+    }
+}
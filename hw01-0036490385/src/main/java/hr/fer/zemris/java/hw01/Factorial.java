@@ -4,10 +4,11 @@ import java.util.Scanner;
 
 /**
  * Program koji prihvaća unos cijelog broja sa tipkovnice te izračunava i
- * ispisuje vrijednost faktorijela zadanog broja. Prihvaćaju se samo brojevi u
- * rasponu 1-20. Ukoliko se unese nešto što nije broj ili broj izvan zadanog
- * raspona, biti će ispisana odgovarajuća poruka. Unos se prekida riječju
- * 'kraj'.
+ * ispisuje točnu vrijednost faktorijela zadanog broja, izračunatu razredom
+ * {@link BigFactorial}. Prihvaćaju se samo pozitivni brojevi do
+ * {@link #BIG_LIMIT_UP}. Ukoliko se unese nešto što nije broj ili broj izvan
+ * zadanog raspona, biti će ispisana odgovarajuća poruka. Unos se prekida
+ * riječju 'kraj'.
  *
  * @author Alen Magdić
  *
@@ -25,6 +26,11 @@ public class Factorial {
      * podržani broj.
      */
     public static final int LIMIT_UP = 20;
+    /**
+     * Najveći broj čiji faktorijel program ispisuje. Faktorijel tog broja ima
+     * oko 5,5 milijuna znamenki.
+     */
+    public static final int BIG_LIMIT_UP = 1_000_000;
 
     /**
      * Metoda od koje kreće izvođenje programa.
@@ -53,12 +59,12 @@ public class Factorial {
 		System.out.printf("'%s' nije cijeli broj.%n", input);
 		continue;
 	    }
-	    if (number < LIMIT_DOWN) { // || number > LIMIT_UP) {
+	    if (number < LIMIT_DOWN || number > BIG_LIMIT_UP) {
 		System.out.printf("'%d' nije broj u dozvoljenom rasponu.%n", number);
 		continue;
 	    }
 
-	    System.out.printf("%d! = %f\n", number, factorial(number));
+	    System.out.printf("%d! = %s%n", number, BigFactorial.factorial(number));
 	}
 
 	sc.close();
@@ -1,11 +1,14 @@
 package hr.fer.zemris.java.hw01;
 
+import java.util.PrimitiveIterator;
 import java.util.Scanner;
 
 /**
  * Program prihvaća unos cijelih brojeva sa tipkovnice te ih pohranjuje. Unos se
  * prekida riječju 'kraj'. Program ispisuje pohranjene vrijednosti sortirano od
- * manjeg prema većem te od većeg prema manjem.
+ * manjeg prema većem te od većeg prema manjem. Vrijednosti se pohranjuju u
+ * balansirano stablo {@link BalancedTree}, pa ni sortirani unos velikog broja
+ * vrijednosti ne usporava program.
  * 
  * @author Alen Magdić
  *
@@ -22,46 +25,25 @@ public class UniqueNumbers {
      */
     public static void main(String[] args) {
 	Scanner sc = new Scanner(System.in);
-	TreeNode head = inputValuesToTree(sc);
+	BalancedTree tree = inputValuesToTree(sc);
 
 	System.out.print("Ispis od najmanjeg: ");
-	printInOrder(head);
+	print(tree.iterator());
 
 	System.out.print("\nIspis od najvećeg: ");
-	printReversed(head);
+	print(tree.descendingIterator());
     }
 
     /**
-     * Ispisuje zadano stablo cijelih brojeva sortirano od najmanjeg do najvećeg
-     * broja.
+     * Ispisuje sve vrijednosti koje vraća zadani iterator.
      * 
-     * @param head
-     *            glava stabla cijelih brojeva čiji je sadržaj potrebno ispisati
+     * @param iterator
+     *            iterator vrijednosti stabla koje je potrebno ispisati
      */
-    private static void printInOrder(TreeNode head) {
-	if (head == null) {
-	    return;
+    private static void print(PrimitiveIterator.OfInt iterator) {
+	while (iterator.hasNext()) {
+	    System.out.printf("%d ", iterator.nextInt());
 	}
-	printInOrder(head.left);
-	System.out.printf("%d ", head.value);
-	printInOrder(head.right);
-
-    }
-
-    /**
-     * Ispisuje zadano stablo cijelih brojeva sortirano od najvećeg do najmanjeg
-     * broja.
-     * 
-     * @param head
-     *            glava stabla cijelih brojeva čiji je sadržaj potrebno ispisati
-     */
-    private static void printReversed(TreeNode head) {
-	if (head == null) {
-	    return;
-	}
-	printReversed(head.right);
-	System.out.printf("%d ", head.value);
-	printReversed(head.left);
     }
 
     /**
@@ -74,10 +56,10 @@ public class UniqueNumbers {
      *            scanner s kojim se vrši korisnički unos
      * @return kreirano stablo napunjeno unesenim vrijednostima
      */
-    private static TreeNode inputValuesToTree(Scanner sc) {
+    private static BalancedTree inputValuesToTree(Scanner sc) {
 	String input;
 	int number; // pohranjuje parsirani input
-	TreeNode head = null;
+	BalancedTree tree = new BalancedTree();
 
 	while (true) {
 	    System.out.print("Unesite broj > ");
@@ -93,17 +75,21 @@ public class UniqueNumbers {
 		continue;
 	    }
 
-	    head = addNode(head, number);
+	    if (!tree.add(number)) {
+		System.out.println("Broj već postoji. Preskačem.");
+	    }
 	}
 
-	return head;
+	return tree;
     }
 
     /**
      * Dodaje zadanu vrijednost u zadano stablo cijelih brojeva. Ukoliko je
      * vrijednost već pohranjena u stablu, ništa se ne mijenja. Metoda vraća
      * modificirano stablo. U slučaju predaje null kao argumenta za stablo,
-     * metoda će sama kreirati stablo sa zadanom vrijednošću.
+     * metoda će sama kreirati stablo sa zadanom vrijednošću. Stablo se ne
+     * balansira, pa za sortirani unos postaje lista; za velik broj vrijednosti
+     * treba koristiti {@link BalancedTree}.
      * 
      * @param head
      *            stablo u koje je potrebno dodati zadanu vrijednost
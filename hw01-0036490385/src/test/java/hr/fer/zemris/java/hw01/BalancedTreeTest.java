@@ -0,0 +1,82 @@
+package hr.fer.zemris.java.hw01;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class BalancedTreeTest {
+
+    @Test
+    public void addingAndContains() {
+	BalancedTree tree = new BalancedTree();
+	assertEquals(tree.add(42), true);
+	assertEquals(tree.add(76), true);
+	assertEquals(tree.add(21), true);
+	assertEquals(tree.add(76), false);
+	assertEquals(tree.add(35), true);
+
+	assertEquals(tree.size(), 4);
+	assertEquals(tree.contains(35), true);
+	assertEquals(tree.contains(25), false);
+    }
+
+    @Test
+    public void sortedInputStaysBalanced() {
+	BalancedTree tree = new BalancedTree();
+	int size = 1_000_000;
+	for (int i = 0; i < size; i++) {
+	    tree.add(i);
+	}
+	assertEquals(tree.size(), size);
+	// AVL stablo nije više od 1.44 * log2(n + 2)
+	assertTrue(tree.height() <= 1.44 * Math.log(size + 2) / Math.log(2));
+
+	PrimitiveIterator.OfInt iterator = tree.iterator();
+	for (int i = 0; i < size; i++) {
+	    assertEquals(iterator.nextInt(), i);
+	}
+	assertEquals(iterator.hasNext(), false);
+    }
+
+    @Test
+    public void sameOrderAsTreeSet() {
+	Random random = new Random(42);
+	BalancedTree tree = new BalancedTree();
+	TreeSet<Integer> expected = new TreeSet<>();
+	for (int i = 0; i < 10_000; i++) {
+	    int value = random.nextInt(5_000);
+	    assertEquals(tree.add(value), expected.add(value));
+	}
+	assertEquals(tree.size(), expected.size());
+
+	PrimitiveIterator.OfInt ascending = tree.iterator();
+	for (int value : expected) {
+	    assertEquals(ascending.nextInt(), value);
+	}
+	PrimitiveIterator.OfInt descending = tree.descendingIterator();
+	Iterator<Integer> expectedDescending = expected.descendingIterator();
+	while (expectedDescending.hasNext()) {
+	    assertEquals(descending.nextInt(), (int) expectedDescending.next());
+	}
+	assertEquals(descending.hasNext(), false);
+    }
+
+    @Test
+    public void iteratingEmptyTree() {
+	PrimitiveIterator.OfInt iterator = new BalancedTree().iterator();
+	assertEquals(iterator.hasNext(), false);
+	try {
+	    iterator.nextInt();
+	    fail();
+	} catch (NoSuchElementException ex) {
+	}
+    }
+}
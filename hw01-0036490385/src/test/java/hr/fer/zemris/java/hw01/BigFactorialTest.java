@@ -0,0 +1,63 @@
+package hr.fer.zemris.java.hw01;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class BigFactorialTest {
+
+    private static BigInteger naiveFactorial(int number) {
+	BigInteger result = BigInteger.ONE;
+	for (int i = 2; i <= number; i++) {
+	    result = result.multiply(BigInteger.valueOf(i));
+	}
+	return result;
+    }
+
+    @Test
+    public void smallNumbers() {
+	assertEquals(BigFactorial.factorial(0), BigInteger.ONE);
+	assertEquals(BigFactorial.factorial(1), BigInteger.ONE);
+	assertEquals(BigFactorial.factorial(20), BigInteger.valueOf(2432902008176640000L));
+	assertEquals(BigFactorial.factorial(21), new BigInteger("51090942171709440000"));
+	assertEquals(BigFactorial.sequentialFactorial(0), BigInteger.ONE);
+    }
+
+    @Test
+    public void sameResultAsNaiveProduct() {
+	ForkJoinPool pool = new ForkJoinPool(4);
+	for (int number : new int[] { 25, 100, 5_000, 30_000 }) {
+	    BigInteger expected = naiveFactorial(number);
+	    assertEquals(BigFactorial.sequentialFactorial(number), expected);
+	    assertEquals(BigFactorial.parallelFactorial(number, pool), expected);
+	}
+	pool.shutdown();
+    }
+
+    @Test
+    public void cachedFactorials() {
+	BigFactorial.clearCache();
+	BigInteger expected = naiveFactorial(30_000);
+	assertEquals(BigFactorial.factorial(20_000), naiveFactorial(20_000));
+	assertEquals(BigFactorial.factorial(30_000), expected);
+	assertEquals(BigFactorial.factorial(30_000), expected);
+	assertEquals(BigFactorial.factorial(25_000), naiveFactorial(25_000));
+	for (int number = 100; number < 1000; number += 100) {
+	    BigFactorial.factorial(number);
+	}
+	assertEquals(BigFactorial.factorial(30_001), expected.multiply(BigInteger.valueOf(30_001)));
+    }
+
+    @Test
+    public void negativeNumber() {
+	try {
+	    BigFactorial.factorial(-1);
+	    fail();
+	} catch (IllegalArgumentException ex) {
+	}
+    }
+}
@@ -0,0 +1,36 @@
+package hr.fer.zemris.java.hw01.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Pokreće JMH mjerenja performansi uz uključeno praćenje alokacija (GC
+ * profiler). Pokreće se iz korijenskog direktorija projekta naredbom
+ * <code>mvn -Pbenchmark test-compile exec:exec</code>, a mjerenja se mogu
+ * suziti zadavanjem <code>-Dbenchmark=regex</code>.
+ * 
+ * @author Alen Magdić
+ *
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Metoda od koje počinje izvođenje programa.
+     * 
+     * @param args
+     *            opcionalno regularni izraz koji odabire mjerenja
+     * @throws RunnerException
+     *             ako dođe do pogreške prilikom izvođenja mjerenja
+     */
+    public static void main(String[] args) throws RunnerException {
+	String include = args.length > 0 ? args[0] : ".*";
+	Options options = new OptionsBuilder()
+		.include(BenchmarkRunner.class.getPackage().getName() + "\\..*" + include)
+		.addProfiler(GCProfiler.class)
+		.build();
+	new Runner(options).run();
+    }
+}
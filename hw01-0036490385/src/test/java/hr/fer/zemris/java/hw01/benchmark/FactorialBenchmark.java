@@ -0,0 +1,102 @@
+package hr.fer.zemris.java.hw01.benchmark;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw01.BigFactorial;
+
+/**
+ * Mjeri računanje faktorijela velikih brojeva razredom {@link BigFactorial}
+ * u jednoj dretvi i u ForkJoin bazenima sa zadanim brojem dretvi, kako bi se
+ * vidjelo kako se računanje skalira s brojem jezgri.
+ * 
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class FactorialBenchmark {
+
+    /**
+     * Broj čiji se faktorijel računa.
+     */
+    @Param({ "100000", "1000000" })
+    public int number;
+
+    /**
+     * Bazen sa zadanim brojem dretvi.
+     * 
+     * @author Alen Magdić
+     *
+     */
+    @State(Scope.Benchmark)
+    public static class Pool {
+
+	/**
+	 * Broj dretvi bazena.
+	 */
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	/**
+	 * Bazen.
+	 */
+	ForkJoinPool pool;
+
+	/**
+	 * Stvara bazen.
+	 */
+	@Setup
+	public void setup() {
+	    pool = new ForkJoinPool(threads);
+	}
+
+	/**
+	 * Gasi bazen.
+	 */
+	@TearDown
+	public void tearDown() {
+	    pool.shutdown();
+	}
+    }
+
+    /**
+     * Računa faktorijel u jednoj dretvi.
+     * 
+     * @return faktorijel
+     */
+    @Benchmark
+    public BigInteger sequential() {
+	return BigFactorial.sequentialFactorial(number);
+    }
+
+    /**
+     * Računa faktorijel u bazenu.
+     * 
+     * @param pool
+     *            bazen
+     * @return faktorijel
+     */
+    @Benchmark
+    public BigInteger parallel(Pool pool) {
+	return BigFactorial.parallelFactorial(number, pool.pool);
+    }
+}
@@ -0,0 +1,76 @@
+package hr.fer.zemris.java.hw01.benchmark;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw01.BalancedTree;
+
+/**
+ * Uspoređuje punjenje stabla {@link BalancedTree} i skupa {@link TreeSet} s
+ * deset milijuna sortiranih ili slučajno ispremiješanih vrijednosti, nakon
+ * čega se provjerava prisutnost svih vrijednosti. Stablo koje gradi metoda
+ * UniqueNumbers.addNode za ovoliko sortiranih vrijednosti ne završava, pa se
+ * s njim uspoređuje {@link UnbalancedTreeBenchmark} na manjem unosu.
+ * 
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TreeBenchmark {
+
+    /**
+     * Puni stablo BalancedTree i provjerava prisutnost vrijednosti.
+     * 
+     * @param input
+     *            vrijednosti
+     * @return broj pronađenih vrijednosti
+     */
+    @Benchmark
+    public int balancedTree(TreeInput input) {
+	BalancedTree tree = new BalancedTree();
+	for (int value : input.values) {
+	    tree.add(value);
+	}
+	int found = 0;
+	for (int value : input.values) {
+	    if (tree.contains(value)) {
+		found++;
+	    }
+	}
+	return found;
+    }
+
+    /**
+     * Puni skup TreeSet i provjerava prisutnost vrijednosti.
+     * 
+     * @param input
+     *            vrijednosti
+     * @return broj pronađenih vrijednosti
+     */
+    @Benchmark
+    public int treeSet(TreeInput input) {
+	TreeSet<Integer> tree = new TreeSet<>();
+	for (int value : input.values) {
+	    tree.add(value);
+	}
+	int found = 0;
+	for (int value : input.values) {
+	    if (tree.contains(value)) {
+		found++;
+	    }
+	}
+	return found;
+    }
+}
@@ -0,0 +1,60 @@
+package hr.fer.zemris.java.hw01.benchmark;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Vrijednosti koje se dodaju u stablo: brojevi od 0 do zadanog broja
+ * vrijednosti redom ili slučajno ispremiješani.
+ * 
+ * @author Alen Magdić
+ *
+ */
+@State(Scope.Benchmark)
+public class TreeInput {
+
+    /**
+     * Poredak vrijednosti: sorted ili random.
+     */
+    @Param({ "sorted", "random" })
+    public String order;
+
+    /**
+     * Vrijednosti.
+     */
+    int[] values;
+
+    /**
+     * Generira vrijednosti za zadani broj vrijednosti.
+     * 
+     * @param size
+     *            broj vrijednosti
+     */
+    void generate(int size) {
+	values = new int[size];
+	for (int i = 0; i < size; i++) {
+	    values[i] = i;
+	}
+	if (order.equals("random")) {
+	    Random random = new Random(42);
+	    for (int i = size - 1; i > 0; i--) {
+		int j = random.nextInt(i + 1);
+		int value = values[i];
+		values[i] = values[j];
+		values[j] = value;
+	    }
+	}
+    }
+
+    /**
+     * Generira deset milijuna vrijednosti.
+     */
+    @Setup
+    public void setup() {
+	generate(10_000_000);
+    }
+}
@@ -0,0 +1,90 @@
+package hr.fer.zemris.java.hw01.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw01.BalancedTree;
+import hr.fer.zemris.java.hw01.UniqueNumbers;
+import hr.fer.zemris.java.hw01.UniqueNumbers.TreeNode;
+
+/**
+ * Uspoređuje punjenje stabla {@link BalancedTree} i nebalansiranog stabla koje
+ * gradi metoda {@link UniqueNumbers#addNode(TreeNode, int)} na unosu dovoljno
+ * malom da rekurzivno dodavanje u nebalansirano stablo sortiranih vrijednosti
+ * ne prelije stog.
+ * 
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "-Xss64m" })
+public class UnbalancedTreeBenchmark {
+
+    /**
+     * Vrijednosti.
+     * 
+     * @author Alen Magdić
+     *
+     */
+    @State(Scope.Benchmark)
+    public static class SmallInput extends TreeInput {
+
+	/**
+	 * Broj vrijednosti.
+	 */
+	@Param({ "20000" })
+	public int size;
+
+	@Override
+	@Setup
+	public void setup() {
+	    generate(size);
+	}
+    }
+
+    /**
+     * Puni stablo BalancedTree.
+     * 
+     * @param input
+     *            vrijednosti
+     * @return broj vrijednosti u stablu
+     */
+    @Benchmark
+    public int balancedTree(SmallInput input) {
+	BalancedTree tree = new BalancedTree();
+	for (int value : input.values) {
+	    tree.add(value);
+	}
+	return tree.size();
+    }
+
+    /**
+     * Puni nebalansirano stablo.
+     * 
+     * @param input
+     *            vrijednosti
+     * @return korijen stabla
+     */
+    @Benchmark
+    public TreeNode unbalancedTree(SmallInput input) {
+	TreeNode head = null;
+	for (int value : input.values) {
+	    head = UniqueNumbers.addNode(head, value);
+	}
+	return head;
+    }
+}
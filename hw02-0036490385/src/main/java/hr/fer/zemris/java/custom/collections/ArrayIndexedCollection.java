@@ -1,12 +1,24 @@
 package hr.fer.zemris.java.custom.collections;
 
 import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Kolekcija koja koristi polje za pohranu podataka. Sadrži razne metode za
  * upravljanje sadržajem kolekcije. Kolekcija dozvoljava pohranu duplikata, ali
  * null vrijednosti nisu dozvoljene te metoda u pokušaju dodavanja istih baca
  * iznimku IllegalArgumentException.
+ * <p>
+ * Kada se polje elemenata popuni, kapacitet se povećava zadanim faktorom rasta,
+ * zadano dva puta. Kolekcija se može stvoriti tako da automatski smanjuje
+ * polje elemenata kada je popunjeno manje od četvrtine: kapacitet se tada
+ * postavlja na dvostruki broj elemenata, ali ne manje od početnog kapaciteta,
+ * pa je nakon smanjivanja potrebno dodati ili ukloniti barem pola elemenata
+ * kako bi se polje ponovno povećalo ili smanjilo. Kapacitet se može i ručno
+ * podesiti metodama {@link #ensureCapacity(int)} i {@link #trimToSize()}.
+ * </p>
  *
  * @author Alen Magdić
  *
@@ -18,8 +30,23 @@ public class ArrayIndexedCollection extends Collection {
 	private int capacity;
 	/** Polje elemenata pohranjenih u kolekciji */
 	private Object[] elements;
+	/** Faktor za koji se povećava kapacitet kada se polje elemenata popuni. */
+	private final double growthFactor;
+	/** Zastavica koja određuje smanjuje li se polje elemenata automatski. */
+	private final boolean autoShrink;
+	/** Kapacitet ispod kojeg se polje elemenata ne smanjuje automatski. */
+	private final int minimumCapacity;
 	/** Početni defaultni kapacitet kolekcije */
 	private final static int DEFAULT_CAPACITY = 16;
+	/** Defaultni faktor rasta kapaciteta. */
+	private final static double DEFAULT_GROWTH_FACTOR = 2;
+	/** Najveći kapacitet polja elemenata. */
+	private final static int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+	/**
+	 * Polje elemenata automatski se smanjuje kada je popunjeno manje od
+	 * ovoliko puta.
+	 */
+	private final static int SHRINK_DIVISOR = 4;
 
 	/**
 	 * Defaultni konstruktor.
@@ -37,11 +64,35 @@ public class ArrayIndexedCollection extends Collection {
 	 *            početno potrebno alocirati za pohranu podataka
 	 */
 	public ArrayIndexedCollection(int initialCapacity) {
+		this(initialCapacity, DEFAULT_GROWTH_FACTOR, false);
+	}
+
+	/**
+	 * Konstruktor. Prima početni kapacitet kolekcije, faktor za koji se
+	 * povećava kapacitet kada se polje elemenata popuni te zastavicu koja
+	 * određuje smanjuje li se polje elemenata automatski kada je popunjeno
+	 * manje od četvrtine.
+	 *
+	 * @param initialCapacity
+	 *            početni kapacitet kolekcije, odnosno broj mjesta koje je
+	 *            početno potrebno alocirati za pohranu podataka
+	 * @param growthFactor
+	 *            faktor rasta kapaciteta, broj veći od 1
+	 * @param autoShrink
+	 *            true ako se polje elemenata smanjuje automatski, inače false
+	 */
+	public ArrayIndexedCollection(int initialCapacity, double growthFactor, boolean autoShrink) {
 		if (initialCapacity < 1) {
 			throw new IllegalArgumentException("Inicijalni kapacitet mora biti pozitivan broj.");
 		}
+		if (!(growthFactor > 1)) {
+			throw new IllegalArgumentException("Faktor rasta kapaciteta mora biti veći od 1.");
+		}
 		capacity = initialCapacity;
 		elements = new Object[capacity];
+		this.growthFactor = growthFactor;
+		this.autoShrink = autoShrink;
+		minimumCapacity = initialCapacity;
 	}
 
 	/**
@@ -72,6 +123,9 @@ public class ArrayIndexedCollection extends Collection {
 		capacity = initialCapacity;
 		elements = Arrays.copyOf(collection.toArray(), capacity);
 		size += collection.size();
+		growthFactor = DEFAULT_GROWTH_FACTOR;
+		autoShrink = false;
+		minimumCapacity = initialCapacity;
 	}
 
 	@Override
@@ -92,7 +146,7 @@ public class ArrayIndexedCollection extends Collection {
 			throw new IllegalArgumentException("Kolekcija ne podržava pohranu null vrijednosti.");
 		}
 
-		realloc();
+		ensureCapacity(size + 1);
 
 		elements[size] = value;
 		size++;
@@ -121,13 +175,11 @@ public class ArrayIndexedCollection extends Collection {
 		return elements[index];
 	}
 
-	@SuppressWarnings("unused")
 	@Override
 	public void clear() {
-		for (Object object : elements) {
-			object = null;
-		}
+		Arrays.fill(elements, 0, size, null);
 		size = 0;
+		shrinkIfSparse();
 	}
 
 	/**
@@ -150,26 +202,72 @@ public class ArrayIndexedCollection extends Collection {
 					"Pozicija elementa kojeg je potrebno umetnuti treba biti broj od 0 do trenutne veličine kolekcije.");
 		}
 
-		realloc();
+		ensureCapacity(size + 1);
 
-		for (int i = size; i > position; i--) {
-			elements[i] = elements[i - 1];
-		}
+		System.arraycopy(elements, position, elements, position + 1, size - position);
 		elements[position] = value;
 		size++;
 	}
 
 	/**
-	 * Ukoliko je polje elemenata popunjeno, poduplava kapacitet polja. Inače,
-	 * ne radi ništa.
+	 * Vraća trenutni kapacitet kolekcije, odnosno broj alociranih mjesta za
+	 * pohranu elemenata.
+	 *
+	 * @return kapacitet kolekcije
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Osigurava da polje elemenata može pohraniti barem zadani broj elemenata.
+	 * Ako ne može, kapacitet se povećava faktorom rasta, odnosno postavlja na
+	 * zadani broj ako je on veći.
+	 *
+	 * @param minCapacity
+	 *            najmanji potrebni kapacitet
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > capacity) {
+			if (minCapacity > MAX_CAPACITY) {
+				throw new OutOfMemoryError("Kapacitet kolekcije ne može biti veći od " + MAX_CAPACITY + ".");
+			}
+			long grown = Math.max((long) (capacity * growthFactor), capacity + 1L);
+			resize((int) Math.min(MAX_CAPACITY, Math.max(minCapacity, grown)));
+		}
+	}
+
+	/**
+	 * Smanjuje kapacitet kolekcije na trenutni broj elemenata.
 	 */
-	private void realloc() {
-		if (size == capacity) {
-			capacity *= 2;
-			elements = Arrays.copyOf(elements, capacity * 2);
+	public void trimToSize() {
+		if (capacity > size) {
+			resize(size);
 		}
 	}
 
+	/**
+	 * Ako se polje elemenata smanjuje automatski i popunjeno je manje od
+	 * četvrtine, smanjuje kapacitet na dvostruki broj elemenata, ali ne manje
+	 * od početnog kapaciteta.
+	 */
+	private void shrinkIfSparse() {
+		if (autoShrink && capacity > minimumCapacity && size < capacity / SHRINK_DIVISOR) {
+			resize(Math.max(minimumCapacity, size * 2));
+		}
+	}
+
+	/**
+	 * Premješta elemente u novo polje zadanog kapaciteta.
+	 *
+	 * @param newCapacity
+	 *            novi kapacitet, barem broj elemenata
+	 */
+	private void resize(int newCapacity) {
+		capacity = newCapacity;
+		elements = Arrays.copyOf(elements, newCapacity);
+	}
+
 	/**
 	 * Vraća indeks zadanog objekta. Ako objekt nije prisutan u kolekciji,
 	 * metoda vraća -1. Prosječna složenost metode je n.
@@ -211,12 +309,11 @@ public class ArrayIndexedCollection extends Collection {
 			throw new IndexOutOfBoundsException();
 		}
 
-		for (int i = index; i < size - 1; i++) {
-			elements[i] = elements[i + 1];
-		}
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
 
 		elements[size - 1] = null;
 		size--;
+		shrinkIfSparse();
 	}
 
 	@Override
@@ -231,4 +328,132 @@ public class ArrayIndexedCollection extends Collection {
 		}
 	}
 
+	/**
+	 * Dodaje sve elemente iz zadane kolekcije na kraj ove kolekcije. Polje
+	 * elemenata proširuje se najviše jednom, a elementi se u njega kopiraju iz
+	 * polja koje vraća metoda toArray zadane kolekcije.
+	 *
+	 * @param other
+	 *            kolekcija čije je elemente potrebno dodati u ovu kolekciju
+	 */
+	@Override
+	public void addAll(Collection other) {
+		Object[] array = other.toArray();
+		for (Object value : array) {
+			if (value == null) {
+				throw new IllegalArgumentException("Kolekcija ne podržava pohranu null vrijednosti.");
+			}
+		}
+		ensureCapacity(size + array.length);
+		System.arraycopy(array, 0, elements, size, array.length);
+		size += array.length;
+	}
+
+	/**
+	 * Uklanja elemente jednim prolaskom kroz polje elemenata, pomičući
+	 * preostale elemente na njihove nove pozicije.
+	 */
+	@Override
+	protected boolean batchRemove(Collection other, boolean retain) {
+		Predicate<Object> member = membership(other);
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (member.test(elements[i]) == retain) {
+				elements[kept++] = elements[i];
+			}
+		}
+		if (kept == size) {
+			return false;
+		}
+		Arrays.fill(elements, kept, size, null);
+		size = kept;
+		shrinkIfSparse();
+		return true;
+	}
+
+	@Override
+	public <T> T[] toArray(T[] array) {
+		return copyToArray(elements, size, array);
+	}
+
+	/**
+	 * Vraća spliterator koji čita izravno iz polja elemenata i dijeli ga na
+	 * dva dijela jednake veličine, pa se za svaki dio točno zna broj
+	 * elemenata. Spliterator vidi elemente koji su u kolekciji u trenutku
+	 * poziva metode, a kolekciju se za vrijeme korištenja spliteratora ne smije
+	 * mijenjati.
+	 *
+	 * @return spliterator elemenata kolekcije
+	 */
+	@Override
+	public Spliterator<Object> spliterator() {
+		return new ElementsSpliterator(elements, 0, size);
+	}
+
+	/**
+	 * Spliterator dijela polja elemenata.
+	 */
+	private static class ElementsSpliterator implements Spliterator<Object> {
+		/** Polje elemenata. */
+		private final Object[] elements;
+		/** Indeks sljedećeg elementa. */
+		private int index;
+		/** Indeks iza zadnjeg elementa. */
+		private final int fence;
+
+		/**
+		 * Konstruktor.
+		 *
+		 * @param elements
+		 *            polje elemenata
+		 * @param index
+		 *            indeks prvog elementa
+		 * @param fence
+		 *            indeks iza zadnjeg elementa
+		 */
+		public ElementsSpliterator(Object[] elements, int index, int fence) {
+			this.elements = elements;
+			this.index = index;
+			this.fence = fence;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Object> action) {
+			if (index >= fence) {
+				return false;
+			}
+			action.accept(elements[index++]);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super Object> action) {
+			for (int i = index; i < fence; i++) {
+				action.accept(elements[i]);
+			}
+			index = fence;
+		}
+
+		@Override
+		public Spliterator<Object> trySplit() {
+			int middle = (index + fence) >>> 1;
+			if (middle <= index) {
+				return null;
+			}
+			Spliterator<Object> prefix = new ElementsSpliterator(elements, index, middle);
+			index = middle;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - index;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+
 }
@@ -1,5 +1,14 @@
 package hr.fer.zemris.java.custom.collections;
 
+import java.lang.reflect.Array;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * Klasa koja sadrži metode za pohranu i upravljanje kolekcijom podataka. Nije
  * ju moguće instancirati, već ju je samo moguće naslijediti.
@@ -8,6 +17,11 @@ package hr.fer.zemris.java.custom.collections;
  *
  */
 public class Collection {
+	/**
+	 * Broj elemenata druge kolekcije od kojeg se pri uklanjanju elemenata
+	 * njeni elementi prvo pohranjuju u raspršenu tablicu.
+	 */
+	protected static final int HASHING_THRESHOLD = 16;
 
 	/**
 	 * Defaultni konstruktor. S obzirom da klasu nije moguće izravno
@@ -114,4 +128,161 @@ public class Collection {
 	public void clear() {
 
 	}
+
+	/**
+	 * Uklanja iz kolekcije sve elemente koji su sadržani u zadanoj kolekciji.
+	 *
+	 * @param other
+	 *            kolekcija čije je elemente potrebno ukloniti iz ove kolekcije
+	 * @return true ako je kolekcija promijenjena, inače false
+	 */
+	public boolean removeAll(Collection other) {
+		return batchRemove(other, false);
+	}
+
+	/**
+	 * Zadržava u kolekciji samo elemente koji su sadržani u zadanoj kolekciji,
+	 * a sve ostale uklanja.
+	 *
+	 * @param other
+	 *            kolekcija čije je elemente potrebno zadržati u ovoj kolekciji
+	 * @return true ako je kolekcija promijenjena, inače false
+	 */
+	public boolean retainAll(Collection other) {
+		return batchRemove(other, true);
+	}
+
+	/**
+	 * Uklanja iz kolekcije elemente koji jesu, odnosno nisu sadržani u zadanoj
+	 * kolekciji, čuvajući poredak preostalih elemenata. Ova implementacija
+	 * dohvaća polje elemenata, briše kolekciju i ponovno dodaje preostale
+	 * elemente, pa joj je složenost n + m, gdje je m veličina zadane kolekcije.
+	 *
+	 * @param other
+	 *            druga kolekcija
+	 * @param retain
+	 *            true ako je potrebno zadržati elemente koji su sadržani u
+	 *            drugoj kolekciji, false ako ih je potrebno ukloniti
+	 * @return true ako je kolekcija promijenjena, inače false
+	 */
+	protected boolean batchRemove(Collection other, boolean retain) {
+		Predicate<Object> member = membership(other);
+		Object[] array = toArray();
+		int kept = 0;
+		for (Object value : array) {
+			if (member.test(value) == retain) {
+				array[kept++] = value;
+			}
+		}
+		if (kept == array.length) {
+			return false;
+		}
+		clear();
+		for (int i = 0; i < kept; i++) {
+			add(array[i]);
+		}
+		return true;
+	}
+
+	/**
+	 * Vraća predikat koji provjerava je li objekt sadržan u zadanoj kolekciji.
+	 * Ako zadana kolekcija ima barem {@link #HASHING_THRESHOLD} elemenata,
+	 * njeni se elementi pohranjuju u raspršenu tablicu pa je složenost
+	 * provjere konstanta, uz pretpostavku da su metode equals i hashCode
+	 * elemenata usklađene. Inače se poziva metoda contains zadane kolekcije.
+	 *
+	 * @param other
+	 *            kolekcija
+	 * @return predikat koji provjerava je li objekt sadržan u kolekciji
+	 */
+	protected static Predicate<Object> membership(Collection other) {
+		if (other.size() < HASHING_THRESHOLD) {
+			return other::contains;
+		}
+		Set<Object> set = new HashSet<>(other.size() * 4 / 3 + 1);
+		other.forEach(new Processor() {
+			@Override
+			public void process(Object value) {
+				set.add(value);
+			}
+		});
+		return set::contains;
+	}
+
+	/**
+	 * Kopira elemente kolekcije u zadano polje ako je ono dovoljno veliko,
+	 * inače u novo polje istog tipa. Ako je zadano polje veće od kolekcije,
+	 * element polja koji slijedi nakon zadnjeg elementa kolekcije postavlja se
+	 * na null.
+	 *
+	 * @param <T>
+	 *            tip elemenata polja
+	 * @param array
+	 *            polje u koje je potrebno kopirati elemente
+	 * @return polje s elementima kolekcije
+	 * @throws ArrayStoreException
+	 *             ako neki element kolekcije nije moguće pohraniti u polje
+	 *             zadanog tipa
+	 */
+	public <T> T[] toArray(T[] array) {
+		Object[] elements = toArray();
+		return copyToArray(elements, elements.length, array);
+	}
+
+	/**
+	 * Kopira zadani broj elemenata iz polja elemenata u zadano polje ako je
+	 * ono dovoljno veliko, inače u novo polje istog tipa, kako je opisano u
+	 * metodi {@link #toArray(Object[])}.
+	 *
+	 * @param <T>
+	 *            tip elemenata polja
+	 * @param elements
+	 *            polje elemenata
+	 * @param size
+	 *            broj elemenata
+	 * @param array
+	 *            polje u koje je potrebno kopirati elemente
+	 * @return polje s elementima
+	 */
+	@SuppressWarnings("unchecked")
+	protected static <T> T[] copyToArray(Object[] elements, int size, T[] array) {
+		if (array.length < size) {
+			array = (T[]) Array.newInstance(array.getClass().getComponentType(), size);
+		}
+		System.arraycopy(elements, 0, array, 0, size);
+		if (array.length > size) {
+			array[size] = null;
+		}
+		return array;
+	}
+
+	/**
+	 * Vraća spliterator elemenata kolekcije. Ova implementacija dijeli polje
+	 * koje vraća metoda {@link #toArray()}, pa promjene kolekcije nakon poziva
+	 * metode ne utječu na spliterator.
+	 *
+	 * @return spliterator elemenata kolekcije
+	 */
+	public Spliterator<Object> spliterator() {
+		return Spliterators.spliterator(toArray(), Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+
+	/**
+	 * Vraća slijedni tok elemenata kolekcije.
+	 *
+	 * @return tok elemenata kolekcije
+	 */
+	public Stream<Object> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Vraća paralelni tok elemenata kolekcije. Kolekciju se za vrijeme
+	 * korištenja toka ne smije mijenjati.
+	 *
+	 * @return paralelni tok elemenata kolekcije
+	 */
+	public Stream<Object> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
 }
@@ -0,0 +1,382 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.Arrays;
+
+/**
+ * Klasa koja predstavlja polje kompleksnih brojeva fiksne duljine. Realni i
+ * imaginarni dijelovi brojeva pohranjeni su u dva zasebna polja tipa double,
+ * pa se operacije nad cijelim poljem izvode jednostavnim petljama nad
+ * susjednim elementima, bez stvaranja objekta za svaki broj, i JIT prevoditelj
+ * ih može vektorizirati. Za razliku od klase {@link ComplexNumber}, množenje,
+ * dijeljenje i potenciranje računaju se u algebarskom obliku, pa se rezultati
+ * mogu razlikovati u zadnjim znamenkama.
+ * <p>
+ * Svaka operacija postoji u dva oblika: jedan vraća novo polje s rezultatom,
+ * a drugi rezultat zapisuje u zadano polje, koje smije biti i jedan od
+ * operanada.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ */
+public class ComplexArray {
+	/** Realni dijelovi kompleksnih brojeva. */
+	private final double[] re;
+	/** Imaginarni dijelovi kompleksnih brojeva. */
+	private final double[] im;
+
+	/**
+	 * Konstruktor. Stvara polje zadane duljine čiji su svi elementi nula.
+	 *
+	 * @param length
+	 *            duljina polja
+	 */
+	public ComplexArray(int length) {
+		if (length < 0) {
+			throw new IllegalArgumentException("Duljina polja ne smije biti negativna.");
+		}
+		re = new double[length];
+		im = new double[length];
+	}
+
+	/**
+	 * Konstruktor. Prima realne i imaginarne dijelove brojeva, koje kopira.
+	 *
+	 * @param re
+	 *            realni dijelovi brojeva
+	 * @param im
+	 *            imaginarni dijelovi brojeva, polje iste duljine
+	 */
+	public ComplexArray(double[] re, double[] im) {
+		if (re == null || im == null) {
+			throw new IllegalArgumentException("Metoda ne prihvaća null kao argument");
+		}
+		if (re.length != im.length) {
+			throw new IllegalArgumentException("Polja realnih i imaginarnih dijelova trebaju biti iste duljine.");
+		}
+		this.re = re.clone();
+		this.im = im.clone();
+	}
+
+	/**
+	 * Metoda tvornica. Stvara polje sa zadanim kompleksnim brojevima.
+	 *
+	 * @param numbers
+	 *            kompleksni brojevi
+	 * @return polje sa zadanim brojevima
+	 */
+	public static ComplexArray fromNumbers(ComplexNumber... numbers) {
+		ComplexArray array = new ComplexArray(numbers.length);
+		for (int i = 0; i < numbers.length; i++) {
+			array.set(i, numbers[i]);
+		}
+		return array;
+	}
+
+	/**
+	 * Metoda tvornica. Parsira svaki od zadanih izraza kao kompleksan broj, na
+	 * način opisan u metodi {@link ComplexNumber#parse(String)}, te stvara
+	 * polje parsiranih brojeva.
+	 *
+	 * @param expressions
+	 *            izrazi koji predstavljaju stringovne zapise kompleksnih
+	 *            brojeva
+	 * @return polje parsiranih brojeva
+	 * @throws NumberFormatException
+	 *             ako neki od izraza nije ispravan, s indeksom tog izraza u
+	 *             poruci
+	 */
+	public static ComplexArray parse(String... expressions) throws NumberFormatException {
+		ComplexArray array = new ComplexArray(expressions.length);
+		for (int i = 0; i < expressions.length; i++) {
+			ComplexNumber number;
+			try {
+				number = ComplexNumber.parse(expressions[i]);
+			} catch (NumberFormatException ex) {
+				throw new NumberFormatException("Izraz s indeksom " + i + " nije ispravan: " + ex.getMessage());
+			}
+			array.re[i] = number.getReal();
+			array.im[i] = number.getImaginary();
+		}
+		return array;
+	}
+
+	/**
+	 * Vraća duljinu polja.
+	 *
+	 * @return duljina polja
+	 */
+	public int length() {
+		return re.length;
+	}
+
+	/**
+	 * Vraća realni dio broja sa zadanim indeksom.
+	 *
+	 * @param index
+	 *            indeks broja
+	 * @return realni dio broja
+	 */
+	public double getReal(int index) {
+		return re[index];
+	}
+
+	/**
+	 * Vraća imaginarni dio broja sa zadanim indeksom.
+	 *
+	 * @param index
+	 *            indeks broja
+	 * @return imaginarni dio broja
+	 */
+	public double getImaginary(int index) {
+		return im[index];
+	}
+
+	/**
+	 * Vraća broj sa zadanim indeksom.
+	 *
+	 * @param index
+	 *            indeks broja
+	 * @return kompleksni broj
+	 */
+	public ComplexNumber get(int index) {
+		return new ComplexNumber(re[index], im[index]);
+	}
+
+	/**
+	 * Postavlja broj sa zadanim indeksom.
+	 *
+	 * @param index
+	 *            indeks broja
+	 * @param number
+	 *            kompleksni broj
+	 */
+	public void set(int index, ComplexNumber number) {
+		if (number == null) {
+			throw new IllegalArgumentException("Metoda ne prihvaća null kao argument");
+		}
+		re[index] = number.getReal();
+		im[index] = number.getImaginary();
+	}
+
+	/**
+	 * Vraća brojeve ovog polja kao polje objekata.
+	 *
+	 * @return polje kompleksnih brojeva
+	 */
+	public ComplexNumber[] toNumbers() {
+		ComplexNumber[] numbers = new ComplexNumber[re.length];
+		for (int i = 0; i < numbers.length; i++) {
+			numbers[i] = get(i);
+		}
+		return numbers;
+	}
+
+	/**
+	 * Zbraja brojeve ovog i zadanog polja po elementima.
+	 *
+	 * @param other
+	 *            polje iste duljine
+	 * @return novo polje s rezultatom
+	 */
+	public ComplexArray add(ComplexArray other) {
+		return add(other, new ComplexArray(re.length));
+	}
+
+	/**
+	 * Zbraja brojeve ovog i zadanog polja po elementima i rezultat zapisuje u
+	 * zadano polje.
+	 *
+	 * @param other
+	 *            polje iste duljine
+	 * @param result
+	 *            polje iste duljine u koje se zapisuje rezultat
+	 * @return polje s rezultatom
+	 */
+	public ComplexArray add(ComplexArray other, ComplexArray result) {
+		checkLengths(other, result);
+		double[] are = re, aim = im, bre = other.re, bim = other.im, rre = result.re, rim = result.im;
+		for (int i = 0; i < are.length; i++) {
+			rre[i] = are[i] + bre[i];
+			rim[i] = aim[i] + bim[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Oduzima brojeve zadanog polja od brojeva ovog polja po elementima.
+	 *
+	 * @param other
+	 *            polje iste duljine
+	 * @return novo polje s rezultatom
+	 */
+	public ComplexArray sub(ComplexArray other) {
+		return sub(other, new ComplexArray(re.length));
+	}
+
+	/**
+	 * Oduzima brojeve zadanog polja od brojeva ovog polja po elementima i
+	 * rezultat zapisuje u zadano polje.
+	 *
+	 * @param other
+	 *            polje iste duljine
+	 * @param result
+	 *            polje iste duljine u koje se zapisuje rezultat
+	 * @return polje s rezultatom
+	 */
+	public ComplexArray sub(ComplexArray other, ComplexArray result) {
+		checkLengths(other, result);
+		double[] are = re, aim = im, bre = other.re, bim = other.im, rre = result.re, rim = result.im;
+		for (int i = 0; i < are.length; i++) {
+			rre[i] = are[i] - bre[i];
+			rim[i] = aim[i] - bim[i];
+		}
+		return result;
+	}
+
+	/**
+	 * Množi brojeve ovog i zadanog polja po elementima.
+	 *
+	 * @param other
+	 *            polje iste duljine
+	 * @return novo polje s rezultatom
+	 */
+	public ComplexArray mul(ComplexArray other) {
+		return mul(other, new ComplexArray(re.length));
+	}
+
+	/**
+	 * Množi brojeve ovog i zadanog polja po elementima i rezultat zapisuje u
+	 * zadano polje.
+	 *
+	 * @param other
+	 *            polje iste duljine
+	 * @param result
+	 *            polje iste duljine u koje se zapisuje rezultat
+	 * @return polje s rezultatom
+	 */
+	public ComplexArray mul(ComplexArray other, ComplexArray result) {
+		checkLengths(other, result);
+		double[] are = re, aim = im, bre = other.re, bim = other.im, rre = result.re, rim = result.im;
+		for (int i = 0; i < are.length; i++) {
+			double a = are[i], b = aim[i], c = bre[i], d = bim[i];
+			rre[i] = a * c - b * d;
+			rim[i] = a * d + b * c;
+		}
+		return result;
+	}
+
+	/**
+	 * Dijeli brojeve ovog polja brojevima zadanog polja po elementima. Ako je
+	 * neki od brojeva zadanog polja 0, baca se ArithmeticException.
+	 *
+	 * @param other
+	 *            polje iste duljine
+	 * @return novo polje s rezultatom
+	 */
+	public ComplexArray div(ComplexArray other) {
+		return div(other, new ComplexArray(re.length));
+	}
+
+	/**
+	 * Dijeli brojeve ovog polja brojevima zadanog polja po elementima i
+	 * rezultat zapisuje u zadano polje. Ako je neki od brojeva zadanog polja
+	 * 0, baca se ArithmeticException, a polje rezultata ostaje nepromijenjeno.
+	 *
+	 * @param other
+	 *            polje iste duljine
+	 * @param result
+	 *            polje iste duljine u koje se zapisuje rezultat
+	 * @return polje s rezultatom
+	 */
+	public ComplexArray div(ComplexArray other, ComplexArray result) {
+		checkLengths(other, result);
+		double[] are = re, aim = im, bre = other.re, bim = other.im, rre = result.re, rim = result.im;
+		for (int i = 0; i < bre.length; i++) {
+			if (bre[i] == 0 && bim[i] == 0) {
+				throw new ArithmeticException("Dijeljenje s nulom nije moguće.");
+			}
+		}
+		for (int i = 0; i < are.length; i++) {
+			double a = are[i], b = aim[i], c = bre[i], d = bim[i];
+			double scale = 1 / (c * c + d * d);
+			rre[i] = (a * c + b * d) * scale;
+			rim[i] = (b * c - a * d) * scale;
+		}
+		return result;
+	}
+
+	/**
+	 * Potencira brojeve ovog polja na zadanu potenciju. Dozvoljeni su
+	 * eksponenti veći ili jednaki 0.
+	 *
+	 * @param n
+	 *            eksponent potenciranja
+	 * @return novo polje s rezultatom
+	 */
+	public ComplexArray power(int n) {
+		return power(n, new ComplexArray(re.length));
+	}
+
+	/**
+	 * Potencira brojeve ovog polja na zadanu potenciju i rezultat zapisuje u
+	 * zadano polje. Dozvoljeni su eksponenti veći ili jednaki 0. Potencija se
+	 * računa uzastopnim kvadriranjem, pa je broj prolazaka kroz polje
+	 * logaritam eksponenta.
+	 *
+	 * @param n
+	 *            eksponent potenciranja
+	 * @param result
+	 *            polje iste duljine u koje se zapisuje rezultat
+	 * @return polje s rezultatom
+	 */
+	public ComplexArray power(int n, ComplexArray result) {
+		if (n < 0) {
+			throw new IllegalArgumentException("Eksponent treba biti >=0.");
+		}
+		checkLengths(this, result);
+
+		ComplexArray base = new ComplexArray(re, im);
+		Arrays.fill(result.re, 1);
+		Arrays.fill(result.im, 0);
+		while (n > 0) {
+			if ((n & 1) != 0) {
+				result.mul(base, result);
+			}
+			n >>>= 1;
+			if (n > 0) {
+				base.mul(base, base);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Provjerava jesu li zadana polja iste duljine kao ovo polje.
+	 *
+	 * @param other
+	 *            drugi operand
+	 * @param result
+	 *            polje rezultata
+	 */
+	private void checkLengths(ComplexArray other, ComplexArray result) {
+		if (other == null || result == null) {
+			throw new IllegalArgumentException("Metoda ne prihvaća null kao argument");
+		}
+		if (other.re.length != re.length || result.re.length != re.length) {
+			throw new IllegalArgumentException("Polja trebaju biti iste duljine.");
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("[");
+		for (int i = 0; i < re.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(get(i));
+		}
+		return sb.append("]").toString();
+	}
+}
@@ -0,0 +1,259 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.Arrays;
+
+/**
+ * Kolekcija decimalnih brojeva tipa double koja koristi polje primitivnih
+ * vrijednosti za pohranu podataka. Nudi iste metode kao
+ * {@link ArrayIndexedCollection}, ali elemente ne pakira u objekte tipa Double,
+ * pa element u polju zauzima 8 okteta umjesto reference na zaseban objekt, a
+ * dodavanje, dohvat i obilazak elemenata ne stvaraju nove objekte. Kolekcija
+ * dozvoljava pohranu duplikata. Vrijednosti se uspoređuju kao metodom
+ * {@link Double#equals(Object)}, pa je NaN jednak samom sebi, a 0.0 i -0.0 su
+ * različiti.
+ * <p>
+ * Budući da bi metode za uklanjanje elementa po indeksu i po vrijednosti imale
+ * isti potpis, element se po vrijednosti uklanja metodom
+ * {@link #removeValue(double)}.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ */
+public class DoubleArrayIndexedCollection {
+	/** Broj elemenata trenutno pohranjenih u kolekciji */
+	private int size;
+	/** Polje elemenata pohranjenih u kolekciji */
+	private double[] elements;
+	/** Početni defaultni kapacitet kolekcije */
+	private final static int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Defaultni konstruktor.
+	 */
+	public DoubleArrayIndexedCollection() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Konstruktor. Prima početni kapacitet kolekcije, odnosno broj mjesta koje
+	 * je početno potrebno alocirati za pohranu podataka.
+	 *
+	 * @param initialCapacity
+	 *            početni kapacitet kolekcije, odnosno broj mjesta koje je
+	 *            početno potrebno alocirati za pohranu podataka
+	 */
+	public DoubleArrayIndexedCollection(int initialCapacity) {
+		if (initialCapacity < 1) {
+			throw new IllegalArgumentException("Inicijalni kapacitet mora biti pozitivan broj.");
+		}
+		elements = new double[initialCapacity];
+	}
+
+	/**
+	 * Konstruktor. Prima kolekciju iz koje preuzima sve elemente.
+	 *
+	 * @param collection
+	 *            kolekcija iz koje se preuzimaju elementi
+	 */
+	public DoubleArrayIndexedCollection(DoubleArrayIndexedCollection collection) {
+		this(Math.max(collection.size(), 1));
+		addAll(collection);
+	}
+
+	/**
+	 * Vraća broj pohranjenih elemenata u kolekciji.
+	 *
+	 * @return broj pohranjenih elemenata u kolekciji
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Vraća true ako je kolekcija prazna, inače vraća false.
+	 *
+	 * @return true ako je kolekcija prazna, inače false
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Dodaje zadanu vrijednost u kolekciju. Prosječna složenost metode je
+	 * konstanta.
+	 *
+	 * @param value
+	 *            vrijednost koju je potrebno dodati u kolekciju
+	 */
+	public void add(double value) {
+		ensureCapacity(size + 1);
+		elements[size++] = value;
+	}
+
+	/**
+	 * Dodaje sve elemente iz zadane kolekcije u ovu kolekciju. Elementi se
+	 * kopiraju odjednom, bez obilaska kolekcije element po element.
+	 *
+	 * @param other
+	 *            kolekcija čije je elemente potrebno dodati u ovu kolekciju
+	 */
+	public void addAll(DoubleArrayIndexedCollection other) {
+		int otherSize = other.size;
+		ensureCapacity(size + otherSize);
+		System.arraycopy(other.elements, 0, elements, size, otherSize);
+		size += otherSize;
+	}
+
+	/**
+	 * Vraća true ako je zadana vrijednost sadržana u kolekciji. Inače vraća
+	 * false.
+	 *
+	 * @param value
+	 *            vrijednost čiju je prisutnost u kolekciji potrebno provjeriti
+	 * @return true ako je zadana vrijednost sadržana u kolekciji, inače false
+	 */
+	public boolean contains(double value) {
+		return indexOf(value) != -1;
+	}
+
+	/**
+	 * Vraća element sa zadanim indexom. Index mora biti u rasponu
+	 * [0,brojElemenata-1]. Ako zadani indeks nije u dozvoljenom rasponu, biti
+	 * će bačena iznimka IndexOutOfBoundsException. Složenost metode je
+	 * konstanta.
+	 *
+	 * @param index
+	 *            index elementa kojeg je potrebno dohvatiti, broj u rasponu [0,
+	 *            brojElemenata-1]
+	 * @return element sa zadanim indexom
+	 */
+	public double get(int index) {
+		if (index < 0 || index > size - 1) {
+			throw new IndexOutOfBoundsException();
+		}
+		return elements[index];
+	}
+
+	/**
+	 * Briše sve elemente iz kolekcije. Kapacitet kolekcije ostaje isti.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Umeće zadanu vrijednost na zadanu poziciju u kolekciji. Pozicija mora
+	 * biti u rasponu [0, brojElemenata]. Ako zadani indeks nije u dozvoljenom
+	 * rasponu, biti će bačena iznimka IndexOutOfBoundsException. Složenost
+	 * metode je n.
+	 *
+	 * @param value
+	 *            vrijednost koju je potrebno dodati u kolekciju
+	 * @param position
+	 *            pozicija na koju je potrebno dodati vrijednost, broj u rasponu
+	 *            [0, brojElemenata]
+	 */
+	public void insert(double value, int position) {
+		if (position < 0 || position > size) {
+			throw new IndexOutOfBoundsException(
+					"Pozicija elementa kojeg je potrebno umetnuti treba biti broj od 0 do trenutne veličine kolekcije.");
+		}
+
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, position, elements, position + 1, size - position);
+		elements[position] = value;
+		size++;
+	}
+
+	/**
+	 * Osigurava da kolekcija ima mjesta za barem zadani broj elemenata. Ako
+	 * mjesta nema dovoljno, kapacitet se poduplava, odnosno povećava na zadani
+	 * broj elemenata ako ni dvostruki kapacitet nije dovoljan.
+	 *
+	 * @param minCapacity
+	 *            najmanji potreban kapacitet
+	 */
+	private void ensureCapacity(int minCapacity) {
+		if (minCapacity > elements.length) {
+			elements = Arrays.copyOf(elements, Math.max(minCapacity, elements.length * 2));
+		}
+	}
+
+	/**
+	 * Vraća indeks prvog pojavljivanja zadane vrijednosti. Ako vrijednost nije
+	 * prisutna u kolekciji, metoda vraća -1. Prosječna složenost metode je n.
+	 *
+	 * @param value
+	 *            vrijednost čiji je index potrebno pronaći
+	 * @return indeks zadane vrijednosti ukoliko je vrijednost prisutna u
+	 *         kolekciji, inače -1
+	 */
+	public int indexOf(double value) {
+		long bits = Double.doubleToLongBits(value);
+		for (int i = 0; i < size; i++) {
+			if (Double.doubleToLongBits(elements[i]) == bits) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Uklanja prvo pojavljivanje zadane vrijednosti iz kolekcije. Ukoliko
+	 * vrijednost nije prisutna u kolekciji, metoda vraća false, a inače true.
+	 *
+	 * @param value
+	 *            vrijednost koju je potrebno ukloniti
+	 * @return true ako je vrijednost pronađena i uklonjena, false ako nije
+	 *         pronađena
+	 */
+	public boolean removeValue(double value) {
+		int index = indexOf(value);
+		if (index == -1) {
+			return false;
+		}
+		remove(index);
+		return true;
+	}
+
+	/**
+	 * Uklanja element sa zadanim indeksom iz kolekcije. Indeks treba biti broj
+	 * u rasponu [0, brojElemenata-1]. Ako zadani indeks nije u dozvoljenom
+	 * rasponu, biti će bačena iznimka IndexOutOfBoundsException.
+	 *
+	 * @param index
+	 *            indeks elementa kojeg je potrebno ukloniti, broj u rasponu [0,
+	 *            brojElemenata-1]
+	 */
+	public void remove(int index) {
+		if (index < 0 || index > size - 1) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+	}
+
+	/**
+	 * Vraća polje elemenata pohranjenih u kolekciji.
+	 *
+	 * @return polje elemenata pohranjenih u kolekciji
+	 */
+	public double[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+
+	/**
+	 * Procesira sve elemente kolekcije kroz dani procesor.
+	 *
+	 * @param processor
+	 *            procesor koji se koristi za procesiranje elemenata kolekcije
+	 */
+	public void forEach(DoubleProcessor processor) {
+		double[] elements = this.elements;
+		for (int i = 0, n = size; i < n; i++) {
+			processor.process(elements[i]);
+		}
+	}
+}
@@ -0,0 +1,23 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Klasa koja sadrži jednu metodu koja procesira primljeni decimalni broj.
+ * Koristi se za obilazak kolekcije {@link DoubleArrayIndexedCollection} bez
+ * pakiranja elemenata u objekte.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class DoubleProcessor {
+
+	/**
+	 * Metoda procesira primljenu vrijednost.
+	 *
+	 * @param value
+	 *            vrijednost koju je potrebno procesirati
+	 */
+	public void process(double value) {
+
+	}
+
+}
@@ -0,0 +1,23 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Klasa koja sadrži jednu metodu koja procesira primljeni cijeli broj. Koristi
+ * se za obilazak kolekcije {@link IntArrayIndexedCollection} bez pakiranja
+ * elemenata u objekte.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class IntProcessor {
+
+	/**
+	 * Metoda procesira primljenu vrijednost.
+	 *
+	 * @param value
+	 *            vrijednost koju je potrebno procesirati
+	 */
+	public void process(int value) {
+
+	}
+
+}
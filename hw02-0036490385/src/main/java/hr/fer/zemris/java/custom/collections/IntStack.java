@@ -0,0 +1,91 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Klasa koja predstavlja implementaciju stoga cijelih brojeva tipa int. Nudi
+ * iste metode kao {@link ObjectStack}, ali elemente pohranjuje u kolekciju
+ * {@link IntArrayIndexedCollection}, bez pakiranja u objekte.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class IntStack {
+	/**
+	 * Kolekcija u koju se pohranjuju elementi na stogu.
+	 */
+	private IntArrayIndexedCollection collection;
+
+	/**
+	 * Defaultni konstruktor.
+	 */
+	public IntStack() {
+		collection = new IntArrayIndexedCollection();
+	}
+
+	/**
+	 * Vraća true ako je stog prazan, odnosno ako nema niti jednog elementa
+	 * pohranjenog na stogu.
+	 *
+	 * @return true ako je stog prazan
+	 */
+	public boolean isEmpty() {
+		return collection.isEmpty();
+	}
+
+	/**
+	 * Vraća broj elemenata pohranjenih na stogu.
+	 *
+	 * @return broj elemenata pohranjenih na stogu
+	 */
+	public int size() {
+		return collection.size();
+	}
+
+	/**
+	 * Stavlja danu vrijednost na stog.
+	 *
+	 * @param value
+	 *            vrijednost koju je potrebno staviti na stog
+	 */
+	public void push(int value) {
+		collection.add(value);
+	}
+
+	/**
+	 * Skida zadnje pohranjeni element sa stoga te ga vraća kao rezultat metode.
+	 * Ako je stog prazan, baca se EmptyStackException.
+	 *
+	 * @return zadnje pohranjeni element na stogu
+	 */
+	public int pop() {
+		int size = collection.size();
+		if (size == 0) {
+			throw new EmptyStackException();
+		}
+
+		int element = collection.get(size - 1);
+		collection.remove(size - 1);
+		return element;
+	}
+
+	/**
+	 * Dohvaća zadnje pohranjeni element sa stoga, ali ga ne skida sa stoga. Ako
+	 * je stog prazan, baca se EmptyStackException.
+	 *
+	 * @return zadnje pohranjeni element na stogu
+	 */
+	public int peek() {
+		int size = collection.size();
+		if (size == 0) {
+			throw new EmptyStackException();
+		}
+		return collection.get(size - 1);
+	}
+
+	/**
+	 * Briše cjelokupni sadržaj stoga, odnosno sve pohranjene elemente.
+	 */
+	public void clear() {
+		collection.clear();
+	}
+
+}
@@ -143,8 +143,9 @@ public class LinkedListIndexedCollection extends Collection {
 		}
 		if (index == size - 1) {
 			last = node.previousEl;
+		} else {
+			node.nextEl.previousEl = node.previousEl;
 		}
-		node.nextEl.previousEl = node.previousEl;
 		size--;
 	}
 
@@ -252,6 +253,7 @@ public class LinkedListIndexedCollection extends Collection {
 		} else {
 			newNode.previousEl.nextEl = newNode;
 		}
+		node.previousEl = newNode;
 		size++;
 	}
 
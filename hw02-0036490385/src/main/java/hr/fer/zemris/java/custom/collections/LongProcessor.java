@@ -0,0 +1,23 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Klasa koja sadrži jednu metodu koja procesira primljeni cijeli broj. Koristi
+ * se za obilazak kolekcije {@link LongArrayIndexedCollection} bez pakiranja
+ * elemenata u objekte.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class LongProcessor {
+
+	/**
+	 * Metoda procesira primljenu vrijednost.
+	 *
+	 * @param value
+	 *            vrijednost koju je potrebno procesirati
+	 */
+	public void process(long value) {
+
+	}
+
+}
@@ -0,0 +1,373 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.Arrays;
+
+/**
+ * Kolekcija koja koristi razmotanu (engl. unrolled) dvostruko povezanu listu
+ * za pohranu podataka: svaki atom liste umjesto jednog elementa sadrži polje
+ * od najviše zadanog broja elemenata. Nudi iste metode kao
+ * {@link LinkedListIndexedCollection}, ali dohvat elementa po indeksu preskače
+ * cijele atome, pa mu je složenost n/B umjesto n, gdje je B kapacitet atoma,
+ * umetanje u sredinu liste pomiče samo elemente jednog atoma, a obilazak
+ * kolekcije čita elemente iz polja, uz B puta manje atoma nego u obične liste.
+ * Kolekcija dozvoljava pohranu duplikata, ali null vrijednosti nisu dozvoljene
+ * te metode u pokušaju dodavanja null bacaju iznimku IllegalArgumentException.
+ * <p>
+ * Kada se pun atom puni dalje, dijeli se na dva atoma napola popunjena, a kada
+ * atom nakon uklanjanja elementa ostane popunjen manje od četvrtine, spaja se
+ * sa sljedećim atomom ako svi elementi stanu u jedan atom.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ */
+public class UnrolledLinkedListIndexedCollection extends Collection {
+	/** Defaultni kapacitet atoma liste. */
+	private static final int DEFAULT_NODE_CAPACITY = 64;
+
+	/** Broj elemenata trenutno pohranjenih u kolekciju. */
+	private int size;
+	/** Kapacitet atoma liste. */
+	private final int nodeCapacity;
+	/** Referenca na prvi atom liste. */
+	private Node first;
+	/** Referenca na zadnji atom liste. */
+	private Node last;
+	/** Pozicija elementa unutar atoma kojeg je vratila metoda findNode. */
+	private int foundOffset;
+
+	/**
+	 * Pomoćna statička klasa koja predstavlja atom liste. Sadrži reference na
+	 * lijevi i desni atom te polje elemenata kolekcije pohranjenih u atomu.
+	 */
+	private static class Node {
+		/** Referenca na prethodni atom u listi ili null. */
+		private Node previous;
+		/** Referenca na sljedeći atom u listi ili null. */
+		private Node next;
+		/** Elementi pohranjeni u atomu. */
+		private Object[] elements;
+		/** Broj elemenata pohranjenih u atomu. */
+		private int count;
+
+		/**
+		 * Konstruktor. Stvara prazan atom zadanog kapaciteta.
+		 *
+		 * @param capacity
+		 *            kapacitet atoma
+		 */
+		public Node(int capacity) {
+			elements = new Object[capacity];
+		}
+	}
+
+	/** Defaultni konstruktor. Inicijalizira praznu listu. */
+	public UnrolledLinkedListIndexedCollection() {
+		this(DEFAULT_NODE_CAPACITY);
+	}
+
+	/**
+	 * Konstruktor. Inicijalizira praznu listu čiji atomi sadrže najviše zadani
+	 * broj elemenata.
+	 *
+	 * @param nodeCapacity
+	 *            kapacitet atoma, barem 2
+	 */
+	public UnrolledLinkedListIndexedCollection(int nodeCapacity) {
+		if (nodeCapacity < 2) {
+			throw new IllegalArgumentException("Kapacitet atoma mora biti barem 2.");
+		}
+		this.nodeCapacity = nodeCapacity;
+	}
+
+	/**
+	 * Konstruktor. Prima referencu na drugu kolekciju iz koje preuzima sve
+	 * pohranjene vrijednosti.
+	 *
+	 * @param collection
+	 *            kolekcija iz koje se preuzimaju pohranjene vrijednosti
+	 */
+	public UnrolledLinkedListIndexedCollection(Collection collection) {
+		this(DEFAULT_NODE_CAPACITY);
+		if (collection == null) {
+			throw new IllegalArgumentException("Argument null nije prihvatljiv.");
+		}
+		addAll(collection);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Dodaje zadani objekt na kraj kolekcije. Složenost metode je konstanta.
+	 * Atomi koji nastaju dodavanjem na kraj popunjeni su do kraja.
+	 *
+	 * @param value
+	 *            objekt koji je potrebno dodati u kolekciju
+	 */
+	@Override
+	public void add(Object value) {
+		if (value == null) {
+			throw new IllegalArgumentException("Kolekcija ne podržava pohranu null vrijednosti.");
+		}
+
+		if (last == null || last.count == nodeCapacity) {
+			linkAfter(last, new Node(nodeCapacity));
+		}
+		last.elements[last.count++] = value;
+		size++;
+	}
+
+	/**
+	 * Umeće zadani objekt na zadanu poziciju u kolekciji. Pozicija mora biti u
+	 * rasponu [0, brojElemenata]. Ako zadani indeks nije u dozvoljenom rasponu,
+	 * biti će bačena iznimka IndexOutOfBoundsException. Složenost metode je
+	 * n/B + B, gdje je B kapacitet atoma.
+	 *
+	 * @param value
+	 *            objekt koji je potrebno dodati u kolekciju
+	 * @param position
+	 *            pozicija na koju je potrebno dodati objekt, broj u rasponu [0,
+	 *            brojElemenata]
+	 */
+	public void insert(Object value, int position) {
+		if (value == null) {
+			throw new IllegalArgumentException("Kolekcija ne podržava pohranu null vrijednosti.");
+		}
+		if (position < 0 || position > size) {
+			throw new IndexOutOfBoundsException(
+					"Pozicija elementa kojeg je potrebno umetnuti treba biti broj od 0 do trenutne veličine kolekcije.");
+		}
+		if (position == size) {
+			add(value);
+			return;
+		}
+
+		Node node = findNode(position);
+		int offset = foundOffset;
+
+		if (node.count == nodeCapacity) {
+			Node half = split(node);
+			if (offset > node.count) {
+				offset -= node.count;
+				node = half;
+			}
+		}
+		System.arraycopy(node.elements, offset, node.elements, offset + 1, node.count - offset);
+		node.elements[offset] = value;
+		node.count++;
+		size++;
+	}
+
+	/**
+	 * Dijeli zadani atom na dva atoma: druga polovica elemenata premješta se u
+	 * novi atom koji se umeće iza zadanog.
+	 *
+	 * @param node
+	 *            atom koji je potrebno podijeliti
+	 * @return novi atom
+	 */
+	private Node split(Node node) {
+		Node half = new Node(nodeCapacity);
+		int moved = node.count / 2;
+		int kept = node.count - moved;
+		System.arraycopy(node.elements, kept, half.elements, 0, moved);
+		Arrays.fill(node.elements, kept, node.count, null);
+		half.count = moved;
+		node.count = kept;
+		linkAfter(node, half);
+		return half;
+	}
+
+	/**
+	 * Povezuje novi atom u listu iza zadanog atoma, odnosno na početak liste
+	 * ako je zadani atom null.
+	 *
+	 * @param node
+	 *            atom iza kojeg se umeće novi atom ili null
+	 * @param newNode
+	 *            novi atom
+	 */
+	private void linkAfter(Node node, Node newNode) {
+		newNode.previous = node;
+		newNode.next = node == null ? first : node.next;
+		if (newNode.next == null) {
+			last = newNode;
+		} else {
+			newNode.next.previous = newNode;
+		}
+		if (node == null) {
+			first = newNode;
+		} else {
+			node.next = newNode;
+		}
+	}
+
+	/**
+	 * Izbacuje zadani atom iz liste.
+	 *
+	 * @param node
+	 *            atom koji je potrebno izbaciti
+	 */
+	private void unlink(Node node) {
+		if (node.previous == null) {
+			first = node.next;
+		} else {
+			node.previous.next = node.next;
+		}
+		if (node.next == null) {
+			last = node.previous;
+		} else {
+			node.next.previous = node.previous;
+		}
+	}
+
+	@Override
+	public boolean contains(Object value) {
+		return indexOf(value) != -1;
+	}
+
+	@Override
+	public boolean remove(Object value) {
+		int index = indexOf(value);
+		if (index == -1) {
+			return false;
+		}
+		remove(index);
+		return true;
+	}
+
+	/**
+	 * Uklanja element sa zadanim indeksom iz kolekcije. Indeks treba biti broj
+	 * u rasponu [0, brojElemenata-1]. Ako zadani indeks nije u dozvoljenom
+	 * rasponu, biti će bačena iznimka IndexOutOfBoundsException. Složenost
+	 * metode je n/B + B, gdje je B kapacitet atoma.
+	 *
+	 * @param index
+	 *            indeks elementa kojeg je potrebno ukloniti, broj u rasponu [0,
+	 *            brojElemenata-1]
+	 */
+	public void remove(int index) {
+		if (index < 0 || index > size - 1) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		Node node = findNode(index);
+		int offset = foundOffset;
+		node.count--;
+		System.arraycopy(node.elements, offset + 1, node.elements, offset, node.count - offset);
+		node.elements[node.count] = null;
+		size--;
+
+		if (node.count == 0) {
+			unlink(node);
+		} else if (node.count < nodeCapacity / 4 && node.next != null
+				&& node.count + node.next.count <= nodeCapacity) {
+			Node next = node.next;
+			System.arraycopy(next.elements, 0, node.elements, node.count, next.count);
+			node.count += next.count;
+			unlink(next);
+		}
+	}
+
+	/**
+	 * Pronalazi atom koji sadrži element sa zadanim indeksom, krećući od bližeg
+	 * kraja liste, a poziciju elementa unutar atoma sprema u
+	 * {@link #foundOffset}.
+	 *
+	 * @param index
+	 *            indeks elementa, broj u rasponu [0, brojElemenata-1]
+	 * @return atom koji sadrži element
+	 */
+	private Node findNode(int index) {
+		Node node;
+		if (index < size / 2) {
+			node = first;
+			while (index >= node.count) {
+				index -= node.count;
+				node = node.next;
+			}
+		} else {
+			node = last;
+			index = size - 1 - index;
+			while (index >= node.count) {
+				index -= node.count;
+				node = node.previous;
+			}
+			index = node.count - 1 - index;
+		}
+		foundOffset = index;
+		return node;
+	}
+
+	/**
+	 * Vraća objekt sa zadanim indexom. Index mora biti u rasponu
+	 * [0,brojElemenata-1]. Ako zadani indeks nije u dozvoljenom rasponu, biti
+	 * će bačena iznimka IndexOutOfBoundsException. Složenost metode je n/B,
+	 * gdje je B kapacitet atoma.
+	 *
+	 * @param index
+	 *            index objekta kojeg je potrebno dohvatiti, broj u rasponu [0,
+	 *            brojElemenata-1]
+	 * @return objekt sa zadanim indexom
+	 */
+	public Object get(int index) {
+		if (index < 0 || index > size - 1) {
+			throw new IndexOutOfBoundsException();
+		}
+		Node node = findNode(index);
+		return node.elements[foundOffset];
+	}
+
+	/**
+	 * Vraća indeks zadanog objekta. Ako objekt nije prisutan u kolekciji,
+	 * metoda vraća -1. Prosječna složenost metode je n.
+	 *
+	 * @param value
+	 *            objekt čiji je index potrebno pronaći
+	 * @return indeks zadanog objekta ukoliko je objekt prisutan u kolekciji,
+	 *         inače -1
+	 */
+	public int indexOf(Object value) {
+		int index = 0;
+		for (Node node = first; node != null; node = node.next) {
+			for (int i = 0; i < node.count; i++) {
+				if (node.elements[i].equals(value)) {
+					return index + i;
+				}
+			}
+			index += node.count;
+		}
+		return -1;
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] array = new Object[size];
+		int index = 0;
+		for (Node node = first; node != null; node = node.next) {
+			System.arraycopy(node.elements, 0, array, index, node.count);
+			index += node.count;
+		}
+		return array;
+	}
+
+	@Override
+	public void forEach(Processor processor) {
+		for (Node node = first; node != null; node = node.next) {
+			Object[] elements = node.elements;
+			for (int i = 0, n = node.count; i < n; i++) {
+				processor.process(elements[i]);
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		first = null;
+		last = null;
+		size = 0;
+	}
+}
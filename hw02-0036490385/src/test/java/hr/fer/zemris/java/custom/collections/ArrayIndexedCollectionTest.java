@@ -1,6 +1,8 @@
 package hr.fer.zemris.java.custom.collections;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import org.junit.Test;
@@ -305,4 +307,148 @@ public class ArrayIndexedCollectionTest {
 		assertEquals(255, col2.get(1));
 		assertEquals("San Francisco", col2.get(2));
 	}
+
+	@Test
+	public void addAllGrowsOnce() {
+		ArrayIndexedCollection col = new ArrayIndexedCollection(2);
+		col.add("A");
+		ArrayIndexedCollection other = new ArrayIndexedCollection();
+		for (int i = 0; i < 100; i++) {
+			other.add(i);
+		}
+		col.addAll(other);
+		col.addAll(col);
+		assertEquals(202, col.size());
+		assertEquals("A", col.get(0));
+		assertEquals(99, col.get(100));
+		assertEquals("A", col.get(101));
+		assertEquals(99, col.get(201));
+	}
+
+	@Test
+	public void removeAllAndRetainAll() {
+		ArrayIndexedCollection col = new ArrayIndexedCollection();
+		ArrayIndexedCollection even = new ArrayIndexedCollection();
+		for (int i = 0; i < 100; i++) {
+			col.add(i);
+			if (i % 2 == 0) {
+				even.add(i);
+			}
+		}
+		ArrayIndexedCollection copy = new ArrayIndexedCollection(col);
+		assertEquals(true, col.removeAll(even));
+		assertEquals(false, col.removeAll(even));
+		assertEquals(50, col.size());
+		assertEquals(1, col.get(0));
+		assertEquals(99, col.get(49));
+
+		ArrayIndexedCollection small = new ArrayIndexedCollection();
+		small.add(7);
+		small.add(3);
+		assertEquals(true, copy.retainAll(small));
+		assertArrayEquals(new Object[] { 3, 7 }, copy.toArray());
+	}
+
+	@Test
+	public void toArrayIntoGivenArray() {
+		ArrayIndexedCollection col = new ArrayIndexedCollection();
+		col.add("A");
+		col.add("B");
+		String[] large = { "x", "x", "x", "x" };
+		assertSame(large, col.toArray(large));
+		assertArrayEquals(new String[] { "A", "B", null, "x" }, large);
+		String[] copy = col.toArray(new String[0]);
+		assertArrayEquals(new String[] { "A", "B" }, copy);
+	}
+
+	@Test
+	public void parallelStream() {
+		ArrayIndexedCollection col = new ArrayIndexedCollection();
+		for (int i = 1; i <= 10000; i++) {
+			col.add(i);
+		}
+		assertEquals(10000, col.spliterator().getExactSizeIfKnown());
+		long sum = col.parallelStream().mapToLong(value -> (Integer) value).sum();
+		assertEquals(50005000L, sum);
+		assertEquals(10000, col.parallelStream().count());
+	}
+
+	@Test
+	public void growthFactor() {
+		ArrayIndexedCollection col = new ArrayIndexedCollection(10, 1.5, false);
+		for (int i = 0; i < 11; i++) {
+			col.add(i);
+		}
+		assertEquals(15, col.getCapacity());
+
+		ArrayIndexedCollection doubling = new ArrayIndexedCollection(4);
+		for (int i = 0; i < 5; i++) {
+			doubling.add(i);
+		}
+		assertEquals(8, doubling.getCapacity());
+	}
+
+	@Test
+	public void invalidGrowthFactor() {
+		try {
+			new ArrayIndexedCollection(10, 1, false);
+			fail();
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void ensureCapacityAndTrimToSize() {
+		ArrayIndexedCollection col = new ArrayIndexedCollection(2);
+		col.ensureCapacity(1000);
+		assertEquals(1000, col.getCapacity());
+		col.add("A");
+		col.add("B");
+		col.trimToSize();
+		assertEquals(2, col.getCapacity());
+		col.add("C");
+		assertEquals(4, col.getCapacity());
+		assertArrayEquals(new Object[] { "A", "B", "C" }, col.toArray());
+
+		ArrayIndexedCollection empty = new ArrayIndexedCollection(new ArrayIndexedCollection());
+		empty.add("A");
+		assertEquals("A", empty.get(0));
+	}
+
+	@Test
+	public void autoShrinkWithHysteresis() {
+		ArrayIndexedCollection col = new ArrayIndexedCollection(16, 2, true);
+		for (int i = 0; i < 1024; i++) {
+			col.add(i);
+		}
+		assertEquals(1024, col.getCapacity());
+		while (col.size() > 256) {
+			col.remove(col.size() - 1);
+		}
+		assertEquals(1024, col.getCapacity());
+		col.remove(col.size() - 1);
+		assertEquals(255, col.size());
+		assertEquals(510, col.getCapacity());
+		// nakon smanjivanja polje se ne mijenja dok se broj elemenata znatno
+		// ne promijeni
+		col.add(-1);
+		col.remove(col.size() - 1);
+		assertEquals(510, col.getCapacity());
+		assertEquals(254, col.get(254));
+
+		col.clear();
+		assertEquals(16, col.getCapacity());
+	}
+
+	@Test
+	public void noShrinkByDefault() {
+		ArrayIndexedCollection col = new ArrayIndexedCollection();
+		for (int i = 0; i < 1000; i++) {
+			col.add(i);
+		}
+		int capacity = col.getCapacity();
+		col.clear();
+		assertEquals(capacity, col.getCapacity());
+		assertEquals(0, col.size());
+	}
 }
@@ -0,0 +1,106 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ComplexArrayTest {
+	private static ComplexNumber[] randomNumbers(Random random, int length) {
+		ComplexNumber[] numbers = new ComplexNumber[length];
+		for (int i = 0; i < length; i++) {
+			numbers[i] = new ComplexNumber(random.nextDouble() * 4 - 2, random.nextDouble() * 4 - 2);
+		}
+		return numbers;
+	}
+
+	private static void assertNumbers(ComplexNumber[] expected, ComplexArray actual) {
+		assertEquals(expected.length, actual.length());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i].getReal(), actual.getReal(i), 1e-9);
+			assertEquals(expected[i].getImaginary(), actual.getImaginary(i), 1e-9);
+		}
+	}
+
+	@Test
+	public void sameResultsAsComplexNumber() {
+		Random random = new Random(42);
+		ComplexNumber[] a = randomNumbers(random, 100);
+		ComplexNumber[] b = randomNumbers(random, 100);
+		ComplexArray arrayA = ComplexArray.fromNumbers(a);
+		ComplexArray arrayB = ComplexArray.fromNumbers(b);
+
+		ComplexNumber[] sum = new ComplexNumber[a.length];
+		ComplexNumber[] difference = new ComplexNumber[a.length];
+		ComplexNumber[] product = new ComplexNumber[a.length];
+		ComplexNumber[] quotient = new ComplexNumber[a.length];
+		ComplexNumber[] power = new ComplexNumber[a.length];
+		for (int i = 0; i < a.length; i++) {
+			sum[i] = a[i].add(b[i]);
+			difference[i] = a[i].sub(b[i]);
+			product[i] = a[i].mul(b[i]);
+			quotient[i] = a[i].div(b[i]);
+			power[i] = a[i].power(7);
+		}
+		assertNumbers(sum, arrayA.add(arrayB));
+		assertNumbers(difference, arrayA.sub(arrayB));
+		assertNumbers(product, arrayA.mul(arrayB));
+		assertNumbers(quotient, arrayA.div(arrayB));
+		assertNumbers(power, arrayA.power(7));
+		assertNumbers(a, arrayA);
+	}
+
+	@Test
+	public void resultIntoOperand() {
+		ComplexArray array = ComplexArray.parse("1+i", "2", "-3i");
+		assertSame(array, array.mul(array, array));
+		assertNumbers(new ComplexNumber[] { new ComplexNumber(0, 2), new ComplexNumber(4, 0),
+				new ComplexNumber(-9, 0) }, array);
+		assertSame(array, array.power(2, array));
+		assertEquals(-4, array.getReal(0), 1e-9);
+		assertEquals(81, array.getReal(2), 1e-9);
+	}
+
+	@Test
+	public void powerZero() {
+		ComplexArray array = ComplexArray.parse("0", "5-2i").power(0);
+		assertEquals(1, array.getReal(0), 0);
+		assertEquals(1, array.getReal(1), 0);
+		assertEquals(0, array.getImaginary(1), 0);
+	}
+
+	@Test
+	public void divisionByZero() {
+		ComplexArray a = ComplexArray.parse("1", "2");
+		ComplexArray b = ComplexArray.parse("1", "0");
+		ComplexArray result = new ComplexArray(2);
+		try {
+			a.div(b, result);
+			fail();
+		} catch (ArithmeticException ex) {
+		}
+		assertEquals(0, result.getReal(0), 0);
+	}
+
+	@Test
+	public void differentLengths() {
+		try {
+			new ComplexArray(2).add(new ComplexArray(3));
+			fail();
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void parseInvalidExpression() {
+		try {
+			ComplexArray.parse("1", "15k+i");
+			fail();
+		} catch (NumberFormatException ex) {
+			assertEquals(true, ex.getMessage().contains("1"));
+		}
+	}
+}
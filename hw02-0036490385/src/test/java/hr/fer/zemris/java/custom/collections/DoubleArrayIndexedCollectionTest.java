@@ -0,0 +1,30 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class DoubleArrayIndexedCollectionTest {
+
+	@Test
+	public void comparingLikeDoubleEquals() {
+		DoubleArrayIndexedCollection col = new DoubleArrayIndexedCollection();
+		col.add(1.5);
+		col.add(Double.NaN);
+		col.add(0.0);
+		assertEquals(0, col.indexOf(1.5));
+		assertEquals(1, col.indexOf(Double.NaN));
+		assertEquals(2, col.indexOf(0.0));
+		assertEquals(-1, col.indexOf(-0.0));
+	}
+
+	@Test
+	public void removingValue() {
+		DoubleArrayIndexedCollection col = new DoubleArrayIndexedCollection();
+		col.add(1.5);
+		col.add(2.5);
+		assertEquals(true, col.removeValue(1.5));
+		assertEquals(1, col.size());
+		assertEquals(2.5, col.get(0), 0);
+	}
+}
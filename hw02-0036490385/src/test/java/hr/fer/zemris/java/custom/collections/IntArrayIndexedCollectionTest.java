@@ -0,0 +1,127 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class IntArrayIndexedCollectionTest {
+
+	@Test
+	public void addingManyValues() {
+		IntArrayIndexedCollection col = new IntArrayIndexedCollection(1);
+		for (int i = 0; i < 1000; i++) {
+			col.add(i * 3);
+		}
+		assertEquals(1000, col.size());
+		assertEquals(0, col.get(0));
+		assertEquals(2997, col.get(999));
+	}
+
+	@Test
+	public void gettingOutOfBounds() {
+		IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+		col.add(1);
+		try {
+			col.get(1);
+			fail();
+		} catch (IndexOutOfBoundsException ex) {
+		}
+	}
+
+	@Test
+	public void illegalCapacity() {
+		try {
+			new IntArrayIndexedCollection(0);
+			fail();
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void insertingAndRemoving() {
+		IntArrayIndexedCollection col = new IntArrayIndexedCollection(2);
+		col.add(1);
+		col.add(3);
+		col.insert(2, 1);
+		col.insert(0, 0);
+		col.insert(4, 4);
+		assertArrayEquals(new int[] { 0, 1, 2, 3, 4 }, col.toArray());
+
+		col.remove(0);
+		assertEquals(true, col.removeValue(3));
+		assertEquals(false, col.removeValue(3));
+		assertArrayEquals(new int[] { 1, 2, 4 }, col.toArray());
+	}
+
+	@Test
+	public void insertingOutOfBounds() {
+		IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+		try {
+			col.insert(1, 1);
+			fail();
+		} catch (IndexOutOfBoundsException ex) {
+		}
+	}
+
+	@Test
+	public void indexOfAndContains() {
+		IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+		col.add(5);
+		col.add(7);
+		col.add(5);
+		assertEquals(0, col.indexOf(5));
+		assertEquals(1, col.indexOf(7));
+		assertEquals(-1, col.indexOf(6));
+		assertEquals(true, col.contains(7));
+		assertEquals(false, col.contains(6));
+	}
+
+	@Test
+	public void addingAll() {
+		IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+		col.add(1);
+		IntArrayIndexedCollection other = new IntArrayIndexedCollection();
+		for (int i = 2; i <= 100; i++) {
+			other.add(i);
+		}
+		col.addAll(other);
+		assertEquals(100, col.size());
+		assertEquals(100, col.get(99));
+
+		IntArrayIndexedCollection copy = new IntArrayIndexedCollection(col);
+		assertArrayEquals(col.toArray(), copy.toArray());
+		assertEquals(0, new IntArrayIndexedCollection(new IntArrayIndexedCollection()).size());
+	}
+
+	@Test
+	public void processingAllElements() {
+		IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+		for (int i = 1; i <= 100; i++) {
+			col.add(i);
+		}
+
+		class SumProcessor extends IntProcessor {
+			long sum;
+
+			@Override
+			public void process(int value) {
+				sum += value;
+			}
+		}
+		SumProcessor processor = new SumProcessor();
+		col.forEach(processor);
+		assertEquals(5050, processor.sum);
+	}
+
+	@Test
+	public void clearing() {
+		IntArrayIndexedCollection col = new IntArrayIndexedCollection();
+		col.add(1);
+		col.clear();
+		assertEquals(true, col.isEmpty());
+		col.add(2);
+		assertEquals(2, col.get(0));
+	}
+}
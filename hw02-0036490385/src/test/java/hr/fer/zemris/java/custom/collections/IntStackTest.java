@@ -0,0 +1,45 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class IntStackTest {
+
+	@Test
+	public void pushAndPop() {
+		IntStack stack = new IntStack();
+		for (int i = 0; i < 100; i++) {
+			stack.push(i);
+		}
+		assertEquals(100, stack.size());
+		assertEquals(99, stack.peek());
+		for (int i = 99; i >= 0; i--) {
+			assertEquals(i, stack.pop());
+		}
+		assertEquals(true, stack.isEmpty());
+	}
+
+	@Test
+	public void popFromEmptyStack() {
+		IntStack stack = new IntStack();
+		try {
+			stack.pop();
+			fail();
+		} catch (EmptyStackException ex) {
+		}
+	}
+
+	@Test
+	public void peekOnEmptyStack() {
+		DoubleStack stack = new DoubleStack();
+		stack.push(1.5);
+		stack.clear();
+		try {
+			stack.peek();
+			fail();
+		} catch (EmptyStackException ex) {
+		}
+	}
+}
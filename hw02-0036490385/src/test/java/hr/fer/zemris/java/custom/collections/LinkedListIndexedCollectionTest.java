@@ -304,4 +304,42 @@ public class LinkedListIndexedCollectionTest {
 		assertEquals(255, col2.get(1));
 		assertEquals("San Francisco", col2.get(2));
 	}
+
+	@Test
+	public void removingLastElement() {
+		LinkedListIndexedCollection col = new LinkedListIndexedCollection();
+		col.add(1);
+		col.add(2);
+		col.remove(1);
+		col.add(3);
+		assertEquals(2, col.size());
+		assertEquals(3, col.get(1));
+	}
+
+	@Test
+	public void insertThenGetFromEnd() {
+		LinkedListIndexedCollection col = new LinkedListIndexedCollection();
+		col.add(1);
+		col.add(3);
+		col.insert(2, 1);
+		assertEquals(2, col.get(1));
+		col.remove(2);
+		assertEquals(2, col.get(1));
+	}
+
+	@Test
+	public void removeAllKeepsOrder() {
+		LinkedListIndexedCollection col = new LinkedListIndexedCollection();
+		ArrayIndexedCollection removed = new ArrayIndexedCollection();
+		for (int i = 0; i < 40; i++) {
+			col.add(i);
+			if (i >= 3) {
+				removed.add(i);
+			}
+		}
+		assertEquals(true, col.removeAll(removed));
+		assertEquals(3, col.size());
+		assertEquals(2, col.get(2));
+		assertEquals(3, col.stream().count());
+	}
 }
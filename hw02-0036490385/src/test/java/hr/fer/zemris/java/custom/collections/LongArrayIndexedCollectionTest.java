@@ -0,0 +1,20 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LongArrayIndexedCollectionTest {
+
+	@Test
+	public void storingLargeValues() {
+		LongArrayIndexedCollection col = new LongArrayIndexedCollection();
+		col.add(Long.MAX_VALUE);
+		col.add(Long.MIN_VALUE);
+		col.insert(1L << 40, 1);
+		assertArrayEquals(new long[] { Long.MAX_VALUE, 1L << 40, Long.MIN_VALUE }, col.toArray());
+		assertEquals(2, col.indexOf(Long.MIN_VALUE));
+		assertEquals(-1, col.indexOf(1L << 41));
+	}
+}
@@ -0,0 +1,137 @@
+package hr.fer.zemris.java.custom.collections;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class UnrolledLinkedListIndexedCollectionTest {
+	@Test
+	public void addingManyValues() {
+		UnrolledLinkedListIndexedCollection col = new UnrolledLinkedListIndexedCollection(4);
+		for (int i = 0; i < 1000; i++) {
+			col.add(i);
+		}
+		assertEquals(1000, col.size());
+		for (int i = 0; i < 1000; i++) {
+			assertEquals(i, col.get(i));
+		}
+	}
+
+	@Test
+	public void addingNull() {
+		UnrolledLinkedListIndexedCollection col = new UnrolledLinkedListIndexedCollection();
+		try {
+			col.add(null);
+			fail();
+		} catch (IllegalArgumentException ex) {
+		}
+		try {
+			col.insert(null, 0);
+			fail();
+		} catch (IllegalArgumentException ex) {
+		}
+	}
+
+	@Test
+	public void insertIntoFullNode() {
+		UnrolledLinkedListIndexedCollection col = new UnrolledLinkedListIndexedCollection(4);
+		for (int i = 0; i < 4; i++) {
+			col.add(i);
+		}
+		col.insert("A", 0);
+		col.insert("B", 3);
+		col.insert("C", 6);
+		assertArrayEquals(new Object[] { "A", 0, 1, "B", 2, 3, "C" }, col.toArray());
+	}
+
+	@Test
+	public void removingAllElements() {
+		UnrolledLinkedListIndexedCollection col = new UnrolledLinkedListIndexedCollection(4);
+		for (int i = 0; i < 20; i++) {
+			col.add(i);
+		}
+		for (int i = 0; i < 10; i++) {
+			col.remove(0);
+			col.remove(col.size() - 1);
+		}
+		assertEquals(0, col.size());
+		assertArrayEquals(new Object[0], col.toArray());
+		col.add(5);
+		assertEquals(5, col.get(0));
+	}
+
+	@Test
+	public void removingByValue() {
+		UnrolledLinkedListIndexedCollection col = new UnrolledLinkedListIndexedCollection();
+		col.add("A");
+		col.add("B");
+		col.add("A");
+		assertEquals(true, col.remove("A"));
+		assertEquals(false, col.contains("C"));
+		assertEquals(1, col.indexOf("A"));
+		assertArrayEquals(new Object[] { "B", "A" }, col.toArray());
+	}
+
+	@Test
+	public void invalidIndex() {
+		UnrolledLinkedListIndexedCollection col = new UnrolledLinkedListIndexedCollection();
+		col.add(1);
+		try {
+			col.get(1);
+			fail();
+		} catch (IndexOutOfBoundsException ex) {
+		}
+		try {
+			col.insert(2, 2);
+			fail();
+		} catch (IndexOutOfBoundsException ex) {
+		}
+		try {
+			col.remove(-1);
+			fail();
+		} catch (IndexOutOfBoundsException ex) {
+		}
+	}
+
+	@Test
+	public void sameResultsAsArrayList() {
+		Random random = new Random(42);
+		UnrolledLinkedListIndexedCollection col = new UnrolledLinkedListIndexedCollection(8);
+		List<Object> expected = new ArrayList<>();
+		for (int step = 0; step < 20000; step++) {
+			int operation = random.nextInt(4);
+			if (operation == 0 || expected.isEmpty()) {
+				int position = random.nextInt(expected.size() + 1);
+				col.insert(step, position);
+				expected.add(position, step);
+			} else if (operation == 1) {
+				col.add(step);
+				expected.add(step);
+			} else if (operation == 2) {
+				int index = random.nextInt(expected.size());
+				col.remove(index);
+				expected.remove(index);
+			} else {
+				int index = random.nextInt(expected.size());
+				assertEquals(expected.get(index), col.get(index));
+			}
+			assertEquals(expected.size(), col.size());
+		}
+		assertArrayEquals(expected.toArray(), col.toArray());
+
+		List<Object> processed = new ArrayList<>();
+		col.forEach(new Processor() {
+			@Override
+			public void process(Object value) {
+				processed.add(value);
+			}
+		});
+		assertEquals(expected, processed);
+	}
+}
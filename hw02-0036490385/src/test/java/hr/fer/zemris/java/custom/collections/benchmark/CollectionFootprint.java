@@ -0,0 +1,121 @@
+package hr.fer.zemris.java.custom.collections.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import hr.fer.zemris.java.custom.collections.ArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.DoubleArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.IntArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.LongArrayIndexedCollection;
+
+/**
+ * Ispisuje memoriju koju zauzima kolekcija napunjena zadanim brojem elemenata,
+ * po elementu, uključujući i objekte u koje su elementi zapakirani. Memorija
+ * se mjeri kao razlika zauzete memorije nakon skupljanja smeća prije i nakon
+ * punjenja kolekcije. Svaka kolekcija mjeri se u zasebnom JVM-u kako ostaci
+ * prethodnog mjerenja ne bi utjecali na rezultat.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class CollectionFootprint {
+	/** Nazivi kolekcija koje se mjere. **/
+	private static final String[] COLLECTIONS = { "objects", "ints", "longs", "doubles" };
+
+	/** Kolekcija koja se mjeri, dohvatljiva sve do kraja mjerenja. **/
+	private static Object collection;
+
+	/**
+	 * Metoda koja se poziva prilikom pokretanja programa.
+	 *
+	 * @param args
+	 *            opcionalno broj elemenata, zadano deset milijuna, te naziv
+	 *            jedne kolekcije koju je potrebno izmjeriti u ovom JVM-u
+	 * @throws IOException
+	 *             ako nije moguće pokrenuti JVM
+	 * @throws InterruptedException
+	 *             ako je dretva prekinuta dok čeka JVM
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+		if (args.length > 1) {
+			measure(args[1], size);
+			return;
+		}
+
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		for (String name : COLLECTIONS) {
+			new ProcessBuilder(java, "-Xms4g", "-Xmx4g", "-cp", System.getProperty("java.class.path"),
+					CollectionFootprint.class.getName(), Integer.toString(size), name).inheritIO().start().waitFor();
+		}
+	}
+
+	/**
+	 * Mjeri i ispisuje memoriju koju zauzima zadana kolekcija.
+	 *
+	 * @param name
+	 *            naziv kolekcije
+	 * @param size
+	 *            broj elemenata
+	 */
+	private static void measure(String name, int size) {
+		long before = usedMemory();
+		collection = fill(name, size);
+		long after = usedMemory();
+		System.out.printf("%-8s %6.1f okteta po elementu%n", name, (double) (after - before) / size);
+		collection = null;
+	}
+
+	/**
+	 * Stvara zadanu kolekciju i puni ju brojevima od 0 do broja elemenata.
+	 *
+	 * @param name
+	 *            naziv kolekcije
+	 * @param size
+	 *            broj elemenata
+	 * @return napunjena kolekcija
+	 */
+	private static Object fill(String name, int size) {
+		switch (name) {
+		case "objects":
+			ArrayIndexedCollection objects = new ArrayIndexedCollection();
+			for (int i = 0; i < size; i++) {
+				objects.add(i);
+			}
+			return objects;
+		case "ints":
+			IntArrayIndexedCollection ints = new IntArrayIndexedCollection();
+			for (int i = 0; i < size; i++) {
+				ints.add(i);
+			}
+			return ints;
+		case "longs":
+			LongArrayIndexedCollection longs = new LongArrayIndexedCollection();
+			for (int i = 0; i < size; i++) {
+				longs.add(i);
+			}
+			return longs;
+		case "doubles":
+			DoubleArrayIndexedCollection doubles = new DoubleArrayIndexedCollection();
+			for (int i = 0; i < size; i++) {
+				doubles.add(i);
+			}
+			return doubles;
+		default:
+			throw new IllegalArgumentException("Nepoznata kolekcija: " + name);
+		}
+	}
+
+	/**
+	 * Vraća zauzetu memoriju nakon skupljanja smeća.
+	 *
+	 * @return zauzeta memorija u oktetima
+	 */
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,193 @@
+package hr.fer.zemris.java.custom.collections.benchmark;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.custom.collections.ComplexArray;
+import hr.fer.zemris.java.custom.collections.ComplexNumber;
+
+/**
+ * Uspoređuje operacije nad poljem objekata {@link ComplexNumber} s istim
+ * operacijama nad poljem {@link ComplexArray}: zbrajanje, množenje, dijeljenje
+ * i potenciranje po elementima te parsiranje polja izraza. Operacije nad
+ * poljem ComplexArray zapisuju rezultat u unaprijed stvoreno polje.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ComplexArrayBenchmark {
+	/** Broj kompleksnih brojeva. **/
+	@Param({ "100000" })
+	public int size;
+
+	/** Prvi operand kao polje objekata. **/
+	private ComplexNumber[] numbersA;
+	/** Drugi operand kao polje objekata. **/
+	private ComplexNumber[] numbersB;
+	/** Polje objekata u koje se zapisuje rezultat. **/
+	private ComplexNumber[] numbersResult;
+	/** Prvi operand. **/
+	private ComplexArray arrayA;
+	/** Drugi operand. **/
+	private ComplexArray arrayB;
+	/** Polje u koje se zapisuje rezultat. **/
+	private ComplexArray arrayResult;
+	/** Izrazi koji se parsiraju. **/
+	private String[] expressions;
+
+	/**
+	 * Stvara operande sa slučajnim brojevima.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		numbersA = new ComplexNumber[size];
+		numbersB = new ComplexNumber[size];
+		numbersResult = new ComplexNumber[size];
+		expressions = new String[size];
+		for (int i = 0; i < size; i++) {
+			numbersA[i] = new ComplexNumber(random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1);
+			numbersB[i] = new ComplexNumber(random.nextDouble() * 2 - 1, random.nextDouble() * 2 - 1);
+			expressions[i] = String.format(Locale.ROOT, "%.6f%+.6fi", numbersA[i].getReal(),
+					numbersA[i].getImaginary());
+		}
+		arrayA = ComplexArray.fromNumbers(numbersA);
+		arrayB = ComplexArray.fromNumbers(numbersB);
+		arrayResult = new ComplexArray(size);
+	}
+
+	/**
+	 * Zbraja polja objekata.
+	 *
+	 * @return polje rezultata
+	 */
+	@Benchmark
+	public ComplexNumber[] addNumbers() {
+		for (int i = 0; i < size; i++) {
+			numbersResult[i] = numbersA[i].add(numbersB[i]);
+		}
+		return numbersResult;
+	}
+
+	/**
+	 * Zbraja polja ComplexArray.
+	 *
+	 * @return polje rezultata
+	 */
+	@Benchmark
+	public ComplexArray addArray() {
+		return arrayA.add(arrayB, arrayResult);
+	}
+
+	/**
+	 * Množi polja objekata.
+	 *
+	 * @return polje rezultata
+	 */
+	@Benchmark
+	public ComplexNumber[] mulNumbers() {
+		for (int i = 0; i < size; i++) {
+			numbersResult[i] = numbersA[i].mul(numbersB[i]);
+		}
+		return numbersResult;
+	}
+
+	/**
+	 * Množi polja ComplexArray.
+	 *
+	 * @return polje rezultata
+	 */
+	@Benchmark
+	public ComplexArray mulArray() {
+		return arrayA.mul(arrayB, arrayResult);
+	}
+
+	/**
+	 * Dijeli polja objekata.
+	 *
+	 * @return polje rezultata
+	 */
+	@Benchmark
+	public ComplexNumber[] divNumbers() {
+		for (int i = 0; i < size; i++) {
+			numbersResult[i] = numbersA[i].div(numbersB[i]);
+		}
+		return numbersResult;
+	}
+
+	/**
+	 * Dijeli polja ComplexArray.
+	 *
+	 * @return polje rezultata
+	 */
+	@Benchmark
+	public ComplexArray divArray() {
+		return arrayA.div(arrayB, arrayResult);
+	}
+
+	/**
+	 * Potencira polje objekata na petu potenciju.
+	 *
+	 * @return polje rezultata
+	 */
+	@Benchmark
+	public ComplexNumber[] powerNumbers() {
+		for (int i = 0; i < size; i++) {
+			numbersResult[i] = numbersA[i].power(5);
+		}
+		return numbersResult;
+	}
+
+	/**
+	 * Potencira polje ComplexArray na petu potenciju.
+	 *
+	 * @return polje rezultata
+	 */
+	@Benchmark
+	public ComplexArray powerArray() {
+		return arrayA.power(5, arrayResult);
+	}
+
+	/**
+	 * Parsira izraze u polje objekata.
+	 *
+	 * @return polje parsiranih brojeva
+	 */
+	@Benchmark
+	public ComplexNumber[] parseNumbers() {
+		ComplexNumber[] numbers = new ComplexNumber[size];
+		for (int i = 0; i < size; i++) {
+			numbers[i] = ComplexNumber.parse(expressions[i]);
+		}
+		return numbers;
+	}
+
+	/**
+	 * Parsira izraze u polje ComplexArray.
+	 *
+	 * @return polje parsiranih brojeva
+	 */
+	@Benchmark
+	public ComplexArray parseArray() {
+		return ComplexArray.parse(expressions);
+	}
+}
@@ -0,0 +1,117 @@
+package hr.fer.zemris.java.custom.collections.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import hr.fer.zemris.java.custom.collections.ArrayIndexedCollection;
+
+/**
+ * Ispisuje memoriju koju zadrži kolekcija {@link ArrayIndexedCollection}
+ * nakon što je napunjena zadanim brojem elemenata, a zatim je iz nje uklonjeno
+ * sve osim jednog posto elemenata. Mjeri se kolekcija koja se ne smanjuje,
+ * kolekcija nad kojom se nakon uklanjanja pozove metoda trimToSize te
+ * kolekcije koje se automatski smanjuju, s faktorom rasta 2 i 1,5. Uz
+ * zadržanu memoriju ispisuje se i kapacitet kolekcije te trajanje punjenja i
+ * uklanjanja. Memorija se mjeri kao razlika zauzete memorije nakon skupljanja
+ * smeća prije punjenja i nakon uklanjanja, a svaka kolekcija mjeri se u
+ * zasebnom JVM-u.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class GrowthPolicyFootprint {
+	/** Nazivi kolekcija koje se mjere. **/
+	private static final String[] POLICIES = { "default", "trimToSize", "autoShrink", "autoShrink1.5" };
+
+	/** Kolekcija koja se mjeri, dohvatljiva sve do kraja mjerenja. **/
+	private static ArrayIndexedCollection collection;
+
+	/**
+	 * Metoda koja se poziva prilikom pokretanja programa.
+	 *
+	 * @param args
+	 *            opcionalno najveći broj elemenata, zadano deset milijuna, te
+	 *            naziv jedne kolekcije koju je potrebno izmjeriti u ovom JVM-u
+	 * @throws IOException
+	 *             ako nije moguće pokrenuti JVM
+	 * @throws InterruptedException
+	 *             ako je dretva prekinuta dok čeka JVM
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+		if (args.length > 1) {
+			measure(args[1], size);
+			return;
+		}
+
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		for (String name : POLICIES) {
+			new ProcessBuilder(java, "-Xms4g", "-Xmx4g", "-cp", System.getProperty("java.class.path"),
+					GrowthPolicyFootprint.class.getName(), Integer.toString(size), name).inheritIO().start()
+					.waitFor();
+		}
+	}
+
+	/**
+	 * Puni i prazni zadanu kolekciju te ispisuje memoriju koju ona zadrži.
+	 *
+	 * @param name
+	 *            naziv kolekcije
+	 * @param size
+	 *            najveći broj elemenata
+	 */
+	private static void measure(String name, int size) {
+		long before = usedMemory();
+		long start = System.nanoTime();
+		collection = create(name);
+		for (int i = 0; i < size; i++) {
+			collection.add(i);
+		}
+		while (collection.size() > size / 100) {
+			collection.remove(collection.size() - 1);
+		}
+		if (name.equals("trimToSize")) {
+			collection.trimToSize();
+		}
+		long elapsed = System.nanoTime() - start;
+		long after = usedMemory();
+
+		System.out.printf("%-14s %8.1f MB zadržano, kapacitet %9d, %6d ms%n", name, (after - before) / 1e6,
+				collection.getCapacity(), elapsed / 1_000_000);
+		collection = null;
+	}
+
+	/**
+	 * Stvara praznu kolekciju zadanog naziva.
+	 *
+	 * @param name
+	 *            naziv kolekcije
+	 * @return prazna kolekcija
+	 */
+	private static ArrayIndexedCollection create(String name) {
+		switch (name) {
+		case "default":
+		case "trimToSize":
+			return new ArrayIndexedCollection();
+		case "autoShrink":
+			return new ArrayIndexedCollection(16, 2, true);
+		case "autoShrink1.5":
+			return new ArrayIndexedCollection(16, 1.5, true);
+		default:
+			throw new IllegalArgumentException("Nepoznata kolekcija: " + name);
+		}
+	}
+
+	/**
+	 * Vraća zauzetu memoriju nakon skupljanja smeća.
+	 *
+	 * @return zauzeta memorija u oktetima
+	 */
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
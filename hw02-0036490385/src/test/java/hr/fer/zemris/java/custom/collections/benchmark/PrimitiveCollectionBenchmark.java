@@ -0,0 +1,203 @@
+package hr.fer.zemris.java.custom.collections.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.custom.collections.ArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.IntArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.IntProcessor;
+import hr.fer.zemris.java.custom.collections.IntStack;
+import hr.fer.zemris.java.custom.collections.ObjectStack;
+import hr.fer.zemris.java.custom.collections.Processor;
+
+/**
+ * Uspoređuje kolekciju {@link IntArrayIndexedCollection} i stog
+ * {@link IntStack} s kolekcijom {@link ArrayIndexedCollection} i stogom
+ * {@link ObjectStack} koji pohranjuju brojeve tipa Integer: punjenje kolekcije
+ * zadanim brojem elemenata, zbrajanje svih elemenata obilaskom procesorom i
+ * dohvatom po indeksu te stavljanje svih elemenata na stog i njihovo skidanje.
+ * Memoriju koju alocira punjenje ispisuje GC profiler, a memoriju koju
+ * napunjena kolekcija zauzima ispisuje {@link CollectionFootprint}.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PrimitiveCollectionBenchmark {
+	/** Broj elemenata. **/
+	@Param({ "10000000" })
+	public int size;
+
+	/** Napunjena kolekcija objekata. **/
+	private ArrayIndexedCollection objects;
+	/** Napunjena kolekcija primitivnih vrijednosti. **/
+	private IntArrayIndexedCollection ints;
+
+	/**
+	 * Procesor koji zbraja vrijednosti objekata tipa Integer.
+	 */
+	private static class ObjectSum extends Processor {
+		/** Zbroj. **/
+		long sum;
+
+		@Override
+		public void process(Object value) {
+			sum += (Integer) value;
+		}
+	}
+
+	/**
+	 * Procesor koji zbraja vrijednosti tipa int.
+	 */
+	private static class IntSum extends IntProcessor {
+		/** Zbroj. **/
+		long sum;
+
+		@Override
+		public void process(int value) {
+			sum += value;
+		}
+	}
+
+	/**
+	 * Puni kolekcije.
+	 */
+	@Setup
+	public void setup() {
+		objects = fillObjects();
+		ints = fillInts();
+	}
+
+	/**
+	 * Puni kolekciju objekata brojevima od 0 do broja elemenata.
+	 *
+	 * @return napunjena kolekcija
+	 */
+	@Benchmark
+	public ArrayIndexedCollection fillObjects() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection();
+		for (int i = 0; i < size; i++) {
+			collection.add(i);
+		}
+		return collection;
+	}
+
+	/**
+	 * Puni kolekciju primitivnih vrijednosti brojevima od 0 do broja
+	 * elemenata.
+	 *
+	 * @return napunjena kolekcija
+	 */
+	@Benchmark
+	public IntArrayIndexedCollection fillInts() {
+		IntArrayIndexedCollection collection = new IntArrayIndexedCollection();
+		for (int i = 0; i < size; i++) {
+			collection.add(i);
+		}
+		return collection;
+	}
+
+	/**
+	 * Zbraja elemente kolekcije objekata procesorom.
+	 *
+	 * @return zbroj
+	 */
+	@Benchmark
+	public long forEachObjects() {
+		ObjectSum sum = new ObjectSum();
+		objects.forEach(sum);
+		return sum.sum;
+	}
+
+	/**
+	 * Zbraja elemente kolekcije primitivnih vrijednosti procesorom.
+	 *
+	 * @return zbroj
+	 */
+	@Benchmark
+	public long forEachInts() {
+		IntSum sum = new IntSum();
+		ints.forEach(sum);
+		return sum.sum;
+	}
+
+	/**
+	 * Zbraja elemente kolekcije objekata dohvatom po indeksu.
+	 *
+	 * @return zbroj
+	 */
+	@Benchmark
+	public long getObjects() {
+		long sum = 0;
+		for (int i = 0, n = objects.size(); i < n; i++) {
+			sum += (Integer) objects.get(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Zbraja elemente kolekcije primitivnih vrijednosti dohvatom po indeksu.
+	 *
+	 * @return zbroj
+	 */
+	@Benchmark
+	public long getInts() {
+		long sum = 0;
+		for (int i = 0, n = ints.size(); i < n; i++) {
+			sum += ints.get(i);
+		}
+		return sum;
+	}
+
+	/**
+	 * Stavlja sve brojeve na stog objekata i skida ih sa stoga.
+	 *
+	 * @return zbroj skinutih brojeva
+	 */
+	@Benchmark
+	public long objectStack() {
+		ObjectStack stack = new ObjectStack();
+		for (int i = 0; i < size; i++) {
+			stack.push(i);
+		}
+		long sum = 0;
+		while (!stack.isEmpty()) {
+			sum += (Integer) stack.pop();
+		}
+		return sum;
+	}
+
+	/**
+	 * Stavlja sve brojeve na stog primitivnih vrijednosti i skida ih sa stoga.
+	 *
+	 * @return zbroj skinutih brojeva
+	 */
+	@Benchmark
+	public long intStack() {
+		IntStack stack = new IntStack();
+		for (int i = 0; i < size; i++) {
+			stack.push(i);
+		}
+		long sum = 0;
+		while (!stack.isEmpty()) {
+			sum += stack.pop();
+		}
+		return sum;
+	}
+}
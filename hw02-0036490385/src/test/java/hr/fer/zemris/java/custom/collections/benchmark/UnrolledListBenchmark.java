@@ -0,0 +1,229 @@
+package hr.fer.zemris.java.custom.collections.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.custom.collections.Collection;
+import hr.fer.zemris.java.custom.collections.LinkedListIndexedCollection;
+import hr.fer.zemris.java.custom.collections.Processor;
+import hr.fer.zemris.java.custom.collections.UnrolledLinkedListIndexedCollection;
+
+/**
+ * Uspoređuje kolekciju {@link LinkedListIndexedCollection} s kolekcijom
+ * {@link UnrolledLinkedListIndexedCollection}: punjenje kolekcije zadanim
+ * brojem elemenata i obilazak procesorom mjere se u milisekundama, a dohvat
+ * po slučajnom indeksu te umetanje na slučajnu poziciju i uklanjanje s nje u
+ * mikrosekundama po operaciji.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class UnrolledListBenchmark {
+	/** Broj slučajnih indeksa koji se ciklički koriste. **/
+	private static final int INDICES = 1024;
+
+	/** Broj elemenata. **/
+	@Param({ "1000000" })
+	public int size;
+
+	/** Implementacija liste: linked ili unrolled. **/
+	@Param({ "linked", "unrolled" })
+	public String impl;
+
+	/** Napunjena lista. **/
+	private IndexedList list;
+	/** Slučajni indeksi elemenata. **/
+	private int[] indices;
+	/** Redni broj sljedećeg indeksa. **/
+	private int next;
+
+	/**
+	 * Sučelje koje objedinjuje metode obje liste, koje nisu dio razreda
+	 * {@link Collection}.
+	 */
+	private interface IndexedList {
+		/**
+		 * Vraća kolekciju.
+		 *
+		 * @return kolekcija
+		 */
+		Collection collection();
+
+		/**
+		 * Vraća element sa zadanim indeksom.
+		 *
+		 * @param index
+		 *            indeks
+		 * @return element
+		 */
+		Object get(int index);
+
+		/**
+		 * Umeće element na zadanu poziciju.
+		 *
+		 * @param value
+		 *            element
+		 * @param position
+		 *            pozicija
+		 */
+		void insert(Object value, int position);
+
+		/**
+		 * Uklanja element sa zadanim indeksom.
+		 *
+		 * @param index
+		 *            indeks
+		 */
+		void remove(int index);
+	}
+
+	/**
+	 * Procesor koji zbraja vrijednosti objekata tipa Integer.
+	 */
+	private static class Sum extends Processor {
+		/** Zbroj. **/
+		long sum;
+
+		@Override
+		public void process(Object value) {
+			sum += (Integer) value;
+		}
+	}
+
+	/**
+	 * Puni listu i generira slučajne indekse.
+	 */
+	@Setup
+	public void setup() {
+		list = fill();
+		Random random = new Random(42);
+		indices = new int[INDICES];
+		for (int i = 0; i < INDICES; i++) {
+			indices[i] = random.nextInt(size);
+		}
+	}
+
+	/**
+	 * Stvara praznu listu odabrane implementacije.
+	 *
+	 * @return prazna lista
+	 */
+	private IndexedList create() {
+		if (impl.equals("linked")) {
+			LinkedListIndexedCollection col = new LinkedListIndexedCollection();
+			return new IndexedList() {
+				public Collection collection() {
+					return col;
+				}
+
+				public Object get(int index) {
+					return col.get(index);
+				}
+
+				public void insert(Object value, int position) {
+					col.insert(value, position);
+				}
+
+				public void remove(int index) {
+					col.remove(index);
+				}
+			};
+		}
+		UnrolledLinkedListIndexedCollection col = new UnrolledLinkedListIndexedCollection();
+		return new IndexedList() {
+			public Collection collection() {
+				return col;
+			}
+
+			public Object get(int index) {
+				return col.get(index);
+			}
+
+			public void insert(Object value, int position) {
+				col.insert(value, position);
+			}
+
+			public void remove(int index) {
+				col.remove(index);
+			}
+		};
+	}
+
+	/**
+	 * Vraća sljedeći slučajni indeks.
+	 *
+	 * @return indeks
+	 */
+	private int nextIndex() {
+		return indices[next++ & (INDICES - 1)];
+	}
+
+	/**
+	 * Puni listu brojevima od 0 do broja elemenata.
+	 *
+	 * @return napunjena lista
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public IndexedList fill() {
+		IndexedList filled = create();
+		Collection col = filled.collection();
+		for (int i = 0; i < size; i++) {
+			col.add(i);
+		}
+		return filled;
+	}
+
+	/**
+	 * Zbraja elemente liste procesorom.
+	 *
+	 * @return zbroj
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public long forEach() {
+		Sum sum = new Sum();
+		list.collection().forEach(sum);
+		return sum.sum;
+	}
+
+	/**
+	 * Dohvaća element sa slučajnim indeksom.
+	 *
+	 * @return element
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public Object get() {
+		return list.get(nextIndex());
+	}
+
+	/**
+	 * Umeće element na slučajnu poziciju i uklanja ga, tako da veličina liste
+	 * ostaje ista.
+	 */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	public void insertRemove() {
+		int position = nextIndex();
+		list.insert(-1, position);
+		list.remove(position);
+	}
+}
@@ -0,0 +1,77 @@
+package hr.fer.zemris.java.custom.scripting.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Dokumenti nad kojima se izvode mjerenja. Osim primjera iz mape examples,
+ * podržana su i dva umjetno generirana dokumenta:
+ * <ul>
+ * <li><code>large</code> - dokument veličine oko 1 MB s puno teksta i
+ * kratkih tagova,</li>
+ * <li><code>loops</code> - manji dokument s ugniježđenim petljama.</li>
+ * </ul>
+ * Mjerenja je potrebno pokretati iz korijenske mape projekta.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class BenchmarkDocuments {
+	/**
+	 * Vraća sadržaj dokumenta sa zadanim imenom.
+	 *
+	 * @param name
+	 *            ime primjera iz mape examples (bez ekstenzije) ili
+	 *            <code>large</code> ili <code>loops</code>
+	 * @return sadržaj dokumenta
+	 */
+	public static String get(String name) {
+		switch (name) {
+		case "large":
+			return generateLarge(1024);
+		case "loops":
+			return generateLoops(200, 50);
+		default:
+			try {
+				return new String(Files.readAllBytes(Paths.get("examples", name + ".txt")),
+						StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Generira dokument s puno teksta zadane približne veličine.
+	 *
+	 * @param kilobytes
+	 *            približna veličina dokumenta u kilobajtima
+	 * @return generirani dokument
+	 */
+	public static String generateLarge(int kilobytes) {
+		StringBuilder sb = new StringBuilder(kilobytes * 1024 + 256);
+		for (int i = 0; sb.length() < kilobytes * 1024; i++) {
+			sb.append("Line ").append(i).append(" of a generated report with some static text in it.\n");
+			sb.append("Total: {$= \"sum\" 1 2 + $}, value {$= 3.5 2 * \"0.00\" @decfmt $}\n");
+			sb.append("{$FOR j 1 3 1$} item {$= j $}{$END$}\n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Generira dokument s dvije ugniježđene petlje.
+	 *
+	 * @param outer
+	 *            broj iteracija vanjske petlje
+	 * @param inner
+	 *            broj iteracija unutarnje petlje
+	 * @return generirani dokument
+	 */
+	public static String generateLoops(int outer, int inner) {
+		return "{$FOR i 1 " + outer + " 1$}{$FOR j 1 " + inner + " 1$}{$= i j * \" \" $}{$END$}\n{$END$}";
+	}
+
+}
@@ -0,0 +1,590 @@
+package hr.fer.zemris.java.hw04.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class represents a collection which stores keys and their associated
+ * values in a hash table and which can be used by multiple threads at the same
+ * time. It provides the same methods as {@link SimpleHashtable}.
+ * <p>
+ * The slots of the table are divided into stripes, and every stripe has its
+ * own lock, so threads which change entries in different stripes do not wait
+ * for each other. A key is always in the same stripe, whatever the capacity
+ * of the table. Getting a value takes no lock: the table, the links between
+ * the entries and the values are published through volatile writes, and an
+ * entry which is removed keeps its link to the next entry, so a thread which
+ * is reading a chain never loses its way. When the table becomes too dense,
+ * all the locks are taken and the entries are copied into a table of double
+ * capacity, which is then published; threads which are still reading the old
+ * table see the old entries.
+ * </p>
+ * <p>
+ * Iterators are weakly consistent: they never throw
+ * {@link java.util.ConcurrentModificationException} and return every key at
+ * most once. Changes made while iterating may or may not be seen; once the
+ * table has been resized, the iterator keeps walking the old table and sees
+ * no more changes.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ * @param <K>
+ *            key type
+ * @param <V>
+ *            value type
+ */
+public class ConcurrentSimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntry<K, V>> {
+	/**
+	 * If table capacity is not specified, it is set to this default value.
+	 */
+	private static final int DEFAULT_TABLE_CAPACITY = 16;
+	/**
+	 * If the number of stripes is not specified, it is set to this default
+	 * value.
+	 */
+	private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+	/**
+	 * If the density of the table reaches this level of density, the capacity
+	 * of the table is doubled.
+	 */
+	private static final double MAX_DENSITY = 0.75;
+	/**
+	 * Distance between the counters of two stripes in the array of counters,
+	 * so that no two counters share a cache line.
+	 */
+	private static final int COUNTER_SPACING = 16;
+
+	/**
+	 * Hash table.
+	 */
+	private volatile AtomicReferenceArray<Node<K, V>> table;
+	/**
+	 * Locks of the stripes.
+	 */
+	private final ReentrantLock[] locks;
+	/**
+	 * Number of entries in every stripe, at indexes which are multiples of
+	 * {@link #COUNTER_SPACING}.
+	 */
+	private final AtomicIntegerArray counts;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity
+	 *            number of slots in the collection's hash table
+	 * @param concurrencyLevel
+	 *            the expected number of threads which change the collection
+	 *            at the same time, used as the number of stripes
+	 */
+	public ConcurrentSimpleHashtable(int capacity, int concurrencyLevel) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("A capacity can not be lower than 1. Given value: " + capacity);
+		}
+		if (concurrencyLevel < 1) {
+			throw new IllegalArgumentException(
+					"A concurrency level can not be lower than 1. Given value: " + concurrencyLevel);
+		}
+
+		int stripes;
+		for (stripes = 1; stripes < concurrencyLevel; stripes *= 2) {
+		}
+		int c;
+		for (c = stripes; c < capacity; c *= 2) {
+		}
+
+		table = new AtomicReferenceArray<>(c);
+		locks = new ReentrantLock[stripes];
+		for (int i = 0; i < stripes; i++) {
+			locks[i] = new ReentrantLock();
+		}
+		counts = new AtomicIntegerArray(stripes * COUNTER_SPACING);
+	}
+
+	/**
+	 * Constructor. Generates a hash table with the default concurrency level.
+	 *
+	 * @param capacity
+	 *            number of slots in the collection's hash table
+	 */
+	public ConcurrentSimpleHashtable(int capacity) {
+		this(capacity, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Default constructor. Generates a hash table with default capacity and
+	 * the default concurrency level.
+	 *
+	 */
+	public ConcurrentSimpleHashtable() {
+		this(DEFAULT_TABLE_CAPACITY, DEFAULT_CONCURRENCY_LEVEL);
+	}
+
+	/**
+	 * Calculates the hash of the specified key. All the bits of the hash code
+	 * are mixed into the lower ones, which choose the slot and the stripe, so
+	 * keys whose hash codes differ only in the higher bits (e.g. multiples of
+	 * 16) are still spread over all the stripes and slots.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the hash, a non-negative number
+	 */
+	private static int hash(Object key) {
+		int h = key.hashCode() * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & 0x7fffffff;
+	}
+
+	/**
+	 * Gets the lock of the stripe of the specified hash. Since the number of
+	 * stripes divides the capacity of the table, all slots in which a key can
+	 * be are in the same stripe.
+	 *
+	 * @param hash
+	 *            hash of a key
+	 * @return the lock of the stripe
+	 */
+	private ReentrantLock lockOf(int hash) {
+		return locks[hash & (locks.length - 1)];
+	}
+
+	/**
+	 * Finds the entry with the specified key in the specified table.
+	 *
+	 * @param table
+	 *            the table
+	 * @param key
+	 *            the key
+	 * @param hash
+	 *            hash of the key
+	 * @return the entry, or null if there is none
+	 */
+	private static <K, V> Node<K, V> find(AtomicReferenceArray<Node<K, V>> table, Object key, int hash) {
+		Node<K, V> node = table.get(hash & (table.length() - 1));
+		while (node != null && (node.hash != hash || !node.key.equals(key))) {
+			node = node.next;
+		}
+		return node;
+	}
+
+	/**
+	 * Puts the specified entry in the collection. If there already is an entry
+	 * with the given key, the given value overrides the old one. Otherwise, a
+	 * new entry is added to the collection.
+	 *
+	 * @param key
+	 *            key of an entry that is to be added to the collection
+	 * @param value
+	 *            value of an entry that is to be added to the collection
+	 */
+	public void put(K key, V value) {
+		if (key == null) {
+			throw new IllegalArgumentException("A key can not be null.");
+		}
+
+		int hash = hash(key);
+		int stripe = hash & (locks.length - 1);
+		boolean resize;
+		ReentrantLock lock = locks[stripe];
+		lock.lock();
+		try {
+			AtomicReferenceArray<Node<K, V>> table = this.table;
+			Node<K, V> node = find(table, key, hash);
+			if (node != null) {
+				node.value = value;
+				return;
+			}
+
+			int slot = hash & (table.length() - 1);
+			table.set(slot, new Node<>(hash, key, value, table.get(slot)));
+			int count = counts.get(stripe * COUNTER_SPACING) + 1;
+			counts.set(stripe * COUNTER_SPACING, count);
+			// the table can only be too dense if this stripe has at least its
+			// share of the entries, so the other counters are read only then
+			resize = count >= (double) table.length() / locks.length * MAX_DENSITY
+					&& size() >= table.length() * MAX_DENSITY;
+		} finally {
+			lock.unlock();
+		}
+
+		if (resize) {
+			doubleCapacity();
+		}
+	}
+
+	/**
+	 * Doubles the capacity of the hash table, unless another thread has
+	 * already done it. All the locks are taken in the same order, so two
+	 * threads which resize the table at the same time can not wait for each
+	 * other forever. The entries are copied, so the chains of the old table
+	 * stay as they were for the threads which are still reading them.
+	 */
+	private void doubleCapacity() {
+		for (ReentrantLock lock : locks) {
+			lock.lock();
+		}
+		try {
+			AtomicReferenceArray<Node<K, V>> oldTable = table;
+			if (size() < oldTable.length() * MAX_DENSITY) {
+				return;
+			}
+
+			AtomicReferenceArray<Node<K, V>> newTable = new AtomicReferenceArray<>(oldTable.length() * 2);
+			int mask = newTable.length() - 1;
+			for (int i = 0; i < oldTable.length(); i++) {
+				for (Node<K, V> node = oldTable.get(i); node != null; node = node.next) {
+					int slot = node.hash & mask;
+					newTable.lazySet(slot, new Node<>(node.hash, node.key, node.value, newTable.get(slot)));
+				}
+			}
+			table = newTable;
+		} finally {
+			for (ReentrantLock lock : locks) {
+				lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of slots in the hash table.
+	 *
+	 * @return the capacity of the table
+	 */
+	int capacity() {
+		return table.length();
+	}
+
+	/**
+	 * Gets the value associated with the specified key. No lock is taken.
+	 *
+	 * @param key
+	 *            key whose value is to be returned
+	 * @return value associated with the specified key
+	 */
+	public V get(Object key) {
+		if (key == null) {
+			return null;
+		}
+
+		Node<K, V> node = find(table, key, hash(key));
+		return node == null ? null : node.value;
+	}
+
+	/**
+	 * Returns the number of entries in the collection. If the collection is
+	 * being changed at the same time, the number is only an estimate.
+	 *
+	 * @return number of entries in the collection
+	 */
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < locks.length; i++) {
+			size += counts.get(i * COUNTER_SPACING);
+		}
+		return size;
+	}
+
+	/**
+	 * Checks if there is an entry with the specified key in the collection.
+	 * No lock is taken.
+	 *
+	 * @param key
+	 *            key whose existence is to be checked
+	 * @return true if there is an entry with the specified key in the
+	 *         collection, false otherwise
+	 */
+	public boolean containsKey(Object key) {
+		if (key == null) {
+			return false;
+		}
+
+		return find(table, key, hash(key)) != null;
+	}
+
+	/**
+	 * Removes an entry specified by it's key from the collection. If the
+	 * specified key does not exist in collection, nothing happens.
+	 *
+	 * @param key
+	 *            key whose entry is to be removed from the collection
+	 */
+	public void remove(Object key) {
+		if (key == null) {
+			return;
+		}
+
+		int hash = hash(key);
+		int stripe = hash & (locks.length - 1);
+		ReentrantLock lock = lockOf(hash);
+		lock.lock();
+		try {
+			AtomicReferenceArray<Node<K, V>> table = this.table;
+			int slot = hash & (table.length() - 1);
+			Node<K, V> previous = null;
+			Node<K, V> node = table.get(slot);
+			while (node != null && (node.hash != hash || !node.key.equals(key))) {
+				previous = node;
+				node = node.next;
+			}
+			if (node == null) {
+				return;
+			}
+
+			// the removed node keeps its next link for the threads reading it
+			if (previous == null) {
+				table.set(slot, node.next);
+			} else {
+				previous.next = node.next;
+			}
+			counts.set(stripe * COUNTER_SPACING, counts.get(stripe * COUNTER_SPACING) - 1);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Checks if there are any entries in the collection.
+	 *
+	 * @return return if there is any entry in the collection
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	/**
+	 * Returns a string representation of the collection. Example:
+	 * "[key1=value1, key2=value2]"
+	 */
+	@Override
+	public String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append('[');
+
+		boolean atLeastOneValueAdded = false;
+
+		for (SimpleHashtable.TableEntry<K, V> tableEntry : this) {
+			if (atLeastOneValueAdded) {
+				stringBuilder.append(", ");
+			} else {
+				atLeastOneValueAdded = true;
+			}
+
+			stringBuilder.append(tableEntry.toString());
+		}
+		stringBuilder.append(']');
+
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Checks if there is an entry with the specified value in the collection.
+	 *
+	 * @param value
+	 *            value whose existence is to be checked
+	 * @return true if there is an entry with the specified value in the
+	 *         collection, false otherwise
+	 */
+	public boolean containsValue(Object value) {
+		for (SimpleHashtable.TableEntry<K, V> tableEntry : this) {
+			V v = tableEntry.getValue();
+			if (v == null ? value == null : v.equals(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Clears all the entries from the collection.
+	 */
+	public void clear() {
+		for (ReentrantLock lock : locks) {
+			lock.lock();
+		}
+		try {
+			table = new AtomicReferenceArray<>(table.length());
+			for (int i = 0; i < locks.length; i++) {
+				counts.set(i * COUNTER_SPACING, 0);
+			}
+		} finally {
+			for (ReentrantLock lock : locks) {
+				lock.unlock();
+			}
+		}
+	}
+
+	@Override
+	public Iterator<SimpleHashtable.TableEntry<K, V>> iterator() {
+		return new IteratorImpl();
+	}
+
+	/**
+	 * An entry of the hash table. The key and its hash never change, while the
+	 * value and the link to the next entry are volatile, so they can be read
+	 * without a lock.
+	 *
+	 * @author Alen Magdić
+	 *
+	 * @param <K>
+	 *            key type
+	 * @param <V>
+	 *            value type
+	 */
+	private static class Node<K, V> {
+		/**
+		 * Hash of the key.
+		 */
+		final int hash;
+		/**
+		 * Entry key.
+		 */
+		final K key;
+		/**
+		 * Entry value.
+		 */
+		volatile V value;
+		/**
+		 * The next entry in the same hash table slot.
+		 */
+		volatile Node<K, V> next;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param hash
+		 *            hash of the key
+		 * @param key
+		 *            key
+		 * @param value
+		 *            value
+		 * @param next
+		 *            the next entry in the same hash table slot
+		 */
+		Node(int hash, K key, V value, Node<K, V> next) {
+			this.hash = hash;
+			this.key = key;
+			this.value = value;
+			this.next = next;
+		}
+	}
+
+	/**
+	 * A weakly consistent iterator. It walks the table which was published
+	 * when it was created, without taking any lock, and returns table entries
+	 * in unspecified order.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private class IteratorImpl implements Iterator<SimpleHashtable.TableEntry<K, V>> {
+		/**
+		 * The table which is walked.
+		 */
+		private AtomicReferenceArray<Node<K, V>> iteratedTable = table;
+		/**
+		 * Index of the slot where is the next entry located.
+		 */
+		private int nextSlot = -1;
+		/**
+		 * The next entry to be returned.
+		 */
+		private Node<K, V> nextNode;
+		/**
+		 * The key of the last returned entry, or null if it has been removed.
+		 */
+		private K currentKey;
+
+		/**
+		 * Constructor.
+		 *
+		 */
+		public IteratorImpl() {
+			findNextEntry();
+		}
+
+		/**
+		 * Looks for the next entry.
+		 */
+		private void findNextEntry() {
+			if (nextNode != null) {
+				nextNode = nextNode.next;
+			}
+			while (nextNode == null) {
+				nextSlot++;
+				if (nextSlot == iteratedTable.length()) {
+					return;
+				}
+				nextNode = iteratedTable.get(nextSlot);
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextNode != null;
+		}
+
+		@Override
+		public SimpleHashtable.TableEntry<K, V> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("There are no more elements in the collection.");
+			}
+
+			Node<K, V> node = nextNode;
+			findNextEntry();
+			currentKey = node.key;
+			return new Entry(node.key, node.value);
+		}
+
+		@Override
+		public void remove() {
+			if (currentKey == null) {
+				throw new IllegalStateException("The iterator can not remove an entry that has already been removed.");
+			}
+
+			ConcurrentSimpleHashtable.this.remove(currentKey);
+			currentKey = null;
+		}
+	}
+
+	/**
+	 * A table entry returned by the iterator. Setting its value also sets the
+	 * value in the collection if its key is still in the collection.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private class Entry extends SimpleHashtable.TableEntry<K, V> {
+		/**
+		 * Constructor.
+		 *
+		 * @param key
+		 *            key
+		 * @param value
+		 *            value
+		 */
+		public Entry(K key, V value) {
+			super(key, value, null);
+		}
+
+		@Override
+		public void setValue(V value) {
+			super.setValue(value);
+			K key = getKey();
+			int hash = hash(key);
+			ReentrantLock lock = lockOf(hash);
+			lock.lock();
+			try {
+				Node<K, V> node = find(table, key, hash);
+				if (node != null) {
+					node.value = value;
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+}
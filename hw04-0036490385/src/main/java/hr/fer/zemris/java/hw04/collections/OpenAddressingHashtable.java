@@ -0,0 +1,503 @@
+package hr.fer.zemris.java.hw04.collections;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * This class represents a collection which stores keys and their associated
+ * values in a hash table with open addressing. It provides the same methods as
+ * {@link SimpleHashtable}, but instead of a chain of table entries in every
+ * slot, the keys and the values are stored in two parallel arrays and a key
+ * which collides with another is stored in the next free slot (linear
+ * probing). Therefore, no object is created for an entry which is put in the
+ * collection. When an entry is removed, the entries after it which would not
+ * be found anymore are shifted back (backward-shift deletion), so the table
+ * never contains markers of removed entries and lookups never get slower
+ * because of removals.
+ * <p>
+ * Iterating over the collection returns table entries which are created on
+ * the fly; setting a value of such an entry changes the value in the
+ * collection while the key is in it.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ * @param <K>
+ *            key type
+ * @param <V>
+ *            value type
+ */
+public class OpenAddressingHashtable<K, V> implements Iterable<SimpleHashtable.TableEntry<K, V>> {
+	/**
+	 * If table capacity is not specified, it is set to this default value.
+	 */
+	private static final int DEFAULT_TABLE_CAPACITY = 16;
+	/**
+	 * If table density reaches this level of density, the capacity of the table
+	 * is doubled.
+	 */
+	private static final double MAX_DENSITY = 0.75;
+	/**
+	 * Multiplier used for spreading hash codes over the table (2^32 divided by
+	 * the golden ratio).
+	 */
+	private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+	/**
+	 * Keys stored in the table, null in the empty slots.
+	 */
+	private Object[] keys;
+	/**
+	 * Values stored in the table, in the same slots as their keys.
+	 */
+	private Object[] values;
+	/**
+	 * Table capacity minus one, used for calculating slots.
+	 */
+	private int mask;
+	/**
+	 * Number of entries at which the capacity of the table is doubled.
+	 */
+	private int threshold;
+	/**
+	 * Number of entries stored in the collection.
+	 */
+	private int size;
+	/**
+	 * Number of modifications done to the collection.
+	 */
+	private int modificationCount;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity
+	 *            number of slots in the collection's hash table
+	 */
+	public OpenAddressingHashtable(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("A capacity can not be lower than 1. Given value: " + capacity);
+		}
+
+		int c;
+		for (c = 1; c < capacity; c *= 2) {
+		}
+		allocate(c);
+	}
+
+	/**
+	 * Default constructor. Generates a hash table with default capacity.
+	 *
+	 */
+	public OpenAddressingHashtable() {
+		this(DEFAULT_TABLE_CAPACITY);
+	}
+
+	/**
+	 * Allocates empty arrays of the specified capacity.
+	 *
+	 * @param capacity
+	 *            number of slots, a power of two
+	 */
+	private void allocate(int capacity) {
+		keys = new Object[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		threshold = (int) Math.ceil(capacity * MAX_DENSITY);
+	}
+
+	/**
+	 * Gets the slot in which the probing for the specified key starts.
+	 *
+	 * @param key
+	 *            a key whose slot is to be retrieved
+	 * @return home slot of the specified key
+	 */
+	private int getSlotFromKey(Object key) {
+		int hash = key.hashCode() * HASH_MULTIPLIER;
+		return (hash ^ (hash >>> 16)) & mask;
+	}
+
+	/**
+	 * Gets the slot in which the specified key is stored.
+	 *
+	 * @param key
+	 *            the key
+	 * @return slot of the key, or -1 if the key is not in the collection
+	 */
+	private int indexOf(Object key) {
+		Object[] keys = this.keys;
+		int slot = getSlotFromKey(key);
+		Object k;
+		while ((k = keys[slot]) != null) {
+			if (k == key || k.equals(key)) {
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Puts the specified entry in the collection. If there already is an entry
+	 * with the given key, the given value overrides the old one. Otherwise, a
+	 * new entry is added to the collection.
+	 *
+	 * @param key
+	 *            key of an entry that is to be added to the collection
+	 * @param value
+	 *            value of an entry that is to be added to the collection
+	 */
+	public void put(K key, V value) {
+		if (key == null) {
+			throw new IllegalArgumentException("A key can not be null.");
+		}
+
+		Object[] keys = this.keys;
+		int slot = getSlotFromKey(key);
+		Object k;
+		while ((k = keys[slot]) != null) {
+			if (k == key || k.equals(key)) {
+				values[slot] = value;
+				return;
+			}
+			slot = (slot + 1) & mask;
+		}
+
+		keys[slot] = key;
+		values[slot] = value;
+		size++;
+		modificationCount++;
+
+		if (size >= threshold) {
+			doubleCapacity();
+		}
+	}
+
+	/**
+	 * Doubles the capacity of the hash table.
+	 */
+	private void doubleCapacity() {
+		Object[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(oldKeys.length * 2);
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			Object key = oldKeys[i];
+			if (key == null) {
+				continue;
+			}
+			int slot = getSlotFromKey(key);
+			while (keys[slot] != null) {
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			values[slot] = oldValues[i];
+		}
+	}
+
+	/**
+	 * Gets the value associated with the specified key.
+	 *
+	 * @param key
+	 *            key whose value is to be returned
+	 * @return value associated with the specified key
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(Object key) {
+		if (key == null) {
+			return null;
+		}
+
+		int slot = indexOf(key);
+		return slot == -1 ? null : (V) values[slot];
+	}
+
+	/**
+	 * Returns the number of entries in the collection.
+	 *
+	 * @return number of entries in the collection
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if there is an entry with the specified key in the collection.
+	 *
+	 * @param key
+	 *            key whose existence is to be checked
+	 * @return true if there is an entry with the specified key in the
+	 *         collection, false otherwise
+	 */
+	public boolean containsKey(Object key) {
+		if (key == null) {
+			return false;
+		}
+
+		return indexOf(key) != -1;
+	}
+
+	/**
+	 * Removes an entry specified by it's key from the collection. If the
+	 * specified key does not exist in collection, nothing happens.
+	 *
+	 * @param key
+	 *            key whose entry is to be removed from the collection
+	 */
+	public void remove(Object key) {
+		if (key == null) {
+			return;
+		}
+
+		int slot = indexOf(key);
+		if (slot != -1) {
+			removeSlot(slot);
+		}
+	}
+
+	/**
+	 * Removes the entry in the specified slot. Every following entry of the
+	 * same cluster whose home slot is not between the emptied slot and its own
+	 * slot is moved into the emptied slot, which empties its own slot, until
+	 * an empty slot is reached. Entries are only moved towards the start of
+	 * their cluster, never past an empty slot.
+	 *
+	 * @param slot
+	 *            slot of the entry which is to be removed
+	 */
+	private void removeSlot(int slot) {
+		Object[] keys = this.keys;
+		int hole = slot;
+		for (int i = (slot + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+			int home = getSlotFromKey(keys[i]);
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				keys[hole] = keys[i];
+				values[hole] = values[i];
+				hole = i;
+			}
+		}
+		keys[hole] = null;
+		values[hole] = null;
+
+		size--;
+		modificationCount++;
+	}
+
+	/**
+	 * Checks if there are any entries in the collection.
+	 *
+	 * @return return if there is any entry in the collection
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns a string representation of the collection. Example:
+	 * "[key1=value1, key2=value2]"
+	 */
+	@Override
+	public String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append('[');
+
+		boolean atLeastOneValueAdded = false;
+
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] == null) {
+				continue;
+			}
+			if (atLeastOneValueAdded) {
+				stringBuilder.append(", ");
+			} else {
+				atLeastOneValueAdded = true;
+			}
+
+			stringBuilder.append(keys[i]).append('=').append(values[i]);
+		}
+		stringBuilder.append(']');
+
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Checks if there is an entry with the specified value in the collection.
+	 *
+	 * @param value
+	 *            value whose existence is to be checked
+	 * @return true if there is an entry with the specified value in the
+	 *         collection, false otherwise
+	 */
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] != null && Objects.equals(values[i], value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Clears all the entries from the collection.
+	 */
+	public void clear() {
+		Arrays.fill(keys, null);
+		Arrays.fill(values, null);
+		size = 0;
+		modificationCount++;
+	}
+
+	@Override
+	public Iterator<SimpleHashtable.TableEntry<K, V>> iterator() {
+		return new IteratorImpl();
+	}
+
+	/**
+	 * An implementation of iterator. Returns table entries in unspecified
+	 * order.
+	 * <p>
+	 * The iterator starts right after an empty slot and walks once around the
+	 * table. Since removing an entry only moves entries of the same cluster
+	 * back towards the removed one, and a cluster never contains the starting
+	 * slot, an entry can only be moved into the slot of the entry which was
+	 * just removed. The iterator therefore visits that slot again after a
+	 * removal, and every entry is returned exactly once.
+	 * </p>
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private class IteratorImpl implements Iterator<SimpleHashtable.TableEntry<K, V>> {
+		/**
+		 * Modifications counter for detection of outside modifications.
+		 */
+		private int legalModifCount;
+		/**
+		 * The last examined slot.
+		 */
+		private int position;
+		/**
+		 * Number of slots which have not been examined yet.
+		 */
+		private int slotsLeft;
+		/**
+		 * Slot of the next entry to be returned, or -1 if there is none.
+		 */
+		private int nextSlot;
+		/**
+		 * Slot of the last returned entry, or -1 if it has been removed.
+		 */
+		private int currentSlot = -1;
+
+		/**
+		 * Constructor.
+		 *
+		 */
+		public IteratorImpl() {
+			legalModifCount = modificationCount;
+			// the table always has an empty slot, because it is never full
+			while (keys[position] != null) {
+				position++;
+			}
+			slotsLeft = keys.length - 1;
+			findNextEntry();
+		}
+
+		/**
+		 * Looks for the next entry.
+		 */
+		private void findNextEntry() {
+			while (slotsLeft > 0) {
+				position = (position + 1) & mask;
+				slotsLeft--;
+				if (keys[position] != null) {
+					nextSlot = position;
+					return;
+				}
+			}
+			nextSlot = -1;
+		}
+
+		/**
+		 * Throws an exception if there has been an outside modification.
+		 */
+		private void checkModifications() {
+			if (modificationCount != legalModifCount) {
+				throw new ConcurrentModificationException(
+						"There have been some outside modifications done while iterating.");
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			checkModifications();
+			return nextSlot != -1;
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public SimpleHashtable.TableEntry<K, V> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("There are no more elements in the collection.");
+			}
+
+			currentSlot = nextSlot;
+			Entry entry = new Entry((K) keys[currentSlot], (V) values[currentSlot]);
+			findNextEntry();
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			checkModifications();
+			if (currentSlot == -1) {
+				throw new IllegalStateException("The iterator can not remove an entry that has already been removed.");
+			}
+
+			removeSlot(currentSlot);
+			legalModifCount++;
+
+			// an entry which has not been returned yet could have been moved
+			// into the slot of the removed entry
+			int restart = (currentSlot - 1) & mask;
+			slotsLeft += (position - restart) & mask;
+			position = restart;
+			currentSlot = -1;
+			findNextEntry();
+		}
+	}
+
+	/**
+	 * A table entry returned by the iterator. Setting its value also sets the
+	 * value in the collection if its key is still in the collection.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private class Entry extends SimpleHashtable.TableEntry<K, V> {
+		/**
+		 * Constructor.
+		 *
+		 * @param key
+		 *            key
+		 * @param value
+		 *            value
+		 */
+		public Entry(K key, V value) {
+			super(key, value, null);
+		}
+
+		@Override
+		public void setValue(V value) {
+			super.setValue(value);
+			int slot = indexOf(getKey());
+			if (slot != -1) {
+				values[slot] = value;
+			}
+		}
+	}
+}
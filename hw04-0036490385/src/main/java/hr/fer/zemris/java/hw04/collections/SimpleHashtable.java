@@ -10,6 +10,16 @@ import java.util.NoSuchElementException;
  * new values to the collection, removing values, checking if there is a key or
  * a value in the class and toString() method which prints all keys with
  * associated values in the collection.
+ * <p>
+ * By default, when the table becomes too dense, all entries are moved into a
+ * table of double capacity at once, which takes a long time for a large
+ * table. In the incremental resize mode, the old table is kept next to the
+ * new one instead, and every put and remove moves the entries of a few slots
+ * of the old table into the new one, so the work is spread over the following
+ * operations. While the entries are being moved, a key is looked up in the old
+ * table if its slot in the old table has not been moved yet, and in the new
+ * table otherwise.
+ * </p>
  *
  * @author Alen Magdić
  *
@@ -37,10 +47,30 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 	 * is doubled.
 	 */
 	private static final double MAX_DENSITY = 0.75;
+	/**
+	 * Number of slots of the old table which are moved into the new table
+	 * during every put and remove in the incremental resize mode. Moving two
+	 * slots per put is enough for the moving to be done before the table
+	 * needs to grow again.
+	 */
+	private static final int MIGRATED_SLOTS_PER_OPERATION = 4;
 	/**
 	 * Number of modifications done to the collection.
 	 */
 	private int modificationCount;
+	/**
+	 * Whether the table is resized incrementally.
+	 */
+	private boolean incrementalResize;
+	/**
+	 * The old table whose entries are being moved into the table, or null if
+	 * no entries are being moved.
+	 */
+	private TableEntry<K, V>[] oldTable;
+	/**
+	 * Number of slots of the old table whose entries have been moved.
+	 */
+	private int migratedSlots;
 
 	/**
 	 * Constructor.
@@ -48,8 +78,21 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 	 * @param capacity
 	 *            number of slots in the collection's hash table
 	 */
-	@SuppressWarnings("unchecked")
 	public SimpleHashtable(int capacity) {
+		this(capacity, false);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param capacity
+	 *            number of slots in the collection's hash table
+	 * @param incrementalResize
+	 *            true if the table is to be resized incrementally, false if
+	 *            all entries are to be moved at once
+	 */
+	@SuppressWarnings("unchecked")
+	public SimpleHashtable(int capacity, boolean incrementalResize) {
 		if (capacity < 1) {
 			throw new IllegalArgumentException("A capacity can not be lower than 1. Given value: " + capacity);
 		}
@@ -60,6 +103,7 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 		capacity = c;
 
 		table = (TableEntry<K, V>[]) new TableEntry[capacity];
+		this.incrementalResize = incrementalResize;
 	}
 
 	/**
@@ -78,7 +122,37 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 	 * @return slot of the specified key
 	 */
 	private int getSlotFromKey(Object key) {
-		return Math.abs(key.hashCode()) % table.length;
+		return getSlotFromKey(key, table.length);
+	}
+
+	/**
+	 * Gets a slot from the specified key in a table of the specified
+	 * capacity.
+	 *
+	 * @param key
+	 *            a key whose slot is to be retrieved
+	 * @param capacity
+	 *            capacity of the table
+	 * @return slot of the specified key
+	 */
+	private static int getSlotFromKey(Object key, int capacity) {
+		return Math.abs(key.hashCode()) % capacity;
+	}
+
+	/**
+	 * Gets the table in which the entry with the specified key is stored, or
+	 * would be stored. It is the old table if the entries are being moved and
+	 * the slot of the key in the old table has not been moved yet.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the table of the key
+	 */
+	private TableEntry<K, V>[] getTableOfKey(Object key) {
+		if (oldTable != null && getSlotFromKey(key, oldTable.length) >= migratedSlots) {
+			return oldTable;
+		}
+		return table;
 	}
 
 	/**
@@ -95,7 +169,8 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 		if (key == null) {
 			throw new IllegalArgumentException("A key can not be null.");
 		}
-		int table_slot = getSlotFromKey(key);
+		TableEntry<K, V>[] table = getTableOfKey(key);
+		int table_slot = getSlotFromKey(key, table.length);
 
 		if (table[table_slot] == null) {
 			table[table_slot] = new TableEntry<K, V>(key, value, null);
@@ -115,9 +190,55 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 
 		size++;
 		modificationCount++;
+		// entries are moved only on structural changes, which also invalidate
+		// the iterators
+		migrate();
+
+		if ((double) size / this.table.length >= MAX_DENSITY) {
+			if (incrementalResize) {
+				startResize();
+			} else {
+				doubleCapacity();
+			}
+		}
+	}
+
+	/**
+	 * Starts an incremental resize: the table becomes the old table, and an
+	 * empty table of double capacity is created, into which the entries are
+	 * moved by the following operations.
+	 */
+	@SuppressWarnings("unchecked")
+	private void startResize() {
+		while (oldTable != null) {
+			migrate();
+		}
+		oldTable = table;
+		migratedSlots = 0;
+		table = (TableEntry<K, V>[]) new TableEntry[oldTable.length * 2];
+	}
 
-		if ((double) size / table.length >= MAX_DENSITY) {
-			doubleCapacity();
+	/**
+	 * Moves the entries of the next few slots of the old table into the
+	 * table, if the entries are being moved. The entries are relinked, not
+	 * copied.
+	 */
+	private void migrate() {
+		for (int i = 0; i < MIGRATED_SLOTS_PER_OPERATION && oldTable != null; i++) {
+			TableEntry<K, V> tableEntry = oldTable[migratedSlots];
+			oldTable[migratedSlots] = null;
+			while (tableEntry != null) {
+				TableEntry<K, V> next = tableEntry.next;
+				int table_slot = getSlotFromKey(tableEntry.key);
+				tableEntry.next = table[table_slot];
+				table[table_slot] = tableEntry;
+				tableEntry = next;
+			}
+
+			migratedSlots++;
+			if (migratedSlots == oldTable.length) {
+				oldTable = null;
+			}
 		}
 	}
 
@@ -152,7 +273,8 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 			return null;
 		}
 
-		int table_slot = getSlotFromKey(key);
+		TableEntry<K, V>[] table = getTableOfKey(key);
+		int table_slot = getSlotFromKey(key, table.length);
 		TableEntry<K, V> tableEntry = table[table_slot];
 
 		if (tableEntry == null) {
@@ -206,31 +328,46 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 			return;
 		}
 
-		int table_slot = getSlotFromKey(key);
+		if (removeKey(key)) {
+			migrate();
+		}
+	}
+
+	/**
+	 * Removes an entry specified by it's key from the collection, without
+	 * moving any entries of the old table.
+	 *
+	 * @param key
+	 *            key whose entry is to be removed from the collection
+	 * @return true if the entry was removed, false if there was no such entry
+	 */
+	private boolean removeKey(Object key) {
+		TableEntry<K, V>[] table = getTableOfKey(key);
+		int table_slot = getSlotFromKey(key, table.length);
 		TableEntry<K, V> tableEntry = table[table_slot];
 		if (tableEntry == null) {
-			return;
+			return false;
 		}
 		if (tableEntry.getKey().equals(key)) {
 			table[table_slot] = tableEntry.next;
 			size--;
 			modificationCount++;
-			return;
+			return true;
 		} else if (tableEntry.next == null) {
-			return;
+			return false;
 		}
 
 		while (!tableEntry.next.getKey().equals(key)) {
 			tableEntry = tableEntry.next;
 			if (tableEntry.next == null) {
-				return;
+				return false;
 			}
 		}
 
 		tableEntry.next = tableEntry.next.next;
 		size--;
 		modificationCount++;
-
+		return true;
 	}
 
 	/**
@@ -253,19 +390,14 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 
 		boolean atLeastOneValueAdded = false;
 
-		for (int i = 0; i < table.length; i++) {
-			TableEntry<K, V> tableEntry = table[i];
-
-			while (tableEntry != null) {
-				if (atLeastOneValueAdded) {
-					stringBuilder.append(", ");
-				} else {
-					atLeastOneValueAdded = true;
-				}
-
-				stringBuilder.append(tableEntry.toString());
-				tableEntry = tableEntry.next;
+		for (TableEntry<K, V> tableEntry : this) {
+			if (atLeastOneValueAdded) {
+				stringBuilder.append(", ");
+			} else {
+				atLeastOneValueAdded = true;
 			}
+
+			stringBuilder.append(tableEntry.toString());
 		}
 		stringBuilder.append(']');
 
@@ -281,16 +413,9 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 	 *         collection, false otherwise
 	 */
 	public boolean containsValue(Object value) {
-		TableEntry<K, V> tableEntry;
-
-		for (int i = 0; i < table.length; i++) {
-			tableEntry = table[i];
-
-			while (tableEntry != null) {
-				if (tableEntry.getValue().equals(value)) {
-					return true;
-				}
-				tableEntry = tableEntry.next;
+		for (TableEntry<K, V> tableEntry : this) {
+			if (tableEntry.getValue().equals(value)) {
+				return true;
 			}
 		}
 		return false;
@@ -303,6 +428,7 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 		for (int i = 0; i < table.length; i++) {
 			table[i] = null;
 		}
+		oldTable = null;
 		size = 0;
 	}
 
@@ -329,10 +455,15 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 		 */
 		private final RuntimeException modificationException = new ConcurrentModificationException(
 				"There have been some outside modifications done while iterating.");
+		/**
+		 * The table which is being walked; the old table is walked before the
+		 * table if the entries are being moved.
+		 */
+		private TableEntry<K, V>[] currentTable;
 		/**
 		 * Index of the slot where is the next entry located.
 		 */
-		private int nextSlot;
+		private int nextSlot = -1;
 		/**
 		 * The next table entry to be returned.
 		 */
@@ -348,6 +479,7 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 		 */
 		public IteratorImpl() {
 			legalModifCount = modificationCount;
+			currentTable = oldTable != null ? oldTable : table;
 			findNextEntry();
 		}
 
@@ -355,19 +487,20 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 		 * Looks for the next table entry.
 		 */
 		private void findNextEntry() {
-			if (nextEntry == null && nextSlot == 0) {
-				nextEntry = table[0];
-			} else {
+			if (nextEntry != null) {
 				nextEntry = nextEntry.next;
 			}
 
 			while (nextEntry == null) {
 				nextSlot++;
-				if (nextSlot == table.length) {
-					nextEntry = null;
-					return;
+				if (nextSlot == currentTable.length) {
+					if (currentTable == table) {
+						return;
+					}
+					currentTable = table;
+					nextSlot = 0;
 				}
-				nextEntry = table[nextSlot];
+				nextEntry = currentTable[nextSlot];
 			}
 		}
 
@@ -402,7 +535,8 @@ public class SimpleHashtable<K, V> implements Iterable<SimpleHashtable.TableEntr
 				throw new IllegalStateException("The iterator can not remove an entry that has already been removed.");
 			}
 
-			SimpleHashtable.this.remove(currentEntry.key);
+			// entries are not moved between the tables while iterating
+			removeKey(currentEntry.key);
 			legalModifCount++;
 		}
 	}
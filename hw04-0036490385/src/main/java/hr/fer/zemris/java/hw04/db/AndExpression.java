@@ -0,0 +1,71 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * This class represents a conjunction of expressions, i.e. an expression which
+ * is satisfied if all of its operands are satisfied.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class AndExpression implements IQueryExpression {
+	/**
+	 * Operands of this expression.
+	 */
+	private List<IQueryExpression> operands;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param operands
+	 *            operands of the conjunction
+	 */
+	public AndExpression(List<IQueryExpression> operands) {
+		if (operands == null || operands.isEmpty()) {
+			throw new IllegalArgumentException("A conjunction has to have at least one operand.");
+		}
+		this.operands = new ArrayList<>(operands);
+	}
+
+	/**
+	 * Gets the operands of this expression.
+	 *
+	 * @return list of operands
+	 */
+	public List<IQueryExpression> getOperands() {
+		return new ArrayList<>(operands);
+	}
+
+	@Override
+	public boolean accepts(StudentRecord record) {
+		for (IQueryExpression operand : operands) {
+			if (!operand.accepts(record)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public BitSet evaluate(StudentColumns columns) {
+		BitSet result = operands.get(0).evaluate(columns);
+		for (int i = 1, n = operands.size(); i < n && !result.isEmpty(); i++) {
+			result.and(operands.get(i).evaluate(columns));
+		}
+		return result;
+	}
+
+	@Override
+	public IntPredicate compile(StudentColumns columns) {
+		IntPredicate predicate = operands.get(0).compile(columns);
+		for (int i = 1, n = operands.size(); i < n; i++) {
+			predicate = predicate.and(operands.get(i).compile(columns));
+		}
+		return predicate;
+	}
+
+}
@@ -0,0 +1,29 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.io.IOException;
+
+/**
+ * This exception is thrown by {@link StudentDatabase} when a checkpoint fails,
+ * i.e. when the snapshot can not be written or the log can not be cleared.
+ * Unlike other {@link IOException}s thrown when the database is changed, it
+ * means that the change itself has already been applied and logged.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class CheckpointException extends IOException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructor with a message and an exception that caused this exception.
+	 *
+	 * @param message
+	 *            a message
+	 * @param ex
+	 *            an exception that caused this exception
+	 */
+	public CheckpointException(String message, IOException ex) {
+		super(message, ex);
+	}
+}
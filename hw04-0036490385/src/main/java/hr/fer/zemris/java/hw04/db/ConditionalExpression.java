@@ -1,5 +1,9 @@
 package hr.fer.zemris.java.hw04.db;
 
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
 /**
  * This class represents a conditional expression. A conditional expression
  * consists of two operands and a IComparisonOperator. The first operand is not
@@ -11,7 +15,7 @@ package hr.fer.zemris.java.hw04.db;
  * @author Alen Magdić
  *
  */
-public class ConditionalExpression {
+public class ConditionalExpression implements IQueryExpression {
 	/**
 	 * The first operand, specified indirectly through an implementation of
 	 * IFieldValueGetter.
@@ -96,4 +100,20 @@ public class ConditionalExpression {
 		return comparisonOperator;
 	}
 
+	@Override
+	public boolean accepts(StudentRecord record) {
+		return comparisonOperator.satisfied(fieldGetter.get(record), stringLiteral);
+	}
+
+	@Override
+	public BitSet evaluate(StudentColumns columns) {
+		return columns.evaluate(this);
+	}
+
+	@Override
+	public IntPredicate compile(StudentColumns columns) {
+		Predicate<String> test = QueryCompiler.compile(comparisonOperator, stringLiteral);
+		return row -> test.test(columns.value(fieldGetter, row));
+	}
+
 }
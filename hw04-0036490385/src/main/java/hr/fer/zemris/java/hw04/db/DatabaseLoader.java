@@ -0,0 +1,548 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * This class loads a database from a file in the format of
+ * <code>database.txt</code>, i.e. a UTF-8 text file in which every line
+ * contains a jmbag, a last name, a first name and a final grade separated by
+ * tabs. The file is memory mapped and split into chunks at line boundaries,
+ * and the chunks are parsed in parallel directly from the mapped bytes. No
+ * strings or arrays are created per line: jmbags are decoded straight into a
+ * char column, grades are parsed from the bytes and names are looked up in
+ * byte-level dictionaries, so a string is created only once for every distinct
+ * name of a chunk. The parsed chunks are then appended to the columns in the
+ * order of the file.
+ * <p>
+ * Loaded columns can also be saved to a binary snapshot (see
+ * {@link StudentColumns#writeSnapshot(Path)}), which is used on the next start
+ * instead of parsing the text file, as long as it is not older than the text
+ * file. A database opened with a write-ahead log (see
+ * {@link #open(Path, Path, Path)}) is always read from its snapshot, which is
+ * then kept up to date by checkpoints.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ */
+public class DatabaseLoader {
+	/** The smallest size of a chunk in bytes. **/
+	private static final long MIN_CHUNK_SIZE = 1 << 20;
+	/** The largest size of a chunk in bytes. **/
+	private static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE / 2;
+
+	/**
+	 * Loads a database from the specified text file.
+	 *
+	 * @param file
+	 *            the database file
+	 * @return the loaded database
+	 * @throws IOException
+	 *             if the file can not be read
+	 * @throws RuntimeException
+	 *             if the file contains invalid data
+	 */
+	public static StudentDatabase load(Path file) throws IOException {
+		return new StudentDatabase(loadColumns(file));
+	}
+
+	/**
+	 * Loads a database from the specified snapshot if it exists and is not
+	 * older than the text file. Otherwise, or if the snapshot is damaged, the
+	 * database is loaded from the text file and the snapshot is written for
+	 * the next start.
+	 *
+	 * @param file
+	 *            the database file
+	 * @param snapshot
+	 *            the snapshot file
+	 * @return the loaded database
+	 * @throws IOException
+	 *             if a file can not be read or written
+	 * @throws RuntimeException
+	 *             if the file contains invalid data
+	 */
+	public static StudentDatabase load(Path file, Path snapshot) throws IOException {
+		if (Files.exists(snapshot)
+				&& Files.getLastModifiedTime(snapshot).compareTo(Files.getLastModifiedTime(file)) >= 0) {
+			try {
+				return new StudentDatabase(StudentColumns.readSnapshot(snapshot));
+			} catch (IOException ex) {
+				// the text file still contains the whole database
+			}
+		}
+		StudentColumns columns = loadColumns(file);
+		columns.writeSnapshot(snapshot);
+		return new StudentDatabase(columns);
+	}
+
+	/**
+	 * Opens a database whose changes are written to the specified write-ahead
+	 * log. The database is read from the snapshot if it exists, since the
+	 * snapshot written by a checkpoint contains changes which are not in the
+	 * text file. Otherwise, the database is loaded from the text file and the
+	 * snapshot is written. The changes from the log are then applied to the
+	 * database.
+	 *
+	 * @param file
+	 *            the database file
+	 * @param snapshot
+	 *            the snapshot file
+	 * @param log
+	 *            the log file
+	 * @return the opened database
+	 * @throws IOException
+	 *             if a file can not be read or written
+	 * @throws RuntimeException
+	 *             if the file contains invalid data
+	 */
+	public static StudentDatabase open(Path file, Path snapshot, Path log) throws IOException {
+		StudentDatabase database;
+		if (Files.exists(snapshot)) {
+			database = new StudentDatabase(StudentColumns.readSnapshot(snapshot));
+		} else {
+			StudentColumns columns = loadColumns(file);
+			columns.writeSnapshot(snapshot);
+			database = new StudentDatabase(columns);
+		}
+		database.attachLog(new WriteAheadLog(log, snapshot));
+		return database;
+	}
+
+	/**
+	 * Loads the columns from the specified text file. The number of chunks is
+	 * chosen by the size of the file and the number of available processors.
+	 *
+	 * @param file
+	 *            the database file
+	 * @return the loaded columns
+	 * @throws IOException
+	 *             if the file can not be read
+	 * @throws RuntimeException
+	 *             if the file contains invalid data
+	 */
+	public static StudentColumns loadColumns(Path file) throws IOException {
+		long size = Files.size(file);
+		long chunks = Math.min(size / MIN_CHUNK_SIZE, Runtime.getRuntime().availableProcessors() * 4L);
+		chunks = Math.max(chunks, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+		return loadColumns(file, (int) Math.max(chunks, 1));
+	}
+
+	/**
+	 * Loads the columns from the specified text file, which is split into the
+	 * specified number of chunks.
+	 *
+	 * @param file
+	 *            the database file
+	 * @param chunkCount
+	 *            number of chunks
+	 * @return the loaded columns
+	 * @throws IOException
+	 *             if the file can not be read
+	 * @throws RuntimeException
+	 *             if the file contains invalid data
+	 */
+	static StudentColumns loadColumns(Path file, int chunkCount) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long[] boundaries = new long[chunkCount + 1];
+			boundaries[chunkCount] = size;
+			for (int i = 1; i < chunkCount; i++) {
+				boundaries[i] = nextLineStart(channel, Math.max(boundaries[i - 1], size / chunkCount * i));
+			}
+
+			List<StudentColumns.Chunk> chunks;
+			try {
+				chunks = IntStream.range(0, chunkCount).parallel()
+						.mapToObj(i -> parseChunk(channel, boundaries[i], boundaries[i + 1]))
+						.collect(Collectors.toList());
+			} catch (UncheckedIOException ex) {
+				throw ex.getCause();
+			}
+
+			StudentColumns columns = new StudentColumns();
+			for (StudentColumns.Chunk chunk : chunks) {
+				columns.append(chunk);
+			}
+			return columns;
+		}
+	}
+
+	/**
+	 * Finds the start of the first line which starts at or after the
+	 * specified position.
+	 *
+	 * @param channel
+	 *            channel of the file
+	 * @param position
+	 *            position in the file
+	 * @return the start of the line, or the size of the file if there is no
+	 *         such line
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	private static long nextLineStart(FileChannel channel, long position) throws IOException {
+		if (position == 0) {
+			return 0;
+		}
+		long size = channel.size();
+		ByteBuffer buffer = ByteBuffer.allocate(256);
+		for (long start = position - 1; start < size; start += buffer.capacity()) {
+			buffer.clear();
+			int read = channel.read(buffer, start);
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return start + i + 1;
+				}
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Parses the lines between the specified positions of the file.
+	 *
+	 * @param channel
+	 *            channel of the file
+	 * @param start
+	 *            start of the first line
+	 * @param end
+	 *            position after the last line
+	 * @return the parsed chunk
+	 * @throws UncheckedIOException
+	 *             if the file can not be mapped
+	 */
+	private static StudentColumns.Chunk parseChunk(FileChannel channel, long start, long end) {
+		MappedByteBuffer buffer;
+		try {
+			buffer = channel.map(MapMode.READ_ONLY, start, end - start);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+
+		StudentColumns.Chunk chunk = new StudentColumns.Chunk();
+		ByteDictionary lastNames = new ByteDictionary();
+		ByteDictionary firstNames = new ByteDictionary();
+		int length = buffer.limit();
+		int lineStart = 0;
+		while (lineStart < length) {
+			int lineEnd = lineStart;
+			while (lineEnd < length && buffer.get(lineEnd) != '\n') {
+				lineEnd++;
+			}
+			int next = lineEnd + 1;
+			if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+				lineEnd--;
+			}
+			parseLine(buffer, lineStart, lineEnd, chunk, lastNames, firstNames);
+			lineStart = next;
+		}
+		return chunk;
+	}
+
+	/**
+	 * Parses a single line and adds it to the chunk.
+	 *
+	 * @param buffer
+	 *            mapped bytes of the chunk
+	 * @param start
+	 *            start of the line
+	 * @param end
+	 *            end of the line, without the line terminator
+	 * @param chunk
+	 *            the chunk
+	 * @param lastNames
+	 *            dictionary of last names of the chunk
+	 * @param firstNames
+	 *            dictionary of first names of the chunk
+	 * @throws RuntimeException
+	 *             if the line is invalid
+	 */
+	private static void parseLine(MappedByteBuffer buffer, int start, int end, StudentColumns.Chunk chunk,
+			ByteDictionary lastNames, ByteDictionary firstNames) {
+		int firstTab = indexOfTab(buffer, start, end);
+		int secondTab = indexOfTab(buffer, firstTab + 1, end);
+		int thirdTab = indexOfTab(buffer, secondTab + 1, end);
+		int gradeEnd = indexOfTab(buffer, thirdTab + 1, end);
+		if (thirdTab >= end || !onlyTabs(buffer, gradeEnd, end)) {
+			throw new RuntimeException("Invalid data found. Data: " + decode(buffer, start, end));
+		}
+
+		int grade = parseGrade(buffer, thirdTab + 1, gradeEnd);
+		decodeJmbag(buffer, start, firstTab, chunk);
+		int lastName = lastNames.code(buffer, firstTab + 1, secondTab, chunk, true);
+		int firstName = firstNames.code(buffer, secondTab + 1, thirdTab, chunk, false);
+		chunk.addRow(lastName, firstName, (byte) grade);
+	}
+
+	/**
+	 * Finds the first tab between the specified positions.
+	 *
+	 * @param buffer
+	 *            the bytes
+	 * @param start
+	 *            the first position that is checked
+	 * @param end
+	 *            the position after the last position that is checked
+	 * @return position of the tab, or the end if there is no tab
+	 */
+	private static int indexOfTab(MappedByteBuffer buffer, int start, int end) {
+		int i = start;
+		while (i < end && buffer.get(i) != '\t') {
+			i++;
+		}
+		return Math.min(i, end);
+	}
+
+	/**
+	 * Checks if there are only tabs between the specified positions. Trailing
+	 * tabs are allowed, since splitting a line by tabs ignores them.
+	 *
+	 * @param buffer
+	 *            the bytes
+	 * @param start
+	 *            the first position that is checked
+	 * @param end
+	 *            the position after the last position that is checked
+	 * @return true if there are only tabs between the positions
+	 */
+	private static boolean onlyTabs(MappedByteBuffer buffer, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (buffer.get(i) != '\t') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parses the final grade written between the specified positions.
+	 *
+	 * @param buffer
+	 *            the bytes
+	 * @param start
+	 *            start of the grade
+	 * @param end
+	 *            end of the grade
+	 * @return the parsed grade
+	 * @throws NumberFormatException
+	 *             if the value is not a grade
+	 */
+	private static int parseGrade(MappedByteBuffer buffer, int start, int end) {
+		int i = start;
+		boolean negative = false;
+		if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+			negative = buffer.get(i) == '-';
+			i++;
+		}
+		if (i == end) {
+			throw invalidGrade(buffer, start, end);
+		}
+		int value = 0;
+		for (; i < end; i++) {
+			int digit = buffer.get(i) - '0';
+			if (digit < 0 || digit > 9 || value > Byte.MAX_VALUE + 1) {
+				throw invalidGrade(buffer, start, end);
+			}
+			value = value * 10 + digit;
+		}
+		value = negative ? -value : value;
+		if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+			throw invalidGrade(buffer, start, end);
+		}
+		return value;
+	}
+
+	/**
+	 * Creates an exception for an invalid grade.
+	 *
+	 * @param buffer
+	 *            the bytes
+	 * @param start
+	 *            start of the grade
+	 * @param end
+	 *            end of the grade
+	 * @return the exception
+	 */
+	private static NumberFormatException invalidGrade(MappedByteBuffer buffer, int start, int end) {
+		return new NumberFormatException(
+				"Invalid data found. The value '" + decode(buffer, start, end) + "' can not be a grade.");
+	}
+
+	/**
+	 * Decodes the jmbag written between the specified positions directly into
+	 * the jmbag column of the chunk.
+	 *
+	 * @param buffer
+	 *            the bytes
+	 * @param start
+	 *            start of the jmbag
+	 * @param end
+	 *            end of the jmbag
+	 * @param chunk
+	 *            the chunk
+	 */
+	private static void decodeJmbag(MappedByteBuffer buffer, int start, int end, StudentColumns.Chunk chunk) {
+		chunk.ensureJmbagCapacity(end - start);
+		for (int i = start; i < end; i++) {
+			byte b = buffer.get(i);
+			if (b < 0) {
+				// not ASCII, so the jmbag is decoded as UTF-8
+				String jmbag = decode(buffer, start, end);
+				jmbag.getChars(0, jmbag.length(), chunk.jmbagChars, chunk.jmbagLength);
+				chunk.jmbagLength += jmbag.length();
+				return;
+			}
+		}
+		for (int i = start; i < end; i++) {
+			chunk.jmbagChars[chunk.jmbagLength++] = (char) buffer.get(i);
+		}
+	}
+
+	/**
+	 * Decodes the UTF-8 bytes between the specified positions.
+	 *
+	 * @param buffer
+	 *            the bytes
+	 * @param start
+	 *            the first position
+	 * @param end
+	 *            the position after the last position
+	 * @return the decoded string
+	 */
+	private static String decode(MappedByteBuffer buffer, int start, int end) {
+		byte[] bytes = new byte[end - start];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = buffer.get(start + i);
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * This class represents a dictionary of names of a single chunk which is
+	 * looked up by the bytes of a name, so that no string has to be created
+	 * for names that are already in the dictionary.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private static class ByteDictionary {
+		/** Open addressing hash table of codes increased by one. **/
+		private int[] table = new int[64];
+		/** Bytes of the names, indexed by their codes. **/
+		private byte[][] names = new byte[32][];
+		/** Hashes of the names, indexed by their codes. **/
+		private int[] hashes = new int[32];
+		/** Number of names. **/
+		private int count;
+
+		/**
+		 * Gets the code of the name written between the specified positions.
+		 * If the name is not in the dictionary yet, it is added to the
+		 * dictionary of the chunk.
+		 *
+		 * @param buffer
+		 *            the bytes
+		 * @param start
+		 *            start of the name
+		 * @param end
+		 *            end of the name
+		 * @param chunk
+		 *            the chunk
+		 * @param lastName
+		 *            true if the name is a last name, false if it is a first
+		 *            name
+		 * @return code of the name in the chunk
+		 */
+		private int code(MappedByteBuffer buffer, int start, int end, StudentColumns.Chunk chunk,
+				boolean lastName) {
+			int hash = 0;
+			for (int i = start; i < end; i++) {
+				hash = 31 * hash + buffer.get(i);
+			}
+
+			int mask = table.length - 1;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while (table[slot] != 0) {
+				int code = table[slot] - 1;
+				if (hashes[code] == hash && equal(names[code], buffer, start, end)) {
+					return code;
+				}
+				slot = (slot + 1) & mask;
+			}
+
+			byte[] bytes = new byte[end - start];
+			for (int i = 0; i < bytes.length; i++) {
+				bytes[i] = buffer.get(start + i);
+			}
+			String name = new String(bytes, StandardCharsets.UTF_8);
+			int code = lastName ? chunk.addLastName(name) : chunk.addFirstName(name);
+			if (code == names.length) {
+				names = Arrays.copyOf(names, code * 2);
+				hashes = Arrays.copyOf(hashes, code * 2);
+			}
+			names[code] = bytes;
+			hashes[code] = hash;
+			table[slot] = code + 1;
+			count++;
+			if (count * 2 > table.length) {
+				rehash();
+			}
+			return code;
+		}
+
+		/**
+		 * Checks if the specified name is equal to the bytes between the
+		 * specified positions.
+		 *
+		 * @param name
+		 *            bytes of a name
+		 * @param buffer
+		 *            the bytes
+		 * @param start
+		 *            the first position
+		 * @param end
+		 *            the position after the last position
+		 * @return true if the bytes are equal
+		 */
+		private static boolean equal(byte[] name, MappedByteBuffer buffer, int start, int end) {
+			if (name.length != end - start) {
+				return false;
+			}
+			for (int i = 0; i < name.length; i++) {
+				if (name[i] != buffer.get(start + i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Doubles the capacity of the hash table.
+		 */
+		private void rehash() {
+			table = new int[table.length * 2];
+			int mask = table.length - 1;
+			for (int code = 0; code < count; code++) {
+				int slot = (hashes[code] ^ (hashes[code] >>> 16)) & mask;
+				while (table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = code + 1;
+			}
+		}
+	}
+}
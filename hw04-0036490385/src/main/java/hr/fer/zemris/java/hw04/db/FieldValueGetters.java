@@ -4,10 +4,12 @@ public class FieldValueGetters {
 	public static final IFieldValueGetter FIRST_NAME;
 	public static final IFieldValueGetter LAST_NAME;
 	public static final IFieldValueGetter JMBAG;
+	public static final IFieldValueGetter FINAL_GRADE;
 
 	static {
 		FIRST_NAME = record -> record.getFirstName();
 		LAST_NAME = record -> record.getLastName();
 		JMBAG = record -> record.getJmbag();
+		FINAL_GRADE = record -> Integer.toString(record.getFinalGrade());
 	}
 }
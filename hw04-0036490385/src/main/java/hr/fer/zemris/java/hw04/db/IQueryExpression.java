@@ -0,0 +1,36 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+/**
+ * This interface represents a boolean expression of a query, i.e. a
+ * conditional expression or a combination of conditional expressions using the
+ * logical operators AND, OR and NOT. An expression can be checked on a single
+ * record, evaluated on all rows of a database at once, or compiled into a
+ * predicate which is checked row by row.
+ *
+ * @author Alen Magdić
+ *
+ */
+public interface IQueryExpression extends IFilter {
+	/**
+	 * Evaluates this expression on all rows of the specified columns.
+	 *
+	 * @param columns
+	 *            columns containing the database data
+	 * @return bitmap of the rows that satisfy this expression
+	 */
+	public BitSet evaluate(StudentColumns columns);
+
+	/**
+	 * Compiles this expression into a predicate which is satisfied by the row
+	 * numbers of the specified columns whose rows satisfy this expression.
+	 *
+	 * @param columns
+	 *            columns containing the database data
+	 * @return the compiled predicate
+	 */
+	public IntPredicate compile(StudentColumns columns);
+
+}
@@ -0,0 +1,58 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+
+/**
+ * This class represents a negation of an expression, i.e. an expression which
+ * is satisfied if its operand is not satisfied.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class NotExpression implements IQueryExpression {
+	/**
+	 * Operand of this expression.
+	 */
+	private IQueryExpression operand;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param operand
+	 *            the negated expression
+	 */
+	public NotExpression(IQueryExpression operand) {
+		if (operand == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		this.operand = operand;
+	}
+
+	/**
+	 * Gets the operand of this expression.
+	 *
+	 * @return the negated expression
+	 */
+	public IQueryExpression getOperand() {
+		return operand;
+	}
+
+	@Override
+	public boolean accepts(StudentRecord record) {
+		return !operand.accepts(record);
+	}
+
+	@Override
+	public BitSet evaluate(StudentColumns columns) {
+		BitSet result = columns.liveRows();
+		result.andNot(operand.evaluate(columns));
+		return result;
+	}
+
+	@Override
+	public IntPredicate compile(StudentColumns columns) {
+		return operand.compile(columns).negate();
+	}
+
+}
@@ -0,0 +1,147 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents a parsed database query. A query consists of an
+ * optional condition which the selected records have to satisfy, an optional
+ * attribute by which the selected records are ordered, an optional limit on the
+ * number of selected records and a flag which tells whether only the number of
+ * selected records is wanted instead of the records themselves.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class Query {
+	/**
+	 * The value of the limit if the number of selected records is not
+	 * limited.
+	 */
+	public static final int NO_LIMIT = -1;
+
+	/**
+	 * The condition of the query, or null if all records are selected.
+	 */
+	private IQueryExpression condition;
+	/**
+	 * Field value getter of the attribute by which the records are ordered, or
+	 * null if they are selected in the database order.
+	 */
+	private IFieldValueGetter orderBy;
+	/**
+	 * Whether the records are ordered descending.
+	 */
+	private boolean descending;
+	/**
+	 * The largest number of selected records, or {@link #NO_LIMIT}.
+	 */
+	private int limit;
+	/**
+	 * Whether only the number of selected records is wanted.
+	 */
+	private boolean count;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param condition
+	 *            condition of the query, or null if all records are selected
+	 * @param orderBy
+	 *            field value getter of the attribute by which the records are
+	 *            ordered, or null if they are selected in the database order
+	 * @param descending
+	 *            true if the records are ordered descending
+	 * @param limit
+	 *            the largest number of selected records, or {@link #NO_LIMIT}
+	 * @param count
+	 *            true if only the number of selected records is wanted
+	 */
+	public Query(IQueryExpression condition, IFieldValueGetter orderBy, boolean descending, int limit,
+			boolean count) {
+		if (limit < 0 && limit != NO_LIMIT) {
+			throw new IllegalArgumentException("The limit can not be negative.");
+		}
+		this.condition = condition;
+		this.orderBy = orderBy;
+		this.descending = descending;
+		this.limit = limit;
+		this.count = count;
+	}
+
+	/**
+	 * Gets the condition of the query.
+	 *
+	 * @return the condition, or null if all records are selected
+	 */
+	public IQueryExpression getCondition() {
+		return condition;
+	}
+
+	/**
+	 * Gets the field value getter of the attribute by which the records are
+	 * ordered.
+	 *
+	 * @return the field value getter, or null if the records are selected in
+	 *         the database order
+	 */
+	public IFieldValueGetter getOrderBy() {
+		return orderBy;
+	}
+
+	/**
+	 * Checks if the records are ordered descending.
+	 *
+	 * @return true if the records are ordered descending
+	 */
+	public boolean isDescending() {
+		return descending;
+	}
+
+	/**
+	 * Gets the largest number of selected records.
+	 *
+	 * @return the limit, or {@link #NO_LIMIT} if the number of selected
+	 *         records is not limited
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * Checks if only the number of selected records is wanted.
+	 *
+	 * @return true if only the number of selected records is wanted
+	 */
+	public boolean isCount() {
+		return count;
+	}
+
+	/**
+	 * Gets the condition of the query as a list of conditional expressions
+	 * that all have to be satisfied, if it can be written that way.
+	 *
+	 * @return list of conditional expressions, empty if all records are
+	 *         selected, or null if the condition uses OR or NOT
+	 */
+	public List<ConditionalExpression> getConditions() {
+		if (condition == null) {
+			return Collections.emptyList();
+		} else if (condition instanceof ConditionalExpression) {
+			return Collections.singletonList((ConditionalExpression) condition);
+		} else if (!(condition instanceof AndExpression)) {
+			return null;
+		}
+
+		List<ConditionalExpression> conditions = new ArrayList<>();
+		for (IQueryExpression operand : ((AndExpression) condition).getOperands()) {
+			if (!(operand instanceof ConditionalExpression)) {
+				return null;
+			}
+			conditions.add((ConditionalExpression) operand);
+		}
+		return conditions;
+	}
+
+}
@@ -0,0 +1,358 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * This class represents a cache of query results of a {@link StudentDatabase}.
+ * Results are stored under the normalised form of their query (see
+ * {@link #normalize(Query)}), so queries which differ only in whitespace, in
+ * the case of keywords or in the order of the operands of AND and OR share a
+ * result. The cache holds at most the specified number of results and at most
+ * the specified number of records in all results together; the least recently
+ * used results are removed first, and results larger than the record limit
+ * are not stored at all. The whole cache is cleared when the database is
+ * changed.
+ * <p>
+ * The cache also keeps statistics: the number of hits and misses, the number
+ * of times it was cleared because of a change, and the total time spent
+ * answering queries.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ */
+public class QueryCache {
+	/** Default largest number of cached results. **/
+	public static final int DEFAULT_MAX_ENTRIES = 64;
+	/** Default largest number of records in all cached results. **/
+	public static final int DEFAULT_MAX_RECORDS = 100_000;
+
+	/** The database whose results are cached. **/
+	private StudentDatabase database;
+	/** Largest number of cached results. **/
+	private int maxEntries;
+	/** Largest number of records in all cached results. **/
+	private int maxRecords;
+	/** Cached results in the order of their use, the least recent first. **/
+	private LinkedHashMap<String, Object> results;
+	/** Number of records in all cached results. **/
+	private int records;
+	/** Modification count of the database when the results were cached. **/
+	private long modificationCount;
+
+	/** Number of queries answered from the cache. **/
+	private long hits;
+	/** Number of queries answered by the database. **/
+	private long misses;
+	/** Number of times the cache was cleared because of a change. **/
+	private long invalidations;
+	/** Total time spent answering queries, in nanoseconds. **/
+	private long totalNanos;
+
+	/**
+	 * Constructor. Creates a cache with the default limits.
+	 *
+	 * @param database
+	 *            the database whose results are cached
+	 */
+	public QueryCache(StudentDatabase database) {
+		this(database, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_RECORDS);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param database
+	 *            the database whose results are cached
+	 * @param maxEntries
+	 *            largest number of cached results
+	 * @param maxRecords
+	 *            largest number of records in all cached results
+	 */
+	public QueryCache(StudentDatabase database, int maxEntries, int maxRecords) {
+		if (database == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		if (maxEntries < 0 || maxRecords < 0) {
+			throw new IllegalArgumentException("The limits of the cache can not be negative.");
+		}
+		this.database = database;
+		this.maxEntries = maxEntries;
+		this.maxRecords = maxRecords;
+		results = new LinkedHashMap<>(16, 0.75f, true);
+		modificationCount = database.getModificationCount();
+	}
+
+	/**
+	 * Gets the records selected by the specified query, from the cache if
+	 * possible. The returned list can not be modified.
+	 *
+	 * @param query
+	 *            the query
+	 * @return list of records selected by the query
+	 */
+	@SuppressWarnings("unchecked")
+	public List<StudentRecord> execute(Query query) {
+		long start = System.nanoTime();
+		String key = normalize(query);
+		Object result = lookup(key);
+		if (result == null) {
+			List<StudentRecord> selected = Collections.unmodifiableList(database.execute(query));
+			store(key, selected, selected.size());
+			result = selected;
+		}
+		totalNanos += System.nanoTime() - start;
+		return (List<StudentRecord>) result;
+	}
+
+	/**
+	 * Counts the records selected by the specified query, using the cache if
+	 * possible.
+	 *
+	 * @param query
+	 *            the query
+	 * @return the number of records selected by the query
+	 */
+	public int count(Query query) {
+		long start = System.nanoTime();
+		String key = normalize(query);
+		Object result = lookup(key);
+		if (result == null) {
+			result = database.count(query);
+			store(key, result, 1);
+		}
+		totalNanos += System.nanoTime() - start;
+		return (Integer) result;
+	}
+
+	/**
+	 * Looks up the result stored under the specified key. The cache is
+	 * cleared first if the database was changed.
+	 *
+	 * @param key
+	 *            normalised query
+	 * @return the cached result, or null if there is none
+	 */
+	private Object lookup(String key) {
+		if (database.getModificationCount() != modificationCount) {
+			if (!results.isEmpty()) {
+				invalidations++;
+			}
+			clear();
+			modificationCount = database.getModificationCount();
+		}
+
+		Object result = results.get(key);
+		if (result == null) {
+			misses++;
+		} else {
+			hits++;
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the specified result, removing the least recently used results
+	 * until the limits are satisfied.
+	 *
+	 * @param key
+	 *            normalised query
+	 * @param result
+	 *            the result
+	 * @param size
+	 *            number of records the result takes up
+	 */
+	private void store(String key, Object result, int size) {
+		if (maxEntries == 0 || size > maxRecords) {
+			return;
+		}
+		results.put(key, result);
+		records += size;
+		while (results.size() > maxEntries || records > maxRecords) {
+			Map.Entry<String, Object> eldest = results.entrySet().iterator().next();
+			records -= sizeOf(eldest.getValue());
+			results.remove(eldest.getKey());
+		}
+	}
+
+	/**
+	 * Gets the number of records the specified result takes up.
+	 *
+	 * @param result
+	 *            a cached result
+	 * @return number of records of the result
+	 */
+	private static int sizeOf(Object result) {
+		return result instanceof List ? ((List<?>) result).size() : 1;
+	}
+
+	/**
+	 * Removes all cached results. The statistics are kept.
+	 */
+	public void clear() {
+		results.clear();
+		records = 0;
+	}
+
+	/**
+	 * Gets the number of cached results.
+	 *
+	 * @return number of cached results
+	 */
+	public int size() {
+		return results.size();
+	}
+
+	/**
+	 * Gets the number of queries answered from the cache.
+	 *
+	 * @return number of hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of queries answered by the database.
+	 *
+	 * @return number of misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Gets the number of times the cache was cleared because the database was
+	 * changed.
+	 *
+	 * @return number of invalidations
+	 */
+	public long getInvalidations() {
+		return invalidations;
+	}
+
+	/**
+	 * Gets the fraction of queries answered from the cache.
+	 *
+	 * @return the hit rate, or 0 if there were no queries
+	 */
+	public double getHitRate() {
+		long queries = hits + misses;
+		return queries == 0 ? 0 : (double) hits / queries;
+	}
+
+	/**
+	 * Gets the average time spent answering a query, including the time spent
+	 * on the cache.
+	 *
+	 * @return the average latency in nanoseconds, or 0 if there were no
+	 *         queries
+	 */
+	public double getAverageLatency() {
+		long queries = hits + misses;
+		return queries == 0 ? 0 : (double) totalNanos / queries;
+	}
+
+	/**
+	 * Creates the normalised form of the specified query. Conditional
+	 * expressions are written as <code>attribute operator "literal"</code>,
+	 * the operands of AND and OR are flattened, sorted and written without
+	 * duplicates, and the keywords are written in upper case with a single
+	 * space between the parts of the query. Queries with the same normalised
+	 * form select the same records in the same order.
+	 *
+	 * @param query
+	 *            the query
+	 * @return the normalised query
+	 */
+	public static String normalize(Query query) {
+		StringBuilder sb = new StringBuilder();
+		if (query.isCount()) {
+			sb.append("COUNT");
+		}
+		if (query.getCondition() != null) {
+			sb.append(sb.length() == 0 ? "" : " ").append(normalize(query.getCondition()));
+		}
+		if (query.getOrderBy() != null) {
+			sb.append(sb.length() == 0 ? "" : " ").append("ORDER BY ").append(nameOf(query.getOrderBy()))
+					.append(query.isDescending() ? " DESC" : " ASC");
+		}
+		if (query.getLimit() != Query.NO_LIMIT) {
+			sb.append(sb.length() == 0 ? "" : " ").append("LIMIT ").append(query.getLimit());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Creates the normalised form of the specified expression.
+	 *
+	 * @param expression
+	 *            the expression
+	 * @return the normalised expression
+	 */
+	private static String normalize(IQueryExpression expression) {
+		if (expression instanceof ConditionalExpression) {
+			ConditionalExpression condition = (ConditionalExpression) expression;
+			String operator = QueryParser.operatorName(condition.getComparisonOperator());
+			if (operator == null) {
+				operator = "?" + System.identityHashCode(condition.getComparisonOperator());
+			}
+			return nameOf(condition.getFieldGetter()) + " " + operator + " \"" + condition.getStringLiteral()
+					+ "\"";
+		} else if (expression instanceof NotExpression) {
+			return "NOT (" + normalize(((NotExpression) expression).getOperand()) + ")";
+		} else if (expression instanceof AndExpression) {
+			return normalizeOperands(((AndExpression) expression).getOperands(), AndExpression.class, " AND ");
+		} else if (expression instanceof OrExpression) {
+			return normalizeOperands(((OrExpression) expression).getOperands(), OrExpression.class, " OR ");
+		}
+		return "?" + System.identityHashCode(expression);
+	}
+
+	/**
+	 * Creates the normalised form of a conjunction or a disjunction with the
+	 * specified operands. Operands of the same kind are flattened into it.
+	 *
+	 * @param operands
+	 *            operands of the expression
+	 * @param kind
+	 *            class of the expression
+	 * @param separator
+	 *            the logical operator surrounded by spaces
+	 * @return the normalised expression
+	 */
+	private static String normalizeOperands(List<IQueryExpression> operands, Class<?> kind, String separator) {
+		TreeSet<String> normalized = new TreeSet<>();
+		List<IQueryExpression> remaining = new ArrayList<>(operands);
+		while (!remaining.isEmpty()) {
+			IQueryExpression operand = remaining.remove(remaining.size() - 1);
+			if (kind == AndExpression.class && operand instanceof AndExpression) {
+				remaining.addAll(((AndExpression) operand).getOperands());
+			} else if (kind == OrExpression.class && operand instanceof OrExpression) {
+				remaining.addAll(((OrExpression) operand).getOperands());
+			} else {
+				String text = normalize(operand);
+				normalized.add(operand instanceof ConditionalExpression || operand instanceof NotExpression ? text
+						: "(" + text + ")");
+			}
+		}
+		return normalized.size() == 1 ? normalized.first() : String.join(separator, normalized);
+	}
+
+	/**
+	 * Gets the name of the attribute of the specified field value getter.
+	 *
+	 * @param fieldGetter
+	 *            field value getter
+	 * @return name of the attribute
+	 */
+	private static String nameOf(IFieldValueGetter fieldGetter) {
+		String name = QueryParser.attributeName(fieldGetter);
+		return name == null ? "?" + System.identityHashCode(fieldGetter) : name;
+	}
+}
@@ -0,0 +1,258 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * This class compiles a query, i.e. a list of conditional expressions, into a
+ * single filter which accepts the same records as a {@link QueryFilter} with
+ * the same conditions. Unlike QueryFilter, which for every record and every
+ * condition calls a field value getter and a comparison operator through their
+ * interfaces, the compiled filter:
+ * <ul>
+ * <li>reads the attributes of the known field value getters directly from the
+ * record,</li>
+ * <li>uses specialised comparisons for the known operators, with LIKE patterns
+ * split into their parts only once,</li>
+ * <li>compares final grades as numbers where that gives the same result as
+ * comparing them as strings, using a literal that is parsed only once,</li>
+ * <li>checks the conditions ordered by their estimated selectivity, so the
+ * conditions that reject most records are checked first.</li>
+ * </ul>
+ *
+ * @author Alen Magdić
+ *
+ */
+public class QueryCompiler {
+	/** The smallest grade for which the result of a comparison is cached. **/
+	private static final int CACHED_GRADES_MIN = -128;
+	/** The largest grade for which the result of a comparison is cached. **/
+	private static final int CACHED_GRADES_MAX = 127;
+
+	/**
+	 * Compiles the specified conditions into a single filter which accepts a
+	 * record if it satisfies all the conditions.
+	 *
+	 * @param conditions
+	 *            conditional expressions
+	 * @return the compiled filter
+	 */
+	public static IFilter compile(List<ConditionalExpression> conditions) {
+		List<ConditionalExpression> ordered = orderBySelectivity(conditions);
+		IFilter[] filters = new IFilter[ordered.size()];
+		for (int i = 0; i < filters.length; i++) {
+			filters[i] = compile(ordered.get(i));
+		}
+
+		switch (filters.length) {
+		case 0:
+			return record -> true;
+		case 1:
+			return filters[0];
+		case 2:
+			IFilter first = filters[0];
+			IFilter second = filters[1];
+			return record -> first.accepts(record) && second.accepts(record);
+		default:
+			return record -> {
+				for (IFilter filter : filters) {
+					if (!filter.accepts(record)) {
+						return false;
+					}
+				}
+				return true;
+			};
+		}
+	}
+
+	/**
+	 * Compiles a single condition into a filter.
+	 *
+	 * @param condition
+	 *            conditional expression
+	 * @return the compiled filter
+	 */
+	public static IFilter compile(ConditionalExpression condition) {
+		IFieldValueGetter fieldGetter = condition.getFieldGetter();
+		IComparisonOperator operator = condition.getComparisonOperator();
+		String literal = condition.getStringLiteral();
+
+		if (fieldGetter == FieldValueGetters.FINAL_GRADE) {
+			return compileGrade(operator, literal);
+		}
+
+		Predicate<String> test = compile(operator, literal);
+		if (fieldGetter == FieldValueGetters.LAST_NAME) {
+			return record -> test.test(record.getLastName());
+		} else if (fieldGetter == FieldValueGetters.FIRST_NAME) {
+			return record -> test.test(record.getFirstName());
+		} else if (fieldGetter == FieldValueGetters.JMBAG) {
+			return record -> test.test(record.getJmbag());
+		}
+		return record -> test.test(fieldGetter.get(record));
+	}
+
+	/**
+	 * Compiles the comparison of a value with the specified literal using the
+	 * specified operator into a predicate which is satisfied by the value if
+	 * <code>operator.satisfied(value, literal)</code> is true.
+	 *
+	 * @param operator
+	 *            comparison operator
+	 * @param literal
+	 *            string literal
+	 * @return the compiled predicate
+	 */
+	public static Predicate<String> compile(IComparisonOperator operator, String literal) {
+		if (operator == ComparisonOperators.EQUALS) {
+			return value -> value.equals(literal);
+		} else if (operator == ComparisonOperators.NOT_EQUALS) {
+			return value -> !value.equals(literal);
+		} else if (operator == ComparisonOperators.LESS) {
+			return value -> value.compareTo(literal) < 0;
+		} else if (operator == ComparisonOperators.LESS_OR_EQUALS) {
+			return value -> value.compareTo(literal) <= 0;
+		} else if (operator == ComparisonOperators.GREATER) {
+			return value -> value.compareTo(literal) > 0;
+		} else if (operator == ComparisonOperators.GREATER_OR_EQUALS) {
+			return value -> value.compareTo(literal) >= 0;
+		} else if (operator == ComparisonOperators.LIKE) {
+			return compileLike(literal);
+		}
+		return value -> operator.satisfied(value, literal);
+	}
+
+	/**
+	 * Compiles a LIKE pattern. The pattern is split into the parts before and
+	 * after the wildcard only once.
+	 *
+	 * @param pattern
+	 *            the pattern
+	 * @return predicate which is satisfied by the values that are LIKE the
+	 *         pattern
+	 */
+	private static Predicate<String> compileLike(String pattern) {
+		int wildcard = pattern.indexOf('*');
+		if (wildcard == -1) {
+			return value -> value.equals(pattern);
+		}
+		if (pattern.indexOf('*', wildcard + 1) != -1) {
+			// invalid pattern, the operator reports the error
+			return value -> ComparisonOperators.LIKE.satisfied(value, pattern);
+		}
+
+		String prefix = pattern.substring(0, wildcard);
+		String suffix = pattern.substring(wildcard + 1);
+		if (prefix.isEmpty() && suffix.isEmpty()) {
+			return value -> true;
+		} else if (suffix.isEmpty()) {
+			return value -> value.startsWith(prefix);
+		} else if (prefix.isEmpty()) {
+			return value -> value.endsWith(suffix);
+		}
+		int minLength = prefix.length() + suffix.length();
+		return value -> value.length() >= minLength && value.startsWith(prefix) && value.endsWith(suffix);
+	}
+
+	/**
+	 * Compiles a condition on the final grade. Equality with a literal that is
+	 * a number is checked by comparing numbers. For other conditions the
+	 * results for all grades in a small range are calculated in advance, so
+	 * only grades out of that range are converted to strings.
+	 *
+	 * @param operator
+	 *            comparison operator
+	 * @param literal
+	 *            string literal
+	 * @return the compiled filter
+	 */
+	private static IFilter compileGrade(IComparisonOperator operator, String literal) {
+		Integer number = parseCanonicalInteger(literal);
+		if (number != null && operator == ComparisonOperators.EQUALS) {
+			int value = number;
+			return record -> record.getFinalGrade() == value;
+		} else if (number != null && operator == ComparisonOperators.NOT_EQUALS) {
+			int value = number;
+			return record -> record.getFinalGrade() != value;
+		}
+
+		Predicate<String> test = compile(operator, literal);
+		boolean[] results = new boolean[CACHED_GRADES_MAX - CACHED_GRADES_MIN + 1];
+		for (int grade = CACHED_GRADES_MIN; grade <= CACHED_GRADES_MAX; grade++) {
+			results[grade - CACHED_GRADES_MIN] = test.test(Integer.toString(grade));
+		}
+		return record -> {
+			int grade = record.getFinalGrade();
+			if (grade >= CACHED_GRADES_MIN && grade <= CACHED_GRADES_MAX) {
+				return results[grade - CACHED_GRADES_MIN];
+			}
+			return test.test(Integer.toString(grade));
+		};
+	}
+
+	/**
+	 * Parses the specified literal if it is an integer written the same way
+	 * {@link Integer#toString(int)} would write it.
+	 *
+	 * @param literal
+	 *            string literal
+	 * @return the parsed integer, or null if the literal is not written that
+	 *         way
+	 */
+	private static Integer parseCanonicalInteger(String literal) {
+		try {
+			int value = Integer.parseInt(literal);
+			return Integer.toString(value).equals(literal) ? value : null;
+		} catch (NumberFormatException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns the specified conditions ordered by their estimated selectivity,
+	 * the most selective first. Conditions with the same estimate keep their
+	 * order.
+	 *
+	 * @param conditions
+	 *            conditional expressions
+	 * @return the ordered conditions
+	 */
+	public static List<ConditionalExpression> orderBySelectivity(List<ConditionalExpression> conditions) {
+		List<ConditionalExpression> ordered = new ArrayList<>(conditions);
+		ordered.sort(Comparator.comparingDouble(QueryCompiler::estimateSelectivity));
+		return ordered;
+	}
+
+	/**
+	 * Estimates the fraction of records which satisfy the specified
+	 * condition.
+	 *
+	 * @param condition
+	 *            conditional expression
+	 * @return the estimated fraction of records which satisfy the condition
+	 */
+	static double estimateSelectivity(ConditionalExpression condition) {
+		IFieldValueGetter fieldGetter = condition.getFieldGetter();
+		IComparisonOperator operator = condition.getComparisonOperator();
+		String literal = condition.getStringLiteral();
+
+		boolean equality = operator == ComparisonOperators.EQUALS
+				|| operator == ComparisonOperators.LIKE && literal.indexOf('*') == -1;
+		if (equality) {
+			if (fieldGetter == FieldValueGetters.JMBAG) {
+				return 0;
+			}
+			return fieldGetter == FieldValueGetters.FINAL_GRADE ? 0.2 : 0.01;
+		} else if (operator == ComparisonOperators.NOT_EQUALS) {
+			return 0.99;
+		} else if (operator == ComparisonOperators.LIKE) {
+			if (literal.equals("*")) {
+				return 1;
+			}
+			return literal.endsWith("*") ? 0.1 : 0.2;
+		}
+		return 0.5;
+	}
+}
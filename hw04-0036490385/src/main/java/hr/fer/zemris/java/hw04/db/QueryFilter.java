@@ -1,6 +1,7 @@
 package hr.fer.zemris.java.hw04.db;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -29,6 +30,16 @@ public class QueryFilter implements IFilter {
 		this.conditions = new ArrayList<>(conditions);
 	}
 
+	/**
+	 * Gets the conditions that are to be satisfied in order for a record to be
+	 * acceptable.
+	 *
+	 * @return unmodifiable list of the conditions
+	 */
+	public List<ConditionalExpression> getConditions() {
+		return Collections.unmodifiableList(conditions);
+	}
+
 	@Override
 	public boolean accepts(StudentRecord record) {
 		for (ConditionalExpression condition : conditions) {
@@ -3,15 +3,18 @@ package hr.fer.zemris.java.hw04.db;
 import java.util.Arrays;
 
 /**
- * This lexer splits a given query to tokens. There are five types of tokens:
- * NAME, OPERATOR, LOGICAL_OPERATOR, STRING, EOF. The NAME token represents an
+ * This lexer splits a given query to tokens. There are nine types of tokens:
+ * NAME, OPERATOR, LOGICAL_OPERATOR, KEYWORD, OPEN_PARENTHESIS,
+ * CLOSED_PARENTHESIS, STRING, NUMBER, EOF. The NAME token represents an
  * attribute name. The OPERATOR represents the following operators: LIKE, >=,
- * <=, >, <, !=, =. There is only one LOGICAL_OPERATOR, an AND which is not case
- * sensitive, so the lexer recognize 'AND','and','And', etc. as a
- * LOGICAL_OPERATOR. The STRING token is a piece of text surrounded by the
- * quotation marks. EOF token represents the end of file. If there is any piece
- * of text that can not be a part of any supported tokens, a LexerException
- * exception is thrown.
+ * <=, >, <, !=, =. The LOGICAL_OPERATOR tokens are AND, OR and NOT, and the
+ * KEYWORD tokens are ORDER, BY, ASC, DESC, LIMIT and COUNT. Logical operators
+ * and keywords are not case sensitive, so the lexer recognize 'AND','and','And',
+ * etc. as a LOGICAL_OPERATOR. The parentheses are the characters '(' and ')'.
+ * The STRING token is a piece of text surrounded by the quotation marks, and
+ * the NUMBER token is a sequence of digits. EOF token represents the end of
+ * file. If there is any piece of text that can not be a part of any supported
+ * tokens, a LexerException exception is thrown.
  *
  * @author Alen Magdić
  *
@@ -33,9 +36,19 @@ public class QueryLexer {
 	 * An array of supported operators.
 	 */
 	private static final String[] SUPPORTED_OPERATORS;
+	/**
+	 * An array of supported logical operators, in lower case.
+	 */
+	private static final String[] SUPPORTED_LOGICAL_OPERATORS;
+	/**
+	 * An array of supported keywords, in lower case.
+	 */
+	private static final String[] SUPPORTED_KEYWORDS;
 
 	static {
 		SUPPORTED_OPERATORS = new String[] { "LIKE", ">=", "<=", ">", "<", "!=", "=" };
+		SUPPORTED_LOGICAL_OPERATORS = new String[] { "and", "or", "not" };
+		SUPPORTED_KEYWORDS = new String[] { "order", "by", "asc", "desc", "limit", "count" };
 	}
 
 	/**
@@ -75,21 +88,53 @@ public class QueryLexer {
 		} else if (detectedTokenType == TokenType.STRING) {
 			return token = createStringToken();
 		} else if (detectedTokenType == TokenType.LOGICAL_OPERATOR) {
-			return token = createLogicalOperatorToken();
+			return token = createWordToken(TokenType.LOGICAL_OPERATOR, SUPPORTED_LOGICAL_OPERATORS);
+		} else if (detectedTokenType == TokenType.KEYWORD) {
+			return token = createWordToken(TokenType.KEYWORD, SUPPORTED_KEYWORDS);
+		} else if (detectedTokenType == TokenType.NUMBER) {
+			return token = createNumberToken();
+		} else if (detectedTokenType == TokenType.OPEN_PARENTHESIS
+				|| detectedTokenType == TokenType.CLOSED_PARENTHESIS) {
+			currentIndex++;
+			return token = new Token(detectedTokenType, String.valueOf(data[currentIndex - 1]));
 		} else {
 			return token = createOperatorToken();
 		}
 	}
 
 	/**
-	 * Creates and returns a LOGICAL_OPERATOR token.
+	 * Creates and returns a token of the specified type whose value is the one
+	 * of the specified words that is at the current index. The value is
+	 * written as it is written in the query.
 	 *
-	 * @return LOGICAL_OPERATOR token
+	 * @param type
+	 *            type of the token
+	 * @param words
+	 *            words that can be the value of the token, in lower case
+	 * @return LOGICAL_OPERATOR or KEYWORD token
 	 */
-	private Token createLogicalOperatorToken() {
-		String tokenValue = createStringFromDataInRange(currentIndex, currentIndex + "and".length());
-		currentIndex += "and".length();
-		return new Token(TokenType.LOGICAL_OPERATOR, tokenValue);
+	private Token createWordToken(TokenType type, String[] words) {
+		String word = getWordAtIndex(words, currentIndex);
+		String tokenValue = createStringFromDataInRange(currentIndex, currentIndex + word.length());
+		currentIndex += word.length();
+		return new Token(type, tokenValue);
+	}
+
+	/**
+	 * Creates and returns a NUMBER token. The value of the token is the string
+	 * of digits.
+	 *
+	 * @return NUMBER token
+	 */
+	private Token createNumberToken() {
+		int start = currentIndex;
+		while (indexInBounds(currentIndex, data) && Character.isDigit(data[currentIndex])) {
+			currentIndex++;
+		}
+		if (indexInBounds(currentIndex, data) && charCanBePartOfName(data[currentIndex])) {
+			throw new LexerException("Invalid expression!");
+		}
+		return new Token(TokenType.NUMBER, createStringFromDataInRange(start, currentIndex));
 	}
 
 	/**
@@ -159,10 +204,18 @@ public class QueryLexer {
 	private TokenType detectTokenTypeFromCharAtIndex(int index) {
 		if (data[index] == '\"') {
 			return TokenType.STRING;
-		} else if (isKeywordAtIndex("and", index, CaseSensitivity.INSENSITIVE)) {
+		} else if (data[index] == '(') {
+			return TokenType.OPEN_PARENTHESIS;
+		} else if (data[index] == ')') {
+			return TokenType.CLOSED_PARENTHESIS;
+		} else if (getWordAtIndex(SUPPORTED_LOGICAL_OPERATORS, index) != null) {
 			return TokenType.LOGICAL_OPERATOR;
+		} else if (getWordAtIndex(SUPPORTED_KEYWORDS, index) != null) {
+			return TokenType.KEYWORD;
 		} else if (isAnyOperatorAtIndex(index)) {
 			return TokenType.OPERATOR;
+		} else if (Character.isDigit(data[index])) {
+			return TokenType.NUMBER;
 		} else if (Character.isLetter(data[index])) {
 			return TokenType.NAME;
 		} else {
@@ -199,9 +252,31 @@ public class QueryLexer {
 		return null;
 	}
 
+	/**
+	 * The method returns the one of the specified words that is at the
+	 * specified index, ignoring the case. If there is none of them, the null is
+	 * returned.
+	 *
+	 * @param words
+	 *            words in lower case
+	 * @param index
+	 *            the starting position of the word
+	 * @return the word at the specified index, in lower case
+	 */
+	private String getWordAtIndex(String[] words, int index) {
+		for (String word : words) {
+			if (isKeywordAtIndex(word, index, CaseSensitivity.INSENSITIVE)) {
+				return word;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * The method checks if there is a specified keyword at the specified index.
-	 * The check is done using the specified CaseSensitivity.
+	 * The keyword has to be followed by a blank character, a quotation mark, a
+	 * parenthesis or the end of the data. The check is done using the
+	 * specified CaseSensitivity.
 	 *
 	 *
 	 * @param keyword
@@ -220,8 +295,7 @@ public class QueryLexer {
 		}
 
 		int indexAfterPossibleKeyword = index + keyword.length();
-		if (indexInBounds(indexAfterPossibleKeyword, data) && !isBlankChar(data[indexAfterPossibleKeyword])
-				&& data[indexAfterPossibleKeyword] != '\"') {
+		if (indexInBounds(indexAfterPossibleKeyword, data) && !canFollowKeyword(data[indexAfterPossibleKeyword])) {
 			return false;
 		}
 
@@ -231,6 +305,18 @@ public class QueryLexer {
 				: dataSubstring.toLowerCase().equals(keyword);
 	}
 
+	/**
+	 * Checks if the specified character can follow a keyword, i.e. if it is a
+	 * blank character, a quotation mark or a parenthesis.
+	 *
+	 * @param c
+	 *            character that is to be checked
+	 * @return true if the specified character can follow a keyword
+	 */
+	private boolean canFollowKeyword(char c) {
+		return isBlankChar(c) || c == '\"' || c == '(' || c == ')';
+	}
+
 	/**
 	 * A method that generates a String from the specified range of the data
 	 * array. The first included character will be the character at index
@@ -6,7 +6,18 @@ import java.util.List;
 import hr.fer.zemris.java.hw04.collections.SimpleHashtable;
 
 /**
- * A parser that parses database queries.
+ * A parser that parses database queries. A query has the following form:
+ *
+ * <pre>
+ * query      := [COUNT] [condition] [ORDER BY attribute [ASC | DESC]] [LIMIT number]
+ * condition  := term { OR term }
+ * term       := factor { AND factor }
+ * factor     := NOT factor | ( condition ) | attribute operator string
+ * </pre>
+ *
+ * NOT binds more tightly than AND, and AND binds more tightly than OR. At least
+ * one part of the query has to be given. Keywords and logical operators are not
+ * case sensitive.
  *
  * @author Alen Magdić
  *
@@ -17,18 +28,9 @@ public class QueryParser {
 	 */
 	private QueryLexer lexer;
 	/**
-	 * A list of conditional expression created as a result of parsing a query.
-	 */
-	private List<ConditionalExpression> query;
-	/**
-	 * A buffer that should, when filled, contain three tokens in this order:
-	 * NAME, OPERATOR, STRING.
-	 */
-	private List<Token> tokenBuffer;
-	/**
-	 * Size of the token buffer.
+	 * The query created as a result of parsing.
 	 */
-	private static final int TOKEN_BUFFER_SIZE = 3;
+	private Query query;
 	/**
 	 * A map used to store all supported attribute names as keys and field value
 	 * getters as values.
@@ -45,6 +47,7 @@ public class QueryParser {
 		MAP_OF_SUPPORTED_ATTRIBUTES.put("firstName", FieldValueGetters.FIRST_NAME);
 		MAP_OF_SUPPORTED_ATTRIBUTES.put("lastName", FieldValueGetters.LAST_NAME);
 		MAP_OF_SUPPORTED_ATTRIBUTES.put("jmbag", FieldValueGetters.JMBAG);
+		MAP_OF_SUPPORTED_ATTRIBUTES.put("finalGrade", FieldValueGetters.FINAL_GRADE);
 
 		MAP_OF_SUPPORTED_OPERATORS = new SimpleHashtable<>();
 		MAP_OF_SUPPORTED_OPERATORS.put("<", ComparisonOperators.LESS);
@@ -68,12 +71,46 @@ public class QueryParser {
 		}
 
 		lexer = new QueryLexer(text);
-		query = new ArrayList<>();
-		tokenBuffer = new ArrayList<>(TOKEN_BUFFER_SIZE);
-
+		nextToken();
 		parse();
 	}
 
+	/**
+	 * Gets the name under which the attribute of the specified field value
+	 * getter is written in queries.
+	 *
+	 * @param fieldGetter
+	 *            field value getter
+	 * @return name of the attribute, or null if it can not be a part of a
+	 *         query
+	 */
+	static String attributeName(IFieldValueGetter fieldGetter) {
+		for (SimpleHashtable.TableEntry<String, IFieldValueGetter> entry : MAP_OF_SUPPORTED_ATTRIBUTES) {
+			if (entry.getValue() == fieldGetter) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the string under which the specified comparison operator is
+	 * written in queries.
+	 *
+	 * @param operator
+	 *            comparison operator
+	 * @return the string of the operator, or null if it can not be a part of
+	 *         a query
+	 */
+	static String operatorName(IComparisonOperator operator) {
+		for (SimpleHashtable.TableEntry<String, IComparisonOperator> entry : MAP_OF_SUPPORTED_OPERATORS) {
+			if (entry.getValue() == operator) {
+				return entry.getKey();
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Returns the next token from the lexer. Throws ParserException if lexer
 	 * throws LexerException.
@@ -89,16 +126,21 @@ public class QueryParser {
 	}
 
 	/**
-	 * Checks if the parsed query is a direct query.
+	 * Checks if the parsed query is a direct query, i.e. a query with a single
+	 * condition which asks for the record with the specified jmbag.
 	 *
 	 * @return true if the parsed query is a direct query
 	 */
 	public boolean isDirectQuery() {
-		if (query.size() != 1) {
+		List<ConditionalExpression> conditions = query.getConditions();
+		if (conditions == null || conditions.size() != 1) {
+			return false;
+		}
+		if (query.isCount() || query.getLimit() != Query.NO_LIMIT) {
 			return false;
 		}
 
-		ConditionalExpression expr = query.get(0);
+		ConditionalExpression expr = conditions.get(0);
 		if (expr.getComparisonOperator() != ComparisonOperators.EQUALS) {
 			return false;
 		}
@@ -120,17 +162,31 @@ public class QueryParser {
 			throw new IllegalStateException("The parsed query is not a direct query.");
 		}
 
-		return query.get(0).getStringLiteral();
+		return query.getConditions().get(0).getStringLiteral();
 	}
 
 	/**
 	 * Gets the list of conditional expressions creted as a result of parsing a
-	 * query.
+	 * query. Throws an IllegalStateException if the condition of the query
+	 * uses OR or NOT, so it can not be written as such a list.
 	 *
 	 * @return list of conditional expression
 	 */
 	public List<ConditionalExpression> getQuery() {
-		return new ArrayList<>(query);
+		List<ConditionalExpression> conditions = query.getConditions();
+		if (conditions == null) {
+			throw new IllegalStateException("The parsed query is not a conjunction of conditional expressions.");
+		}
+		return new ArrayList<>(conditions);
+	}
+
+	/**
+	 * Gets the query created as a result of parsing.
+	 *
+	 * @return the parsed query
+	 */
+	public Query getParsedQuery() {
+		return query;
 	}
 
 	/**
@@ -138,81 +194,209 @@ public class QueryParser {
 	 * exception.
 	 */
 	private void parse() {
-		while (true) {
-			refillTokenBuffer();
-			validateTokenTypesInBuffer();
-			addNewConditionalExpressionFromBuffer();
-
-			if (nextToken().getType() == TokenType.EOF) {
-				break;
-			} else if (lexer.getToken().getType() != TokenType.LOGICAL_OPERATOR) {
-				throw new ParserException(
-						"There has to be a logical operator AND between every pair of conditional expressions.");
+		if (lexer.getToken().getType() == TokenType.EOF) {
+			throw new ParserException("Incomplete query!");
+		}
+
+		boolean count = false;
+		if (isKeyword("count")) {
+			count = true;
+			nextToken();
+		}
+
+		IQueryExpression condition = null;
+		if (lexer.getToken().getType() != TokenType.EOF && !isKeyword("order") && !isKeyword("limit")) {
+			condition = parseCondition();
+		}
+
+		IFieldValueGetter orderBy = null;
+		boolean descending = false;
+		if (isKeyword("order")) {
+			nextToken();
+			if (!isKeyword("by")) {
+				throw new ParserException("Keyword ORDER has to be followed by the keyword BY.");
+			}
+			nextToken();
+			orderBy = parseAttribute();
+			if (isKeyword("asc") || isKeyword("desc")) {
+				descending = isKeyword("desc");
+				nextToken();
+			}
+		}
+
+		int limit = Query.NO_LIMIT;
+		if (isKeyword("limit")) {
+			if (nextToken().getType() != TokenType.NUMBER) {
+				throw new ParserException("Keyword LIMIT has to be followed by a number.");
+			}
+			try {
+				limit = Integer.parseInt((String) lexer.getToken().getValue());
+			} catch (NumberFormatException ex) {
+				throw new ParserException("The limit " + lexer.getToken().getValue() + " is too large.", ex);
 			}
+			nextToken();
+		}
+
+		if (lexer.getToken().getType() != TokenType.EOF) {
+			throw new ParserException(
+					"There has to be a logical operator AND or OR between every pair of conditional expressions.");
+		}
+		query = new Query(condition, orderBy, descending, limit, count);
+	}
 
+	/**
+	 * Parses a condition, i.e. one or more terms separated by the logical
+	 * operator OR.
+	 *
+	 * @return the parsed condition
+	 */
+	private IQueryExpression parseCondition() {
+		List<IQueryExpression> operands = new ArrayList<>();
+		operands.add(parseTerm());
+		while (isLogicalOperator("or")) {
+			nextToken();
+			operands.add(parseTerm());
 		}
+		return operands.size() == 1 ? operands.get(0) : new OrExpression(operands);
 	}
 
 	/**
-	 * Generates a new conditional expression using the data from the token
-	 * buffer and adds it to the list of conditional expressions.
+	 * Parses a term, i.e. one or more factors separated by the logical
+	 * operator AND. Nested conjunctions are flattened.
+	 *
+	 * @return the parsed term
 	 */
-	private void addNewConditionalExpressionFromBuffer() {
-		IFieldValueGetter valueGetter = MAP_OF_SUPPORTED_ATTRIBUTES.get(tokenBuffer.get(0).getValue());
-		IComparisonOperator comparOperator = MAP_OF_SUPPORTED_OPERATORS.get(tokenBuffer.get(1).getValue());
-		String string = (String) tokenBuffer.get(2).getValue();
+	private IQueryExpression parseTerm() {
+		List<IQueryExpression> operands = new ArrayList<>();
+		addOperand(operands, parseFactor());
+		while (isLogicalOperator("and")) {
+			nextToken();
+			addOperand(operands, parseFactor());
+		}
+		return operands.size() == 1 ? operands.get(0) : new AndExpression(operands);
+	}
 
-		ConditionalExpression expr;
-		try {
-			expr = new ConditionalExpression(valueGetter, string, comparOperator);
-		} catch (IllegalArgumentException ex) {
-			throw new ParserException(ex.getMessage(), ex);
+	/**
+	 * Adds the specified operand of a conjunction to the list of operands. If
+	 * the operand is a conjunction itself, its operands are added instead.
+	 *
+	 * @param operands
+	 *            list of operands of a conjunction
+	 * @param operand
+	 *            operand that is to be added
+	 */
+	private void addOperand(List<IQueryExpression> operands, IQueryExpression operand) {
+		if (operand instanceof AndExpression) {
+			operands.addAll(((AndExpression) operand).getOperands());
+		} else {
+			operands.add(operand);
 		}
-		query.add(expr);
 	}
 
 	/**
-	 * Checks if token types in token buffer are valid. If they are not valid,
-	 * it throws a ParserException exception. The first token in the buffer has
-	 * to be the NAME token, the second has to be the OPERATOR token and the
-	 * third has to be the STRING token.
+	 * Parses a factor, i.e. a negated factor, a condition in parentheses or a
+	 * conditional expression.
+	 *
+	 * @return the parsed factor
+	 */
+	private IQueryExpression parseFactor() {
+		Token token = lexer.getToken();
+		if (isLogicalOperator("not")) {
+			nextToken();
+			return new NotExpression(parseFactor());
+		} else if (token.getType() == TokenType.OPEN_PARENTHESIS) {
+			nextToken();
+			IQueryExpression condition = parseCondition();
+			if (lexer.getToken().getType() != TokenType.CLOSED_PARENTHESIS) {
+				throw new ParserException("There is no closing parenthesis.");
+			}
+			nextToken();
+			return condition;
+		}
+		return parseConditionalExpression();
+	}
+
+	/**
+	 * Parses a conditional expression. The first token has to be the NAME
+	 * token, the second has to be the OPERATOR token and the third has to be
+	 * the STRING token.
+	 *
+	 * @return the parsed conditional expression
 	 */
-	private void validateTokenTypesInBuffer() {
+	private ConditionalExpression parseConditionalExpression() {
 		String excMessage = "Invalid query. A regular query consists of \"attributeName-operator-string\", in that order.";
 
-		if (tokenBuffer.get(0).getType() == TokenType.NAME) {
-			Token token = tokenBuffer.get(0);
-			if (!MAP_OF_SUPPORTED_ATTRIBUTES.containsKey(token.getValue())) {
-				throw new ParserException("There is no an attribute with the name '" + token.getValue()
-						+ "', or it is not allowed to be a part of query.");
-			}
-		} else {
+		IFieldValueGetter valueGetter = parseAttribute();
+
+		Token token = lexer.getToken();
+		if (token.getType() == TokenType.EOF) {
+			throw new ParserException("Incomplete query!");
+		} else if (token.getType() != TokenType.OPERATOR) {
 			throw new ParserException(excMessage);
 		}
+		IComparisonOperator comparOperator = MAP_OF_SUPPORTED_OPERATORS.get(token.getValue());
 
-		if (tokenBuffer.get(1).getType() != TokenType.OPERATOR) {
+		token = nextToken();
+		if (token.getType() == TokenType.EOF) {
+			throw new ParserException("Incomplete query!");
+		} else if (token.getType() != TokenType.STRING) {
 			throw new ParserException(excMessage);
 		}
-		if (tokenBuffer.get(2).getType() != TokenType.STRING) {
-			throw new ParserException(excMessage);
+		String string = (String) token.getValue();
+		nextToken();
+
+		try {
+			return new ConditionalExpression(valueGetter, string, comparOperator);
+		} catch (IllegalArgumentException ex) {
+			throw new ParserException(ex.getMessage(), ex);
 		}
+	}
 
+	/**
+	 * Parses an attribute name and returns the field value getter of that
+	 * attribute. If the current token is not a supported attribute name, a
+	 * ParserException is thrown.
+	 *
+	 * @return field value getter of the parsed attribute
+	 */
+	private IFieldValueGetter parseAttribute() {
+		Token token = lexer.getToken();
+		if (token.getType() == TokenType.EOF) {
+			throw new ParserException("Incomplete query!");
+		} else if (token.getType() != TokenType.NAME) {
+			throw new ParserException(
+					"Invalid query. A regular query consists of \"attributeName-operator-string\", in that order.");
+		}
+		if (!MAP_OF_SUPPORTED_ATTRIBUTES.containsKey(token.getValue())) {
+			throw new ParserException("There is no an attribute with the name '" + token.getValue()
+					+ "', or it is not allowed to be a part of query.");
+		}
+		nextToken();
+		return MAP_OF_SUPPORTED_ATTRIBUTES.get(token.getValue());
 	}
 
 	/**
-	 * Refills the token buffer with three tokens. If there are no enough tokens
-	 * (excluding the EOF token), that means that the query is incomplete so a
-	 * ParserException exception is thrown.
+	 * Checks if the current token is the specified keyword.
+	 *
+	 * @param keyword
+	 *            keyword in lower case
+	 * @return true if the current token is the specified keyword
 	 */
-	private void refillTokenBuffer() {
-		tokenBuffer.clear();
-		for (int i = 0; i < TOKEN_BUFFER_SIZE; i++) {
-			Token token = nextToken();
-			if (token.getType() == TokenType.EOF) {
-				throw new ParserException("Incomplete query!");
-			}
+	private boolean isKeyword(String keyword) {
+		Token token = lexer.getToken();
+		return token.getType() == TokenType.KEYWORD && ((String) token.getValue()).toLowerCase().equals(keyword);
+	}
 
-			tokenBuffer.add(token);
-		}
+	/**
+	 * Checks if the current token is the specified logical operator.
+	 *
+	 * @param operator
+	 *            logical operator in lower case
+	 * @return true if the current token is the specified logical operator
+	 */
+	private boolean isLogicalOperator(String operator) {
+		Token token = lexer.getToken();
+		return token.getType() == TokenType.LOGICAL_OPERATOR
+				&& ((String) token.getValue()).toLowerCase().equals(operator);
 	}
 }
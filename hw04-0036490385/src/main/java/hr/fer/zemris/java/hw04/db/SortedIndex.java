@@ -0,0 +1,489 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class represents a sorted secondary index over a single attribute of
+ * student records. The attribute is specified by an IFieldValueGetter, so the
+ * index orders records by the same string values the comparison operators
+ * work with. The index stores the positions (row numbers) of the records
+ * sorted by the attribute value, which allows the database to find all
+ * records satisfying a condition like "lastName &gt;= "B"" using a binary
+ * search instead of scanning the whole database. The index can be changed
+ * incrementally when a row is added, changed or deleted.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class SortedIndex {
+	/**
+	 * The field value getter of the indexed attribute.
+	 */
+	private IFieldValueGetter fieldGetter;
+	/**
+	 * Attribute values in ascending order.
+	 */
+	private String[] keys;
+	/**
+	 * Row numbers of the records, in the same order as the keys.
+	 */
+	private int[] rows;
+	/**
+	 * Number of indexed records.
+	 */
+	private int size;
+
+	/**
+	 * Constructor. Builds the index over the specified list of records.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of the indexed attribute
+	 * @param records
+	 *            records that are to be indexed; the position of a record in
+	 *            the list is its row number
+	 */
+	public SortedIndex(IFieldValueGetter fieldGetter, List<StudentRecord> records) {
+		this(fieldGetter, valuesOf(fieldGetter, records));
+	}
+
+	/**
+	 * Constructor. Builds the index over the specified attribute values.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of the indexed attribute
+	 * @param values
+	 *            attribute values of the rows; the position of a value in the
+	 *            array is its row number
+	 */
+	public SortedIndex(IFieldValueGetter fieldGetter, String[] values) {
+		if (fieldGetter == null || values == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		this.fieldGetter = fieldGetter;
+
+		size = values.length;
+		rows = new int[size];
+		for (int i = 0; i < size; i++) {
+			rows[i] = i;
+		}
+		sortRows(values);
+
+		keys = new String[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = values[rows[i]];
+		}
+	}
+
+	/**
+	 * Constructor. Creates an index from already sorted rows.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of the indexed attribute
+	 * @param keys
+	 *            attribute values in ascending order
+	 * @param rows
+	 *            row numbers, in the same order as the keys
+	 */
+	private SortedIndex(IFieldValueGetter fieldGetter, String[] keys, int[] rows) {
+		this.fieldGetter = fieldGetter;
+		this.keys = keys;
+		this.rows = rows;
+		this.size = keys.length;
+	}
+
+	/**
+	 * Creates an index from the rows that are already sorted by the attribute
+	 * values, e.g. by {@link StudentColumns#sortedRows(IFieldValueGetter)}.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of the indexed attribute
+	 * @param values
+	 *            attribute values of the rows; the position of a value in the
+	 *            array is its row number
+	 * @param sortedRows
+	 *            row numbers sorted by their attribute values
+	 * @return the created index
+	 */
+	public static SortedIndex fromSortedRows(IFieldValueGetter fieldGetter, String[] values, int[] sortedRows) {
+		if (fieldGetter == null || values == null || sortedRows == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		if (values.length != sortedRows.length) {
+			throw new IllegalArgumentException("There must be a value for every row.");
+		}
+		String[] keys = new String[values.length];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = values[sortedRows[i]];
+		}
+		return new SortedIndex(fieldGetter, keys, sortedRows);
+	}
+
+	/**
+	 * Extracts the attribute values from the specified records.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of the attribute
+	 * @param records
+	 *            records
+	 * @return attribute values of the records
+	 */
+	private static String[] valuesOf(IFieldValueGetter fieldGetter, List<StudentRecord> records) {
+		if (fieldGetter == null || records == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		String[] values = new String[records.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = fieldGetter.get(records.get(i));
+		}
+		return values;
+	}
+
+	/**
+	 * Sorts the row numbers by the specified values of the rows using a bottom
+	 * up merge sort. The sort is stable, so the rows with equal values keep
+	 * their original order.
+	 *
+	 * @param values
+	 *            values of the rows
+	 */
+	private void sortRows(String[] values) {
+		int size = rows.length;
+		int[] source = rows;
+		int[] target = new int[size];
+
+		for (int width = 1; width < size; width *= 2) {
+			for (int left = 0; left < size; left += 2 * width) {
+				int middle = Math.min(left + width, size);
+				int right = Math.min(left + 2 * width, size);
+				int i = left;
+				int j = middle;
+				for (int k = left; k < right; k++) {
+					if (i < middle && (j >= right || values[source[i]].compareTo(values[source[j]]) <= 0)) {
+						target[k] = source[i++];
+					} else {
+						target[k] = source[j++];
+					}
+				}
+			}
+			int[] temp = source;
+			source = target;
+			target = temp;
+		}
+		rows = source;
+	}
+
+	/**
+	 * Gets the field value getter of the indexed attribute.
+	 *
+	 * @return the field value getter of the indexed attribute
+	 */
+	public IFieldValueGetter getFieldGetter() {
+		return fieldGetter;
+	}
+
+	/**
+	 * Gets the number of indexed records.
+	 *
+	 * @return the number of indexed records
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the range of the index containing all records that satisfy the
+	 * condition "attribute operator literal". If the condition can not be
+	 * answered using the index (e.g. the '!=' operator or a LIKE pattern which
+	 * does not end with its only wildcard), null is returned.
+	 *
+	 * @param operator
+	 *            the comparison operator of the condition
+	 * @param literal
+	 *            the string literal of the condition
+	 * @return a range of the index positions, or null if the condition can not
+	 *         be answered using this index
+	 */
+	public Range range(IComparisonOperator operator, String literal) {
+		if (operator == ComparisonOperators.EQUALS) {
+			return new Range(lowerBound(literal), upperBound(literal));
+		} else if (operator == ComparisonOperators.LESS) {
+			return new Range(0, lowerBound(literal));
+		} else if (operator == ComparisonOperators.LESS_OR_EQUALS) {
+			return new Range(0, upperBound(literal));
+		} else if (operator == ComparisonOperators.GREATER) {
+			return new Range(upperBound(literal), size);
+		} else if (operator == ComparisonOperators.GREATER_OR_EQUALS) {
+			return new Range(lowerBound(literal), size);
+		} else if (operator == ComparisonOperators.LIKE) {
+			int wildcard = literal.indexOf('*');
+			if (wildcard == -1) {
+				return new Range(lowerBound(literal), upperBound(literal));
+			}
+			if (wildcard != literal.length() - 1) {
+				return null;
+			}
+			String prefix = literal.substring(0, wildcard);
+			return new Range(lowerBound(prefix), prefixEnd(prefix));
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the row number stored at the specified position of the index.
+	 *
+	 * @param position
+	 *            a position in the index
+	 * @return the row number stored at the specified position
+	 */
+	public int rowAt(int position) {
+		return rows[position];
+	}
+
+	/**
+	 * Gets the key stored at the specified position of the index.
+	 *
+	 * @param position
+	 *            a position in the index
+	 * @return the key stored at the specified position
+	 */
+	public String keyAt(int position) {
+		return keys[position];
+	}
+
+	/**
+	 * Adds the specified row with the specified key to the index. Rows with
+	 * equal keys are kept ordered by their row numbers.
+	 *
+	 * @param key
+	 *            value of the indexed attribute in the row
+	 * @param row
+	 *            row number
+	 */
+	public void insert(String key, int row) {
+		int position = positionOf(key, row);
+		if (size == keys.length) {
+			int capacity = Math.max(16, size + (size >> 1));
+			keys = Arrays.copyOf(keys, capacity);
+			rows = Arrays.copyOf(rows, capacity);
+		}
+		System.arraycopy(keys, position, keys, position + 1, size - position);
+		System.arraycopy(rows, position, rows, position + 1, size - position);
+		keys[position] = key;
+		rows[position] = row;
+		size++;
+	}
+
+	/**
+	 * Removes the specified row with the specified key from the index.
+	 *
+	 * @param key
+	 *            value of the indexed attribute in the row
+	 * @param row
+	 *            row number
+	 * @throws IllegalArgumentException
+	 *             if the row with the specified key is not in the index
+	 */
+	public void remove(String key, int row) {
+		int position = indexedPositionOf(key, row);
+		System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+		System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+		size--;
+		keys[size] = null;
+	}
+
+	/**
+	 * Changes the key of the specified row. Only the entries between the old
+	 * and the new position of the row are moved.
+	 *
+	 * @param oldKey
+	 *            the old value of the indexed attribute in the row
+	 * @param newKey
+	 *            the new value of the indexed attribute in the row
+	 * @param row
+	 *            row number
+	 * @throws IllegalArgumentException
+	 *             if the row with the old key is not in the index
+	 */
+	public void move(String oldKey, String newKey, int row) {
+		int oldPosition = indexedPositionOf(oldKey, row);
+		int newPosition = positionOf(newKey, row);
+		if (newPosition > oldPosition) {
+			newPosition--;
+			System.arraycopy(keys, oldPosition + 1, keys, oldPosition, newPosition - oldPosition);
+			System.arraycopy(rows, oldPosition + 1, rows, oldPosition, newPosition - oldPosition);
+		} else {
+			System.arraycopy(keys, newPosition, keys, newPosition + 1, oldPosition - newPosition);
+			System.arraycopy(rows, newPosition, rows, newPosition + 1, oldPosition - newPosition);
+		}
+		keys[newPosition] = newKey;
+		rows[newPosition] = row;
+	}
+
+	/**
+	 * Returns the position of the specified row with the specified key, which
+	 * has to be in the index.
+	 *
+	 * @param key
+	 *            value of the indexed attribute in the row
+	 * @param row
+	 *            row number
+	 * @return position of the row in the index
+	 * @throws IllegalArgumentException
+	 *             if the row with the specified key is not in the index
+	 */
+	private int indexedPositionOf(String key, int row) {
+		int position = positionOf(key, row);
+		if (position == size || rows[position] != row || !keys[position].equals(key)) {
+			throw new IllegalArgumentException("The row " + row + " with the key " + key + " is not indexed.");
+		}
+		return position;
+	}
+
+	/**
+	 * Returns the position of the specified row with the specified key, or
+	 * the position at which it would be inserted. Rows with equal keys are
+	 * ordered by their row numbers, so the position is found using a binary
+	 * search among them.
+	 *
+	 * @param key
+	 *            value of the indexed attribute in the row
+	 * @param row
+	 *            row number
+	 * @return position of the row in the index
+	 */
+	private int positionOf(String key, int row) {
+		int low = lowerBound(key);
+		int high = upperBound(key);
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (rows[mid] < row) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the first position whose key is greater than or equal to the
+	 * specified value.
+	 *
+	 * @param value
+	 *            the value
+	 * @return the first position whose key is not less than the value
+	 */
+	private int lowerBound(String value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid].compareTo(value) < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the first position whose key is greater than the specified value.
+	 *
+	 * @param value
+	 *            the value
+	 * @return the first position whose key is greater than the value
+	 */
+	private int upperBound(String value) {
+		int low = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid].compareTo(value) <= 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the first position after all keys starting with the specified
+	 * prefix. Since keys starting with the same prefix are contiguous in the
+	 * sorted order, the keys between {@link #lowerBound(String)} of the prefix
+	 * and this position are exactly the keys starting with the prefix.
+	 *
+	 * @param prefix
+	 *            the prefix
+	 * @return the first position after all keys starting with the prefix
+	 */
+	private int prefixEnd(String prefix) {
+		int low = lowerBound(prefix);
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (keys[mid].startsWith(prefix)) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * This class represents a range of index positions. The start is inclusive
+	 * and the end is exclusive.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	public static class Range {
+		/** The first position of the range. **/
+		private final int start;
+		/** The position after the last position of the range. **/
+		private final int end;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param start
+		 *            the first position of the range
+		 * @param end
+		 *            the position after the last position of the range
+		 */
+		public Range(int start, int end) {
+			this.start = start;
+			this.end = Math.max(start, end);
+		}
+
+		/**
+		 * Gets the first position of the range.
+		 *
+		 * @return the first position of the range
+		 */
+		public int getStart() {
+			return start;
+		}
+
+		/**
+		 * Gets the position after the last position of the range.
+		 *
+		 * @return the position after the last position of the range
+		 */
+		public int getEnd() {
+			return end;
+		}
+
+		/**
+		 * Gets the number of positions in the range.
+		 *
+		 * @return the number of positions in the range
+		 */
+		public int size() {
+			return end - start;
+		}
+	}
+}
@@ -0,0 +1,1703 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntToLongFunction;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * This class represents a columnar storage of student records. Instead of
+ * keeping one StudentRecord object per row, every attribute is stored in its
+ * own column:
+ * <ul>
+ * <li>jmbags are packed one after another into a single char array,</li>
+ * <li>first and last names are dictionary encoded, i.e. every distinct name is
+ * stored only once and the rows store the int code of the name,</li>
+ * <li>final grades are stored in a byte array.</li>
+ * </ul>
+ * Rows are identified by their row numbers, which are assigned in the order in
+ * which the rows are added. Conditional expressions are evaluated directly on
+ * the columns and their results are returned as bitmaps of row numbers. A
+ * StudentRecord is created only when a row is requested using
+ * {@link #record(int)}. Large columns are scanned in parallel. The columns can
+ * be saved to and loaded from a compact binary snapshot file.
+ * <p>
+ * The names and the grade of a row can be changed in place. A deleted row
+ * keeps its row number, so the row numbers of other rows do not change, but it
+ * is removed from the hash table of jmbags and it is never returned by an
+ * evaluation. Deleted rows are removed only by {@link #compact()}, which is
+ * also done when a snapshot is written. Reading from the columns is thread
+ * safe, but changing them is not.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ */
+public class StudentColumns {
+	/**
+	 * The number of rows from which the columns are scanned in parallel.
+	 */
+	static final int PARALLEL_THRESHOLD = 1 << 16;
+	/** Initial capacity of the columns. **/
+	private static final int INITIAL_CAPACITY = 16;
+	/** The first four bytes of a snapshot file ("SDB2"). **/
+	private static final int SNAPSHOT_MAGIC = 0x53444232;
+	/** Size of the buffer used for reading and writing snapshots. **/
+	private static final int SNAPSHOT_BUFFER_SIZE = 1 << 20;
+	/** String values of all grades that fit into a byte. **/
+	private static final String[] GRADE_STRINGS = new String[256];
+
+	static {
+		for (int i = 0; i < GRADE_STRINGS.length; i++) {
+			GRADE_STRINGS[i] = Integer.toString(i + Byte.MIN_VALUE);
+		}
+	}
+
+	/** Number of rows. **/
+	private int size;
+	/** Characters of all jmbags, one after another. **/
+	private char[] jmbagChars;
+	/** Number of used characters in the jmbag column. **/
+	private int jmbagLength;
+	/**
+	 * Offsets of jmbags in the jmbag column. The jmbag of row i is stored
+	 * between offsets i and i + 1.
+	 */
+	private int[] jmbagOffsets;
+	/** Open addressing hash table of row numbers increased by one. **/
+	private int[] jmbagTable;
+	/** Dictionary of last names. **/
+	private Dictionary lastNames;
+	/** Codes of last names. **/
+	private int[] lastNameCodes;
+	/** Dictionary of first names. **/
+	private Dictionary firstNames;
+	/** Codes of first names. **/
+	private int[] firstNameCodes;
+	/** Final grades. **/
+	private byte[] finalGrades;
+	/** Deleted rows. **/
+	private BitSet deleted;
+	/** Number of deleted rows. **/
+	private int deletedCount;
+
+	/**
+	 * Constructor. Creates empty columns.
+	 */
+	public StudentColumns() {
+		jmbagChars = new char[INITIAL_CAPACITY * 10];
+		jmbagOffsets = new int[INITIAL_CAPACITY + 1];
+		jmbagTable = new int[INITIAL_CAPACITY * 2];
+		lastNames = new Dictionary();
+		lastNameCodes = new int[INITIAL_CAPACITY];
+		firstNames = new Dictionary();
+		firstNameCodes = new int[INITIAL_CAPACITY];
+		finalGrades = new byte[INITIAL_CAPACITY];
+		deleted = new BitSet();
+	}
+
+	/**
+	 * Constructor. Creates columns containing the specified rows. Every row
+	 * contains a jmbag, a last name, a first name and a final grade separated
+	 * by tabs.
+	 *
+	 * @param rows
+	 *            list of rows containing the database data
+	 * @throws RuntimeException
+	 *             if a row is invalid or if two rows have the same jmbag
+	 */
+	public StudentColumns(List<String> rows) {
+		this();
+		for (String row : rows) {
+			String[] attributes = row.split("\t");
+			if (attributes.length != 4) {
+				throw new RuntimeException("Invalid data found. Data: " + row);
+			}
+			add(attributes[0], attributes[1], attributes[2], parseGrade(attributes[3]));
+		}
+	}
+
+	/**
+	 * Parses the specified final grade.
+	 *
+	 * @param grade
+	 *            final grade
+	 * @return parsed final grade
+	 * @throws NumberFormatException
+	 *             if the specified value can not be a grade
+	 */
+	static int parseGrade(String grade) {
+		try {
+			return Integer.parseInt(grade);
+		} catch (NumberFormatException ex) {
+			throw new NumberFormatException("Invalid data found. The value '" + grade + "' can not be a grade.");
+		}
+	}
+
+	/**
+	 * Adds a row to the columns.
+	 *
+	 * @param jmbag
+	 *            student's jmbag
+	 * @param lastName
+	 *            last name of the student
+	 * @param firstName
+	 *            first name of the student
+	 * @param finalGrade
+	 *            student's final grade
+	 * @return the row number of the added row
+	 * @throws RuntimeException
+	 *             if there already is a row with the specified jmbag
+	 * @throws NumberFormatException
+	 *             if the final grade does not fit into a byte
+	 */
+	public int add(String jmbag, String lastName, String firstName, int finalGrade) {
+		if (rowOf(jmbag) != -1) {
+			throw new RuntimeException("There are at least two entries with the same jmbag. Jmbag: " + jmbag);
+		}
+		checkGrade(finalGrade);
+
+		ensureCapacity(size + 1, jmbag.length());
+		jmbag.getChars(0, jmbag.length(), jmbagChars, jmbagLength);
+		jmbagLength += jmbag.length();
+		jmbagOffsets[size + 1] = jmbagLength;
+		lastNameCodes[size] = lastNames.encode(lastName);
+		firstNameCodes[size] = firstNames.encode(firstName);
+		finalGrades[size] = (byte) finalGrade;
+
+		int row = size++;
+		if (size * 2 > jmbagTable.length) {
+			rehash(jmbagTable.length * 2);
+		} else {
+			insertIntoTable(jmbagTable, row);
+		}
+		return row;
+	}
+
+	/**
+	 * Changes the names and the final grade of the specified row. The jmbag of
+	 * a row can not be changed.
+	 *
+	 * @param row
+	 *            row number
+	 * @param lastName
+	 *            new last name of the student
+	 * @param firstName
+	 *            new first name of the student
+	 * @param finalGrade
+	 *            new final grade of the student
+	 * @throws IndexOutOfBoundsException
+	 *             if the row does not exist or is deleted
+	 * @throws NumberFormatException
+	 *             if the final grade does not fit into a byte
+	 */
+	public void update(int row, String lastName, String firstName, int finalGrade) {
+		checkLiveRow(row);
+		checkGrade(finalGrade);
+		lastNameCodes[row] = lastNames.encode(lastName);
+		firstNameCodes[row] = firstNames.encode(firstName);
+		finalGrades[row] = (byte) finalGrade;
+	}
+
+	/**
+	 * Deletes the specified row. The row is removed from the hash table of
+	 * jmbags using a backward shift, so the table contains no deleted entries.
+	 *
+	 * @param row
+	 *            row number
+	 * @throws IndexOutOfBoundsException
+	 *             if the row does not exist or is already deleted
+	 */
+	public void delete(int row) {
+		checkLiveRow(row);
+		int mask = jmbagTable.length - 1;
+		int hole = hash(row) & mask;
+		while (jmbagTable[hole] != row + 1) {
+			hole = (hole + 1) & mask;
+		}
+		for (int slot = (hole + 1) & mask; jmbagTable[slot] != 0; slot = (slot + 1) & mask) {
+			int home = hash(jmbagTable[slot] - 1) & mask;
+			// the entry can fill the hole if the hole is not before its home
+			// slot, counting from the slot
+			if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+				jmbagTable[hole] = jmbagTable[slot];
+				hole = slot;
+			}
+		}
+		jmbagTable[hole] = 0;
+
+		deleted.set(row);
+		deletedCount++;
+	}
+
+	/**
+	 * Checks if the specified row is deleted.
+	 *
+	 * @param row
+	 *            row number
+	 * @return true if the row is deleted
+	 */
+	public boolean isDeleted(int row) {
+		checkRow(row);
+		return deleted.get(row);
+	}
+
+	/**
+	 * Gets the number of rows that are not deleted.
+	 *
+	 * @return the number of rows that are not deleted
+	 */
+	public int recordCount() {
+		return size - deletedCount;
+	}
+
+	/**
+	 * Returns the rows that are not deleted.
+	 *
+	 * @return bitmap of the rows that are not deleted
+	 */
+	public BitSet liveRows() {
+		BitSet result = new BitSet(size);
+		result.set(0, size);
+		if (deletedCount > 0) {
+			result.andNot(deleted);
+		}
+		return result;
+	}
+
+	/**
+	 * Creates new columns containing only the rows of these columns that are
+	 * not deleted, in the same order. Names that are no longer used are not
+	 * kept in the dictionaries of the new columns.
+	 *
+	 * @return the compacted columns
+	 */
+	public StudentColumns compact() {
+		StudentColumns columns = new StudentColumns();
+		columns.ensureCapacity(recordCount(), jmbagLength);
+		for (int row = 0; row < size; row++) {
+			if (!deleted.get(row)) {
+				columns.add(jmbag(row), lastNames.decode(lastNameCodes[row]), firstNames.decode(firstNameCodes[row]),
+						finalGrades[row]);
+			}
+		}
+		return columns;
+	}
+
+	/**
+	 * Adds all the rows of the specified chunk to the columns. Names of the
+	 * chunk are encoded using the dictionaries of these columns, so only the
+	 * distinct names of the chunk are looked up.
+	 *
+	 * @param chunk
+	 *            chunk of rows
+	 * @throws RuntimeException
+	 *             if a jmbag of the chunk already exists
+	 */
+	void append(Chunk chunk) {
+		ensureCapacity(size + chunk.size, chunk.jmbagLength);
+		int[] lastNameMapping = new int[chunk.lastNameCount];
+		for (int i = 0; i < lastNameMapping.length; i++) {
+			lastNameMapping[i] = lastNames.encode(chunk.lastNames[i]);
+		}
+		int[] firstNameMapping = new int[chunk.firstNameCount];
+		for (int i = 0; i < firstNameMapping.length; i++) {
+			firstNameMapping[i] = firstNames.encode(chunk.firstNames[i]);
+		}
+
+		System.arraycopy(chunk.jmbagChars, 0, jmbagChars, jmbagLength, chunk.jmbagLength);
+		for (int i = 0; i < chunk.size; i++) {
+			int row = size + i;
+			jmbagOffsets[row + 1] = jmbagLength + chunk.jmbagEnds[i];
+			lastNameCodes[row] = lastNameMapping[chunk.lastNameCodes[i]];
+			firstNameCodes[row] = firstNameMapping[chunk.firstNameCodes[i]];
+			finalGrades[row] = chunk.finalGrades[i];
+		}
+		jmbagLength += chunk.jmbagLength;
+
+		int first = size;
+		size += chunk.size;
+		if (size * 2 > jmbagTable.length) {
+			int capacity = jmbagTable.length;
+			while (size * 2 > capacity) {
+				capacity *= 2;
+			}
+			int[] table = new int[capacity];
+			for (int row = 0; row < first; row++) {
+				if (!deleted.get(row)) {
+					insertIntoTable(table, row);
+				}
+			}
+			jmbagTable = table;
+		}
+		for (int row = first; row < size; row++) {
+			if (!insertUnique(row)) {
+				String jmbag = jmbag(row);
+				size = row;
+				jmbagLength = jmbagOffsets[row];
+				rehash(jmbagTable.length);
+				throw new RuntimeException("There are at least two entries with the same jmbag. Jmbag: " + jmbag);
+			}
+		}
+	}
+
+	/**
+	 * Makes sure that the columns can hold the specified number of rows and
+	 * that the jmbag column has room for the specified number of additional
+	 * characters.
+	 *
+	 * @param rows
+	 *            required number of rows
+	 * @param jmbagChars
+	 *            number of characters that are about to be added to the jmbag
+	 *            column
+	 */
+	private void ensureCapacity(int rows, int jmbagChars) {
+		if (rows > finalGrades.length) {
+			int capacity = Math.max(rows, finalGrades.length * 2);
+			jmbagOffsets = Arrays.copyOf(jmbagOffsets, capacity + 1);
+			lastNameCodes = Arrays.copyOf(lastNameCodes, capacity);
+			firstNameCodes = Arrays.copyOf(firstNameCodes, capacity);
+			finalGrades = Arrays.copyOf(finalGrades, capacity);
+		}
+		if (jmbagLength + jmbagChars > this.jmbagChars.length) {
+			int capacity = Math.max(jmbagLength + jmbagChars, this.jmbagChars.length * 2);
+			this.jmbagChars = Arrays.copyOf(this.jmbagChars, capacity);
+		}
+	}
+
+	/**
+	 * Gets the number of rows.
+	 *
+	 * @return the number of rows
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the row number of the row with the specified jmbag in O(1)
+	 * complexity.
+	 *
+	 * @param jmbag
+	 *            jmbag
+	 * @return the row number, or -1 if there is no row with the specified
+	 *         jmbag
+	 */
+	public int rowOf(String jmbag) {
+		int mask = jmbagTable.length - 1;
+		for (int slot = hash(jmbag) & mask;; slot = (slot + 1) & mask) {
+			int entry = jmbagTable[slot];
+			if (entry == 0) {
+				return -1;
+			}
+			if (jmbagEquals(entry - 1, jmbag)) {
+				return entry - 1;
+			}
+		}
+	}
+
+	/**
+	 * Creates a student record from the specified row.
+	 *
+	 * @param row
+	 *            row number
+	 * @return student record of the row
+	 */
+	public StudentRecord record(int row) {
+		checkRow(row);
+		return new StudentRecord(jmbag(row), lastNames.decode(lastNameCodes[row]),
+				firstNames.decode(firstNameCodes[row]), finalGrades[row]);
+	}
+
+	/**
+	 * Gets the value of the attribute specified by the field value getter in
+	 * the specified row. Names and grades are returned without creating new
+	 * strings.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of an attribute
+	 * @param row
+	 *            row number
+	 * @return the value of the attribute in the specified row
+	 */
+	public String value(IFieldValueGetter fieldGetter, int row) {
+		checkRow(row);
+		if (fieldGetter == FieldValueGetters.LAST_NAME) {
+			return lastNames.decode(lastNameCodes[row]);
+		} else if (fieldGetter == FieldValueGetters.FIRST_NAME) {
+			return firstNames.decode(firstNameCodes[row]);
+		} else if (fieldGetter == FieldValueGetters.FINAL_GRADE) {
+			return GRADE_STRINGS[finalGrades[row] - Byte.MIN_VALUE];
+		} else if (fieldGetter == FieldValueGetters.JMBAG) {
+			return jmbag(row);
+		}
+		return fieldGetter.get(record(row));
+	}
+
+	/**
+	 * Compares the values of the attribute specified by the field value getter
+	 * in the specified rows, in the order given by
+	 * {@link String#compareTo(String)}. No strings are created for the
+	 * comparison.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of an attribute
+	 * @param first
+	 *            row number of the first value
+	 * @param second
+	 *            row number of the second value
+	 * @return a negative integer, zero, or a positive integer as the first
+	 *         value is less than, equal to, or greater than the second value
+	 */
+	public int compare(IFieldValueGetter fieldGetter, int first, int second) {
+		checkRow(first);
+		checkRow(second);
+		if (fieldGetter == FieldValueGetters.LAST_NAME) {
+			return compareCodes(lastNames, lastNameCodes[first], lastNameCodes[second]);
+		} else if (fieldGetter == FieldValueGetters.FIRST_NAME) {
+			return compareCodes(firstNames, firstNameCodes[first], firstNameCodes[second]);
+		} else if (fieldGetter == FieldValueGetters.FINAL_GRADE) {
+			return GRADE_STRINGS[finalGrades[first] - Byte.MIN_VALUE]
+					.compareTo(GRADE_STRINGS[finalGrades[second] - Byte.MIN_VALUE]);
+		} else if (fieldGetter == FieldValueGetters.JMBAG) {
+			return compareJmbags(first, second);
+		}
+		return value(fieldGetter, first).compareTo(value(fieldGetter, second));
+	}
+
+	/**
+	 * Compares the values of the specified dictionary with the specified
+	 * codes.
+	 *
+	 * @param dictionary
+	 *            dictionary of values
+	 * @param first
+	 *            code of the first value
+	 * @param second
+	 *            code of the second value
+	 * @return the result of comparing the values
+	 */
+	private static int compareCodes(Dictionary dictionary, int first, int second) {
+		return first == second ? 0 : dictionary.decode(first).compareTo(dictionary.decode(second));
+	}
+
+	/**
+	 * Compares the jmbags of the specified rows directly in the jmbag column.
+	 *
+	 * @param first
+	 *            row number of the first jmbag
+	 * @param second
+	 *            row number of the second jmbag
+	 * @return the result of comparing the jmbags
+	 */
+	private int compareJmbags(int first, int second) {
+		int firstStart = jmbagOffsets[first];
+		int firstLength = jmbagOffsets[first + 1] - firstStart;
+		int secondStart = jmbagOffsets[second];
+		int secondLength = jmbagOffsets[second + 1] - secondStart;
+		for (int i = 0, n = Math.min(firstLength, secondLength); i < n; i++) {
+			char a = jmbagChars[firstStart + i];
+			char b = jmbagChars[secondStart + i];
+			if (a != b) {
+				return a - b;
+			}
+		}
+		return firstLength - secondLength;
+	}
+
+	/**
+	 * Evaluates all the specified conditional expressions and returns the rows
+	 * that satisfy all of them.
+	 *
+	 * @param conditions
+	 *            conditional expressions
+	 * @return bitmap of the rows that satisfy all the conditions
+	 */
+	public BitSet evaluate(List<ConditionalExpression> conditions) {
+		BitSet result = liveRows();
+		for (ConditionalExpression condition : conditions) {
+			if (result.isEmpty()) {
+				break;
+			}
+			result.and(evaluate(condition));
+		}
+		return result;
+	}
+
+	/**
+	 * Evaluates the specified conditional expression and returns the rows that
+	 * satisfy it. Deleted rows are never returned.
+	 *
+	 * @param condition
+	 *            conditional expression
+	 * @return bitmap of the rows that satisfy the condition
+	 */
+	public BitSet evaluate(ConditionalExpression condition) {
+		BitSet result = evaluateAll(condition);
+		if (deletedCount > 0) {
+			result.andNot(deleted);
+		}
+		return result;
+	}
+
+	/**
+	 * Evaluates the specified conditional expression on all rows, including
+	 * the deleted ones. Conditions on names and grades are evaluated once for
+	 * every distinct value and then looked up for every row using its code.
+	 * Comparisons of jmbags are done directly on the jmbag column.
+	 *
+	 * @param condition
+	 *            conditional expression
+	 * @return bitmap of the rows that satisfy the condition
+	 */
+	private BitSet evaluateAll(ConditionalExpression condition) {
+		IFieldValueGetter fieldGetter = condition.getFieldGetter();
+		IComparisonOperator operator = condition.getComparisonOperator();
+		String literal = condition.getStringLiteral();
+
+		if (fieldGetter == FieldValueGetters.LAST_NAME) {
+			return evaluateCodes(lastNameCodes, lastNames.matches(operator, literal));
+		} else if (fieldGetter == FieldValueGetters.FIRST_NAME) {
+			return evaluateCodes(firstNameCodes, firstNames.matches(operator, literal));
+		} else if (fieldGetter == FieldValueGetters.FINAL_GRADE) {
+			return evaluateGrades(operator, literal);
+		} else if (fieldGetter == FieldValueGetters.JMBAG) {
+			return evaluateJmbags(operator, literal);
+		}
+
+		// an unknown field value getter might not be thread safe
+		Predicate<String> test = QueryCompiler.compile(operator, literal);
+		return scan(row -> test.test(fieldGetter.get(record(row))), false);
+	}
+
+	/**
+	 * Returns the row numbers sorted by the values of the attribute specified
+	 * by the field value getter, in the order given by
+	 * {@link String#compareTo(String)}. Rows with equal values keep their
+	 * order. Only the distinct values are compared, after which the rows are
+	 * sorted using a counting sort. Only names and grades can be sorted this
+	 * way. Deleted rows are sorted as well.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of an attribute
+	 * @return the sorted row numbers, or null if the attribute is not a name or
+	 *         a grade
+	 */
+	public int[] sortedRows(IFieldValueGetter fieldGetter) {
+		if (fieldGetter == FieldValueGetters.LAST_NAME) {
+			return countingSort(lastNameCodes, 0, lastNames.ranks());
+		} else if (fieldGetter == FieldValueGetters.FIRST_NAME) {
+			return countingSort(firstNameCodes, 0, firstNames.ranks());
+		} else if (fieldGetter == FieldValueGetters.FINAL_GRADE) {
+			int[] grades = new int[size];
+			for (int row = 0; row < size; row++) {
+				grades[row] = finalGrades[row];
+			}
+			return countingSort(grades, Byte.MIN_VALUE, ranks(GRADE_STRINGS, GRADE_STRINGS.length));
+		}
+		return null;
+	}
+
+	/**
+	 * Sorts the row numbers by the ranks of their codes using a stable
+	 * counting sort.
+	 *
+	 * @param codes
+	 *            column of codes
+	 * @param firstCode
+	 *            the smallest possible code
+	 * @param ranks
+	 *            rank of every code, indexed by the code decreased by the
+	 *            smallest possible code
+	 * @return the sorted row numbers
+	 */
+	private int[] countingSort(int[] codes, int firstCode, int[] ranks) {
+		int[] starts = new int[ranks.length + 1];
+		for (int row = 0; row < size; row++) {
+			starts[ranks[codes[row] - firstCode] + 1]++;
+		}
+		for (int i = 1; i < starts.length; i++) {
+			starts[i] += starts[i - 1];
+		}
+		int[] sorted = new int[size];
+		for (int row = 0; row < size; row++) {
+			sorted[starts[ranks[codes[row] - firstCode]]++] = row;
+		}
+		return sorted;
+	}
+
+	/**
+	 * Calculates the rank of each of the specified distinct values in their
+	 * sorted order.
+	 *
+	 * @param values
+	 *            distinct values
+	 * @param count
+	 *            number of values
+	 * @return rank of every value, indexed the same way as the values
+	 */
+	private static int[] ranks(String[] values, int count) {
+		Integer[] order = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (i, j) -> values[i].compareTo(values[j]));
+		int[] ranks = new int[count];
+		for (int i = 0; i < count; i++) {
+			ranks[order[i]] = i;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Returns the rows whose codes are matching. The loop over the rows has no
+	 * branches: the matching of every code is stored as a bit which is
+	 * shifted into the word of the bitmap.
+	 *
+	 * @param codes
+	 *            column of codes
+	 * @param matches
+	 *            for every code, true if the code is matching
+	 * @return bitmap of the rows whose codes are matching
+	 */
+	private BitSet evaluateCodes(int[] codes, boolean[] matches) {
+		long[] bits = toBits(matches);
+		return scanWords(word -> {
+			int start = word << 6;
+			int end = Math.min(start + 64, size);
+			long result = 0;
+			for (int row = start; row < end; row++) {
+				result |= bits[codes[row]] << (row - start);
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Returns the rows whose final grades satisfy the specified condition. The
+	 * condition is evaluated once for every possible grade, and the rows are
+	 * then scanned the same way as in {@link #evaluateCodes(int[], boolean[])}.
+	 *
+	 * @param operator
+	 *            comparison operator
+	 * @param literal
+	 *            string literal
+	 * @return bitmap of the rows whose grades satisfy the condition
+	 */
+	private BitSet evaluateGrades(IComparisonOperator operator, String literal) {
+		Predicate<String> test = QueryCompiler.compile(operator, literal);
+		boolean[] matches = new boolean[GRADE_STRINGS.length];
+		for (int i = 0; i < matches.length; i++) {
+			matches[i] = test.test(GRADE_STRINGS[i]);
+		}
+
+		long[] bits = toBits(matches);
+		return scanWords(word -> {
+			int start = word << 6;
+			int end = Math.min(start + 64, size);
+			long result = 0;
+			for (int row = start; row < end; row++) {
+				result |= bits[finalGrades[row] - Byte.MIN_VALUE] << (row - start);
+			}
+			return result;
+		});
+	}
+
+	/**
+	 * Returns the rows whose jmbags satisfy the specified condition. Equality
+	 * is answered using the hash table and ordering comparisons are done on
+	 * the characters of the jmbag column. Other operators are evaluated on
+	 * jmbag strings.
+	 *
+	 * @param operator
+	 *            comparison operator
+	 * @param literal
+	 *            string literal
+	 * @return bitmap of the rows whose jmbags satisfy the condition
+	 */
+	private BitSet evaluateJmbags(IComparisonOperator operator, String literal) {
+		if (operator == ComparisonOperators.EQUALS) {
+			BitSet result = new BitSet(size);
+			int row = rowOf(literal);
+			if (row != -1) {
+				result.set(row);
+			}
+			return result;
+		}
+
+		IntPredicate test;
+		if (operator == ComparisonOperators.NOT_EQUALS) {
+			test = row -> !jmbagEquals(row, literal);
+		} else if (operator == ComparisonOperators.LESS) {
+			test = row -> compareJmbag(row, literal) < 0;
+		} else if (operator == ComparisonOperators.LESS_OR_EQUALS) {
+			test = row -> compareJmbag(row, literal) <= 0;
+		} else if (operator == ComparisonOperators.GREATER) {
+			test = row -> compareJmbag(row, literal) > 0;
+		} else if (operator == ComparisonOperators.GREATER_OR_EQUALS) {
+			test = row -> compareJmbag(row, literal) >= 0;
+		} else {
+			Predicate<String> compiled = QueryCompiler.compile(operator, literal);
+			test = row -> compiled.test(jmbag(row));
+		}
+		return scan(test, true);
+	}
+
+	/**
+	 * Converts the specified booleans to longs which are 1 for true and 0 for
+	 * false.
+	 *
+	 * @param matches
+	 *            the booleans
+	 * @return the longs
+	 */
+	private static long[] toBits(boolean[] matches) {
+		long[] bits = new long[matches.length];
+		for (int i = 0; i < matches.length; i++) {
+			bits[i] = matches[i] ? 1 : 0;
+		}
+		return bits;
+	}
+
+	/**
+	 * Returns the rows which satisfy the specified test.
+	 *
+	 * @param test
+	 *            test of a row number
+	 * @param parallel
+	 *            true if the test may be done from multiple threads at once
+	 * @return bitmap of the rows which satisfy the test
+	 */
+	private BitSet scan(IntPredicate test, boolean parallel) {
+		IntToLongFunction words = word -> {
+			int start = word << 6;
+			int end = Math.min(start + 64, size);
+			long result = 0;
+			for (int row = start; row < end; row++) {
+				if (test.test(row)) {
+					result |= 1L << (row - start);
+				}
+			}
+			return result;
+		};
+		return parallel ? scanWords(words) : BitSet.valueOf(computeWords(words, false));
+	}
+
+	/**
+	 * Creates a bitmap from the words calculated by the specified function.
+	 * Every word holds the bits of 64 consecutive rows, so the words can be
+	 * calculated independently. When there are at least
+	 * {@link #PARALLEL_THRESHOLD} rows, the words are calculated in parallel.
+	 *
+	 * @param words
+	 *            function which calculates the word with the given index
+	 * @return the bitmap
+	 */
+	private BitSet scanWords(IntToLongFunction words) {
+		return BitSet.valueOf(computeWords(words, size >= PARALLEL_THRESHOLD));
+	}
+
+	/**
+	 * Calculates all words of a bitmap of the rows.
+	 *
+	 * @param words
+	 *            function which calculates the word with the given index
+	 * @param parallel
+	 *            true if the words should be calculated in parallel
+	 * @return the words
+	 */
+	private long[] computeWords(IntToLongFunction words, boolean parallel) {
+		long[] result = new long[(size + 63) >>> 6];
+		IntStream indexes = IntStream.range(0, result.length);
+		if (parallel) {
+			indexes = indexes.parallel();
+		}
+		indexes.forEach(word -> result[word] = words.applyAsLong(word));
+		return result;
+	}
+
+	/**
+	 * Gets the jmbag of the specified row.
+	 *
+	 * @param row
+	 *            row number
+	 * @return jmbag of the row
+	 */
+	private String jmbag(int row) {
+		int start = jmbagOffsets[row];
+		return new String(jmbagChars, start, jmbagOffsets[row + 1] - start);
+	}
+
+	/**
+	 * Checks if the jmbag of the specified row is equal to the specified
+	 * string.
+	 *
+	 * @param row
+	 *            row number
+	 * @param jmbag
+	 *            jmbag
+	 * @return true if the jmbag of the row is equal to the specified string
+	 */
+	private boolean jmbagEquals(int row, String jmbag) {
+		int start = jmbagOffsets[row];
+		int length = jmbagOffsets[row + 1] - start;
+		if (length != jmbag.length()) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (jmbagChars[start + i] != jmbag.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Compares the jmbag of the specified row with the specified string
+	 * lexicographically, the same way {@link String#compareTo(String)} does.
+	 *
+	 * @param row
+	 *            row number
+	 * @param other
+	 *            string to compare with
+	 * @return a negative number, zero, or a positive number if the jmbag is
+	 *         less than, equal to, or greater than the string
+	 */
+	private int compareJmbag(int row, String other) {
+		int start = jmbagOffsets[row];
+		int length = jmbagOffsets[row + 1] - start;
+		int limit = Math.min(length, other.length());
+		for (int i = 0; i < limit; i++) {
+			char c1 = jmbagChars[start + i];
+			char c2 = other.charAt(i);
+			if (c1 != c2) {
+				return c1 - c2;
+			}
+		}
+		return length - other.length();
+	}
+
+	/**
+	 * Calculates the hash of the specified jmbag. The hash is equal to the
+	 * hash of the jmbag string, with its bits spread.
+	 *
+	 * @param jmbag
+	 *            jmbag
+	 * @return hash of the jmbag
+	 */
+	private static int hash(String jmbag) {
+		int h = jmbag.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Calculates the hash of the jmbag of the specified row without creating
+	 * a string.
+	 *
+	 * @param row
+	 *            row number
+	 * @return hash of the jmbag of the row
+	 */
+	private int hash(int row) {
+		int h = 0;
+		for (int i = jmbagOffsets[row], end = jmbagOffsets[row + 1]; i < end; i++) {
+			h = 31 * h + jmbagChars[i];
+		}
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Inserts the specified row into the specified hash table.
+	 *
+	 * @param table
+	 *            hash table
+	 * @param row
+	 *            row number
+	 */
+	private void insertIntoTable(int[] table, int row) {
+		int mask = table.length - 1;
+		int slot = hash(row) & mask;
+		while (table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		table[slot] = row + 1;
+	}
+
+	/**
+	 * Inserts the specified row into the hash table of jmbags, unless there
+	 * already is a row with the same jmbag.
+	 *
+	 * @param row
+	 *            row number
+	 * @return true if the row was inserted, false if its jmbag already exists
+	 */
+	private boolean insertUnique(int row) {
+		int mask = jmbagTable.length - 1;
+		int start = jmbagOffsets[row];
+		int length = jmbagOffsets[row + 1] - start;
+		int slot = hash(row) & mask;
+		while (jmbagTable[slot] != 0) {
+			int other = jmbagTable[slot] - 1;
+			int otherStart = jmbagOffsets[other];
+			if (jmbagOffsets[other + 1] - otherStart == length && regionEquals(start, otherStart, length)) {
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		jmbagTable[slot] = row + 1;
+		return true;
+	}
+
+	/**
+	 * Checks if the two specified regions of the jmbag column are equal.
+	 *
+	 * @param first
+	 *            start of the first region
+	 * @param second
+	 *            start of the second region
+	 * @param length
+	 *            length of the regions
+	 * @return true if the regions contain the same characters
+	 */
+	private boolean regionEquals(int first, int second, int length) {
+		for (int i = 0; i < length; i++) {
+			if (jmbagChars[first + i] != jmbagChars[second + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Rebuilds the hash table of jmbags with the specified capacity.
+	 *
+	 * @param capacity
+	 *            new capacity of the hash table, a power of two
+	 */
+	private void rehash(int capacity) {
+		int[] table = new int[capacity];
+		for (int row = 0; row < size; row++) {
+			if (!deleted.get(row)) {
+				insertIntoTable(table, row);
+			}
+		}
+		jmbagTable = table;
+	}
+
+	/**
+	 * Writes the columns to the specified snapshot file. The snapshot contains
+	 * the columns, the dictionaries and the hash table of jmbags, so reading
+	 * it requires no parsing or hashing of the rows. Deleted rows are not
+	 * written. The snapshot ends with the CRC32 checksum of all the bytes
+	 * before it.
+	 * <p>
+	 * The snapshot is written to a temporary file next to the specified one,
+	 * which then atomically replaces it, so an interrupted write never leaves
+	 * a partial snapshot behind.
+	 * </p>
+	 *
+	 * @param file
+	 *            the snapshot file
+	 * @throws IOException
+	 *             if the file can not be written
+	 */
+	public void writeSnapshot(Path file) throws IOException {
+		if (deletedCount > 0) {
+			compact().writeSnapshot(file);
+			return;
+		}
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ChecksumChannel checksumChannel = new ChecksumChannel(channel, Long.MAX_VALUE);
+			writeSnapshot(checksumChannel);
+			ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES);
+			trailer.putInt(0, (int) checksumChannel.crc.getValue());
+			while (trailer.hasRemaining()) {
+				channel.write(trailer);
+			}
+			channel.force(true);
+		} catch (IOException e) {
+			try {
+				Files.deleteIfExists(temporary);
+			} catch (IOException deleteException) {
+				e.addSuppressed(deleteException);
+			}
+			throw e;
+		}
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Writes the snapshot of the columns, without the checksum, to the
+	 * specified channel.
+	 *
+	 * @param channel
+	 *            channel of the snapshot file
+	 * @throws IOException
+	 *             if the snapshot can not be written
+	 */
+	private void writeSnapshot(WritableByteChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(SNAPSHOT_BUFFER_SIZE);
+		buffer.putInt(SNAPSHOT_MAGIC).putInt(size).putInt(jmbagLength).putInt(jmbagTable.length);
+		writeDictionary(channel, buffer, lastNames);
+		writeDictionary(channel, buffer, firstNames);
+
+		for (int offset = 0; offset < jmbagLength;) {
+			int count = Math.min(jmbagLength - offset, makeRoom(channel, buffer) / Character.BYTES);
+			buffer.asCharBuffer().put(jmbagChars, offset, count);
+			buffer.position(buffer.position() + count * Character.BYTES);
+			offset += count;
+		}
+		writeInts(channel, buffer, jmbagOffsets, size + 1);
+		writeInts(channel, buffer, jmbagTable, jmbagTable.length);
+		writeInts(channel, buffer, lastNameCodes, size);
+		writeInts(channel, buffer, firstNameCodes, size);
+		for (int offset = 0; offset < size;) {
+			int count = Math.min(size - offset, makeRoom(channel, buffer));
+			buffer.put(finalGrades, offset, count);
+			offset += count;
+		}
+
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	/**
+	 * Reads columns from the specified snapshot file, written by
+	 * {@link #writeSnapshot(Path)}. The checksum and the consistency of the
+	 * columns are checked, so a damaged snapshot is rejected instead of
+	 * failing later in queries.
+	 *
+	 * @param file
+	 *            the snapshot file
+	 * @return the columns read from the snapshot
+	 * @throws IOException
+	 *             if the file can not be read or if it is not a valid snapshot
+	 */
+	public static StudentColumns readSnapshot(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long contentLength = channel.size() - Integer.BYTES;
+			ChecksumChannel content = new ChecksumChannel(channel, contentLength);
+			ByteBuffer buffer = ByteBuffer.allocateDirect(SNAPSHOT_BUFFER_SIZE);
+			buffer.flip();
+			require(content, buffer, 4 * Integer.BYTES);
+			if (buffer.getInt() != SNAPSHOT_MAGIC) {
+				throw new IOException("The file " + file + " is not a database snapshot.");
+			}
+
+			StudentColumns columns = new StudentColumns();
+			columns.size = buffer.getInt();
+			columns.jmbagLength = buffer.getInt();
+			int tableLength = buffer.getInt();
+			if (columns.size < 0 || columns.jmbagLength < 0 || tableLength < 2L * columns.size
+					|| Integer.bitCount(tableLength) != 1) {
+				throw invalidSnapshot(file, "invalid header");
+			}
+			// the remaining sections must fit into the file before they are
+			// allocated
+			long sectionsLength = (long) columns.jmbagLength * Character.BYTES
+					+ ((long) columns.size + 1 + tableLength + 2L * columns.size) * Integer.BYTES + columns.size;
+			if (sectionsLength > contentLength) {
+				throw invalidSnapshot(file, "the columns do not fit into the file");
+			}
+			readDictionary(content, buffer, columns.lastNames, contentLength);
+			readDictionary(content, buffer, columns.firstNames, contentLength);
+
+			columns.jmbagChars = new char[columns.jmbagLength];
+			for (int offset = 0; offset < columns.jmbagLength;) {
+				require(content, buffer, Character.BYTES);
+				int count = Math.min(columns.jmbagLength - offset, buffer.remaining() / Character.BYTES);
+				buffer.asCharBuffer().get(columns.jmbagChars, offset, count);
+				buffer.position(buffer.position() + count * Character.BYTES);
+				offset += count;
+			}
+			columns.jmbagOffsets = readInts(content, buffer, columns.size + 1);
+			columns.jmbagTable = readInts(content, buffer, tableLength);
+			columns.lastNameCodes = readInts(content, buffer, columns.size);
+			columns.firstNameCodes = readInts(content, buffer, columns.size);
+			columns.finalGrades = new byte[columns.size];
+			for (int offset = 0; offset < columns.size;) {
+				require(content, buffer, 1);
+				int count = Math.min(columns.size - offset, buffer.remaining());
+				buffer.get(columns.finalGrades, offset, count);
+				offset += count;
+			}
+
+			if (buffer.hasRemaining() || content.remaining > 0) {
+				throw invalidSnapshot(file, "unexpected data after the columns");
+			}
+			ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES);
+			while (trailer.hasRemaining()) {
+				if (channel.read(trailer, contentLength + trailer.position()) < 0) {
+					throw invalidSnapshot(file, "missing checksum");
+				}
+			}
+			if (trailer.getInt(0) != (int) content.crc.getValue()) {
+				throw invalidSnapshot(file, "checksum mismatch");
+			}
+			columns.validate(file);
+			return columns;
+		}
+	}
+
+	/**
+	 * Checks that the columns read from a snapshot are consistent: jmbag
+	 * offsets are ascending, name codes are in their dictionaries and every
+	 * row is in the hash table of jmbags exactly once.
+	 *
+	 * @param file
+	 *            the snapshot file, used in the message of the exception
+	 * @throws IOException
+	 *             if the columns are not consistent
+	 */
+	private void validate(Path file) throws IOException {
+		if (jmbagOffsets[0] != 0 || jmbagOffsets[size] != jmbagLength) {
+			throw invalidSnapshot(file, "invalid jmbag offsets");
+		}
+		int lastNameCount = lastNames.codes.size();
+		int firstNameCount = firstNames.codes.size();
+		for (int row = 0; row < size; row++) {
+			if (jmbagOffsets[row] > jmbagOffsets[row + 1]) {
+				throw invalidSnapshot(file, "invalid jmbag offsets");
+			}
+			if (lastNameCodes[row] < 0 || lastNameCodes[row] >= lastNameCount || firstNameCodes[row] < 0
+					|| firstNameCodes[row] >= firstNameCount) {
+				throw invalidSnapshot(file, "invalid name code in row " + row);
+			}
+		}
+
+		BitSet rows = new BitSet(size);
+		int entries = 0;
+		for (int entry : jmbagTable) {
+			if (entry == 0) {
+				continue;
+			}
+			if (entry < 0 || entry > size || rows.get(entry - 1)) {
+				throw invalidSnapshot(file, "invalid hash table of jmbags");
+			}
+			rows.set(entry - 1);
+			entries++;
+		}
+		if (entries != size) {
+			throw invalidSnapshot(file, "invalid hash table of jmbags");
+		}
+	}
+
+	/**
+	 * Creates an exception which reports an invalid snapshot.
+	 *
+	 * @param file
+	 *            the snapshot file
+	 * @param reason
+	 *            what is wrong with the snapshot
+	 * @return the exception
+	 */
+	private static IOException invalidSnapshot(Path file, String reason) {
+		return new IOException("The database snapshot " + file + " is not valid: " + reason + ".");
+	}
+
+	/**
+	 * Writes the specified dictionary into the buffer. Every value is written
+	 * as its length in bytes followed by its UTF-8 bytes.
+	 *
+	 * @param channel
+	 *            channel into which the full buffer is written
+	 * @param buffer
+	 *            the buffer
+	 * @param dictionary
+	 *            the dictionary
+	 * @throws IOException
+	 *             if the channel can not be written
+	 */
+	private static void writeDictionary(WritableByteChannel channel, ByteBuffer buffer, Dictionary dictionary)
+			throws IOException {
+		int count = dictionary.codes.size();
+		makeRoom(channel, buffer);
+		buffer.putInt(count);
+		for (int code = 0; code < count; code++) {
+			byte[] bytes = dictionary.values[code].getBytes(StandardCharsets.UTF_8);
+			makeRoom(channel, buffer);
+			buffer.putInt(bytes.length);
+			for (int offset = 0; offset < bytes.length;) {
+				int length = Math.min(bytes.length - offset, makeRoom(channel, buffer));
+				buffer.put(bytes, offset, length);
+				offset += length;
+			}
+		}
+	}
+
+	/**
+	 * Reads values of a dictionary written by
+	 * {@link #writeDictionary(WritableByteChannel, ByteBuffer, Dictionary)}
+	 * and adds them to the specified dictionary.
+	 *
+	 * @param channel
+	 *            channel from which the buffer is filled
+	 * @param buffer
+	 *            the buffer
+	 * @param dictionary
+	 *            the dictionary
+	 * @param maxLength
+	 *            the largest number of bytes the dictionary can have
+	 * @throws IOException
+	 *             if the channel can not be read or if the dictionary is not
+	 *             valid
+	 */
+	private static void readDictionary(ReadableByteChannel channel, ByteBuffer buffer, Dictionary dictionary,
+			long maxLength) throws IOException {
+		require(channel, buffer, Integer.BYTES);
+		int count = buffer.getInt();
+		if (count < 0 || (long) count * Integer.BYTES > maxLength) {
+			throw new IOException("Invalid size of a dictionary in the database snapshot: " + count + ".");
+		}
+		for (int code = 0; code < count; code++) {
+			require(channel, buffer, Integer.BYTES);
+			int nameLength = buffer.getInt();
+			if (nameLength < 0 || nameLength > maxLength) {
+				throw new IOException("Invalid length of a name in the database snapshot: " + nameLength + ".");
+			}
+			byte[] bytes = new byte[nameLength];
+			for (int offset = 0; offset < bytes.length;) {
+				require(channel, buffer, 1);
+				int length = Math.min(bytes.length - offset, buffer.remaining());
+				buffer.get(bytes, offset, length);
+				offset += length;
+			}
+			dictionary.encode(new String(bytes, StandardCharsets.UTF_8));
+		}
+		if (dictionary.codes.size() != count) {
+			throw new IOException("A dictionary in the database snapshot contains duplicate names.");
+		}
+	}
+
+	/**
+	 * Writes the first elements of the specified array into the buffer.
+	 *
+	 * @param channel
+	 *            channel into which the full buffer is written
+	 * @param buffer
+	 *            the buffer
+	 * @param array
+	 *            the array
+	 * @param length
+	 *            number of elements to write
+	 * @throws IOException
+	 *             if the channel can not be written
+	 */
+	private static void writeInts(WritableByteChannel channel, ByteBuffer buffer, int[] array, int length)
+			throws IOException {
+		for (int offset = 0; offset < length;) {
+			int count = Math.min(length - offset, makeRoom(channel, buffer) / Integer.BYTES);
+			buffer.asIntBuffer().put(array, offset, count);
+			buffer.position(buffer.position() + count * Integer.BYTES);
+			offset += count;
+		}
+	}
+
+	/**
+	 * Reads an array of the specified length from the buffer.
+	 *
+	 * @param channel
+	 *            channel from which the buffer is filled
+	 * @param buffer
+	 *            the buffer
+	 * @param length
+	 *            number of elements to read
+	 * @return the array
+	 * @throws IOException
+	 *             if the channel can not be read
+	 */
+	private static int[] readInts(ReadableByteChannel channel, ByteBuffer buffer, int length) throws IOException {
+		int[] array = new int[length];
+		for (int offset = 0; offset < length;) {
+			require(channel, buffer, Integer.BYTES);
+			int count = Math.min(length - offset, buffer.remaining() / Integer.BYTES);
+			buffer.asIntBuffer().get(array, offset, count);
+			buffer.position(buffer.position() + count * Integer.BYTES);
+			offset += count;
+		}
+		return array;
+	}
+
+	/**
+	 * Writes the buffer into the channel if there is less than 8 bytes of free
+	 * space left in it.
+	 *
+	 * @param channel
+	 *            the channel
+	 * @param buffer
+	 *            the buffer, in the writing mode
+	 * @return number of bytes of free space in the buffer
+	 * @throws IOException
+	 *             if the channel can not be written
+	 */
+	private static int makeRoom(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < Long.BYTES) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+		return buffer.remaining();
+	}
+
+	/**
+	 * Makes sure that the buffer contains at least the specified number of
+	 * bytes, reading more bytes from the channel if necessary.
+	 *
+	 * @param channel
+	 *            the channel
+	 * @param buffer
+	 *            the buffer, in the reading mode
+	 * @param bytes
+	 *            required number of bytes
+	 * @throws IOException
+	 *             if the channel ends before the required bytes are read
+	 */
+	private static void require(ReadableByteChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+		if (buffer.remaining() >= bytes) {
+			return;
+		}
+		buffer.compact();
+		while (buffer.position() < bytes) {
+			if (channel.read(buffer) < 0) {
+				throw new IOException("Unexpected end of the database snapshot.");
+			}
+		}
+		buffer.flip();
+	}
+
+	/**
+	 * Checks if the specified row number is valid.
+	 *
+	 * @param row
+	 *            row number
+	 * @throws IndexOutOfBoundsException
+	 *             if the row number is not valid
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("Row " + row + " does not exist.");
+		}
+	}
+
+	/**
+	 * Checks if the specified row number is valid and the row is not deleted.
+	 *
+	 * @param row
+	 *            row number
+	 * @throws IndexOutOfBoundsException
+	 *             if the row number is not valid or the row is deleted
+	 */
+	private void checkLiveRow(int row) {
+		checkRow(row);
+		if (deleted.get(row)) {
+			throw new IndexOutOfBoundsException("Row " + row + " is deleted.");
+		}
+	}
+
+	/**
+	 * Checks if the specified final grade fits into a byte.
+	 *
+	 * @param finalGrade
+	 *            final grade
+	 * @throws NumberFormatException
+	 *             if the final grade does not fit into a byte
+	 */
+	static void checkGrade(int finalGrade) {
+		if (finalGrade < Byte.MIN_VALUE || finalGrade > Byte.MAX_VALUE) {
+			throw new NumberFormatException(
+					"Invalid data found. The value '" + finalGrade + "' can not be a grade.");
+		}
+	}
+
+	/**
+	 * This class represents a dictionary of strings. Every distinct string is
+	 * given a code, starting from zero, in the order in which the strings are
+	 * first encoded.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private static class Dictionary {
+		/** Map from strings to their codes. **/
+		private Map<String, Integer> codes = new HashMap<>();
+		/** Strings, indexed by their codes. **/
+		private String[] values = new String[INITIAL_CAPACITY];
+
+		/**
+		 * Gets the code of the specified string, adding the string to the
+		 * dictionary if it is not already there.
+		 *
+		 * @param value
+		 *            string
+		 * @return code of the string
+		 */
+		private int encode(String value) {
+			Integer code = codes.get(value);
+			if (code != null) {
+				return code;
+			}
+			int newCode = codes.size();
+			if (newCode == values.length) {
+				values = Arrays.copyOf(values, values.length * 2);
+			}
+			values[newCode] = value;
+			codes.put(value, newCode);
+			return newCode;
+		}
+
+		/**
+		 * Gets the string with the specified code.
+		 *
+		 * @param code
+		 *            code
+		 * @return string with the code
+		 */
+		private String decode(int code) {
+			return values[code];
+		}
+
+		/**
+		 * Calculates the rank of every string of the dictionary in the sorted
+		 * order of the strings.
+		 *
+		 * @return rank of every string, indexed by its code
+		 */
+		private int[] ranks() {
+			return StudentColumns.ranks(values, codes.size());
+		}
+
+		/**
+		 * Evaluates the specified condition on every string of the
+		 * dictionary.
+		 *
+		 * @param operator
+		 *            comparison operator
+		 * @param literal
+		 *            string literal
+		 * @return for every code, true if its string satisfies the condition
+		 */
+		private boolean[] matches(IComparisonOperator operator, String literal) {
+			Predicate<String> test = QueryCompiler.compile(operator, literal);
+			boolean[] matches = new boolean[codes.size()];
+			for (int code = 0; code < matches.length; code++) {
+				matches[code] = test.test(values[code]);
+			}
+			return matches;
+		}
+	}
+
+	/**
+	 * This class represents a chunk of rows that is filled independently of
+	 * the columns, e.g. by a thread of a parallel loader, and then appended to
+	 * the columns using {@link StudentColumns#append(Chunk)}. Names are
+	 * encoded using the chunk's own dictionaries, whose codes are given by the
+	 * caller.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	static class Chunk {
+		/** Number of rows. **/
+		int size;
+		/** Characters of all jmbags, one after another. **/
+		char[] jmbagChars = new char[INITIAL_CAPACITY * 10];
+		/** Number of used characters in the jmbag column. **/
+		int jmbagLength;
+		/** End offsets of jmbags. **/
+		int[] jmbagEnds = new int[INITIAL_CAPACITY];
+		/** Last names, indexed by their codes in this chunk. **/
+		String[] lastNames = new String[INITIAL_CAPACITY];
+		/** Number of distinct last names. **/
+		int lastNameCount;
+		/** Codes of last names. **/
+		int[] lastNameCodes = new int[INITIAL_CAPACITY];
+		/** First names, indexed by their codes in this chunk. **/
+		String[] firstNames = new String[INITIAL_CAPACITY];
+		/** Number of distinct first names. **/
+		int firstNameCount;
+		/** Codes of first names. **/
+		int[] firstNameCodes = new int[INITIAL_CAPACITY];
+		/** Final grades. **/
+		byte[] finalGrades = new byte[INITIAL_CAPACITY];
+
+		/**
+		 * Makes sure that the jmbag column has room for the specified number
+		 * of additional characters.
+		 *
+		 * @param chars
+		 *            number of characters that are about to be added
+		 */
+		void ensureJmbagCapacity(int chars) {
+			if (jmbagLength + chars > jmbagChars.length) {
+				jmbagChars = Arrays.copyOf(jmbagChars, Math.max(jmbagLength + chars, jmbagChars.length * 2));
+			}
+		}
+
+		/**
+		 * Adds a row whose jmbag has already been written into the jmbag
+		 * column.
+		 *
+		 * @param lastNameCode
+		 *            code of the last name in this chunk
+		 * @param firstNameCode
+		 *            code of the first name in this chunk
+		 * @param finalGrade
+		 *            final grade
+		 */
+		void addRow(int lastNameCode, int firstNameCode, byte finalGrade) {
+			if (size == finalGrades.length) {
+				int capacity = size * 2;
+				jmbagEnds = Arrays.copyOf(jmbagEnds, capacity);
+				lastNameCodes = Arrays.copyOf(lastNameCodes, capacity);
+				firstNameCodes = Arrays.copyOf(firstNameCodes, capacity);
+				finalGrades = Arrays.copyOf(finalGrades, capacity);
+			}
+			jmbagEnds[size] = jmbagLength;
+			lastNameCodes[size] = lastNameCode;
+			firstNameCodes[size] = firstNameCode;
+			finalGrades[size] = finalGrade;
+			size++;
+		}
+
+		/**
+		 * Adds a new last name to the chunk's dictionary.
+		 *
+		 * @param lastName
+		 *            last name
+		 * @return code of the last name
+		 */
+		int addLastName(String lastName) {
+			if (lastNameCount == lastNames.length) {
+				lastNames = Arrays.copyOf(lastNames, lastNameCount * 2);
+			}
+			lastNames[lastNameCount] = lastName;
+			return lastNameCount++;
+		}
+
+		/**
+		 * Adds a new first name to the chunk's dictionary.
+		 *
+		 * @param firstName
+		 *            first name
+		 * @return code of the first name
+		 */
+		int addFirstName(String firstName) {
+			if (firstNameCount == firstNames.length) {
+				firstNames = Arrays.copyOf(firstNames, firstNameCount * 2);
+			}
+			firstNames[firstNameCount] = firstName;
+			return firstNameCount++;
+		}
+	}
+
+	/**
+	 * Channel which computes the CRC32 checksum of the bytes written through
+	 * it or read from it. Reading stops after the specified number of bytes, so
+	 * the checksum trailer of a snapshot is not read as its content.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private static class ChecksumChannel implements ReadableByteChannel, WritableByteChannel {
+		/** The underlying channel. **/
+		private final FileChannel channel;
+		/** Checksum of the bytes so far. **/
+		private final CRC32 crc = new CRC32();
+		/** Number of bytes which can still be read. **/
+		private long remaining;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param channel
+		 *            the underlying channel
+		 * @param limit
+		 *            the largest number of bytes which can be read
+		 */
+		private ChecksumChannel(FileChannel channel, long limit) {
+			this.channel = channel;
+			this.remaining = Math.max(limit, 0);
+		}
+
+		@Override
+		public int read(ByteBuffer dst) throws IOException {
+			if (remaining == 0) {
+				return -1;
+			}
+			int limit = dst.limit();
+			int start = dst.position();
+			if (dst.remaining() > remaining) {
+				dst.limit(start + (int) remaining);
+			}
+			int read;
+			try {
+				read = channel.read(dst);
+			} finally {
+				dst.limit(limit);
+			}
+			if (read > 0) {
+				update(dst, start, read);
+				remaining -= read;
+			}
+			return read;
+		}
+
+		@Override
+		public int write(ByteBuffer src) throws IOException {
+			int start = src.position();
+			int written = channel.write(src);
+			update(src, start, written);
+			return written;
+		}
+
+		/**
+		 * Adds the specified bytes of the buffer to the checksum, without
+		 * changing the buffer's position.
+		 *
+		 * @param buffer
+		 *            the buffer
+		 * @param start
+		 *            index of the first byte
+		 * @param length
+		 *            number of bytes
+		 */
+		private void update(ByteBuffer buffer, int start, int length) {
+			ByteBuffer bytes = buffer.duplicate();
+			bytes.limit(start + length).position(start);
+			crc.update(bytes);
+		}
+
+		@Override
+		public boolean isOpen() {
+			return channel.isOpen();
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
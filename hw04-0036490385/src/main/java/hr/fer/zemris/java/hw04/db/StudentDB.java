@@ -1,8 +1,6 @@
 package hr.fer.zemris.java.hw04.db;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
@@ -15,10 +13,30 @@ import java.util.Scanner;
  * table including all the records from the database that satisfy the condition
  * specified in a query from the user input. It will also print the number of
  * records selected. To exit the program, input 'exit'. The program supports the
- * following operators: <,>,<=,>=,=,!=,LIKE. Logical operator AND is the only
- * supported logical operator and it is case insensitive. The database consists
- * of only one relation with three attributes: jmbag, lastName, firstName, grade
- * but the attribute grade can not be used in a query.
+ * following operators: <,>,<=,>=,=,!=,LIKE. Conditions can be combined using
+ * the logical operators AND, OR and NOT, which are case insensitive, and
+ * grouped using parentheses. The selected records can be ordered using 'ORDER
+ * BY attribute [ASC|DESC]' and limited using 'LIMIT n'. If the query starts
+ * with 'COUNT', only the number of selected records is printed. The database
+ * consists of only one relation with four attributes: jmbag, lastName,
+ * firstName and finalGrade. Queries on lastName, firstName and finalGrade are
+ * answered using sorted secondary indexes where possible.
+ * <p>
+ * The database can be changed using the commands
+ * <code>insert "jmbag" "lastName" "firstName" "finalGrade"</code>,
+ * <code>update "jmbag" "lastName" "firstName" "finalGrade"</code> and
+ * <code>delete "jmbag"</code>. If the program is started with a snapshot file
+ * and a log file, the changes are written to the log, which is written into
+ * the snapshot by the command <code>checkpoint</code> or when it grows large
+ * enough, so they are kept after the program exits.
+ * </p>
+ * <p>
+ * Results of queries are cached, so a query which is repeated, possibly with
+ * different whitespace or with the operands of AND and OR in a different
+ * order, is answered without searching the database until the database is
+ * changed. The command <code>stats</code> prints the hit rate of the cache and
+ * the average time spent answering a query.
+ * </p>
  *
  * @author Alen Magdić
  *
@@ -34,19 +52,24 @@ public class StudentDB {
 	 * This is the main method which is the starting point of the program.
 	 *
 	 * @param args
-	 *            command line arguments
+	 *            command line arguments; optionally a path to a snapshot file
+	 *            which is used instead of parsing the database file if it is
+	 *            up to date, and written otherwise, and a path to a log file
+	 *            of changes, in which case the database can be changed
 	 */
 	public static void main(String[] args) {
-		List<String> lines;
+		StudentDatabase database;
 		try {
-			lines = Files.readAllLines(Paths.get(DATABASE_PATH), StandardCharsets.UTF_8);
+			if (args.length > 1) {
+				database = DatabaseLoader.open(Paths.get(DATABASE_PATH), Paths.get(args[0]), Paths.get(args[1]));
+			} else if (args.length > 0) {
+				database = DatabaseLoader.load(Paths.get(DATABASE_PATH), Paths.get(args[0]));
+			} else {
+				database = DatabaseLoader.load(Paths.get(DATABASE_PATH));
+			}
 		} catch (IOException e) {
 			System.out.println("There was a problem loading the database. The program can not proceed.");
 			return;
-		}
-		StudentDatabase database;
-		try {
-			database = new StudentDatabase(lines);
 		} catch (RuntimeException ex) {
 			System.out.println(
 					"There was a problem loading the database. The database is corrupted. The program can not proceed.");
@@ -67,6 +90,7 @@ public class StudentDB {
 	 */
 	private static void interactWithUser(StudentDatabase database) {
 		Scanner scan = new Scanner(System.in);
+		QueryCache cache = new QueryCache(database);
 
 		System.out.println(
 				"Input a query and press enter to get the specified selection (specified by the query) from the database. Input 'exit' in order to quit the program.");
@@ -83,8 +107,17 @@ public class StudentDB {
 				System.out.println("Incomplete query!");
 				continue;
 			}
+			if (input.equals("stats")) {
+				printStatistics(cache);
+				continue;
+			}
+			if (isChangeCommand(input)) {
+				changeTheDatabase(input, database);
+				continue;
+			}
 			if (!input.startsWith("query ")) {
-				System.out.println("Unknown command! The only supported command is 'query'.");
+				System.out.println(
+						"Unknown command! The supported commands are 'query', 'insert', 'update', 'delete', 'checkpoint' and 'stats'.");
 				continue;
 			}
 
@@ -97,7 +130,12 @@ public class StudentDB {
 				continue;
 			}
 
-			List<StudentRecord> records = selectDataFromTheDatabase(parser, database);
+			if (parser.getParsedQuery().isCount()) {
+				System.out.println("Records counted: " + cache.count(parser.getParsedQuery()));
+				continue;
+			}
+
+			List<StudentRecord> records = selectDataFromTheDatabase(parser, database, cache);
 			printDataToTheScreen(records);
 		}
 	}
@@ -231,9 +269,12 @@ public class StudentDB {
 	 *            a parser that contains the conditions for the data selection
 	 * @param database
 	 *            the database from which records are to be selected
+	 * @param cache
+	 *            cache of query results of the database
 	 * @return a list of student records that satisfy the specified conditions
 	 */
-	private static List<StudentRecord> selectDataFromTheDatabase(QueryParser parser, StudentDatabase database) {
+	private static List<StudentRecord> selectDataFromTheDatabase(QueryParser parser, StudentDatabase database,
+			QueryCache cache) {
 		List<StudentRecord> records = new ArrayList<>();
 
 		if (parser.isDirectQuery()) {
@@ -244,8 +285,115 @@ public class StudentDB {
 			}
 			records.add(record);
 		} else {
-			return database.filter(new QueryFilter(parser.getQuery()));
+			return cache.execute(parser.getParsedQuery());
 		}
 		return records;
 	}
+
+	/**
+	 * This method prints the statistics of the specified query cache to the
+	 * screen.
+	 *
+	 * @param cache
+	 *            the query cache
+	 */
+	private static void printStatistics(QueryCache cache) {
+		System.out.println("Cache hits: " + cache.getHits() + ", misses: " + cache.getMisses() + ", invalidations: "
+				+ cache.getInvalidations() + ", cached results: " + cache.size());
+		System.out.printf("Hit rate: %.1f %%, average query latency: %.3f ms%n", cache.getHitRate() * 100,
+				cache.getAverageLatency() / 1_000_000);
+	}
+
+	/**
+	 * Checks if the specified input is a command which changes the database.
+	 *
+	 * @param input
+	 *            the user input
+	 * @return true if the input is an insert, update, delete or checkpoint
+	 *         command
+	 */
+	private static boolean isChangeCommand(String input) {
+		String command = input.split("\\s", 2)[0];
+		return command.equals("insert") || command.equals("update") || command.equals("delete")
+				|| command.equals("checkpoint");
+	}
+
+	/**
+	 * Executes the specified command which changes the database and prints
+	 * its result to the screen.
+	 *
+	 * @param input
+	 *            the user input containing an insert, update, delete or
+	 *            checkpoint command
+	 * @param database
+	 *            the database which is to be changed
+	 */
+	private static void changeTheDatabase(String input, StudentDatabase database) {
+		String[] parts = input.split("\\s", 2);
+		String command = parts[0];
+		String arguments = parts.length > 1 ? parts[1] : "";
+		try {
+			if (command.equals("checkpoint")) {
+				database.checkpoint();
+				System.out.println("Checkpoint done.");
+			} else if (command.equals("delete")) {
+				String jmbag = parseStrings(arguments, 1)[0];
+				System.out.println(database.delete(jmbag) ? "Record deleted." : "There is no such record.");
+			} else {
+				String[] values = parseStrings(arguments, 4);
+				StudentRecord record = new StudentRecord(values[0], values[1], values[2],
+						StudentColumns.parseGrade(values[3]));
+				if (command.equals("insert")) {
+					database.insert(record);
+					System.out.println("Record inserted.");
+				} else {
+					System.out.println(database.update(record) ? "Record updated." : "There is no such record.");
+				}
+			}
+		} catch (ParserException | IllegalArgumentException | IllegalStateException ex) {
+			System.out.println(ex.getMessage());
+		} catch (CheckpointException ex) {
+			if (command.equals("checkpoint")) {
+				System.out.println("The checkpoint failed: " + ex.getMessage());
+			} else {
+				System.out.println("The change was applied, but the checkpoint after it failed: " + ex.getMessage());
+			}
+		} catch (IOException ex) {
+			System.out.println("The change could not be written to the log: " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Parses the specified number of strings surrounded by quotation marks
+	 * from the specified text.
+	 *
+	 * @param text
+	 *            the text
+	 * @param count
+	 *            the number of strings
+	 * @return the parsed strings
+	 * @throws ParserException
+	 *             if the text does not contain exactly the specified number of
+	 *             strings
+	 */
+	private static String[] parseStrings(String text, int count) {
+		String message = "The command expects " + count + " arguments surrounded by quotation marks.";
+		QueryLexer lexer = new QueryLexer(text);
+		String[] strings = new String[count];
+		try {
+			for (int i = 0; i < count; i++) {
+				Token token = lexer.nextToken();
+				if (token.getType() != TokenType.STRING) {
+					throw new ParserException(message);
+				}
+				strings[i] = (String) token.getValue();
+			}
+			if (lexer.nextToken().getType() != TokenType.EOF) {
+				throw new ParserException(message);
+			}
+		} catch (LexerException ex) {
+			throw new ParserException(message, ex);
+		}
+		return strings;
+	}
 }
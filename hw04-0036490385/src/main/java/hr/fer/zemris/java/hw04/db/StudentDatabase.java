@@ -1,27 +1,57 @@
 package hr.fer.zemris.java.hw04.db;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
 import java.util.List;
-
-import hr.fer.zemris.java.hw04.collections.SimpleHashtable;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
 
 /**
  * This class represents a student database. It contains a method for filtering
  * data from the database using the specified filter, and a method that can get
  * a record from the database in O(1) complexity using the specified Jmbag.
+ * There are also sorted secondary indexes on the last name, the first name and
+ * the final grade which are used for answering queries given as lists of
+ * conditional expressions without scanning the whole database. The data is
+ * kept in a columnar form (see {@link StudentColumns}), and student records are
+ * created only for the rows that are returned. Queries on large databases are
+ * evaluated in parallel, but the records are always returned in the database
+ * order unless a {@link Query} asks for a different order.
+ * <p>
+ * Records can be inserted, changed and deleted. The jmbag hash table and the
+ * secondary indexes are changed incrementally, without rebuilding them. If a
+ * {@link WriteAheadLog} is attached to the database, every change is written to
+ * the log before it is applied, and a checkpoint is made when the log grows
+ * large enough. The database can be read from multiple threads, but it must
+ * not be read while it is being changed.
+ * </p>
  *
  * @author Alen Magdić
  *
  */
 public class StudentDatabase {
 	/**
-	 * List of records in this database.
+	 * Columns containing the data of this database.
+	 */
+	private StudentColumns columns;
+	/**
+	 * Sorted secondary indexes of this database.
 	 */
-	private List<StudentRecord> listOfRecords;
+	private List<SortedIndex> indexes;
 	/**
-	 * Map of records in this database.
+	 * The write-ahead log of this database, or null if changes are not
+	 * logged.
 	 */
-	private SimpleHashtable<String, StudentRecord> mapOfRecords;
+	private WriteAheadLog log;
+	/**
+	 * Number of changes of the records made since the database was created.
+	 */
+	private long modificationCount;
 
 	/**
 	 * Constructor.
@@ -30,44 +60,328 @@ public class StudentDatabase {
 	 *            list of rows containing the database data
 	 */
 	public StudentDatabase(List<String> rows) {
-		createListAndMapOfRecords(rows);
+		this(new StudentColumns(rows));
 	}
 
 	/**
-	 * A method that creates a list and a map of records from the database
+	 * Constructor. Creates a database containing the data of the specified
+	 * columns, e.g. columns loaded by {@link DatabaseLoader}.
 	 *
-	 * @param rows
-	 *            list of rows containing the database data
+	 * @param columns
+	 *            columns containing the database data
 	 */
-	private void createListAndMapOfRecords(List<String> rows) {
-		listOfRecords = new ArrayList<>();
-		mapOfRecords = new SimpleHashtable<>();
+	public StudentDatabase(StudentColumns columns) {
+		if (columns == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		this.columns = columns.recordCount() < columns.size() ? columns.compact() : columns;
+		createIndexes();
+	}
 
-		for (String row : rows) {
-			String[] attributes = row.split("\t");
-			if (attributes.length != 4) {
-				throw new RuntimeException("Invalid data found. Data: " + row);
-			}
+	/**
+	 * A method that creates the sorted secondary indexes on the last name, the
+	 * first name and the final grade.
+	 */
+	private void createIndexes() {
+		indexes = new ArrayList<>();
+		indexes.add(createIndex(FieldValueGetters.LAST_NAME));
+		indexes.add(createIndex(FieldValueGetters.FIRST_NAME));
+		indexes.add(createIndex(FieldValueGetters.FINAL_GRADE));
+	}
 
-			String jmbag = attributes[0];
-			System.out.println(jmbag.equals("0000000001"));
-			if (mapOfRecords.containsKey(jmbag)) {
-				throw new RuntimeException("There are at least two entries with the same jmbag. Jmbag: " + jmbag);
-			}
+	/**
+	 * A method that creates a sorted secondary index on the attribute
+	 * specified by the given field value getter.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of an attribute
+	 * @return the created index
+	 */
+	private SortedIndex createIndex(IFieldValueGetter fieldGetter) {
+		String[] values = new String[columns.size()];
+		for (int row = 0; row < values.length; row++) {
+			values[row] = columns.value(fieldGetter, row);
+		}
+		int[] sortedRows = columns.sortedRows(fieldGetter);
+		if (sortedRows != null) {
+			return SortedIndex.fromSortedRows(fieldGetter, values, sortedRows);
+		}
+		return new SortedIndex(fieldGetter, values);
+	}
+
+	/**
+	 * Gets the number of changes of the records made since the database was
+	 * created, including the changes recovered from a log. The results of a
+	 * query can only change when this number changes.
+	 *
+	 * @return the number of changes
+	 */
+	public long getModificationCount() {
+		return modificationCount;
+	}
+
+	/**
+	 * Gets the columns containing the data of this database.
+	 *
+	 * @return the columns of this database
+	 */
+	public StudentColumns getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Attaches the specified write-ahead log to this database. The entries
+	 * already in the log are applied to the database first, which recovers the
+	 * changes made after the last checkpoint. After that, every change of the
+	 * database is written to the log.
+	 *
+	 * @param log
+	 *            the write-ahead log
+	 * @return the number of recovered changes
+	 * @throws IOException
+	 *             if the log can not be read
+	 */
+	public int attachLog(WriteAheadLog log) throws IOException {
+		if (log == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		int count = log.replay(this);
+		this.log = log;
+		return count;
+	}
+
+	/**
+	 * Inserts the specified record into the database.
+	 *
+	 * @param record
+	 *            the record
+	 * @throws IllegalArgumentException
+	 *             if there already is a record with the same jmbag, or if the
+	 *             final grade is not valid
+	 * @throws CheckpointException
+	 *             if the change was applied and logged, but the checkpoint
+	 *             made after it failed
+	 * @throws IOException
+	 *             if the change can not be written to the log, in which case
+	 *             the database is not changed
+	 */
+	public void insert(StudentRecord record) throws IOException {
+		checkRecord(record);
+		if (columns.rowOf(record.getJmbag()) != -1) {
+			throw new IllegalArgumentException("There already is a record with the jmbag " + record.getJmbag() + ".");
+		}
+		if (log != null) {
+			log.logInsert(record);
+		}
+		add(record);
+		checkpointIfNeeded();
+	}
+
+	/**
+	 * Changes the names and the final grade of the record with the jmbag of
+	 * the specified record.
+	 *
+	 * @param record
+	 *            the changed record
+	 * @return true if the record was changed, false if there is no record with
+	 *         its jmbag
+	 * @throws IllegalArgumentException
+	 *             if the final grade is not valid
+	 * @throws CheckpointException
+	 *             if the change was applied and logged, but the checkpoint
+	 *             made after it failed
+	 * @throws IOException
+	 *             if the change can not be written to the log, in which case
+	 *             the database is not changed
+	 */
+	public boolean update(StudentRecord record) throws IOException {
+		checkRecord(record);
+		int row = columns.rowOf(record.getJmbag());
+		if (row == -1) {
+			return false;
+		}
+		if (log != null) {
+			log.logUpdate(record);
+		}
+		change(row, record);
+		checkpointIfNeeded();
+		return true;
+	}
+
+	/**
+	 * Deletes the record with the specified jmbag.
+	 *
+	 * @param jmbag
+	 *            jmbag of the record
+	 * @return true if the record was deleted, false if there is no record with
+	 *         the specified jmbag
+	 * @throws CheckpointException
+	 *             if the change was applied and logged, but the checkpoint
+	 *             made after it failed
+	 * @throws IOException
+	 *             if the change can not be written to the log, in which case
+	 *             the database is not changed
+	 */
+	public boolean delete(String jmbag) throws IOException {
+		if (jmbag == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		int row = columns.rowOf(jmbag);
+		if (row == -1) {
+			return false;
+		}
+		if (log != null) {
+			log.logDelete(jmbag);
+		}
+		remove(row);
+		checkpointIfNeeded();
+		return true;
+	}
+
+	/**
+	 * Writes the whole database to the snapshot file of the attached log and
+	 * clears the log. If at least a quarter of the rows is deleted, the
+	 * columns and the indexes are compacted first.
+	 *
+	 * @throws CheckpointException
+	 *             if the snapshot can not be written or the log can not be
+	 *             cleared
+	 * @throws IllegalStateException
+	 *             if there is no attached log
+	 */
+	public void checkpoint() throws CheckpointException {
+		if (log == null) {
+			throw new IllegalStateException("There is no write-ahead log attached to the database.");
+		}
+		int deletedRows = columns.size() - columns.recordCount();
+		if (deletedRows > 0 && deletedRows * 4L >= columns.size()) {
+			columns = columns.compact();
+			createIndexes();
+		}
+		try {
+			log.checkpoint(columns);
+		} catch (IOException ex) {
+			throw new CheckpointException(ex.getMessage(), ex);
+		}
+	}
+
+	/**
+	 * Makes a checkpoint if there is an attached log which has grown large
+	 * enough.
+	 *
+	 * @throws CheckpointException
+	 *             if the snapshot can not be written or the log can not be
+	 *             cleared
+	 */
+	private void checkpointIfNeeded() throws CheckpointException {
+		if (log != null && log.needsCheckpoint()) {
+			checkpoint();
+		}
+	}
+
+	/**
+	 * Applies an insertion or a change of the specified record read from the
+	 * log. If there is no record with its jmbag, the record is inserted,
+	 * otherwise the existing record is changed.
+	 *
+	 * @param record
+	 *            the record
+	 */
+	void replayPut(StudentRecord record) {
+		int row = columns.rowOf(record.getJmbag());
+		if (row == -1) {
+			add(record);
+		} else {
+			change(row, record);
+		}
+	}
 
-			String lastName = attributes[1];
-			String firstName = attributes[2];
-			int finalGrade;
-			try {
-				finalGrade = Integer.parseInt(attributes[3]);
-			} catch (NumberFormatException ex) {
-				throw new NumberFormatException(
-						"Invalid data found. The value '" + attributes[3] + "' can not be a grade.");
+	/**
+	 * Applies a deletion read from the log. If there is no record with the
+	 * specified jmbag, nothing is done.
+	 *
+	 * @param jmbag
+	 *            jmbag of the deleted record
+	 */
+	void replayDelete(String jmbag) {
+		int row = columns.rowOf(jmbag);
+		if (row != -1) {
+			remove(row);
+		}
+	}
+
+	/**
+	 * Adds the specified record to the columns and the indexes.
+	 *
+	 * @param record
+	 *            the record
+	 */
+	private void add(StudentRecord record) {
+		int row = columns.add(record.getJmbag(), record.getLastName(), record.getFirstName(),
+				record.getFinalGrade());
+		modificationCount++;
+		for (SortedIndex index : indexes) {
+			index.insert(columns.value(index.getFieldGetter(), row), row);
+		}
+	}
+
+	/**
+	 * Changes the specified row of the columns and the indexes to contain the
+	 * data of the specified record.
+	 *
+	 * @param row
+	 *            row number
+	 * @param record
+	 *            the record
+	 */
+	private void change(int row, StudentRecord record) {
+		String[] oldKeys = new String[indexes.size()];
+		for (int i = 0; i < oldKeys.length; i++) {
+			oldKeys[i] = columns.value(indexes.get(i).getFieldGetter(), row);
+		}
+		columns.update(row, record.getLastName(), record.getFirstName(), record.getFinalGrade());
+		modificationCount++;
+		for (int i = 0; i < oldKeys.length; i++) {
+			SortedIndex index = indexes.get(i);
+			String newKey = columns.value(index.getFieldGetter(), row);
+			if (!newKey.equals(oldKeys[i])) {
+				index.move(oldKeys[i], newKey, row);
 			}
+		}
+	}
 
-			StudentRecord record = new StudentRecord(jmbag, lastName, firstName, finalGrade);
-			listOfRecords.add(record);
-			mapOfRecords.put(jmbag, record);
+	/**
+	 * Deletes the specified row from the columns and the indexes.
+	 *
+	 * @param row
+	 *            row number
+	 */
+	private void remove(int row) {
+		for (SortedIndex index : indexes) {
+			index.remove(columns.value(index.getFieldGetter(), row), row);
+		}
+		columns.delete(row);
+		modificationCount++;
+	}
+
+	/**
+	 * Checks if the specified record can be stored in the database.
+	 *
+	 * @param record
+	 *            the record
+	 * @throws IllegalArgumentException
+	 *             if the record or any of its attributes is null, or if its
+	 *             final grade is not valid
+	 */
+	private static void checkRecord(StudentRecord record) {
+		if (record == null || record.getJmbag() == null || record.getLastName() == null
+				|| record.getFirstName() == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		try {
+			StudentColumns.checkGrade(record.getFinalGrade());
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException(ex.getMessage(), ex);
 		}
 	}
 
@@ -80,12 +394,14 @@ public class StudentDatabase {
 	 * @return retrieved record
 	 */
 	public StudentRecord forJMBAG(String jmbag) {
-		return mapOfRecords.get(jmbag);
+		int row = columns.rowOf(jmbag);
+		return row == -1 ? null : columns.record(row);
 	}
 
 	/**
 	 * Gets a list of records from the database that are accepted by the
-	 * specified filter.
+	 * specified filter. If the filter is a {@link QueryFilter}, its conditions
+	 * are evaluated directly on the columns.
 	 *
 	 * @param filter
 	 *            filter using to determine if a record should be added to the
@@ -93,9 +409,16 @@ public class StudentDatabase {
 	 * @return list of records that are accepted by the specified filter
 	 */
 	public List<StudentRecord> filter(IFilter filter) {
-		List<StudentRecord> resultingList = new ArrayList<>();
+		if (filter instanceof QueryFilter) {
+			return records(columns.evaluate(((QueryFilter) filter).getConditions()));
+		}
 
-		for (StudentRecord record : listOfRecords) {
+		List<StudentRecord> resultingList = new ArrayList<>();
+		for (int row = 0, size = columns.size(); row < size; row++) {
+			if (columns.isDeleted(row)) {
+				continue;
+			}
+			StudentRecord record = columns.record(row);
 			if (filter.accepts(record)) {
 				resultingList.add(record);
 			}
@@ -103,4 +426,353 @@ public class StudentDatabase {
 		return resultingList;
 	}
 
+	/**
+	 * Creates the records of the rows contained in the specified bitmap. Large
+	 * results are created in parallel.
+	 *
+	 * @param rows
+	 *            bitmap of row numbers
+	 * @return list of records of the rows, in the database order
+	 */
+	private List<StudentRecord> records(BitSet rows) {
+		return records(rows.stream().toArray());
+	}
+
+	/**
+	 * Creates the records of the specified rows. Large results are created in
+	 * parallel.
+	 *
+	 * @param rowNumbers
+	 *            row numbers
+	 * @return list of records of the rows, in the same order as the row
+	 *         numbers
+	 */
+	private List<StudentRecord> records(int[] rowNumbers) {
+		StudentRecord[] records = new StudentRecord[rowNumbers.length];
+		IntStream indexes = IntStream.range(0, records.length);
+		if (records.length >= StudentColumns.PARALLEL_THRESHOLD) {
+			indexes = indexes.parallel();
+		}
+		indexes.forEach(i -> records[i] = columns.record(rowNumbers[i]));
+		return new ArrayList<>(Arrays.asList(records));
+	}
+
+	/**
+	 * Gets a list of records from the database that satisfy all the specified
+	 * conditional expressions. The records are returned in the same order in
+	 * which {@link #filter(IFilter)} would return them. If any of the
+	 * conditions can be answered using a secondary index (operators =, &lt;,
+	 * &lt;=, &gt;, &gt;= and LIKE with a pattern that has no wildcard or ends
+	 * with its wildcard), only the records from the smallest matching index
+	 * range are checked against the remaining conditions. Otherwise the whole
+	 * database is scanned.
+	 *
+	 * @param conditions
+	 *            conditional expressions that are to be satisfied
+	 * @return list of records that satisfy all the specified conditions
+	 */
+	public List<StudentRecord> query(List<ConditionalExpression> conditions) {
+		SortedIndex bestIndex = null;
+		SortedIndex.Range bestRange = null;
+		for (ConditionalExpression condition : conditions) {
+			SortedIndex index = indexFor(condition.getFieldGetter());
+			if (index == null) {
+				continue;
+			}
+			SortedIndex.Range range = index.range(condition.getComparisonOperator(), condition.getStringLiteral());
+			if (range != null && (bestRange == null || range.size() < bestRange.size())) {
+				bestIndex = index;
+				bestRange = range;
+			}
+		}
+
+		if (bestIndex == null) {
+			return records(columns.evaluate(conditions));
+		}
+
+		List<ConditionalExpression> ordered = QueryCompiler.orderBySelectivity(conditions);
+		List<Predicate<String>> tests = new ArrayList<>(ordered.size());
+		for (ConditionalExpression condition : ordered) {
+			tests.add(QueryCompiler.compile(condition.getComparisonOperator(), condition.getStringLiteral()));
+		}
+
+		int[] candidates = new int[bestRange.size()];
+		int count = 0;
+		for (int position = bestRange.getStart(); position < bestRange.getEnd(); position++) {
+			int row = bestIndex.rowAt(position);
+			if (satisfiesAll(row, ordered, tests)) {
+				candidates[count++] = row;
+			}
+		}
+		// the index is ordered by the attribute, so the rows are sorted back
+		// into the database order
+		Arrays.sort(candidates, 0, count);
+
+		List<StudentRecord> resultingList = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			resultingList.add(columns.record(candidates[i]));
+		}
+		return resultingList;
+	}
+
+	/**
+	 * Checks if the specified row satisfies all the specified conditions.
+	 *
+	 * @param row
+	 *            row number
+	 * @param conditions
+	 *            conditional expressions
+	 * @param tests
+	 *            compiled comparisons of the conditions, in the same order
+	 * @return true if the row satisfies all the conditions
+	 */
+	private boolean satisfiesAll(int row, List<ConditionalExpression> conditions, List<Predicate<String>> tests) {
+		for (int i = 0, n = conditions.size(); i < n; i++) {
+			if (!tests.get(i).test(columns.value(conditions.get(i).getFieldGetter(), row))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets the secondary index of the attribute specified by the given field
+	 * value getter, or null if that attribute is not indexed.
+	 *
+	 * @param fieldGetter
+	 *            field value getter of an attribute
+	 * @return the secondary index of the attribute or null if there is none
+	 */
+	private SortedIndex indexFor(IFieldValueGetter fieldGetter) {
+		for (SortedIndex index : indexes) {
+			if (index.getFieldGetter() == fieldGetter) {
+				return index;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets a list of records from the database selected by the specified
+	 * query. The records are ordered by the attribute given in the query, with
+	 * records having equal values of that attribute kept in the database order,
+	 * or in the database order if the query gives no attribute. Queries with a
+	 * limit are executed without creating records that are not returned:
+	 * <ul>
+	 * <li>without ordering, the rows are checked in the database order only
+	 * until enough of them satisfy the condition,</li>
+	 * <li>with ordering, the best rows are kept in a heap whose size is the
+	 * limit.</li>
+	 * </ul>
+	 * Ordering without a limit uses the secondary index of the attribute if
+	 * there is one.
+	 *
+	 * @param query
+	 *            the query
+	 * @return list of records selected by the query
+	 */
+	public List<StudentRecord> execute(Query query) {
+		IFieldValueGetter orderBy = query.getOrderBy();
+		int limit = query.getLimit();
+
+		if (orderBy == null) {
+			if (limit != Query.NO_LIMIT) {
+				return records(firstRows(query.getCondition(), limit));
+			}
+			List<ConditionalExpression> conditions = query.getConditions();
+			if (conditions != null) {
+				return query(conditions);
+			}
+			return records(evaluate(query.getCondition()));
+		}
+
+		BitSet matches = evaluate(query.getCondition());
+		if (limit != Query.NO_LIMIT) {
+			return records(topRows(matches, orderBy, query.isDescending(), limit));
+		}
+		return records(sortedRows(matches, orderBy, query.isDescending()));
+	}
+
+	/**
+	 * Counts the records from the database selected by the specified query.
+	 * The records themselves are not created.
+	 *
+	 * @param query
+	 *            the query
+	 * @return the number of records selected by the query
+	 */
+	public int count(Query query) {
+		int count = evaluate(query.getCondition()).cardinality();
+		return query.getLimit() == Query.NO_LIMIT ? count : Math.min(count, query.getLimit());
+	}
+
+	/**
+	 * Evaluates the specified condition on all rows of the database.
+	 *
+	 * @param condition
+	 *            condition, or null if all rows are selected
+	 * @return bitmap of the rows that satisfy the condition
+	 */
+	private BitSet evaluate(IQueryExpression condition) {
+		return condition == null ? columns.liveRows() : condition.evaluate(columns);
+	}
+
+	/**
+	 * Returns the first rows in the database order that satisfy the specified
+	 * condition. The rows are checked one by one, and the checking stops as
+	 * soon as enough of them are found.
+	 *
+	 * @param condition
+	 *            condition, or null if all rows are selected
+	 * @param limit
+	 *            the largest number of returned rows
+	 * @return the row numbers
+	 */
+	private int[] firstRows(IQueryExpression condition, int limit) {
+		IntPredicate test = condition == null ? row -> true : condition.compile(columns);
+		int[] rows = new int[Math.min(limit, columns.recordCount())];
+		int count = 0;
+		for (int row = 0, size = columns.size(); row < size && count < rows.length; row++) {
+			if (!columns.isDeleted(row) && test.test(row)) {
+				rows[count++] = row;
+			}
+		}
+		return Arrays.copyOf(rows, count);
+	}
+
+	/**
+	 * Returns the specified number of rows from the given bitmap that come
+	 * first when the rows are ordered by the specified attribute. The rows are
+	 * selected using a heap which never contains more than the specified
+	 * number of rows, with the worst of the selected rows at its top.
+	 *
+	 * @param matches
+	 *            bitmap of row numbers
+	 * @param orderBy
+	 *            field value getter of the attribute by which the rows are
+	 *            ordered
+	 * @param descending
+	 *            true if the rows are ordered descending
+	 * @param limit
+	 *            the largest number of returned rows
+	 * @return the row numbers, ordered
+	 */
+	private int[] topRows(BitSet matches, IFieldValueGetter orderBy, boolean descending, int limit) {
+		if (limit == 0) {
+			return new int[0];
+		}
+
+		Comparator<Integer> order = rowOrder(orderBy, descending);
+		PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, matches.cardinality()) + 1,
+				order.reversed());
+		for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+			if (heap.size() < limit) {
+				heap.add(row);
+			} else if (compareRows(orderBy, descending, row, heap.peek()) < 0) {
+				heap.poll();
+				heap.add(row);
+			}
+		}
+
+		int[] rows = new int[heap.size()];
+		for (int i = rows.length - 1; i >= 0; i--) {
+			rows[i] = heap.poll();
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns the rows from the given bitmap ordered by the specified
+	 * attribute. If the attribute is indexed, the rows are taken in the order
+	 * of the index.
+	 *
+	 * @param matches
+	 *            bitmap of row numbers
+	 * @param orderBy
+	 *            field value getter of the attribute by which the rows are
+	 *            ordered
+	 * @param descending
+	 *            true if the rows are ordered descending
+	 * @return the row numbers, ordered
+	 */
+	private int[] sortedRows(BitSet matches, IFieldValueGetter orderBy, boolean descending) {
+		SortedIndex index = indexFor(orderBy);
+		if (index == null) {
+			Integer[] rows = matches.stream().boxed().toArray(Integer[]::new);
+			Arrays.sort(rows, rowOrder(orderBy, descending));
+			return Arrays.stream(rows).mapToInt(Integer::intValue).toArray();
+		}
+
+		int[] rows = new int[matches.cardinality()];
+		int count = 0;
+		if (!descending) {
+			for (int position = 0, size = index.size(); position < size; position++) {
+				int row = index.rowAt(position);
+				if (matches.get(row)) {
+					rows[count++] = row;
+				}
+			}
+			return rows;
+		}
+
+		// groups of equal keys are taken from the last one, but the rows of a
+		// group are kept in the database order
+		int end = index.size();
+		while (end > 0) {
+			int start = end - 1;
+			String key = index.keyAt(start);
+			while (start > 0 && index.keyAt(start - 1).equals(key)) {
+				start--;
+			}
+			for (int position = start; position < end; position++) {
+				int row = index.rowAt(position);
+				if (matches.get(row)) {
+					rows[count++] = row;
+				}
+			}
+			end = start;
+		}
+		return rows;
+	}
+
+	/**
+	 * Creates a comparator of row numbers which orders the rows by the
+	 * specified attribute, and the rows with equal values of the attribute in
+	 * the database order.
+	 *
+	 * @param orderBy
+	 *            field value getter of the attribute by which the rows are
+	 *            ordered
+	 * @param descending
+	 *            true if the rows are ordered descending
+	 * @return the comparator
+	 */
+	private Comparator<Integer> rowOrder(IFieldValueGetter orderBy, boolean descending) {
+		return (first, second) -> compareRows(orderBy, descending, first, second);
+	}
+
+	/**
+	 * Compares the specified rows by the specified attribute, and the rows with
+	 * equal values of the attribute by their row numbers.
+	 *
+	 * @param orderBy
+	 *            field value getter of the attribute by which the rows are
+	 *            ordered
+	 * @param descending
+	 *            true if the rows are ordered descending
+	 * @param first
+	 *            the first row number
+	 * @param second
+	 *            the second row number
+	 * @return a negative integer, zero, or a positive integer as the first row
+	 *         comes before, is the same as, or comes after the second row
+	 */
+	private int compareRows(IFieldValueGetter orderBy, boolean descending, int first, int second) {
+		int result = columns.compare(orderBy, first, second);
+		if (result != 0) {
+			return descending ? -result : result;
+		}
+		return Integer.compare(first, second);
+	}
+
 }
@@ -19,10 +19,26 @@ public enum TokenType {
 	 * A token representing a logical operator.
 	 */
 	LOGICAL_OPERATOR,
+	/**
+	 * A token representing a keyword: ORDER, BY, ASC, DESC, LIMIT or COUNT.
+	 */
+	KEYWORD,
+	/**
+	 * A token representing an opening parenthesis.
+	 */
+	OPEN_PARENTHESIS,
+	/**
+	 * A token representing a closing parenthesis.
+	 */
+	CLOSED_PARENTHESIS,
 	/**
 	 * A token representing a string.
 	 */
 	STRING,
+	/**
+	 * A token representing a non-negative integer.
+	 */
+	NUMBER,
 	/**
 	 * A token representing an end of file.
 	 */
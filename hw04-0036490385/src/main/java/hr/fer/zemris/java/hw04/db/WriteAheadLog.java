@@ -0,0 +1,365 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * This class represents an append-only write-ahead log of changes of a
+ * {@link StudentDatabase}. Every change is written to the log before it is
+ * applied to the database, so the database can be recovered after a crash by
+ * reading its last snapshot and replaying the log. The log is cleared by a
+ * checkpoint, which writes the whole database to the snapshot file.
+ * <p>
+ * Every entry of the log is written as its length, the CRC32 checksum of its
+ * content and the content itself. An entry which is not written completely,
+ * e.g. because the program crashed while writing it, is detected by its length
+ * or its checksum, and it is removed from the log when the log is replayed.
+ * If writing an entry fails, the log is truncated back to its previous size,
+ * so neither the failed entry nor its remains are ever replayed. If even that
+ * fails, the log refuses all further entries until the next checkpoint.
+ * </p>
+ * <p>
+ * A snapshot is replaced atomically, and the log is cleared only after that.
+ * If the program crashes between these two steps, the log is replayed over a
+ * snapshot which already contains its changes. Replaying is therefore
+ * idempotent: an insertion of an existing jmbag changes the record, a change of
+ * a missing record inserts it and a deletion of a missing record is ignored.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ */
+public class WriteAheadLog implements Closeable {
+	/** Default size of the log in bytes after which a checkpoint is made. **/
+	public static final long DEFAULT_CHECKPOINT_SIZE = 16 << 20;
+	/** Type of an entry which inserts a record. **/
+	private static final byte INSERT = 1;
+	/** Type of an entry which changes a record. **/
+	private static final byte UPDATE = 2;
+	/** Type of an entry which deletes a record. **/
+	private static final byte DELETE = 3;
+	/** Size of the length and the checksum written before every entry. **/
+	private static final int ENTRY_HEADER_SIZE = 2 * Integer.BYTES;
+
+	/** The log file. **/
+	private Path file;
+	/** The snapshot file written by a checkpoint. **/
+	private Path snapshot;
+	/** Channel used for appending to the log file. **/
+	private FileChannel channel;
+	/** Whether every entry is forced to the storage device. **/
+	private boolean sync;
+	/** Size of the log in bytes after which a checkpoint is made. **/
+	private long checkpointSize;
+	/** Current size of the log file. **/
+	private long size;
+	/**
+	 * Whether the log may contain remains of a failed entry, in which case no
+	 * more entries are accepted until the next checkpoint.
+	 **/
+	private boolean unusable;
+
+	/**
+	 * Constructor. Opens or creates the specified log file. Every entry is
+	 * forced to the storage device before a change is applied, and a
+	 * checkpoint is made when the log grows larger than
+	 * {@link #DEFAULT_CHECKPOINT_SIZE}.
+	 *
+	 * @param file
+	 *            the log file
+	 * @param snapshot
+	 *            the snapshot file written by a checkpoint
+	 * @throws IOException
+	 *             if the log file can not be opened
+	 */
+	public WriteAheadLog(Path file, Path snapshot) throws IOException {
+		this(file, snapshot, true, DEFAULT_CHECKPOINT_SIZE);
+	}
+
+	/**
+	 * Constructor. Opens or creates the specified log file.
+	 *
+	 * @param file
+	 *            the log file
+	 * @param snapshot
+	 *            the snapshot file written by a checkpoint
+	 * @param sync
+	 *            true if every entry should be forced to the storage device
+	 *            before a change is applied; otherwise the changes since the
+	 *            last entry written by the operating system may be lost if the
+	 *            system crashes
+	 * @param checkpointSize
+	 *            size of the log in bytes after which a checkpoint is made
+	 * @throws IOException
+	 *             if the log file can not be opened
+	 */
+	public WriteAheadLog(Path file, Path snapshot, boolean sync, long checkpointSize) throws IOException {
+		if (file == null || snapshot == null) {
+			throw new IllegalArgumentException("Argument null is not legal.");
+		}
+		if (checkpointSize <= 0) {
+			throw new IllegalArgumentException("The checkpoint size has to be positive.");
+		}
+		this.file = file;
+		this.snapshot = snapshot;
+		this.sync = sync;
+		this.checkpointSize = checkpointSize;
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		size = channel.size();
+		channel.position(size);
+	}
+
+	/**
+	 * Gets the snapshot file written by a checkpoint.
+	 *
+	 * @return the snapshot file
+	 */
+	public Path getSnapshot() {
+		return snapshot;
+	}
+
+	/**
+	 * Gets the current size of the log file.
+	 *
+	 * @return size of the log in bytes
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Checks if the log has grown large enough for a checkpoint.
+	 *
+	 * @return true if a checkpoint should be made
+	 */
+	public boolean needsCheckpoint() {
+		return size >= checkpointSize;
+	}
+
+	/**
+	 * Appends an entry which inserts the specified record.
+	 *
+	 * @param record
+	 *            the inserted record
+	 * @throws IOException
+	 *             if the entry can not be written
+	 */
+	public void logInsert(StudentRecord record) throws IOException {
+		append(INSERT, record.getJmbag(), record);
+	}
+
+	/**
+	 * Appends an entry which changes the record with the jmbag of the
+	 * specified record.
+	 *
+	 * @param record
+	 *            the changed record
+	 * @throws IOException
+	 *             if the entry can not be written
+	 */
+	public void logUpdate(StudentRecord record) throws IOException {
+		append(UPDATE, record.getJmbag(), record);
+	}
+
+	/**
+	 * Appends an entry which deletes the record with the specified jmbag.
+	 *
+	 * @param jmbag
+	 *            jmbag of the deleted record
+	 * @throws IOException
+	 *             if the entry can not be written
+	 */
+	public void logDelete(String jmbag) throws IOException {
+		append(DELETE, jmbag, null);
+	}
+
+	/**
+	 * Appends an entry to the log.
+	 *
+	 * @param type
+	 *            type of the entry
+	 * @param jmbag
+	 *            jmbag of the record
+	 * @param record
+	 *            the record, or null if the entry deletes a record
+	 * @throws IOException
+	 *             if the entry can not be written; the log is then left as it
+	 *             was before the call
+	 */
+	private void append(byte type, String jmbag, StudentRecord record) throws IOException {
+		if (unusable) {
+			throw new IOException("The log could not be restored after a failed write; a checkpoint is needed.");
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+		bytes.write(new byte[ENTRY_HEADER_SIZE]);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(type);
+		out.writeUTF(jmbag);
+		if (record != null) {
+			out.writeUTF(record.getLastName());
+			out.writeUTF(record.getFirstName());
+			out.writeInt(record.getFinalGrade());
+		}
+		out.flush();
+
+		ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+		int length = buffer.capacity() - ENTRY_HEADER_SIZE;
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), ENTRY_HEADER_SIZE, length);
+		buffer.putInt(0, length).putInt(Integer.BYTES, (int) crc.getValue());
+
+		try {
+			writeEntry(buffer);
+		} catch (IOException ex) {
+			// the caller is told the change did not happen, so no part of the
+			// entry may stay in the log
+			try {
+				channel.truncate(size);
+				channel.position(size);
+				if (sync) {
+					channel.force(false);
+				}
+			} catch (IOException truncateEx) {
+				unusable = true;
+				ex.addSuppressed(truncateEx);
+			}
+			throw ex;
+		}
+		size += buffer.capacity();
+	}
+
+	/**
+	 * Writes the specified entry at the end of the log and, if every entry is
+	 * forced to the storage device, forces it.
+	 *
+	 * @param buffer
+	 *            the whole entry, including its length and checksum
+	 * @throws IOException
+	 *             if the entry can not be written
+	 */
+	void writeEntry(ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		if (sync) {
+			channel.force(false);
+		}
+	}
+
+	/**
+	 * Applies all entries of the log to the specified database, without
+	 * logging them again. An incomplete entry at the end of the log and
+	 * everything after it is removed from the log.
+	 *
+	 * @param database
+	 *            the database
+	 * @return the number of applied entries
+	 * @throws IOException
+	 *             if the log can not be read
+	 */
+	int replay(StudentDatabase database) throws IOException {
+		long position = 0;
+		int count = 0;
+		channel.position(0);
+		InputStream stream = new BufferedInputStream(Channels.newInputStream(channel), 1 << 16);
+		DataInputStream in = new DataInputStream(stream);
+		while (position + ENTRY_HEADER_SIZE <= size) {
+			int length = in.readInt();
+			int checksum = in.readInt();
+			if (length <= 0 || length > size - position - ENTRY_HEADER_SIZE) {
+				break;
+			}
+			byte[] content = new byte[length];
+			in.readFully(content);
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			if ((int) crc.getValue() != checksum || !apply(database, content)) {
+				break;
+			}
+			position += ENTRY_HEADER_SIZE + length;
+			count++;
+		}
+
+		if (position < size) {
+			channel.truncate(position);
+			channel.force(false);
+			size = position;
+		}
+		channel.position(size);
+		return count;
+	}
+
+	/**
+	 * Applies the specified entry to the database.
+	 *
+	 * @param database
+	 *            the database
+	 * @param content
+	 *            content of the entry
+	 * @return true if the entry was valid
+	 * @throws IOException
+	 *             if the content can not be read
+	 */
+	private static boolean apply(StudentDatabase database, byte[] content) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(content));
+		try {
+			byte type = in.readByte();
+			String jmbag = in.readUTF();
+			if (type == DELETE) {
+				database.replayDelete(jmbag);
+				return true;
+			} else if (type != INSERT && type != UPDATE) {
+				return false;
+			}
+			String lastName = in.readUTF();
+			String firstName = in.readUTF();
+			int finalGrade = in.readInt();
+			database.replayPut(new StudentRecord(jmbag, lastName, firstName, finalGrade));
+			return true;
+		} catch (EOFException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Makes a checkpoint: the specified columns atomically replace the
+	 * snapshot (see {@link StudentColumns#writeSnapshot(Path)}), after which
+	 * the log is cleared.
+	 *
+	 * @param columns
+	 *            columns containing all the changes written to the log
+	 * @throws IOException
+	 *             if the snapshot can not be written or the log can not be
+	 *             cleared
+	 */
+	void checkpoint(StudentColumns columns) throws IOException {
+		columns.writeSnapshot(snapshot);
+
+		channel.truncate(0);
+		channel.force(false);
+		channel.position(0);
+		size = 0;
+		unusable = false;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
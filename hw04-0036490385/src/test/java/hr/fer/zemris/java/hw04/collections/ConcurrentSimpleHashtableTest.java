@@ -0,0 +1,197 @@
+package hr.fer.zemris.java.hw04.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.hw04.collections.SimpleHashtable.TableEntry;
+
+public class ConcurrentSimpleHashtableTest {
+
+	@Test
+	public void putGetAndRemove() {
+		ConcurrentSimpleHashtable<String, Integer> map = new ConcurrentSimpleHashtable<>(2, 2);
+		map.put("Ivana", 2);
+		map.put("Ante", 2);
+		map.put("Jasna", 2);
+		map.put("Ivana", 5);
+
+		assertEquals(3, map.size());
+		assertEquals(Integer.valueOf(5), map.get("Ivana"));
+		assertNull(map.get("Josip"));
+		assertTrue(map.containsValue(5));
+		assertFalse(map.containsValue(3));
+
+		map.remove("Ante");
+		map.remove("Josip");
+		assertEquals(2, map.size());
+		assertFalse(map.containsKey("Ante"));
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals("[]", map.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullKey() {
+		new ConcurrentSimpleHashtable<String, Integer>().put(null, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void illegalConcurrencyLevel() {
+		new ConcurrentSimpleHashtable<String, Integer>(16, 0);
+	}
+
+	@Test
+	public void capacityDependsOnSizeOnly() {
+		ConcurrentSimpleHashtable<Integer, Integer> consecutive = new ConcurrentSimpleHashtable<>();
+		ConcurrentSimpleHashtable<Integer, Integer> multiples = new ConcurrentSimpleHashtable<>();
+		for (int i = 0; i < 4000; i++) {
+			consecutive.put(i, i);
+			// the lowest bits of these hash codes are all the same
+			multiples.put(i * 16, i);
+		}
+
+		assertEquals(8192, consecutive.capacity());
+		assertEquals(8192, multiples.capacity());
+		assertEquals(4000, multiples.size());
+		for (int i = 0; i < 4000; i++) {
+			assertEquals(Integer.valueOf(i), multiples.get(i * 16));
+		}
+	}
+
+	@Test
+	public void matchesHashMapUnderRandomOperations() {
+		Random random = new Random(7);
+		ConcurrentSimpleHashtable<Integer, Integer> map = new ConcurrentSimpleHashtable<>(1, 4);
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100_000; i++) {
+			int key = random.nextInt(20_000) - 10_000;
+			if (random.nextInt(4) == 0) {
+				map.remove(key);
+				expected.remove(key);
+			} else {
+				map.put(key, i);
+				expected.put(key, i);
+			}
+		}
+
+		assertEquals(expected.size(), map.size());
+		Map<Integer, Integer> iterated = new HashMap<>();
+		for (TableEntry<Integer, Integer> entry : map) {
+			assertNull(iterated.put(entry.getKey(), entry.getValue()));
+		}
+		assertEquals(expected, iterated);
+	}
+
+	@Test
+	public void iteratorRemovesAndSetsValues() {
+		ConcurrentSimpleHashtable<Integer, Integer> map = new ConcurrentSimpleHashtable<>();
+		for (int i = 0; i < 100; i++) {
+			map.put(i, i);
+		}
+
+		Iterator<TableEntry<Integer, Integer>> it = map.iterator();
+		while (it.hasNext()) {
+			TableEntry<Integer, Integer> entry = it.next();
+			if (entry.getKey() % 2 == 0) {
+				it.remove();
+			} else {
+				entry.setValue(-entry.getKey());
+			}
+		}
+
+		assertEquals(50, map.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(i % 2 == 0 ? null : Integer.valueOf(-i), map.get(i));
+		}
+	}
+
+	@Test
+	public void iteratorDoesNotFailOnModification() {
+		ConcurrentSimpleHashtable<Integer, Integer> map = new ConcurrentSimpleHashtable<>();
+		for (int i = 0; i < 100; i++) {
+			map.put(i, i);
+		}
+
+		Set<Integer> seen = new HashSet<>();
+		for (TableEntry<Integer, Integer> entry : map) {
+			assertTrue(seen.add(entry.getKey()));
+			map.remove(entry.getKey());
+			map.put(entry.getKey() + 1000, 0);
+		}
+		assertTrue(seen.size() >= 100);
+	}
+
+	@Test
+	public void concurrentWritersAndReaders() throws InterruptedException {
+		ConcurrentSimpleHashtable<Integer, Integer> map = new ConcurrentSimpleHashtable<>(1, 4);
+		int writers = 4;
+		int keysPerWriter = 50_000;
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		List<Thread> threads = new ArrayList<>();
+		for (int w = 0; w < writers; w++) {
+			int first = w * keysPerWriter;
+			threads.add(new Thread(() -> {
+				for (int key = first; key < first + keysPerWriter; key++) {
+					map.put(key, key);
+				}
+				for (int key = first; key < first + keysPerWriter; key += 2) {
+					map.remove(key);
+				}
+			}));
+		}
+		Thread reader = new Thread(() -> {
+			try {
+				Random random = new Random(1);
+				while (!done.get()) {
+					int key = random.nextInt(writers * keysPerWriter);
+					Integer value = map.get(key);
+					if (value != null && value != key) {
+						throw new AssertionError("Wrong value " + value + " for key " + key);
+					}
+					for (TableEntry<Integer, Integer> entry : map) {
+						if (!entry.getKey().equals(entry.getValue())) {
+							throw new AssertionError("Wrong entry " + entry);
+						}
+						break;
+					}
+				}
+			} catch (Throwable ex) {
+				failure.set(ex);
+			}
+		});
+
+		reader.start();
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		done.set(true);
+		reader.join();
+
+		assertNull(failure.get());
+		assertEquals(writers * keysPerWriter / 2, map.size());
+		for (int key = 0; key < writers * keysPerWriter; key++) {
+			assertEquals(key % 2 == 1, map.containsKey(key));
+		}
+	}
+}
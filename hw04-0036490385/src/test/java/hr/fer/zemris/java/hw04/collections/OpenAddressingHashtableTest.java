@@ -0,0 +1,226 @@
+package hr.fer.zemris.java.hw04.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.hw04.collections.SimpleHashtable.TableEntry;
+
+public class OpenAddressingHashtableTest {
+
+	/** Key with a chosen hash code, for forcing collisions. **/
+	private static class Key {
+		private final int id;
+		private final int hash;
+
+		Key(int id, int hash) {
+			this.id = id;
+			this.hash = hash;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && ((Key) obj).id == id;
+		}
+
+		@Override
+		public String toString() {
+			return "k" + id;
+		}
+	}
+
+	@Test
+	public void putGetAndRemove() {
+		OpenAddressingHashtable<String, Integer> map = new OpenAddressingHashtable<>(2);
+		map.put("Ivana", 2);
+		map.put("Ante", 2);
+		map.put("Jasna", 2);
+		map.put("Kristina", 5);
+		map.put("Ivana", 5);
+
+		assertEquals(4, map.size());
+		assertEquals(Integer.valueOf(5), map.get("Ivana"));
+		assertEquals(Integer.valueOf(2), map.get("Ante"));
+		assertNull(map.get("Josip"));
+		assertNull(map.get(null));
+		assertTrue(map.containsValue(5));
+		assertFalse(map.containsValue(3));
+
+		map.remove("Ante");
+		map.remove("Josip");
+		map.remove(null);
+		assertEquals(3, map.size());
+		assertFalse(map.containsKey("Ante"));
+		assertTrue(map.containsKey("Jasna"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullKey() {
+		new OpenAddressingHashtable<String, Integer>().put(null, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void illegalCapacity() {
+		new OpenAddressingHashtable<String, Integer>(0);
+	}
+
+	@Test
+	public void nullValue() {
+		OpenAddressingHashtable<String, Integer> map = new OpenAddressingHashtable<>();
+		map.put("a", null);
+		assertTrue(map.containsKey("a"));
+		assertTrue(map.containsValue(null));
+	}
+
+	@Test
+	public void toStringAndClear() {
+		OpenAddressingHashtable<String, Integer> map = new OpenAddressingHashtable<>();
+		assertEquals("[]", map.toString());
+		map.put("a", 1);
+		assertEquals("[a=1]", map.toString());
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertFalse(map.containsKey("a"));
+	}
+
+	@Test
+	public void removalKeepsCollidingKeysReachable() {
+		OpenAddressingHashtable<Key, Integer> map = new OpenAddressingHashtable<>(64);
+		Key[] keys = new Key[40];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new Key(i, i % 3);
+			map.put(keys[i], i);
+		}
+		for (int i = 0; i < keys.length; i += 2) {
+			map.remove(keys[i]);
+		}
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i % 2 == 0 ? null : Integer.valueOf(i), map.get(keys[i]));
+		}
+	}
+
+	@Test
+	public void matchesHashMapUnderRandomOperations() {
+		Random random = new Random(7);
+		OpenAddressingHashtable<Key, Integer> map = new OpenAddressingHashtable<>();
+		Map<Key, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100_000; i++) {
+			int id = random.nextInt(2000);
+			Key key = new Key(id, id % 97);
+			if (random.nextInt(3) == 0) {
+				map.remove(key);
+				expected.remove(key);
+			} else {
+				map.put(key, i);
+				expected.put(key, i);
+			}
+		}
+
+		assertEquals(expected.size(), map.size());
+		for (int id = 0; id < 2000; id++) {
+			Key key = new Key(id, id % 97);
+			assertEquals(expected.get(key), map.get(key));
+		}
+		Map<Key, Integer> iterated = new HashMap<>();
+		for (TableEntry<Key, Integer> entry : map) {
+			assertNull(iterated.put(entry.getKey(), entry.getValue()));
+		}
+		assertEquals(expected, iterated);
+	}
+
+	@Test
+	public void iteratorRemovesEveryOtherEntry() {
+		// ten keys collide in a slot which depends on the shared hash code, so
+		// for some of the hash codes their cluster wraps around the table
+		for (int hash = 0; hash < 64; hash++) {
+			OpenAddressingHashtable<Key, Integer> map = new OpenAddressingHashtable<>(64);
+			int n = 30;
+			Key[] keys = new Key[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = new Key(i, i < 10 ? hash : 1000 + i);
+				map.put(keys[i], i);
+			}
+
+			Set<Integer> seen = new HashSet<>();
+			Iterator<TableEntry<Key, Integer>> it = map.iterator();
+			while (it.hasNext()) {
+				TableEntry<Key, Integer> entry = it.next();
+				assertTrue(seen.add(entry.getValue()));
+				if (entry.getValue() % 2 == 0) {
+					it.remove();
+				}
+			}
+
+			assertEquals(n, seen.size());
+			assertEquals(n / 2, map.size());
+			for (int i = 0; i < n; i++) {
+				assertEquals(i % 2 == 1, map.containsKey(keys[i]));
+			}
+		}
+	}
+
+	@Test
+	public void iteratorRemovesAllCollidingEntries() {
+		OpenAddressingHashtable<Key, Integer> map = new OpenAddressingHashtable<>(64);
+		for (int i = 0; i < 40; i++) {
+			map.put(new Key(i, 0), i);
+		}
+
+		int count = 0;
+		Iterator<TableEntry<Key, Integer>> it = map.iterator();
+		while (it.hasNext()) {
+			it.next();
+			it.remove();
+			count++;
+		}
+		assertEquals(40, count);
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void settingValueOfAnEntry() {
+		OpenAddressingHashtable<String, Integer> map = new OpenAddressingHashtable<>();
+		map.put("a", 1);
+		for (TableEntry<String, Integer> entry : map) {
+			entry.setValue(2);
+		}
+		assertEquals(Integer.valueOf(2), map.get("a"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void removingTwice() {
+		OpenAddressingHashtable<String, Integer> map = new OpenAddressingHashtable<>();
+		map.put("a", 1);
+		Iterator<TableEntry<String, Integer>> it = map.iterator();
+		it.next();
+		it.remove();
+		it.remove();
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void outsideModification() {
+		OpenAddressingHashtable<String, Integer> map = new OpenAddressingHashtable<>();
+		map.put("a", 1);
+		map.put("b", 2);
+		Iterator<TableEntry<String, Integer>> it = map.iterator();
+		it.next();
+		map.remove("b");
+		it.hasNext();
+	}
+}
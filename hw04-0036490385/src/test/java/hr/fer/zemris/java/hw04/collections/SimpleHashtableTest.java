@@ -1,8 +1,22 @@
 package hr.fer.zemris.java.hw04.collections;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import hr.fer.zemris.java.hw04.collections.SimpleHashtable.TableEntry;
+
 public class SimpleHashtableTest {
 
 	@Test
@@ -12,4 +26,100 @@ public class SimpleHashtableTest {
 		map.remove("kurac");
 		Assert.assertEquals(false, map.containsKey("kurac"));
 	}
+
+	@Test
+	public void incrementalResizeMatchesHashMap() {
+		Random random = new Random(7);
+		SimpleHashtable<Integer, Integer> map = new SimpleHashtable<>(1, true);
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 100_000; i++) {
+			int key = random.nextInt(20_000) - 10_000;
+			if (random.nextInt(4) == 0) {
+				map.remove(key);
+				expected.remove(key);
+			} else {
+				map.put(key, i);
+				expected.put(key, i);
+			}
+
+			if (i % 1000 == 0) {
+				assertEquals(expected.size(), map.size());
+			}
+		}
+
+		for (int key = -10_000; key < 10_000; key++) {
+			assertEquals(expected.get(key), map.get(key));
+		}
+		Map<Integer, Integer> iterated = new HashMap<>();
+		for (TableEntry<Integer, Integer> entry : map) {
+			assertNull(iterated.put(entry.getKey(), entry.getValue()));
+		}
+		assertEquals(expected, iterated);
+	}
+
+	@Test
+	public void iteratingWhileEntriesAreBeingMoved() {
+		SimpleHashtable<Integer, Integer> map = new SimpleHashtable<>(16, true);
+		// 12 entries start the resize, the next puts move only a few slots
+		for (int i = 0; i < 14; i++) {
+			map.put(i, i);
+		}
+		assertEquals(14, map.size());
+		assertTrue(map.containsValue(13));
+		assertFalse(map.containsValue(14));
+
+		Set<Integer> seen = new HashSet<>();
+		Iterator<TableEntry<Integer, Integer>> it = map.iterator();
+		while (it.hasNext()) {
+			TableEntry<Integer, Integer> entry = it.next();
+			assertTrue(seen.add(entry.getKey()));
+			if (entry.getKey() % 2 == 0) {
+				it.remove();
+			}
+		}
+
+		assertEquals(14, seen.size());
+		assertEquals(7, map.size());
+		for (int i = 0; i < 14; i++) {
+			assertEquals(i % 2 == 1, map.containsKey(i));
+		}
+	}
+
+	@Test
+	public void updatingValuesWhileEntriesAreBeingMoved() {
+		SimpleHashtable<Integer, Integer> map = new SimpleHashtable<>(16, true);
+		for (int i = 0; i < 12; i++) {
+			map.put(i, i);
+		}
+
+		Set<Integer> seen = new HashSet<>();
+		for (TableEntry<Integer, Integer> entry : map) {
+			assertTrue(seen.add(entry.getKey()));
+			// neither updating a value nor removing a missing key is a
+			// structural change, so no entries may be moved
+			map.put(entry.getKey(), entry.getValue() + 1);
+			map.remove(-1 - entry.getKey());
+		}
+
+		assertEquals(12, seen.size());
+		assertEquals(12, map.size());
+		for (int i = 0; i < 12; i++) {
+			assertEquals(Integer.valueOf(i + 1), map.get(i));
+		}
+	}
+
+	@Test
+	public void clearWhileEntriesAreBeingMoved() {
+		SimpleHashtable<Integer, Integer> map = new SimpleHashtable<>(16, true);
+		for (int i = 0; i < 13; i++) {
+			map.put(i, i);
+		}
+		map.clear();
+		assertTrue(map.isEmpty());
+		assertEquals("[]", map.toString());
+		assertNull(map.get(3));
+
+		map.put(3, 3);
+		assertEquals("[3=3]", map.toString());
+	}
 }
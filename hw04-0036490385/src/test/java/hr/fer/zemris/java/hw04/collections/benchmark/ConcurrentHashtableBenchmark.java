@@ -0,0 +1,232 @@
+package hr.fer.zemris.java.hw04.collections.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw04.collections.ConcurrentSimpleHashtable;
+import hr.fer.zemris.java.hw04.collections.SimpleHashtable;
+
+/**
+ * Measures the throughput of a table shared by 1, 4 and 16 threads with
+ * different mixes of reads and writes, for {@link ConcurrentSimpleHashtable},
+ * a {@link SimpleHashtable} guarded by a single lock and
+ * {@link ConcurrentHashMap}. Every operation uses a random key out of twice
+ * as many keys as the table initially holds; a write puts or removes the key
+ * with equal probability, so the size of the table stays about the same.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ConcurrentHashtableBenchmark {
+	/** Number of keys in the table at the start. **/
+	@Param({ "100000" })
+	public int size;
+
+	/** Percentage of operations which are writes. **/
+	@Param({ "0", "10", "50" })
+	public int writePercent;
+
+	/** The table implementation: striped, synchronized or chm. **/
+	@Param({ "striped", "synchronized", "chm" })
+	public String implementation;
+
+	/** The table. **/
+	private Table table;
+	/** The keys, twice as many as in the table at the start. **/
+	private Integer[] keys;
+
+	/**
+	 * A random number generator of a thread.
+	 */
+	@State(Scope.Thread)
+	public static class ThreadRandom {
+		/** The generator. **/
+		private SplittableRandom random = new SplittableRandom(Thread.currentThread().getId());
+	}
+
+	/**
+	 * Fills the table with every other key.
+	 */
+	@Setup
+	public void setup() {
+		keys = new Integer[2 * size];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = i;
+		}
+		table = create(implementation);
+		for (int i = 0; i < keys.length; i += 2) {
+			table.put(keys[i], keys[i]);
+		}
+	}
+
+	/**
+	 * Performs a single read or write with one thread.
+	 *
+	 * @param random
+	 *            random number generator of the thread
+	 * @return the read value
+	 */
+	@Benchmark
+	@Threads(1)
+	public Object threads01(ThreadRandom random) {
+		return operation(random.random);
+	}
+
+	/**
+	 * Performs a single read or write with four threads.
+	 *
+	 * @param random
+	 *            random number generator of the thread
+	 * @return the read value
+	 */
+	@Benchmark
+	@Threads(4)
+	public Object threads04(ThreadRandom random) {
+		return operation(random.random);
+	}
+
+	/**
+	 * Performs a single read or write with sixteen threads.
+	 *
+	 * @param random
+	 *            random number generator of the thread
+	 * @return the read value
+	 */
+	@Benchmark
+	@Threads(16)
+	public Object threads16(ThreadRandom random) {
+		return operation(random.random);
+	}
+
+	/**
+	 * Performs a random read or write.
+	 *
+	 * @param random
+	 *            random number generator of the thread
+	 * @return the read value, or null after a write
+	 */
+	private Object operation(SplittableRandom random) {
+		int r = random.nextInt(200 * keys.length);
+		Integer key = keys[r % keys.length];
+		int percent = r / keys.length;
+		if (percent >= 2 * writePercent) {
+			return table.get(key);
+		} else if ((percent & 1) == 0) {
+			table.put(key, key);
+		} else {
+			table.remove(key);
+		}
+		return null;
+	}
+
+	/**
+	 * The operations of a table which are measured.
+	 */
+	interface Table {
+		/**
+		 * Puts an entry.
+		 *
+		 * @param key
+		 *            key
+		 * @param value
+		 *            value
+		 */
+		void put(Integer key, Integer value);
+
+		/**
+		 * Gets a value.
+		 *
+		 * @param key
+		 *            key
+		 * @return the value
+		 */
+		Integer get(Integer key);
+
+		/**
+		 * Removes an entry.
+		 *
+		 * @param key
+		 *            key
+		 */
+		void remove(Integer key);
+	}
+
+	/**
+	 * Creates an empty table of the specified implementation.
+	 *
+	 * @param implementation
+	 *            striped, synchronized or chm
+	 * @return the table
+	 */
+	private static Table create(String implementation) {
+		switch (implementation) {
+		case "striped":
+			ConcurrentSimpleHashtable<Integer, Integer> striped = new ConcurrentSimpleHashtable<>(16, 64);
+			return new Table() {
+				public void put(Integer key, Integer value) {
+					striped.put(key, value);
+				}
+
+				public Integer get(Integer key) {
+					return striped.get(key);
+				}
+
+				public void remove(Integer key) {
+					striped.remove(key);
+				}
+			};
+		case "synchronized":
+			SimpleHashtable<Integer, Integer> simple = new SimpleHashtable<>();
+			return new Table() {
+				public synchronized void put(Integer key, Integer value) {
+					simple.put(key, value);
+				}
+
+				public synchronized Integer get(Integer key) {
+					return simple.get(key);
+				}
+
+				public synchronized void remove(Integer key) {
+					simple.remove(key);
+				}
+			};
+		case "chm":
+			ConcurrentHashMap<Integer, Integer> chm = new ConcurrentHashMap<>();
+			return new Table() {
+				public void put(Integer key, Integer value) {
+					chm.put(key, value);
+				}
+
+				public Integer get(Integer key) {
+					return chm.get(key);
+				}
+
+				public void remove(Integer key) {
+					chm.remove(key);
+				}
+			};
+		default:
+			throw new IllegalArgumentException("Unknown implementation: " + implementation);
+		}
+	}
+}
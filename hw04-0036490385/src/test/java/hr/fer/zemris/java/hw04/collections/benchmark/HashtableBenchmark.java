@@ -0,0 +1,259 @@
+package hr.fer.zemris.java.hw04.collections.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hr.fer.zemris.java.hw04.collections.OpenAddressingHashtable;
+import hr.fer.zemris.java.hw04.collections.SimpleHashtable;
+
+/**
+ * Compares {@link SimpleHashtable}, {@link OpenAddressingHashtable} and
+ * {@link HashMap} with integer keys in random order. Every benchmark works on
+ * all the keys, so the results are per table of the given size: filling an
+ * empty table (including its growth), looking up all the keys, removing all
+ * the keys and putting them back, and iterating over the table. The memory
+ * allocated while filling a table is reported by the GC profiler, and the
+ * memory a filled table keeps is printed by {@link HashtableFootprint}.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class HashtableBenchmark {
+	/** Number of keys. **/
+	@Param({ "1000", "1000000" })
+	public int size;
+
+	/** The table implementation: chained, open or hashmap. **/
+	@Param({ "chained", "open", "hashmap" })
+	public String implementation;
+
+	/** Keys in random order. **/
+	private Integer[] keys;
+	/** The filled table. **/
+	private Table table;
+
+	/**
+	 * Generates the keys and fills the table.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		keys = randomKeys(size);
+		table = Table.create(implementation);
+		for (Integer key : keys) {
+			table.put(key, key);
+		}
+	}
+
+	/**
+	 * Generates the specified number of distinct keys in random order.
+	 *
+	 * @param count
+	 *            number of keys
+	 * @return the keys
+	 */
+	static Integer[] randomKeys(int count) {
+		Random random = new Random(42);
+		Integer[] keys = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = i * 3;
+		}
+		for (int i = count - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Integer tmp = keys[i];
+			keys[i] = keys[j];
+			keys[j] = tmp;
+		}
+		return keys;
+	}
+
+	/**
+	 * Fills an empty table of the default capacity.
+	 *
+	 * @return the filled table
+	 */
+	@Benchmark
+	public Object put() {
+		Table filled = Table.create(implementation);
+		for (Integer key : keys) {
+			filled.put(key, key);
+		}
+		return filled;
+	}
+
+	/**
+	 * Looks up all the keys.
+	 *
+	 * @param blackhole
+	 *            consumes the values
+	 */
+	@Benchmark
+	public void get(Blackhole blackhole) {
+		for (Integer key : keys) {
+			blackhole.consume(table.get(key));
+		}
+	}
+
+	/**
+	 * Removes all the keys and puts them back.
+	 */
+	@Benchmark
+	public void removeAndPut() {
+		for (Integer key : keys) {
+			table.remove(key);
+		}
+		for (Integer key : keys) {
+			table.put(key, key);
+		}
+	}
+
+	/**
+	 * Iterates over all the entries.
+	 *
+	 * @param blackhole
+	 *            consumes the values
+	 */
+	@Benchmark
+	public void iterate(Blackhole blackhole) {
+		table.forEachValue(blackhole);
+	}
+
+	/**
+	 * The operations of a table which are measured. Every fork creates only
+	 * one implementation, so the calls are monomorphic.
+	 */
+	interface Table {
+		/**
+		 * Puts an entry.
+		 *
+		 * @param key
+		 *            key
+		 * @param value
+		 *            value
+		 */
+		void put(Integer key, Integer value);
+
+		/**
+		 * Gets a value.
+		 *
+		 * @param key
+		 *            key
+		 * @return the value
+		 */
+		Integer get(Integer key);
+
+		/**
+		 * Removes an entry.
+		 *
+		 * @param key
+		 *            key
+		 */
+		void remove(Integer key);
+
+		/**
+		 * Iterates over the entries, passing their values to the blackhole.
+		 *
+		 * @param blackhole
+		 *            consumes the values
+		 */
+		void forEachValue(Blackhole blackhole);
+
+		/**
+		 * Creates an empty table of the specified implementation.
+		 *
+		 * @param implementation
+		 *            chained, open or hashmap
+		 * @return the table
+		 */
+		static Table create(String implementation) {
+			switch (implementation) {
+			case "chained":
+				SimpleHashtable<Integer, Integer> chained = new SimpleHashtable<>();
+				return new Table() {
+					public void put(Integer key, Integer value) {
+						chained.put(key, value);
+					}
+
+					public Integer get(Integer key) {
+						return chained.get(key);
+					}
+
+					public void remove(Integer key) {
+						chained.remove(key);
+					}
+
+					public void forEachValue(Blackhole blackhole) {
+						for (SimpleHashtable.TableEntry<Integer, Integer> entry : chained) {
+							blackhole.consume(entry.getValue());
+						}
+					}
+				};
+			case "open":
+				OpenAddressingHashtable<Integer, Integer> open = new OpenAddressingHashtable<>();
+				return new Table() {
+					public void put(Integer key, Integer value) {
+						open.put(key, value);
+					}
+
+					public Integer get(Integer key) {
+						return open.get(key);
+					}
+
+					public void remove(Integer key) {
+						open.remove(key);
+					}
+
+					public void forEachValue(Blackhole blackhole) {
+						for (SimpleHashtable.TableEntry<Integer, Integer> entry : open) {
+							blackhole.consume(entry.getValue());
+						}
+					}
+				};
+			case "hashmap":
+				Map<Integer, Integer> map = new HashMap<>();
+				return new Table() {
+					public void put(Integer key, Integer value) {
+						map.put(key, value);
+					}
+
+					public Integer get(Integer key) {
+						return map.get(key);
+					}
+
+					public void remove(Integer key) {
+						map.remove(key);
+					}
+
+					public void forEachValue(Blackhole blackhole) {
+						for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+							blackhole.consume(entry.getValue());
+						}
+					}
+				};
+			default:
+				throw new IllegalArgumentException("Unknown implementation: " + implementation);
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package hr.fer.zemris.java.hw04.collections.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Prints the memory kept by a filled {@link HashtableBenchmark.Table} of every
+ * implementation, per entry, not counting the keys and the values themselves.
+ * The memory is measured as the difference of the used heap after garbage
+ * collection before and after filling the table. Every implementation is
+ * measured in its own JVM, since the JIT compiler can keep the table of a
+ * previous implementation reachable for a while.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class HashtableFootprint {
+	/** Names of the measured implementations. **/
+	private static final String[] IMPLEMENTATIONS = { "chained", "open", "hashmap" };
+
+	/** The measured table, kept reachable until it is measured. **/
+	private static Object table;
+
+	/**
+	 * The method which is called when the program starts.
+	 *
+	 * @param args
+	 *            optionally the number of entries, one million by default,
+	 *            and the name of a single implementation to measure in this
+	 *            JVM
+	 * @throws IOException
+	 *             if a JVM can not be started
+	 * @throws InterruptedException
+	 *             if interrupted while waiting for a JVM
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		if (args.length > 1) {
+			measure(args[1], size);
+			return;
+		}
+
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		for (String implementation : IMPLEMENTATIONS) {
+			new ProcessBuilder(java, "-Xms2g", "-Xmx2g", "-cp", System.getProperty("java.class.path"),
+					HashtableFootprint.class.getName(), Integer.toString(size), implementation).inheritIO().start()
+							.waitFor();
+		}
+	}
+
+	/**
+	 * Measures and prints the memory kept by a table of the specified
+	 * implementation.
+	 *
+	 * @param implementation
+	 *            name of the implementation
+	 * @param size
+	 *            number of entries
+	 */
+	private static void measure(String implementation, int size) {
+		Integer[] keys = HashtableBenchmark.randomKeys(size);
+		HashtableBenchmark.Table filled = HashtableBenchmark.Table.create(implementation);
+
+		long before = usedMemory();
+		table = filled;
+		for (Integer key : keys) {
+			filled.put(key, key);
+		}
+		filled = null;
+		long after = usedMemory();
+
+		System.out.printf("%-8s %6.1f bytes per entry%n", implementation, (double) (after - before) / size);
+		table = null;
+	}
+
+	/**
+	 * Gets the used heap after garbage collection.
+	 *
+	 * @return used heap in bytes
+	 */
+	private static long usedMemory() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,129 @@
+package hr.fer.zemris.java.hw04.collections.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of latencies in nanoseconds with logarithmic buckets: every
+ * power of two is split into {@value #SUB_BUCKETS} buckets of equal width, so
+ * a percentile is known to within about 1/{@value #SUB_BUCKETS} of its value.
+ * Recording a latency does not allocate anything.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class LatencyHistogram {
+	/** Number of buckets per power of two, a power of two itself. **/
+	private static final int SUB_BUCKETS = 16;
+	/** Binary logarithm of the number of buckets per power of two. **/
+	private static final int SUB_BUCKET_BITS = 4;
+
+	/** Number of latencies in every bucket. **/
+	private long[] counts = new long[64 * SUB_BUCKETS];
+	/** Number of recorded latencies. **/
+	private long total;
+	/** The largest recorded latency. **/
+	private long max;
+
+	/**
+	 * Records a latency.
+	 *
+	 * @param nanos
+	 *            the latency in nanoseconds
+	 */
+	public void record(long nanos) {
+		counts[bucketOf(Math.max(nanos, 0))]++;
+		total++;
+		max = Math.max(max, nanos);
+	}
+
+	/**
+	 * Gets the bucket of the specified latency. Latencies smaller than the
+	 * number of buckets per power of two have a bucket each.
+	 *
+	 * @param nanos
+	 *            the latency
+	 * @return index of the bucket
+	 */
+	private static int bucketOf(long nanos) {
+		if (nanos < SUB_BUCKETS) {
+			return (int) nanos;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Gets the largest latency which falls into the specified bucket.
+	 *
+	 * @param bucket
+	 *            index of the bucket
+	 * @return the upper bound of the bucket
+	 */
+	private static long upperBoundOf(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+		long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+		return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	/**
+	 * Gets the specified percentile of the recorded latencies, rounded up to
+	 * the upper bound of its bucket.
+	 *
+	 * @param percentile
+	 *            the percentile, between 0 and 100
+	 * @return the latency in nanoseconds
+	 */
+	public long percentile(double percentile) {
+		long rank = (long) Math.ceil(total * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank && seen > 0) {
+				return Math.min(upperBoundOf(i), max);
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Gets the number of recorded latencies larger than the specified one,
+	 * rounded to the buckets.
+	 *
+	 * @param nanos
+	 *            the latency in nanoseconds
+	 * @return number of larger latencies
+	 */
+	public long countAbove(long nanos) {
+		long count = 0;
+		for (int i = bucketOf(nanos) + 1; i < counts.length; i++) {
+			count += counts[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Removes all recorded latencies.
+	 */
+	public void reset() {
+		Arrays.fill(counts, 0);
+		total = 0;
+		max = 0;
+	}
+
+	/**
+	 * Returns the number of latencies, the usual percentiles and the maximum in
+	 * microseconds, and the number of latencies over 1 and over 10
+	 * milliseconds.
+	 */
+	@Override
+	public String toString() {
+		return String.format(
+				"n=%d p50=%.3f p99=%.3f p99.9=%.3f p99.99=%.3f p99.999=%.3f max=%.3f us, %d over 1 ms, %d over 10 ms",
+				total, percentile(50) / 1e3, percentile(99) / 1e3, percentile(99.9) / 1e3, percentile(99.99) / 1e3,
+				percentile(99.999) / 1e3, max / 1e3, countAbove(1_000_000), countAbove(10_000_000));
+	}
+}
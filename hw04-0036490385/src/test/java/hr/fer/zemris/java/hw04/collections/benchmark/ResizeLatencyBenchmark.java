@@ -0,0 +1,103 @@
+package hr.fer.zemris.java.hw04.collections.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw04.collections.SimpleHashtable;
+
+/**
+ * Measures the latency of every put while a {@link SimpleHashtable} is filled
+ * with a few million new keys, with the table resized at once and
+ * incrementally. JMH reports the time of the whole fill, and the histogram of
+ * the latencies of all puts of the measured iterations (p50 up to p99.99 and
+ * the maximum) is printed at the end of the trial. Unlike the sample time mode
+ * of JMH, which times only some of the operations, every put is timed, so the
+ * few puts which resize the table can not be missed. The keys are created in
+ * advance, so the latencies contain no allocation of keys.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g", "-Xms4g" })
+@State(Scope.Benchmark)
+public class ResizeLatencyBenchmark {
+	/** Whether the table is resized incrementally. **/
+	@Param({ "false", "true" })
+	public boolean incremental;
+
+	/** Number of keys put into the table. **/
+	@Param({ "4000000" })
+	public int size;
+
+	/** The keys. **/
+	private Integer[] keys;
+	/** Latencies of the puts of the measured iterations. **/
+	private LatencyHistogram histogram = new LatencyHistogram();
+	/** Number of finished iterations. **/
+	private int iterations;
+
+	/**
+	 * Creates the keys.
+	 */
+	@Setup(Level.Trial)
+	public void setup() {
+		keys = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = i;
+		}
+	}
+
+	/**
+	 * Starts recording the latencies once the warmup is over.
+	 */
+	@TearDown(Level.Iteration)
+	public void afterIteration() {
+		iterations++;
+		if (iterations == 5) {
+			histogram.reset();
+		}
+	}
+
+	/**
+	 * Prints the histogram of the measured iterations.
+	 */
+	@TearDown(Level.Trial)
+	public void printHistogram() {
+		System.out.println();
+		System.out.println("put latency (incremental=" + incremental + "): " + histogram);
+	}
+
+	/**
+	 * Fills an empty table, timing every put.
+	 *
+	 * @return the filled table
+	 */
+	@Benchmark
+	public Object fill() {
+		SimpleHashtable<Integer, Integer> table = new SimpleHashtable<>(16, incremental);
+		LatencyHistogram histogram = this.histogram;
+		for (Integer key : keys) {
+			long start = System.nanoTime();
+			table.put(key, key);
+			histogram.record(System.nanoTime() - start);
+		}
+		return table;
+	}
+}
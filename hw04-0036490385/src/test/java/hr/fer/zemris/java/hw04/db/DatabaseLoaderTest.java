@@ -0,0 +1,229 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DatabaseLoaderTest {
+	private static final Path DATABASE = Paths.get("./src/test/resources/database.txt");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void loadsTheSameRowsAsReadingLines() throws IOException {
+		StudentColumns expected = new StudentColumns(Files.readAllLines(DATABASE, StandardCharsets.UTF_8));
+		for (int chunks = 1; chunks <= 8; chunks++) {
+			assertSameRows(expected, DatabaseLoader.loadColumns(DATABASE, chunks));
+		}
+		assertSameRows(expected, DatabaseLoader.loadColumns(DATABASE));
+	}
+
+	@Test
+	public void windowsLineEndingsAndNoFinalNewline() throws IOException {
+		Path file = write("0000000001\tKovač\tIvan\t3\r\n0000000002\tAnić\tPetra\t5\r\n0000000003\tAnić\tŠime\t4");
+		StudentColumns columns = DatabaseLoader.loadColumns(file, 3);
+		assertSameRows(new StudentColumns(Arrays.asList("0000000001\tKovač\tIvan\t3", "0000000002\tAnić\tPetra\t5",
+				"0000000003\tAnić\tŠime\t4")), columns);
+	}
+
+	@Test
+	public void emptyFile() throws IOException {
+		Assert.assertEquals(0, DatabaseLoader.loadColumns(write(""), 4).size());
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void missingAttribute() throws IOException {
+		DatabaseLoader.loadColumns(write("0000000001\tKovač\t3\n"));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void emptyLine() throws IOException {
+		DatabaseLoader.loadColumns(write("0000000001\tKovač\tIvan\t3\n\n0000000002\tAnić\tPetra\t5\n"));
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void invalidGrade() throws IOException {
+		DatabaseLoader.loadColumns(write("0000000001\tKovač\tIvan\tpet\n"));
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void gradeOutOfRange() throws IOException {
+		DatabaseLoader.loadColumns(write("0000000001\tKovač\tIvan\t1000\n"));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void duplicateJmbagInDifferentChunks() throws IOException {
+		DatabaseLoader.loadColumns(write("0000000001\tKovač\tIvan\t3\n0000000002\tAnić\tPetra\t5\n"
+				+ "0000000001\tHorvat\tAna\t2\n"), 3);
+	}
+
+	@Test
+	public void snapshotRoundTrip() throws IOException {
+		StudentColumns expected = DatabaseLoader.loadColumns(DATABASE);
+		Path snapshot = folder.getRoot().toPath().resolve("database.snapshot");
+		expected.writeSnapshot(snapshot);
+
+		StudentColumns loaded = StudentColumns.readSnapshot(snapshot);
+		assertSameRows(expected, loaded);
+		Assert.assertEquals(5, loaded.rowOf("0000000006"));
+		loaded.add("1000000000", "Novak", "Ivan", 5);
+		Assert.assertEquals(expected.size(), loaded.rowOf("1000000000"));
+	}
+
+	@Test
+	public void snapshotReplacedAtomically() throws IOException {
+		Path snapshot = folder.getRoot().toPath().resolve("database.snapshot");
+		DatabaseLoader.loadColumns(write("0000000001\tKovač\tIvan\t3\n")).writeSnapshot(snapshot);
+		StudentColumns expected = DatabaseLoader.loadColumns(DATABASE);
+		expected.writeSnapshot(snapshot);
+
+		assertSameRows(expected, StudentColumns.readSnapshot(snapshot));
+		Assert.assertFalse(Files.exists(snapshot.resolveSibling("database.snapshot.tmp")));
+	}
+
+	@Test
+	public void failedSnapshotKeepsOldOne() throws IOException {
+		Path snapshot = folder.getRoot().toPath().resolve("database.snapshot");
+		StudentColumns expected = DatabaseLoader.loadColumns(write("0000000001\tKovač\tIvan\t3\n"));
+		expected.writeSnapshot(snapshot);
+
+		// the temporary file can not be opened, so the write fails
+		Files.createDirectory(snapshot.resolveSibling("database.snapshot.tmp"));
+		try {
+			DatabaseLoader.loadColumns(DATABASE).writeSnapshot(snapshot);
+			Assert.fail("Writing the snapshot should fail.");
+		} catch (IOException expectedException) {
+		}
+		assertSameRows(expected, StudentColumns.readSnapshot(snapshot));
+	}
+
+	@Test(expected = IOException.class)
+	public void invalidSnapshot() throws IOException {
+		StudentColumns.readSnapshot(DATABASE);
+	}
+
+	@Test(expected = IOException.class)
+	public void corruptedSnapshot() throws IOException {
+		Path snapshot = snapshot();
+		byte[] bytes = Files.readAllBytes(snapshot);
+		bytes[bytes.length / 2] ^= 1;
+		Files.write(snapshot, bytes);
+		StudentColumns.readSnapshot(snapshot);
+	}
+
+	@Test(expected = IOException.class)
+	public void truncatedSnapshot() throws IOException {
+		Path snapshot = snapshot();
+		byte[] bytes = Files.readAllBytes(snapshot);
+		Files.write(snapshot, Arrays.copyOf(bytes, bytes.length - 10));
+		StudentColumns.readSnapshot(snapshot);
+	}
+
+	@Test(expected = IOException.class)
+	public void negativeSizeInSnapshot() throws IOException {
+		StudentColumns.readSnapshot(damage(snapshot(), 4, -1));
+	}
+
+	@Test(expected = IOException.class)
+	public void hugeTableInSnapshot() throws IOException {
+		StudentColumns.readSnapshot(damage(snapshot(), 12, 1 << 30));
+	}
+
+	@Test(expected = IOException.class)
+	public void tableTooSmallInSnapshot() throws IOException {
+		StudentColumns.readSnapshot(damage(snapshot(), 12, 2));
+	}
+
+	@Test(expected = IOException.class)
+	public void negativeDictionarySizeInSnapshot() throws IOException {
+		StudentColumns.readSnapshot(damage(snapshot(), 16, -5));
+	}
+
+	@Test(expected = IOException.class)
+	public void invalidNameCodeInSnapshot() throws IOException {
+		Path snapshot = snapshot();
+		// the first name code of the last row is the last int before grades
+		int size = DatabaseLoader.loadColumns(DATABASE).size();
+		int offset = (int) Files.size(snapshot) - 4 - size - 4;
+		StudentColumns.readSnapshot(damage(snapshot, offset, 1_000));
+	}
+
+	@Test
+	public void loadRebuildsDamagedSnapshot() throws IOException {
+		Path file = write("0000000001\tKovač\tIvan\t3\n");
+		Path snapshot = folder.getRoot().toPath().resolve("database.snapshot");
+		DatabaseLoader.load(file, snapshot);
+		damage(snapshot, 4, -1);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+
+		Assert.assertEquals("Kovač", DatabaseLoader.load(file, snapshot).forJMBAG("0000000001").getLastName());
+		Assert.assertEquals(1, StudentColumns.readSnapshot(snapshot).size());
+	}
+
+	@Test
+	public void loadWritesAndUsesSnapshot() throws IOException {
+		Path file = write("0000000001\tKovač\tIvan\t3\n");
+		Path snapshot = folder.getRoot().toPath().resolve("database.snapshot");
+
+		Assert.assertEquals("Kovač", DatabaseLoader.load(file, snapshot).forJMBAG("0000000001").getLastName());
+		Assert.assertTrue(Files.exists(snapshot));
+
+		// an up to date snapshot is used instead of the file
+		Files.write(file, "0000000001\tHorvat\tIvan\t3\n".getBytes(StandardCharsets.UTF_8));
+		Files.setLastModifiedTime(file, FileTime.fromMillis(0));
+		Assert.assertEquals("Kovač", DatabaseLoader.load(file, snapshot).forJMBAG("0000000001").getLastName());
+
+		// a stale snapshot is replaced
+		Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+		Assert.assertEquals("Horvat", DatabaseLoader.load(file, snapshot).forJMBAG("0000000001").getLastName());
+	}
+
+	private Path snapshot() throws IOException {
+		Path snapshot = folder.getRoot().toPath().resolve("database.snapshot");
+		DatabaseLoader.loadColumns(DATABASE).writeSnapshot(snapshot);
+		return snapshot;
+	}
+
+	private static Path damage(Path snapshot, int offset, int value) throws IOException {
+		// the checksum is updated, so only the validation can reject the snapshot
+		ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+		bytes.putInt(offset, value);
+		CRC32 crc = new CRC32();
+		crc.update(bytes.array(), 0, bytes.capacity() - 4);
+		bytes.putInt(bytes.capacity() - 4, (int) crc.getValue());
+		Files.write(snapshot, bytes.array());
+		return snapshot;
+	}
+
+	private Path write(String content) throws IOException {
+		Path file = folder.newFile().toPath();
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static void assertSameRows(StudentColumns expected, StudentColumns actual) {
+		Assert.assertEquals(expected.size(), actual.size());
+		List<IFieldValueGetter> getters = new ArrayList<>(Arrays.asList(FieldValueGetters.JMBAG,
+				FieldValueGetters.LAST_NAME, FieldValueGetters.FIRST_NAME, FieldValueGetters.FINAL_GRADE));
+		for (int row = 0; row < expected.size(); row++) {
+			for (IFieldValueGetter getter : getters) {
+				Assert.assertEquals(expected.value(getter, row), actual.value(getter, row));
+			}
+			Assert.assertEquals(row, actual.rowOf(expected.value(FieldValueGetters.JMBAG, row)));
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package hr.fer.zemris.java.hw04.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class QueryCacheTest {
+	private StudentDatabase database;
+
+	@Before
+	public void setUp() {
+		List<String> lines;
+		try {
+			lines = Files.readAllLines(Paths.get("./src/test/resources/database.txt"), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			Assert.fail("Nije moguće učitati bazu podataka. Testovi ne mogu biti izvršeni.");
+			return;
+		}
+		database = new StudentDatabase(lines);
+	}
+
+	private static String normalize(String query) {
+		return QueryCache.normalize(new QueryParser(query).getParsedQuery());
+	}
+
+	@Test
+	public void normalizeIgnoresWhitespaceAndKeywordCase() {
+		assertEquals(normalize("lastName LIKE \"B*\" and finalGrade>\"2\" order by jmbag limit 5"),
+				normalize("  lastName   LIKE\"B*\"   AND   finalGrade > \"2\"  ORDER  BY  jmbag  ASC  LIMIT  5"));
+	}
+
+	@Test
+	public void normalizeIgnoresOrderOfOperands() {
+		assertEquals(normalize("lastName LIKE \"B*\" and finalGrade>\"2\""),
+				normalize("finalGrade>\"2\" and lastName LIKE \"B*\""));
+		assertEquals(normalize("jmbag=\"1\" or jmbag=\"2\" or jmbag=\"3\""),
+				normalize("jmbag=\"3\" or (jmbag=\"1\" or jmbag=\"2\")"));
+		assertEquals(normalize("jmbag=\"1\" and jmbag=\"1\""), normalize("jmbag=\"1\""));
+	}
+
+	@Test
+	public void normalizeKeepsDifferences() {
+		assertNotEquals(normalize("jmbag=\"1\" and jmbag=\"2\""), normalize("jmbag=\"1\" or jmbag=\"2\""));
+		assertNotEquals(normalize("jmbag=\"1\""), normalize("not jmbag=\"1\""));
+		assertNotEquals(normalize("jmbag>\"1\" order by jmbag"), normalize("jmbag>\"1\" order by jmbag desc"));
+		assertNotEquals(normalize("jmbag>\"1\" limit 2"), normalize("jmbag>\"1\" limit 3"));
+		assertNotEquals(normalize("count jmbag>\"1\""), normalize("jmbag>\"1\""));
+		assertNotEquals(normalize("lastName=\"a b\""), normalize("lastName=\"a  b\""));
+	}
+
+	@Test
+	public void repeatedQueryIsAHit() {
+		QueryCache cache = new QueryCache(database);
+		List<StudentRecord> first = cache.execute(new QueryParser("finalGrade=\"5\"").getParsedQuery());
+		List<StudentRecord> second = cache.execute(new QueryParser("  finalGrade = \"5\" ").getParsedQuery());
+
+		assertSame(first, second);
+		assertEquals(database.execute(new QueryParser("finalGrade=\"5\"").getParsedQuery()), second);
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(0.5, cache.getHitRate(), 1e-9);
+	}
+
+	@Test
+	public void countIsCachedSeparately() {
+		QueryCache cache = new QueryCache(database);
+		cache.execute(new QueryParser("finalGrade=\"5\"").getParsedQuery());
+		int count = cache.count(new QueryParser("count finalGrade=\"5\"").getParsedQuery());
+
+		assertEquals(database.count(new QueryParser("count finalGrade=\"5\"").getParsedQuery()), count);
+		assertEquals(2, cache.getMisses());
+		assertEquals(count, cache.count(new QueryParser("COUNT finalGrade=\"5\"").getParsedQuery()));
+		assertEquals(1, cache.getHits());
+	}
+
+	@Test
+	public void changeInvalidatesTheCache() throws IOException {
+		QueryCache cache = new QueryCache(database);
+		Query query = new QueryParser("lastName LIKE \"B*\"").getParsedQuery();
+		int before = cache.execute(query).size();
+
+		database.insert(new StudentRecord("1000000000", "Bosnić", "Marin", 5));
+		assertEquals(before + 1, cache.execute(query).size());
+		assertEquals(1, cache.getInvalidations());
+
+		database.delete("1000000000");
+		assertEquals(before, cache.execute(query).size());
+		assertEquals(2, cache.getInvalidations());
+		assertEquals(0, cache.getHits());
+	}
+
+	@Test
+	public void leastRecentlyUsedResultIsRemoved() {
+		QueryCache cache = new QueryCache(database, 2, 1000);
+		Query a = new QueryParser("finalGrade=\"1\"").getParsedQuery();
+		Query b = new QueryParser("finalGrade=\"2\"").getParsedQuery();
+		Query c = new QueryParser("finalGrade=\"3\"").getParsedQuery();
+		cache.execute(a);
+		cache.execute(b);
+		cache.execute(a);
+		cache.execute(c);
+
+		assertEquals(2, cache.size());
+		cache.execute(a);
+		assertEquals(2, cache.getHits());
+		cache.execute(b);
+		assertEquals(2, cache.getHits());
+	}
+
+	@Test
+	public void largeResultsAreNotCached() {
+		QueryCache cache = new QueryCache(database, 10, 10);
+		cache.execute(new QueryParser("jmbag LIKE \"*\"").getParsedQuery());
+		assertEquals(0, cache.size());
+
+		cache.execute(new QueryParser("jmbag<\"0000000005\"").getParsedQuery());
+		cache.execute(new QueryParser("jmbag>\"0000000058\"").getParsedQuery());
+		cache.execute(new QueryParser("jmbag>\"0000000060\"").getParsedQuery());
+		assertEquals(2, cache.size());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void cachedResultCanNotBeModified() {
+		QueryCache cache = new QueryCache(database);
+		cache.execute(new QueryParser("finalGrade=\"5\"").getParsedQuery()).clear();
+	}
+}
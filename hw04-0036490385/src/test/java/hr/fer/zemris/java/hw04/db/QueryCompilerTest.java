@@ -0,0 +1,71 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryCompilerTest {
+	private static final List<StudentRecord> RECORDS = Arrays.asList(
+			new StudentRecord("0000000001", "Kovač", "Ivan", 3), new StudentRecord("0000000002", "Anić", "Petra", 5),
+			new StudentRecord("0000000003", "Horvat", "Ana", 2), new StudentRecord("0000000004", "Anić", "Ivana", 4),
+			new StudentRecord("0000000005", "Babić", "Luka", 10), new StudentRecord("0000000006", "Bab", "Ab", -1),
+			new StudentRecord("0000000007", "Horvatić", "Iva", 1000));
+
+	@Test
+	public void singleConditionsMatchQueryFilter() {
+		IFieldValueGetter[] getters = { FieldValueGetters.JMBAG, FieldValueGetters.LAST_NAME,
+				FieldValueGetters.FIRST_NAME, FieldValueGetters.FINAL_GRADE, record -> record.getFirstName() };
+		IComparisonOperator[] operators = { ComparisonOperators.EQUALS, ComparisonOperators.NOT_EQUALS,
+				ComparisonOperators.LESS, ComparisonOperators.LESS_OR_EQUALS, ComparisonOperators.GREATER,
+				ComparisonOperators.GREATER_OR_EQUALS, ComparisonOperators.LIKE,
+				(value, literal) -> value.length() == literal.length() };
+		String[] literals = { "0000000003", "Anić", "Iva", "3", "10", "03", "-1", "1000", "A*", "*a", "Ab*b", "B*b",
+				"*", "" };
+
+		for (IFieldValueGetter getter : getters) {
+			for (IComparisonOperator operator : operators) {
+				for (String literal : literals) {
+					assertSameAsQueryFilter(Arrays.asList(new ConditionalExpression(getter, literal, operator)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void conjunctionsMatchQueryFilter() {
+		List<ConditionalExpression> conditions = new ArrayList<>();
+		assertSameAsQueryFilter(conditions);
+		conditions.add(new ConditionalExpression(FieldValueGetters.LAST_NAME, "B", ComparisonOperators.GREATER));
+		assertSameAsQueryFilter(conditions);
+		conditions.add(new ConditionalExpression(FieldValueGetters.FIRST_NAME, "Iva*", ComparisonOperators.LIKE));
+		assertSameAsQueryFilter(conditions);
+		conditions.add(new ConditionalExpression(FieldValueGetters.FINAL_GRADE, "5", ComparisonOperators.LESS));
+		assertSameAsQueryFilter(conditions);
+	}
+
+	@Test
+	public void orderBySelectivity() {
+		ConditionalExpression notEquals = new ConditionalExpression(FieldValueGetters.LAST_NAME, "A",
+				ComparisonOperators.NOT_EQUALS);
+		ConditionalExpression range = new ConditionalExpression(FieldValueGetters.FIRST_NAME, "A",
+				ComparisonOperators.GREATER);
+		ConditionalExpression prefix = new ConditionalExpression(FieldValueGetters.LAST_NAME, "A*",
+				ComparisonOperators.LIKE);
+		ConditionalExpression jmbag = new ConditionalExpression(FieldValueGetters.JMBAG, "0000000001",
+				ComparisonOperators.EQUALS);
+
+		Assert.assertEquals(Arrays.asList(jmbag, prefix, range, notEquals),
+				QueryCompiler.orderBySelectivity(Arrays.asList(notEquals, range, prefix, jmbag)));
+	}
+
+	private static void assertSameAsQueryFilter(List<ConditionalExpression> conditions) {
+		QueryFilter filter = new QueryFilter(conditions);
+		IFilter compiled = QueryCompiler.compile(conditions);
+		for (StudentRecord record : RECORDS) {
+			Assert.assertEquals(filter.accepts(record), compiled.accepts(record));
+		}
+	}
+}
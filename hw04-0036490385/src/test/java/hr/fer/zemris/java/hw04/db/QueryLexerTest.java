@@ -212,4 +212,28 @@ public class QueryLexerTest {
 		lex.nextToken();
 		lex.nextToken();
 	}
+
+	@Test
+	public void logicalOperatorsKeywordsAndParentheses() {
+		QueryLexer lex = new QueryLexer("count NOT(jmbag=\"1\") Or(x) order BY lastName DESC limit 10");
+		TokenType[] types = { TokenType.KEYWORD, TokenType.LOGICAL_OPERATOR, TokenType.OPEN_PARENTHESIS,
+				TokenType.NAME, TokenType.OPERATOR, TokenType.STRING, TokenType.CLOSED_PARENTHESIS,
+				TokenType.LOGICAL_OPERATOR, TokenType.OPEN_PARENTHESIS, TokenType.NAME, TokenType.CLOSED_PARENTHESIS,
+				TokenType.KEYWORD, TokenType.KEYWORD, TokenType.NAME, TokenType.KEYWORD, TokenType.KEYWORD,
+				TokenType.NUMBER, TokenType.EOF };
+		Object[] values = { "count", "NOT", "(", "jmbag", "=", "1", ")", "Or", "(", "x", ")", "order", "BY",
+				"lastName", "DESC", "limit", "10", null };
+		for (int i = 0; i < types.length; i++) {
+			Assert.assertEquals(types[i], lex.nextToken().getType());
+			Assert.assertEquals(values[i], lex.getToken().getValue());
+		}
+	}
+
+	@Test
+	public void keywordsAsPartsOfNames() {
+		QueryLexer lex = new QueryLexer("orderly android limited");
+		Assert.assertEquals(TokenType.NAME, lex.nextToken().getType());
+		Assert.assertEquals(TokenType.NAME, lex.nextToken().getType());
+		Assert.assertEquals(TokenType.NAME, lex.nextToken().getType());
+	}
 }
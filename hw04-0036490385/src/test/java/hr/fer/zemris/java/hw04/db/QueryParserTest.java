@@ -86,7 +86,7 @@ public class QueryParserTest {
 
 	@Test(expected = ParserException.class)
 	public void unsupportedLogicalOperator() {
-		new QueryParser("jmbag = \"34567\" or firstName = \"George\"");
+		new QueryParser("jmbag = \"34567\" xor firstName = \"George\"");
 	}
 
 	@Test(expected = ParserException.class)
@@ -129,4 +129,97 @@ public class QueryParserTest {
 		new QueryParser("lastName = 'Madrid'");
 	}
 
+	@Test
+	public void andBindsMoreTightlyThanOr() {
+		Query query = new QueryParser("jmbag = \"1\" or firstName = \"A\" AND lastName = \"B\"").getParsedQuery();
+		Assert.assertTrue(query.getCondition() instanceof OrExpression);
+		List<IQueryExpression> operands = ((OrExpression) query.getCondition()).getOperands();
+		Assert.assertEquals(2, operands.size());
+		Assert.assertTrue(operands.get(0) instanceof ConditionalExpression);
+		Assert.assertEquals(2, ((AndExpression) operands.get(1)).getOperands().size());
+		Assert.assertNull(query.getConditions());
+	}
+
+	@Test
+	public void notAndParentheses() {
+		Query query = new QueryParser("NOT(jmbag = \"1\" or jmbag=\"2\") and (firstName = \"A\")").getParsedQuery();
+		List<IQueryExpression> operands = ((AndExpression) query.getCondition()).getOperands();
+		Assert.assertTrue(operands.get(0) instanceof NotExpression);
+		Assert.assertTrue(((NotExpression) operands.get(0)).getOperand() instanceof OrExpression);
+		Assert.assertTrue(operands.get(1) instanceof ConditionalExpression);
+	}
+
+	@Test
+	public void nestedConjunctionsAreFlattened() {
+		QueryParser parser = new QueryParser("jmbag = \"1\" and (firstName = \"A\" and lastName = \"B\")");
+		Assert.assertEquals(3, parser.getQuery().size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void gettingConditionsOfDisjunction() {
+		new QueryParser("jmbag = \"34567\" or firstName = \"George\"").getQuery();
+	}
+
+	@Test
+	public void orderByAndLimit() {
+		Query query = new QueryParser("firstName = \"John\" ORDER BY lastName desc LIMIT 10").getParsedQuery();
+		Assert.assertEquals(FieldValueGetters.LAST_NAME, query.getOrderBy());
+		Assert.assertTrue(query.isDescending());
+		Assert.assertEquals(10, query.getLimit());
+		Assert.assertFalse(query.isCount());
+
+		query = new QueryParser("order by finalGrade asc").getParsedQuery();
+		Assert.assertNull(query.getCondition());
+		Assert.assertFalse(query.isDescending());
+		Assert.assertEquals(Query.NO_LIMIT, query.getLimit());
+	}
+
+	@Test
+	public void countQuery() {
+		Query query = new QueryParser("count lastName LIKE \"B*\"").getParsedQuery();
+		Assert.assertTrue(query.isCount());
+		Assert.assertEquals(1, query.getConditions().size());
+		Assert.assertTrue(new QueryParser("Count").getParsedQuery().isCount());
+	}
+
+	@Test
+	public void limitedJmbagQueryIsNotDirect() {
+		Assert.assertFalse(new QueryParser("jmbag = \"0036490385\" limit 0").isDirectQuery());
+		Assert.assertFalse(new QueryParser("count jmbag = \"0036490385\"").isDirectQuery());
+	}
+
+	@Test(expected = ParserException.class)
+	public void missingClosingParenthesis() {
+		new QueryParser("(jmbag = \"1\" or jmbag = \"2\"");
+	}
+
+	@Test(expected = ParserException.class)
+	public void orderWithoutBy() {
+		new QueryParser("jmbag = \"1\" order lastName");
+	}
+
+	@Test(expected = ParserException.class)
+	public void orderByUnknownAttribute() {
+		new QueryParser("order by name");
+	}
+
+	@Test(expected = ParserException.class)
+	public void limitWithoutNumber() {
+		new QueryParser("jmbag = \"1\" limit \"5\"");
+	}
+
+	@Test(expected = ParserException.class)
+	public void limitBeforeOrderBy() {
+		new QueryParser("limit 5 order by lastName");
+	}
+
+	@Test(expected = ParserException.class)
+	public void tooLargeLimit() {
+		new QueryParser("limit 99999999999");
+	}
+
+	@Test(expected = ParserException.class)
+	public void emptyQuery() {
+		new QueryParser("   ");
+	}
 }
@@ -0,0 +1,120 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SortedIndexTest {
+	private List<StudentRecord> records;
+	private SortedIndex index;
+
+	@Before
+	public void setUp() {
+		records = new ArrayList<>();
+		records.add(new StudentRecord("0000000001", "Kovač", "Ivan", 3));
+		records.add(new StudentRecord("0000000002", "Anić", "Petra", 5));
+		records.add(new StudentRecord("0000000003", "Horvat", "Ana", 2));
+		records.add(new StudentRecord("0000000004", "Anić", "Marko", 4));
+		records.add(new StudentRecord("0000000005", "Babić", "Luka", 1));
+		records.add(new StudentRecord("0000000006", "Horvatić", "Iva", 5));
+		index = new SortedIndex(FieldValueGetters.LAST_NAME, records);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nullFieldGetter() {
+		new SortedIndex(null, records);
+	}
+
+	@Test
+	public void rowsAreSortedAndStable() {
+		Assert.assertEquals(6, index.size());
+		int[] expected = { 1, 3, 4, 2, 5, 0 };
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals(expected[i], index.rowAt(i));
+		}
+	}
+
+	@Test
+	public void equalsRange() {
+		SortedIndex.Range range = index.range(ComparisonOperators.EQUALS, "Anić");
+		Assert.assertEquals(0, range.getStart());
+		Assert.assertEquals(2, range.getEnd());
+	}
+
+	@Test
+	public void equalsRangeNotFound() {
+		Assert.assertEquals(0, index.range(ComparisonOperators.EQUALS, "Zorić").size());
+	}
+
+	@Test
+	public void lessAndGreaterRanges() {
+		Assert.assertEquals(3, index.range(ComparisonOperators.LESS, "Horvat").size());
+		Assert.assertEquals(4, index.range(ComparisonOperators.LESS_OR_EQUALS, "Horvat").size());
+		Assert.assertEquals(2, index.range(ComparisonOperators.GREATER, "Horvat").size());
+		Assert.assertEquals(3, index.range(ComparisonOperators.GREATER_OR_EQUALS, "Horvat").size());
+	}
+
+	@Test
+	public void prefixLikeRange() {
+		SortedIndex.Range range = index.range(ComparisonOperators.LIKE, "Horv*");
+		Assert.assertEquals(3, range.getStart());
+		Assert.assertEquals(5, range.getEnd());
+		Assert.assertEquals(6, index.range(ComparisonOperators.LIKE, "*").size());
+		Assert.assertEquals(1, index.range(ComparisonOperators.LIKE, "Horvat").size());
+	}
+
+	@Test
+	public void conditionsThatCanNotUseIndex() {
+		Assert.assertNull(index.range(ComparisonOperators.NOT_EQUALS, "Anić"));
+		Assert.assertNull(index.range(ComparisonOperators.LIKE, "*vat"));
+		Assert.assertNull(index.range(ComparisonOperators.LIKE, "H*t"));
+	}
+
+	@Test
+	public void insertAndRemoveKeepTheOrder() {
+		Random random = new Random(42);
+		String[] values = new String[300];
+		SortedIndex changed = new SortedIndex(FieldValueGetters.LAST_NAME, new String[0]);
+		for (int row = 0; row < values.length; row++) {
+			values[row] = "K" + random.nextInt(20);
+			changed.insert(values[row], row);
+		}
+		for (int row = 0; row < values.length; row += 3) {
+			changed.remove(values[row], row);
+			values[row] = "K" + random.nextInt(20);
+			changed.insert(values[row], row);
+		}
+		for (int row = 1; row < values.length; row += 2) {
+			String key = "K" + random.nextInt(20);
+			changed.move(values[row], key, row);
+			values[row] = key;
+		}
+
+		SortedIndex built = new SortedIndex(FieldValueGetters.LAST_NAME, values);
+		Assert.assertEquals(built.size(), changed.size());
+		for (int i = 0; i < built.size(); i++) {
+			Assert.assertEquals(built.rowAt(i), changed.rowAt(i));
+			Assert.assertEquals(built.keyAt(i), changed.keyAt(i));
+		}
+		Assert.assertEquals(built.range(ComparisonOperators.EQUALS, "K3").size(),
+				changed.range(ComparisonOperators.EQUALS, "K3").size());
+	}
+
+	@Test
+	public void removedRowIsNotInRange() {
+		index.remove("Anić", 1);
+		SortedIndex.Range range = index.range(ComparisonOperators.EQUALS, "Anić");
+		Assert.assertEquals(1, range.size());
+		Assert.assertEquals(3, index.rowAt(range.getStart()));
+		Assert.assertEquals(5, index.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void removingRowWithWrongKey() {
+		index.remove("Horvat", 1);
+	}
+}
@@ -0,0 +1,222 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StudentColumnsTest {
+	private StudentColumns columns;
+
+	@Before
+	public void setUp() {
+		columns = new StudentColumns(Arrays.asList("0000000001\tKovač\tIvan\t3", "0000000002\tAnić\tPetra\t5",
+				"0000000003\tHorvat\tAna\t2", "0000000004\tAnić\tIvan\t4", "00000005\tBabić\tLuka\t1"));
+	}
+
+	@Test
+	public void rowsAndRecords() {
+		Assert.assertEquals(5, columns.size());
+		Assert.assertEquals(3, columns.rowOf("0000000004"));
+		Assert.assertEquals(-1, columns.rowOf("0000000009"));
+
+		StudentRecord record = columns.record(1);
+		Assert.assertEquals("0000000002", record.getJmbag());
+		Assert.assertEquals("Anić", record.getLastName());
+		Assert.assertEquals("Petra", record.getFirstName());
+		Assert.assertEquals(5, record.getFinalGrade());
+	}
+
+	@Test
+	public void valuesOfDictionaryColumnsAreShared() {
+		Assert.assertSame(columns.value(FieldValueGetters.LAST_NAME, 1),
+				columns.value(FieldValueGetters.LAST_NAME, 3));
+		Assert.assertEquals("4", columns.value(FieldValueGetters.FINAL_GRADE, 3));
+	}
+
+	@Test(expected = RuntimeException.class)
+	public void duplicateJmbag() {
+		columns.add("0000000003", "Perić", "Pero", 2);
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void invalidGrade() {
+		new StudentColumns(Arrays.asList("0000000001\tKovač\tIvan\tpet"));
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void gradeOutOfRange() {
+		columns.add("0000000010", "Perić", "Pero", 1000);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void recordOutOfBounds() {
+		columns.record(5);
+	}
+
+	@Test
+	public void growing() {
+		StudentColumns empty = new StudentColumns();
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertEquals(i, empty.add(Integer.toString(i), "L" + (i % 7), "F" + (i % 3), i % 5 + 1));
+		}
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertEquals(i, empty.rowOf(Integer.toString(i)));
+		}
+		Assert.assertEquals("L5", empty.record(999).getLastName());
+	}
+
+	@Test
+	public void evaluationMatchesRecords() {
+		IFieldValueGetter[] getters = { FieldValueGetters.JMBAG, FieldValueGetters.LAST_NAME,
+				FieldValueGetters.FIRST_NAME, FieldValueGetters.FINAL_GRADE, record -> record.getLastName() };
+		IComparisonOperator[] operators = { ComparisonOperators.EQUALS, ComparisonOperators.NOT_EQUALS,
+				ComparisonOperators.LESS, ComparisonOperators.LESS_OR_EQUALS, ComparisonOperators.GREATER,
+				ComparisonOperators.GREATER_OR_EQUALS, ComparisonOperators.LIKE };
+		String[] literals = { "0000000003", "00000005", "Anić", "Ivan", "3", "A*", "*3", "" };
+
+		for (IFieldValueGetter getter : getters) {
+			for (IComparisonOperator operator : operators) {
+				for (String literal : literals) {
+					ConditionalExpression condition = new ConditionalExpression(getter, literal, operator);
+					BitSet expected = new BitSet();
+					for (int row = 0; row < columns.size(); row++) {
+						if (operator.satisfied(getter.get(columns.record(row)), literal)) {
+							expected.set(row);
+						}
+					}
+					Assert.assertEquals(expected, columns.evaluate(condition));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void evaluateConjunction() {
+		List<ConditionalExpression> conditions = new ArrayList<>();
+		conditions.add(new ConditionalExpression(FieldValueGetters.FIRST_NAME, "Ivan", ComparisonOperators.EQUALS));
+		conditions.add(new ConditionalExpression(FieldValueGetters.FINAL_GRADE, "3", ComparisonOperators.GREATER));
+
+		BitSet result = columns.evaluate(conditions);
+		Assert.assertEquals(1, result.cardinality());
+		Assert.assertTrue(result.get(3));
+	}
+
+	@Test
+	public void evaluateEmptyConjunction() {
+		Assert.assertEquals(5, columns.evaluate(new ArrayList<>()).cardinality());
+	}
+
+	@Test
+	public void sortedRows() {
+		Assert.assertArrayEquals(new int[] { 1, 3, 4, 2, 0 }, columns.sortedRows(FieldValueGetters.LAST_NAME));
+		Assert.assertArrayEquals(new int[] { 2, 0, 3, 4, 1 }, columns.sortedRows(FieldValueGetters.FIRST_NAME));
+		Assert.assertArrayEquals(new int[] { 4, 2, 0, 3, 1 }, columns.sortedRows(FieldValueGetters.FINAL_GRADE));
+		Assert.assertNull(columns.sortedRows(FieldValueGetters.JMBAG));
+	}
+
+	@Test
+	public void parallelEvaluationMatchesRecords() {
+		StudentColumns large = new StudentColumns();
+		int rows = StudentColumns.PARALLEL_THRESHOLD + 1000;
+		for (int i = 0; i < rows; i++) {
+			large.add(String.format("%010d", i), "L" + (i * 7919 % 1000), "F" + (i % 13), i % 5 + 1);
+		}
+
+		List<ConditionalExpression> conditions = Arrays.asList(
+				new ConditionalExpression(FieldValueGetters.LAST_NAME, "L5*", ComparisonOperators.LIKE),
+				new ConditionalExpression(FieldValueGetters.FIRST_NAME, "F3", ComparisonOperators.GREATER),
+				new ConditionalExpression(FieldValueGetters.FINAL_GRADE, "2", ComparisonOperators.NOT_EQUALS),
+				new ConditionalExpression(FieldValueGetters.JMBAG, "0000050000", ComparisonOperators.LESS));
+		for (ConditionalExpression condition : conditions) {
+			BitSet expected = new BitSet();
+			for (int row = 0; row < rows; row++) {
+				StudentRecord record = large.record(row);
+				if (condition.getComparisonOperator().satisfied(condition.getFieldGetter().get(record),
+						condition.getStringLiteral())) {
+					expected.set(row);
+				}
+			}
+			Assert.assertEquals(expected, large.evaluate(condition));
+		}
+	}
+
+	@Test
+	public void updateRow() {
+		columns.update(0, "Perić", "Ana", 5);
+		StudentRecord record = columns.record(0);
+		Assert.assertEquals("Perić", record.getLastName());
+		Assert.assertEquals("Ana", record.getFirstName());
+		Assert.assertEquals(5, record.getFinalGrade());
+		Assert.assertEquals(0, columns.rowOf("0000000001"));
+		Assert.assertEquals(BitSet.valueOf(new long[] { 0b00001 }), columns.evaluate(
+				new ConditionalExpression(FieldValueGetters.LAST_NAME, "Perić", ComparisonOperators.EQUALS)));
+	}
+
+	@Test
+	public void deletedRowIsNotFoundOrEvaluated() {
+		columns.delete(1);
+		Assert.assertTrue(columns.isDeleted(1));
+		Assert.assertEquals(5, columns.size());
+		Assert.assertEquals(4, columns.recordCount());
+		Assert.assertEquals(-1, columns.rowOf("0000000002"));
+		Assert.assertEquals(3, columns.rowOf("0000000004"));
+		Assert.assertEquals(BitSet.valueOf(new long[] { 0b01000 }), columns.evaluate(
+				new ConditionalExpression(FieldValueGetters.LAST_NAME, "Anić", ComparisonOperators.EQUALS)));
+		Assert.assertEquals(BitSet.valueOf(new long[] { 0b11101 }), columns.liveRows());
+		Assert.assertEquals(BitSet.valueOf(new long[] { 0b11101 }), columns.evaluate(new ArrayList<>()));
+
+		Assert.assertEquals(5, columns.add("0000000002", "Novak", "Iva", 2));
+		Assert.assertEquals(5, columns.rowOf("0000000002"));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void deletingDeletedRow() {
+		columns.delete(1);
+		columns.delete(1);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void updatingDeletedRow() {
+		columns.delete(1);
+		columns.update(1, "Perić", "Ana", 5);
+	}
+
+	@Test
+	public void hashTableAfterManyDeletions() {
+		StudentColumns many = new StudentColumns();
+		for (int i = 0; i < 2000; i++) {
+			many.add(Integer.toString(i * 7919), "L", "F", 1);
+		}
+		Random random = new Random(42);
+		BitSet deleted = new BitSet();
+		for (int i = 0; i < 1000; i++) {
+			int row = random.nextInt(2000);
+			if (!deleted.get(row)) {
+				many.delete(row);
+				deleted.set(row);
+			}
+		}
+		for (int row = 0; row < 2000; row++) {
+			Assert.assertEquals(deleted.get(row) ? -1 : row, many.rowOf(Integer.toString(row * 7919)));
+		}
+	}
+
+	@Test
+	public void compact() {
+		columns.delete(0);
+		columns.delete(3);
+		StudentColumns compacted = columns.compact();
+		Assert.assertEquals(3, compacted.size());
+		Assert.assertEquals(3, compacted.recordCount());
+		Assert.assertEquals(0, compacted.rowOf("0000000002"));
+		Assert.assertEquals(2, compacted.rowOf("00000005"));
+		Assert.assertEquals(-1, compacted.rowOf("0000000001"));
+		Assert.assertEquals("Babić", compacted.record(2).getLastName());
+	}
+}
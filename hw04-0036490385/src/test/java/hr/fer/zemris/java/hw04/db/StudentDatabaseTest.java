@@ -5,7 +5,11 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -37,4 +41,127 @@ public class StudentDatabaseTest {
 	public void filterNotAcceptingAnything() {
 		assertEquals(63, database.filter(record -> true).size());
 	}
+
+	@Test
+	public void queryUsingIndexMatchesFilter() {
+		IComparisonOperator[] operators = { ComparisonOperators.EQUALS, ComparisonOperators.LESS,
+				ComparisonOperators.LESS_OR_EQUALS, ComparisonOperators.GREATER,
+				ComparisonOperators.GREATER_OR_EQUALS };
+		for (IComparisonOperator operator : operators) {
+			assertQueryMatchesFilter(
+					Arrays.asList(new ConditionalExpression(FieldValueGetters.LAST_NAME, "Kos-Grabar", operator)));
+			assertQueryMatchesFilter(
+					Arrays.asList(new ConditionalExpression(FieldValueGetters.FIRST_NAME, "Marin", operator)));
+			assertQueryMatchesFilter(
+					Arrays.asList(new ConditionalExpression(FieldValueGetters.FINAL_GRADE, "3", operator)));
+		}
+	}
+
+	@Test
+	public void queryUsingPrefixLike() {
+		List<ConditionalExpression> conditions = Arrays
+				.asList(new ConditionalExpression(FieldValueGetters.LAST_NAME, "B*", ComparisonOperators.LIKE));
+		List<StudentRecord> result = database.query(conditions);
+		assertEquals(4, result.size());
+		assertQueryMatchesFilter(conditions);
+	}
+
+	@Test
+	public void queryWithMultipleConditions() {
+		List<ConditionalExpression> conditions = new ArrayList<>();
+		conditions.add(new ConditionalExpression(FieldValueGetters.LAST_NAME, "K", ComparisonOperators.GREATER));
+		conditions.add(new ConditionalExpression(FieldValueGetters.FINAL_GRADE, "5", ComparisonOperators.EQUALS));
+		conditions.add(new ConditionalExpression(FieldValueGetters.FIRST_NAME, "*a", ComparisonOperators.LIKE));
+		assertQueryMatchesFilter(conditions);
+	}
+
+	@Test
+	public void queryWithoutIndexableCondition() {
+		List<ConditionalExpression> conditions = new ArrayList<>();
+		conditions.add(new ConditionalExpression(FieldValueGetters.JMBAG, "0000000010", ComparisonOperators.LESS));
+		conditions.add(
+				new ConditionalExpression(FieldValueGetters.LAST_NAME, "Bosnić", ComparisonOperators.NOT_EQUALS));
+		assertQueryMatchesFilter(conditions);
+	}
+
+	private void assertQueryMatchesFilter(List<ConditionalExpression> conditions) {
+		assertEquals(database.filter(new QueryFilter(conditions)), database.query(conditions));
+	}
+
+	@Test
+	public void executeWithOrAndNot() {
+		assertExecuteMatchesFilter("lastName LIKE \"B*\" or not (finalGrade >= \"3\" and firstName != \"Marin\")");
+		assertExecuteMatchesFilter("not jmbag < \"0000000050\" or jmbag = \"0000000003\"");
+	}
+
+	@Test
+	public void executeWithOrderBy() {
+		assertExecuteMatchesFilter("finalGrade > \"2\" order by lastName");
+		assertExecuteMatchesFilter("finalGrade > \"2\" order by firstName desc");
+		assertExecuteMatchesFilter("order by finalGrade desc");
+		assertExecuteMatchesFilter("lastName < \"M\" or finalGrade = \"5\" order by jmbag desc");
+	}
+
+	@Test
+	public void executeWithLimit() {
+		assertExecuteMatchesFilter("finalGrade = \"5\" limit 3");
+		assertExecuteMatchesFilter("finalGrade = \"5\" order by lastName desc limit 3");
+		assertExecuteMatchesFilter("order by finalGrade limit 10");
+		assertExecuteMatchesFilter("order by jmbag desc limit 1000");
+		assertExecuteMatchesFilter("lastName LIKE \"B*\" limit 0");
+		assertEquals(3, database.execute(new QueryParser("limit 3").getParsedQuery()).size());
+	}
+
+	@Test
+	public void countQuery() {
+		assertEquals(63, database.count(new QueryParser("count").getParsedQuery()));
+		assertEquals(4, database.count(new QueryParser("count lastName LIKE \"B*\"").getParsedQuery()));
+		assertEquals(59, database.count(new QueryParser("COUNT not lastName LIKE \"B*\"").getParsedQuery()));
+		assertEquals(2, database.count(new QueryParser("count lastName LIKE \"B*\" limit 2").getParsedQuery()));
+	}
+
+	private void assertExecuteMatchesFilter(String text) {
+		Query query = new QueryParser(text).getParsedQuery();
+		List<StudentRecord> expected = database
+				.filter(query.getCondition() == null ? record -> true : query.getCondition());
+		if (query.getOrderBy() != null) {
+			Comparator<StudentRecord> order = Comparator.comparing(query.getOrderBy()::get);
+			expected.sort(query.isDescending() ? order.reversed() : order);
+		}
+		if (query.getLimit() != Query.NO_LIMIT) {
+			expected = expected.stream().limit(query.getLimit()).collect(Collectors.toList());
+		}
+
+		List<StudentRecord> actual = database.execute(query);
+		assertEquals(jmbags(expected), jmbags(actual));
+	}
+
+	private List<String> jmbags(List<StudentRecord> records) {
+		return records.stream().map(StudentRecord::getJmbag).collect(Collectors.toList());
+	}
+
+	@Test
+	public void queriesAfterChanges() throws IOException {
+		database.insert(new StudentRecord("1000000000", "Bosnić", "Marin", 5));
+		database.update(new StudentRecord("0000000003", "Kos-Grabar", "Ana", 1));
+		database.delete("0000000010");
+		database.delete("0000000020");
+		database.update(new StudentRecord("0000000001", "Akšamović", "Marin", 5));
+
+		assertEquals(62, database.filter(record -> true).size());
+		assertEquals("Bosnić", database.forJMBAG("1000000000").getLastName());
+		assertEquals(null, database.forJMBAG("0000000010"));
+		queryUsingIndexMatchesFilter();
+		queryWithMultipleConditions();
+		assertExecuteMatchesFilter("not lastName = \"Bosnić\" order by firstName desc");
+		assertExecuteMatchesFilter("order by lastName limit 5");
+		assertExecuteMatchesFilter("order by jmbag desc limit 5");
+		assertExecuteMatchesFilter("finalGrade = \"5\" limit 3");
+		assertEquals(62, database.count(new QueryParser("count").getParsedQuery()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void insertingExistingJmbag() throws IOException {
+		database.insert(new StudentRecord("0000000001", "Bosnić", "Marin", 5));
+	}
 }
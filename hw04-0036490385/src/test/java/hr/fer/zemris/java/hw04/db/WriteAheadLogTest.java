@@ -0,0 +1,230 @@
+package hr.fer.zemris.java.hw04.db;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class WriteAheadLogTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path file;
+	private Path snapshot;
+	private Path log;
+
+	@Before
+	public void setUp() throws IOException {
+		file = folder.newFile("database.txt").toPath();
+		Files.write(file, ("0000000001\tKovač\tIvan\t3\n0000000002\tAnić\tPetra\t5\n0000000003\tHorvat\tAna\t2\n")
+				.getBytes(StandardCharsets.UTF_8));
+		snapshot = folder.getRoot().toPath().resolve("database.snapshot");
+		log = folder.getRoot().toPath().resolve("database.log");
+	}
+
+	@Test
+	public void changesAreRecoveredFromTheLog() throws IOException {
+		StudentDatabase database = DatabaseLoader.open(file, snapshot, log);
+		applyChanges(database);
+		List<String> expected = all(database);
+
+		StudentDatabase recovered = DatabaseLoader.open(file, snapshot, log);
+		Assert.assertEquals(expected, all(recovered));
+		Assert.assertNull(recovered.forJMBAG("0000000003"));
+		Assert.assertEquals("Perić", recovered.forJMBAG("0000000001").getLastName());
+		Assert.assertEquals(1, recovered.query(conditions("lastName", "Perić")).size());
+		Assert.assertEquals(0, recovered.query(conditions("lastName", "Kovač")).size());
+	}
+
+	@Test
+	public void checkpointWritesTheSnapshotAndClearsTheLog() throws IOException {
+		StudentDatabase database = DatabaseLoader.open(file, snapshot, log);
+		applyChanges(database);
+		Assert.assertTrue(Files.size(log) > 0);
+		database.checkpoint();
+		Assert.assertEquals(0, Files.size(log));
+
+		StudentColumns columns = StudentColumns.readSnapshot(snapshot);
+		Assert.assertEquals(3, columns.size());
+		Assert.assertEquals(all(database), all(DatabaseLoader.open(file, snapshot, log)));
+	}
+
+	@Test
+	public void replayingAfterCheckpointIsIdempotent() throws IOException {
+		StudentDatabase database = DatabaseLoader.open(file, snapshot, log);
+		applyChanges(database);
+		byte[] entries = Files.readAllBytes(log);
+		database.checkpoint();
+
+		// a crash after the snapshot was replaced, but before the log was
+		// cleared
+		Files.write(log, entries);
+		Assert.assertEquals(all(database), all(DatabaseLoader.open(file, snapshot, log)));
+	}
+
+	@Test
+	public void incompleteEntryIsRemoved() throws IOException {
+		StudentDatabase database = DatabaseLoader.open(file, snapshot, log);
+		database.insert(new StudentRecord("0000000004", "Babić", "Luka", 1));
+		long size = Files.size(log);
+		database.insert(new StudentRecord("0000000005", "Novak", "Iva", 4));
+		try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+			channel.truncate(Files.size(log) - 3);
+		}
+
+		StudentDatabase recovered = DatabaseLoader.open(file, snapshot, log);
+		Assert.assertNotNull(recovered.forJMBAG("0000000004"));
+		Assert.assertNull(recovered.forJMBAG("0000000005"));
+		Assert.assertEquals(size, Files.size(log));
+	}
+
+	@Test
+	public void corruptedEntryIsRemoved() throws IOException {
+		StudentDatabase database = DatabaseLoader.open(file, snapshot, log);
+		database.insert(new StudentRecord("0000000004", "Babić", "Luka", 1));
+		long size = Files.size(log);
+		database.insert(new StudentRecord("0000000005", "Novak", "Iva", 4));
+		byte[] bytes = Files.readAllBytes(log);
+		bytes[bytes.length - 2] ^= 1;
+		Files.write(log, bytes);
+
+		StudentDatabase recovered = DatabaseLoader.open(file, snapshot, log);
+		Assert.assertNull(recovered.forJMBAG("0000000005"));
+		Assert.assertEquals(size, Files.size(log));
+	}
+
+	@Test
+	public void failedEntryIsRemoved() throws IOException {
+		FailingLog failingLog = new FailingLog(log, snapshot);
+		StudentDatabase database = DatabaseLoader.load(file);
+		database.attachLog(failingLog);
+		database.insert(new StudentRecord("0000000004", "Babić", "Luka", 1));
+		long size = Files.size(log);
+
+		failingLog.failNext = true;
+		try {
+			database.insert(new StudentRecord("0000000005", "Novak", "Iva", 4));
+			Assert.fail("The write should fail.");
+		} catch (IOException expected) {
+		}
+		Assert.assertNull(database.forJMBAG("0000000005"));
+		Assert.assertEquals(size, Files.size(log));
+
+		database.insert(new StudentRecord("0000000006", "Perić", "Ana", 5));
+		Assert.assertTrue(database.delete("0000000001"));
+		failingLog.close();
+
+		StudentDatabase recovered = DatabaseLoader.open(file, snapshot, log);
+		Assert.assertEquals(all(database), all(recovered));
+		Assert.assertNotNull(recovered.forJMBAG("0000000004"));
+		Assert.assertNull(recovered.forJMBAG("0000000005"));
+		Assert.assertNotNull(recovered.forJMBAG("0000000006"));
+		Assert.assertNull(recovered.forJMBAG("0000000001"));
+	}
+
+	@Test
+	public void automaticCheckpoint() throws IOException {
+		StudentDatabase database = DatabaseLoader.load(file);
+		database.attachLog(new WriteAheadLog(log, snapshot, false, 100));
+		for (int i = 10; i < 30; i++) {
+			database.insert(new StudentRecord("00000000" + i, "Novak", "Iva", 4));
+		}
+		Assert.assertTrue(Files.size(log) < 100);
+		Assert.assertEquals(all(database), all(DatabaseLoader.open(file, snapshot, log)));
+	}
+
+	@Test
+	public void failedCheckpointKeepsTheChange() throws IOException {
+		StudentDatabase database = DatabaseLoader.load(file);
+		database.attachLog(new WriteAheadLog(log, snapshot, false, 1));
+		// the snapshot can not be written while its temporary file is blocked
+		Path blocker = Files.createDirectory(snapshot.resolveSibling("database.snapshot.tmp"));
+		Files.createFile(blocker.resolve("file"));
+
+		try {
+			database.insert(new StudentRecord("0000000004", "Babić", "Luka", 1));
+			Assert.fail("The checkpoint should fail.");
+		} catch (CheckpointException expected) {
+		}
+		Assert.assertNotNull(database.forJMBAG("0000000004"));
+		Assert.assertTrue(Files.size(log) > 0);
+
+		Files.delete(blocker.resolve("file"));
+		Files.delete(blocker);
+		Assert.assertEquals(all(database), all(DatabaseLoader.open(file, snapshot, log)));
+	}
+
+	@Test
+	public void failedChangesAreNotLogged() throws IOException {
+		StudentDatabase database = DatabaseLoader.open(file, snapshot, log);
+		try {
+			database.insert(new StudentRecord("0000000001", "Babić", "Luka", 1));
+			Assert.fail();
+		} catch (IllegalArgumentException expected) {
+		}
+		try {
+			database.insert(new StudentRecord("0000000004", "Babić", "Luka", 1000));
+			Assert.fail();
+		} catch (IllegalArgumentException expected) {
+		}
+		Assert.assertFalse(database.update(new StudentRecord("0000000009", "Babić", "Luka", 1)));
+		Assert.assertFalse(database.delete("0000000009"));
+		Assert.assertEquals(0, Files.size(log));
+	}
+
+	/**
+	 * A log whose next entry can be made to fail after only a part of it is
+	 * written, as when the disk becomes full.
+	 */
+	private static class FailingLog extends WriteAheadLog {
+		/** Whether the next entry fails. **/
+		private boolean failNext;
+
+		private FailingLog(Path file, Path snapshot) throws IOException {
+			super(file, snapshot);
+		}
+
+		@Override
+		void writeEntry(ByteBuffer buffer) throws IOException {
+			if (failNext) {
+				failNext = false;
+				buffer.limit(buffer.position() + buffer.remaining() / 2);
+				super.writeEntry(buffer);
+				throw new IOException("No space left on device");
+			}
+			super.writeEntry(buffer);
+		}
+	}
+
+	private static void applyChanges(StudentDatabase database) throws IOException {
+		database.insert(new StudentRecord("0000000004", "Babić", "Luka", 1));
+		Assert.assertTrue(database.update(new StudentRecord("0000000001", "Perić", "Ivan", 4)));
+		Assert.assertTrue(database.delete("0000000002"));
+		database.insert(new StudentRecord("0000000002", "Anić", "Petra", 3));
+		Assert.assertTrue(database.delete("0000000003"));
+	}
+
+	private static List<String> all(StudentDatabase database) {
+		List<String> records = new ArrayList<>();
+		for (StudentRecord record : database.filter(record -> true)) {
+			records.add(record.getJmbag() + "\t" + record.getLastName() + "\t" + record.getFirstName() + "\t"
+					+ record.getFinalGrade());
+		}
+		return records;
+	}
+
+	private static List<ConditionalExpression> conditions(String attribute, String value) {
+		return new QueryParser(attribute + " = \"" + value + "\"").getQuery();
+	}
+}
@@ -0,0 +1,76 @@
+package hr.fer.zemris.java.hw04.db.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates database rows in the format of <code>database.txt</code> for the
+ * benchmarks. The rows are generated from a fixed seed, so the same number of
+ * rows always gives the same database. Last names are built from syllables, so
+ * there are a few thousand distinct last names, while first names are taken
+ * from a small fixed list.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class GeneratedDatabase {
+	/** Syllables used for building last names. **/
+	private static final String[] SYLLABLES = { "ba", "bo", "ci", "da", "ga", "ho", "ja", "ko", "la", "li", "ma",
+			"mi", "na", "no", "pe", "ra", "ri", "sa", "se", "ta", "to", "va", "vi", "za", "zo" };
+	/** Suffixes of last names. **/
+	private static final String[] SUFFIXES = { "ić", "ović", "ević", "ar", "ec" };
+	/** First names. **/
+	private static final String[] FIRST_NAMES = { "Ana", "Andrea", "Ante", "Borna", "Dario", "Ema", "Filip", "Hrvoje",
+			"Iva", "Ivan", "Josip", "Karla", "Lana", "Lovro", "Luka", "Maja", "Marin", "Marko", "Mia", "Nika",
+			"Petar", "Petra", "Sara", "Tomislav", "Vedran" };
+
+	/**
+	 * Generates the specified number of rows. Columns are separated by tabs.
+	 *
+	 * @param count
+	 *            number of rows
+	 * @return generated rows
+	 */
+	public static List<String> rows(int count) {
+		Random random = new Random(42);
+		String[] lastNames = lastNames(random);
+
+		List<String> rows = new ArrayList<>(count);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 1; i <= count; i++) {
+			sb.setLength(0);
+			String jmbag = Integer.toString(i);
+			for (int j = jmbag.length(); j < 10; j++) {
+				sb.append('0');
+			}
+			sb.append(jmbag).append('\t');
+			sb.append(lastNames[random.nextInt(lastNames.length)]).append('\t');
+			sb.append(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]).append('\t');
+			sb.append(1 + random.nextInt(5));
+			rows.add(sb.toString());
+		}
+		return rows;
+	}
+
+	/**
+	 * Builds all last names from two syllables and a suffix.
+	 *
+	 * @param random
+	 *            random number generator used for shuffling the names
+	 * @return last names
+	 */
+	private static String[] lastNames(Random random) {
+		List<String> names = new ArrayList<>();
+		for (String first : SYLLABLES) {
+			for (String second : SYLLABLES) {
+				for (String suffix : SUFFIXES) {
+					names.add(Character.toUpperCase(first.charAt(0)) + first.substring(1) + second + suffix);
+				}
+			}
+		}
+		Collections.shuffle(names, random);
+		return names.toArray(new String[names.size()]);
+	}
+}
@@ -0,0 +1,94 @@
+package hr.fer.zemris.java.hw04.db.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw04.db.ConditionalExpression;
+import hr.fer.zemris.java.hw04.db.QueryFilter;
+import hr.fer.zemris.java.hw04.db.QueryParser;
+import hr.fer.zemris.java.hw04.db.StudentDatabase;
+import hr.fer.zemris.java.hw04.db.StudentRecord;
+
+/**
+ * Compares answering a query using the secondary indexes with scanning the
+ * columns of the whole database using a {@link QueryFilter}, and with
+ * scanning the whole database record by record using an arbitrary filter. The database is generated by
+ * {@link GeneratedDatabase}; the number of rows can be lowered with
+ * <code>-p rows=...</code> on machines with less memory.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class IndexBenchmark {
+	/** Number of rows in the database. **/
+	@Param({ "10000000" })
+	public int rows;
+	/** The query, without the leading "query" keyword. **/
+	@Param({ "lastName = \"Kobabar\"", "lastName LIKE \"Ko*\"", "firstName < \"B\"",
+			"finalGrade = \"5\" and lastName LIKE \"Za*\"", "lastName LIKE \"*ić\"" })
+	public String query;
+
+	/** The database. **/
+	private StudentDatabase database;
+	/** Conditions of the query. **/
+	private List<ConditionalExpression> conditions;
+
+	/**
+	 * Generates the database and parses the query.
+	 */
+	@Setup
+	public void setup() {
+		database = new StudentDatabase(GeneratedDatabase.rows(rows));
+		conditions = new QueryParser(query).getQuery();
+	}
+
+	/**
+	 * Answers the query using the secondary indexes.
+	 *
+	 * @return records that satisfy the query
+	 */
+	@Benchmark
+	public List<StudentRecord> indexed() {
+		return database.query(conditions);
+	}
+
+	/**
+	 * Answers the query by evaluating it on the columns of the whole database.
+	 *
+	 * @return records that satisfy the query
+	 */
+	@Benchmark
+	public List<StudentRecord> fullScan() {
+		return database.filter(new QueryFilter(conditions));
+	}
+
+	/**
+	 * Answers the query by checking every record of the database with a
+	 * filter that is not a {@link QueryFilter}.
+	 *
+	 * @return records that satisfy the query
+	 */
+	@Benchmark
+	public List<StudentRecord> recordScan() {
+		QueryFilter filter = new QueryFilter(conditions);
+		return database.filter(record -> filter.accepts(record));
+	}
+}
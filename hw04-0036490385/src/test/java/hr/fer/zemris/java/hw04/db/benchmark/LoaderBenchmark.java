@@ -0,0 +1,123 @@
+package hr.fer.zemris.java.hw04.db.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw04.db.DatabaseLoader;
+import hr.fer.zemris.java.hw04.db.StudentColumns;
+import hr.fer.zemris.java.hw04.db.StudentDatabase;
+
+/**
+ * Compares loading a database by reading all lines of the file with the memory
+ * mapped parallel loader and with reading a binary snapshot.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LoaderBenchmark {
+	/** Number of rows in the database. **/
+	@Param({ "10000000" })
+	public int rows;
+
+	/** The database file. **/
+	private Path file;
+	/** The snapshot file. **/
+	private Path snapshot;
+
+	/**
+	 * Writes the generated database and its snapshot into temporary files.
+	 *
+	 * @throws IOException
+	 *             if the files can not be written
+	 */
+	@Setup
+	public void setup() throws IOException {
+		file = Files.createTempFile("database", ".txt");
+		Files.write(file, GeneratedDatabase.rows(rows), StandardCharsets.UTF_8);
+		snapshot = Files.createTempFile("database", ".snapshot");
+		DatabaseLoader.loadColumns(file).writeSnapshot(snapshot);
+	}
+
+	/**
+	 * Deletes the temporary files.
+	 *
+	 * @throws IOException
+	 *             if the files can not be deleted
+	 */
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+		Files.deleteIfExists(snapshot);
+	}
+
+	/**
+	 * Reads all lines of the file and splits them.
+	 *
+	 * @return the loaded columns
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	@Benchmark
+	public StudentColumns readAllLines() throws IOException {
+		return new StudentColumns(Files.readAllLines(file, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Loads the file using the memory mapped parallel loader.
+	 *
+	 * @return the loaded columns
+	 * @throws IOException
+	 *             if the file can not be read
+	 */
+	@Benchmark
+	public StudentColumns mapped() throws IOException {
+		return DatabaseLoader.loadColumns(file);
+	}
+
+	/**
+	 * Reads the binary snapshot.
+	 *
+	 * @return the loaded columns
+	 * @throws IOException
+	 *             if the snapshot can not be read
+	 */
+	@Benchmark
+	public StudentColumns snapshot() throws IOException {
+		return StudentColumns.readSnapshot(snapshot);
+	}
+
+	/**
+	 * Reads the binary snapshot and builds the secondary indexes, i.e. does
+	 * everything that is needed for a restart.
+	 *
+	 * @return the loaded database
+	 * @throws IOException
+	 *             if the snapshot can not be read
+	 */
+	@Benchmark
+	public StudentDatabase snapshotWithIndexes() throws IOException {
+		return new StudentDatabase(StudentColumns.readSnapshot(snapshot));
+	}
+}
@@ -0,0 +1,105 @@
+package hr.fer.zemris.java.hw04.db.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw04.db.IFilter;
+import hr.fer.zemris.java.hw04.db.QueryCompiler;
+import hr.fer.zemris.java.hw04.db.QueryFilter;
+import hr.fer.zemris.java.hw04.db.QueryParser;
+import hr.fer.zemris.java.hw04.db.StudentRecord;
+
+/**
+ * Compares checking every record of a list with a {@link QueryFilter} and with
+ * a filter compiled by {@link QueryCompiler}.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredicateBenchmark {
+	/** Number of records. **/
+	@Param({ "1000000" })
+	public int rows;
+	/** The query, without the leading "query" keyword. **/
+	@Param({ "lastName LIKE \"Ko*\"", "firstName LIKE \"*a\" and finalGrade = \"5\"",
+			"lastName != \"Kobabar\" and firstName > \"M\" and jmbag = \"0000000100\"" })
+	public String query;
+
+	/** The records. **/
+	private List<StudentRecord> records;
+	/** Filter which interprets the conditions. **/
+	private QueryFilter queryFilter;
+	/** Compiled filter. **/
+	private IFilter compiled;
+
+	/**
+	 * Generates the records and prepares the filters.
+	 */
+	@Setup
+	public void setup() {
+		records = new ArrayList<>(rows);
+		for (String row : GeneratedDatabase.rows(rows)) {
+			String[] attributes = row.split("\t");
+			records.add(new StudentRecord(attributes[0], attributes[1], attributes[2],
+					Integer.parseInt(attributes[3])));
+		}
+		queryFilter = new QueryFilter(new QueryParser(query).getQuery());
+		compiled = QueryCompiler.compile(new QueryParser(query).getQuery());
+	}
+
+	/**
+	 * Counts the records accepted by the QueryFilter.
+	 *
+	 * @return number of accepted records
+	 */
+	@Benchmark
+	public int queryFilter() {
+		return count(queryFilter);
+	}
+
+	/**
+	 * Counts the records accepted by the compiled filter.
+	 *
+	 * @return number of accepted records
+	 */
+	@Benchmark
+	public int compiled() {
+		return count(compiled);
+	}
+
+	/**
+	 * Counts the records accepted by the specified filter.
+	 *
+	 * @param filter
+	 *            the filter
+	 * @return number of accepted records
+	 */
+	private int count(IFilter filter) {
+		int count = 0;
+		for (StudentRecord record : records) {
+			if (filter.accepts(record)) {
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,85 @@
+package hr.fer.zemris.java.hw04.db.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw04.db.Query;
+import hr.fer.zemris.java.hw04.db.QueryParser;
+import hr.fer.zemris.java.hw04.db.StudentDatabase;
+import hr.fer.zemris.java.hw04.db.StudentRecord;
+
+/**
+ * Compares the execution of queries with a limit against selecting all the
+ * records of the same query without the limit and keeping only the first
+ * ones, which is how such a query would be answered without the support for
+ * the limit in the executor.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+	/** Number of rows in the database. **/
+	@Param({ "10000000" })
+	public int rows;
+	/** The query, without the leading "query" keyword. **/
+	@Param({ "finalGrade > \"2\" limit 10", "finalGrade > \"2\" order by lastName limit 10",
+			"finalGrade > \"2\" order by jmbag desc limit 10" })
+	public String query;
+
+	/** The generated database. **/
+	private StudentDatabase database;
+	/** The parsed query. **/
+	private Query limited;
+	/** The parsed query without the limit. **/
+	private Query unlimited;
+
+	/**
+	 * Generates the database and parses the query.
+	 */
+	@Setup
+	public void setup() {
+		database = new StudentDatabase(GeneratedDatabase.rows(rows));
+		limited = new QueryParser(query).getParsedQuery();
+		unlimited = new Query(limited.getCondition(), limited.getOrderBy(), limited.isDescending(), Query.NO_LIMIT,
+				false);
+	}
+
+	/**
+	 * Executes the query with the limit.
+	 *
+	 * @return the selected records
+	 */
+	@Benchmark
+	public List<StudentRecord> limited() {
+		return database.execute(limited);
+	}
+
+	/**
+	 * Selects all the records of the query and keeps only the first ones.
+	 *
+	 * @return the selected records
+	 */
+	@Benchmark
+	public List<StudentRecord> unlimited() {
+		List<StudentRecord> records = database.execute(unlimited);
+		return records.subList(0, Math.min(records.size(), limited.getLimit()));
+	}
+}
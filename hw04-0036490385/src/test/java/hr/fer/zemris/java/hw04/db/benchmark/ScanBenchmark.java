@@ -0,0 +1,73 @@
+package hr.fer.zemris.java.hw04.db.benchmark;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw04.db.ConditionalExpression;
+import hr.fer.zemris.java.hw04.db.QueryParser;
+import hr.fer.zemris.java.hw04.db.StudentColumns;
+import hr.fer.zemris.java.hw04.db.StudentDatabase;
+
+/**
+ * Measures the scan of the columns alone, i.e. evaluating a query into a
+ * bitmap without creating any records. Large columns are scanned in parallel
+ * on the common fork join pool, so the scaling with the number of cores can be
+ * measured by adding
+ * <code>-jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=N</code>
+ * to the JMH arguments.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ScanBenchmark {
+	/** Number of rows in the database. **/
+	@Param({ "10000000" })
+	public int rows;
+	/** The query, without the leading "query" keyword. **/
+	@Param({ "lastName LIKE \"*ar\"", "finalGrade > \"3\"", "jmbag > \"0005000000\"",
+			"firstName < \"M\" and finalGrade != \"1\"" })
+	public String query;
+
+	/** Columns of the database. **/
+	private StudentColumns columns;
+	/** Conditions of the query. **/
+	private List<ConditionalExpression> conditions;
+
+	/**
+	 * Generates the database and parses the query.
+	 */
+	@Setup
+	public void setup() {
+		columns = new StudentDatabase(GeneratedDatabase.rows(rows)).getColumns();
+		conditions = new QueryParser(query).getQuery();
+	}
+
+	/**
+	 * Evaluates the query on the columns.
+	 *
+	 * @return bitmap of the rows that satisfy the query
+	 */
+	@Benchmark
+	public BitSet scan() {
+		return columns.evaluate(conditions);
+	}
+}
@@ -0,0 +1,136 @@
+package hr.fer.zemris.java.hw04.db.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw04.db.StudentColumns;
+import hr.fer.zemris.java.hw04.db.StudentDatabase;
+import hr.fer.zemris.java.hw04.db.StudentRecord;
+import hr.fer.zemris.java.hw04.db.WriteAheadLog;
+
+/**
+ * Measures a change of a single record, which maintains the jmbag hash table
+ * and the secondary indexes incrementally, with and without writing it to a
+ * write-ahead log, against rebuilding the indexes of the whole database, which
+ * is what reloading the database after a change would at least cost.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class WriteBenchmark {
+	/** Number of rows in the database. **/
+	@Param({ "1000000" })
+	public int rows;
+
+	/** The database without a log. **/
+	private StudentDatabase database;
+	/** The database with a log. **/
+	private StudentDatabase loggedDatabase;
+	/** Columns of the database. **/
+	private StudentColumns columns;
+	/** The log file. **/
+	private Path log;
+	/** The snapshot file. **/
+	private Path snapshot;
+	/** Number of changes made so far. **/
+	private int changes;
+
+	/**
+	 * Generates the databases and opens the log.
+	 *
+	 * @throws IOException
+	 *             if the log can not be opened
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		database = new StudentDatabase(GeneratedDatabase.rows(rows));
+		loggedDatabase = new StudentDatabase(GeneratedDatabase.rows(rows));
+		columns = database.getColumns();
+		log = Files.createTempFile("database", ".log");
+		snapshot = Files.createTempFile("database", ".snapshot");
+		loggedDatabase.attachLog(new WriteAheadLog(log, snapshot, false, Long.MAX_VALUE));
+	}
+
+	/**
+	 * Deletes the temporary files.
+	 *
+	 * @throws IOException
+	 *             if the files can not be deleted
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(log);
+		Files.deleteIfExists(snapshot);
+	}
+
+	/**
+	 * Creates the next changed record. The records are changed in a
+	 * pseudorandom order, and every change moves the record to another place
+	 * in every index.
+	 *
+	 * @return the changed record
+	 */
+	private StudentRecord nextRecord() {
+		int i = changes++;
+		int row = (int) ((i * 2654435761L) % rows);
+		String jmbag = String.format("%010d", row + 1);
+		return new StudentRecord(jmbag, "Changed" + (i % 100), "Name" + (i % 10), 1 + i % 5);
+	}
+
+	/**
+	 * Changes a record in the database without a log.
+	 *
+	 * @return true if the record was changed
+	 * @throws IOException
+	 *             never
+	 */
+	@Benchmark
+	public boolean update() throws IOException {
+		return database.update(nextRecord());
+	}
+
+	/**
+	 * Changes a record in the database with a log which is not forced to the
+	 * storage device.
+	 *
+	 * @return true if the record was changed
+	 * @throws IOException
+	 *             if the log can not be written
+	 */
+	@Benchmark
+	public boolean updateLogged() throws IOException {
+		return loggedDatabase.update(nextRecord());
+	}
+
+	/**
+	 * Builds the indexes of the whole database again.
+	 *
+	 * @return the database with new indexes
+	 */
+	@Benchmark
+	public StudentDatabase rebuild() {
+		return new StudentDatabase(columns);
+	}
+}
@@ -7,7 +7,9 @@ import java.util.NoSuchElementException;
  * This is a collection of prime numbers. It does not contain methods for adding
  * or removing numbers from collection. The only way this collection can be used
  * is through an iterator which returns the first prime number, then the second,
- * the third,etc.*
+ * the third,etc.* The primes are generated by a {@link PrimeSieve}, which is
+ * shared by all the iterators of the collection, so every prime is generated
+ * only once.
  *
  * @author Alen Magdić
  *
@@ -15,6 +17,8 @@ import java.util.NoSuchElementException;
 public class PrimesCollection implements Iterable<Integer> {
 	/** Number of prime numbers that this collection should return. **/
 	private int numberOfPrimes;
+	/** Sieve which generates the primes. **/
+	private PrimeSieve sieve;
 
 	/**
 	 * Constructor.
@@ -23,7 +27,27 @@ public class PrimesCollection implements Iterable<Integer> {
 	 *            number of prime numbers that the collection should return
 	 */
 	public PrimesCollection(int numberOfPrimes) {
+		this(numberOfPrimes, new PrimeSieve());
+	}
+
+	/**
+	 * Constructor which accepts the sieve that generates the primes, so the
+	 * same sieve can be shared by several collections.
+	 *
+	 * @param numberOfPrimes
+	 *            number of prime numbers that the collection should return
+	 * @param sieve
+	 *            sieve which generates the primes
+	 */
+	public PrimesCollection(int numberOfPrimes, PrimeSieve sieve) {
+		if (numberOfPrimes < 0) {
+			throw new IllegalArgumentException("Number of primes must not be negative.");
+		}
+		if (sieve == null) {
+			throw new IllegalArgumentException("Sieve must not be null.");
+		}
 		this.numberOfPrimes = numberOfPrimes;
+		this.sieve = sieve;
 	}
 
 	@Override
@@ -40,6 +64,10 @@ public class PrimesCollection implements Iterable<Integer> {
 	private class PrimesIterator implements Iterator<Integer> {
 		/** Index of the next number in the collection. **/
 		private int indexOfNext;
+		/** Array whose first elements are the primes generated so far. **/
+		private int[] primes = new int[0];
+		/** Number of primes in the array which can be read. **/
+		private int available;
 
 		@Override
 		public boolean hasNext() {
@@ -52,49 +80,15 @@ public class PrimesCollection implements Iterable<Integer> {
 				throw new NoSuchElementException("There are no more elements in the collection.");
 			}
 
-			int indexOfCurrent = indexOfNext;
-			indexOfNext++;
-			return getPrimeAtIndex(indexOfCurrent);
-		}
-
-	}
-
-	/**
-	 * Gets a prime number that is at the specified index.
-	 *
-	 * @param index
-	 *            index of number that is to be returned
-	 * @return a prime number that is at the specified index
-	 */
-	private Integer getPrimeAtIndex(int index) {
-		int primesFound = 0;
-
-		for (int number = 2;; number++) {
-			if (isPrimeNumber(number)) {
-				primesFound++;
-			}
-
-			boolean isPrimeAtSpecifiedIndex = primesFound - 1 == index;
-			if (isPrimeAtSpecifiedIndex) {
-				return number;
+			if (indexOfNext == available) {
+				// twice as many primes as returned so far, so the sieve is
+				// not called for every single prime
+				available = Math.min(numberOfPrimes, Math.max(indexOfNext + 1, indexOfNext * 2));
+				primes = sieve.primes(available);
 			}
+			return primes[indexOfNext++];
 		}
-	}
 
-	/**
-	 * Checks if the specified number is a prime number.
-	 *
-	 * @param number
-	 *            number that is to be checked
-	 * @return true if the specified number is a prime number
-	 */
-	private boolean isPrimeNumber(int number) {
-		for (int num = 2; num <= number / 2; num++) {
-			if (number % num == 0) {
-				return false;
-			}
-		}
-		return true;
 	}
 
 }
@@ -0,0 +1,82 @@
+package hr.fer.zemris.java.hw05.demo2;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PrimesCollectionTest {
+
+	private static boolean isPrime(int number) {
+		for (int divisor = 2; (long) divisor * divisor <= number; divisor++) {
+			if (number % divisor == 0) {
+				return false;
+			}
+		}
+		return number > 1;
+	}
+
+	@Test
+	public void firstPrimes() {
+		List<Integer> primes = new ArrayList<>();
+		for (Integer prime : new PrimesCollection(10)) {
+			primes.add(prime);
+		}
+		Assert.assertArrayEquals(new Object[] { 2, 3, 5, 7, 11, 13, 17, 19, 23, 29 }, primes.toArray());
+	}
+
+	@Test
+	public void sameAsTrialDivision() {
+		int expected = 1;
+		for (Integer prime : new PrimesCollection(100_000)) {
+			while (!isPrime(expected)) {
+				expected++;
+			}
+			Assert.assertEquals(expected, (int) prime);
+			expected++;
+		}
+	}
+
+	@Test
+	public void knownPrimes() {
+		PrimeSieve sieve = new PrimeSieve();
+		Assert.assertEquals(7919, sieve.getPrime(999));
+		Assert.assertEquals(104729, sieve.getPrime(9_999));
+		Assert.assertEquals(15485863, sieve.getPrime(999_999));
+	}
+
+	@Test
+	public void parallelSieve() {
+		PrimeSieve sequential = new PrimeSieve();
+		PrimeSieve parallel = new PrimeSieve(true);
+		int[] expected = sequential.primes(2_000_000);
+		int[] actual = parallel.primes(2_000_000);
+		for (int i = 0; i < 2_000_000; i++) {
+			Assert.assertEquals(expected[i], actual[i]);
+		}
+	}
+
+	@Test
+	public void sharedSieve() {
+		PrimeSieve sieve = new PrimeSieve();
+		PrimesCollection collection = new PrimesCollection(3, sieve);
+		int pairs = 0;
+		for (Integer first : collection) {
+			for (Integer second : new PrimesCollection(3, sieve)) {
+				Assert.assertEquals(true, first >= 2 && second >= 2);
+				pairs++;
+			}
+		}
+		Assert.assertEquals(9, pairs);
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void nextAfterLast() {
+		Iterator<Integer> iterator = new PrimesCollection(1).iterator();
+		Assert.assertEquals(2, (int) iterator.next());
+		iterator.next();
+	}
+}
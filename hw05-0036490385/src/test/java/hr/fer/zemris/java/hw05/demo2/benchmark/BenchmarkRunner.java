@@ -0,0 +1,35 @@
+package hr.fer.zemris.java.hw05.demo2.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks of the prime generators with allocation profiling
+ * (GC profiler) turned on. It is started from the root directory of the
+ * project with <code>mvn -Pbenchmark test-compile exec:exec</code>, and the
+ * benchmarks can be narrowed down using <code>-Dbenchmark=regex</code>.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class BenchmarkRunner {
+	/**
+	 * The method which is called when the program starts.
+	 *
+	 * @param args
+	 *            optionally a regular expression selecting the benchmarks
+	 * @throws RunnerException
+	 *             if there is a problem with running the benchmarks
+	 */
+	public static void main(String[] args) throws RunnerException {
+		String include = args.length > 0 ? args[0] : ".*";
+		Options options = new OptionsBuilder()
+				.include(BenchmarkRunner.class.getPackage().getName() + "\\..*" + include)
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,71 @@
+package hr.fer.zemris.java.hw05.demo2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.hw05.demo2.PrimeSieve;
+import hr.fer.zemris.java.hw05.demo2.PrimesCollection;
+
+/**
+ * Measures generating the first ten million primes: by iterating over a
+ * {@link PrimesCollection}, and directly with a sequential and a parallel
+ * {@link PrimeSieve}. Every invocation starts with a new sieve.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class PrimesBenchmark {
+	/** Number of primes. **/
+	@Param({ "10000000" })
+	public int count;
+
+	/**
+	 * Sums the primes returned by the iterator of a collection.
+	 *
+	 * @return sum of the primes
+	 */
+	@Benchmark
+	public long collection() {
+		long sum = 0;
+		for (Integer prime : new PrimesCollection(count)) {
+			sum += prime;
+		}
+		return sum;
+	}
+
+	/**
+	 * Generates the primes with a sequential sieve.
+	 *
+	 * @return array which contains the primes
+	 */
+	@Benchmark
+	public int[] sequentialSieve() {
+		return new PrimeSieve().primes(count);
+	}
+
+	/**
+	 * Generates the primes with a parallel sieve.
+	 *
+	 * @return array which contains the primes
+	 */
+	@Benchmark
+	public int[] parallelSieve() {
+		return new PrimeSieve(true).primes(count);
+	}
+}
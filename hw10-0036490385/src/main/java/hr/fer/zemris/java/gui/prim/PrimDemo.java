@@ -2,10 +2,12 @@ package hr.fer.zemris.java.gui.prim;
 
 import java.awt.BorderLayout;
 import java.awt.Container;
+import java.awt.GridLayout;
 
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JList;
+import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JSplitPane;
 import javax.swing.ListModel;
@@ -15,7 +17,9 @@ import javax.swing.WindowConstants;
 /**
  * This program is a demonstration of {@link PrimListModel}. It shows two
  * {@link JList} components sharing the same {@link ListModel} with a button
- * that adds the next generated prime number to the lists.
+ * that adds the next generated prime number to the lists, a button that
+ * generates the next million prime numbers in the background and a button that
+ * stops the background generation.
  *
  * @author Alen Magdić
  *
@@ -64,11 +68,23 @@ public class PrimDemo extends JFrame {
 		cp.add(splitPane, BorderLayout.CENTER);
 
 		JButton nextB = new JButton("Next");
-		cp.add(nextB, BorderLayout.PAGE_END);
+		JButton millionB = new JButton("Next million");
+		JButton stopB = new JButton("Stop");
+		JPanel buttons = new JPanel(new GridLayout(1, 0));
+		buttons.add(nextB);
+		buttons.add(millionB);
+		buttons.add(stopB);
+		cp.add(buttons, BorderLayout.PAGE_END);
 
 		nextB.addActionListener(e -> {
 			model.next();
 		});
+		millionB.addActionListener(e -> {
+			model.generate(1_000_000);
+		});
+		stopB.addActionListener(e -> {
+			model.cancel();
+		});
 
 	}
 
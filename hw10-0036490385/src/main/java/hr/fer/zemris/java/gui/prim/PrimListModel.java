@@ -1,88 +1,257 @@
 package hr.fer.zemris.java.gui.prim;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.swing.ListModel;
+import javax.swing.Timer;
 import javax.swing.event.ListDataEvent;
 import javax.swing.event.ListDataListener;
 
 /**
  * A {@link ListModel} that generates and stores prime numbers. There is
- * initially a one number in the list, the number 1.
+ * initially a one number in the list, the number 1. The primes are generated
+ * by a {@link PrimeSieve} and stored in an int array.
+ * <p>
+ * Besides adding one prime at a time with {@link #next()}, the model can
+ * generate many primes in the background with {@link #generate(int)}. The
+ * background thread hands the primes over in a buffer, from which they are
+ * added to the list on the event dispatch thread once per frame, with a single
+ * event for all the primes added in that frame, so the list can grow by
+ * millions of primes without freezing the user interface. Apart from
+ * {@link #generate(int)} and {@link #cancel()}, the model is meant to be used
+ * from the event dispatch thread, as any other Swing model.
+ * </p>
  *
  * @author Alen Magdić
  *
  */
 public class PrimListModel implements ListModel<Integer> {
-	/** List of generated prime numbers. **/
-	private List<Integer> generatedNumbers;
+	/** Interval between two additions of generated primes, in milliseconds. **/
+	private static final int FRAME_MILLIS = 16;
+	/** Number of primes the background thread generates at a time. **/
+	private static final int CHUNK_SIZE = 1 << 16;
+	/** Number of primes the buffer may hold before the generator waits. **/
+	private static final int MAX_PENDING = 1 << 20;
+
+	/** Executor which generates primes in the background. **/
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "Prime generator");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** Generated prime numbers, preceded by the number 1. **/
+	private int[] generatedNumbers = new int[16];
+	/** Number of numbers in the list. **/
+	private int size;
 	/** List of {@link ListDataListener} listeners. **/
 	private List<ListDataListener> listeners;
 
+	/** Sieve which generates the primes. **/
+	private final PrimeSieve sieve = new PrimeSieve();
+	/** Lock which guards the buffer and the number of taken primes. **/
+	private final Object lock = new Object();
+	/** Primes generated in the background and not yet in the list. **/
+	private int[] pending = new int[0];
+	/** Number of primes in the buffer. **/
+	private int pendingSize;
+	/** Number of primes taken from the sieve, by the list or the buffer. **/
+	private int taken;
+	/** The most recently started background generation, or null. **/
+	private Future<?> generation;
+	/** Number of cancellations, a generation stops when it changes. **/
+	private int cancellations;
+	/** Timer which moves the buffered primes to the list. **/
+	private final Timer flushTimer = new Timer(FRAME_MILLIS, e -> flush());
+
 	/**
 	 * Constructor.
 	 **/
 	public PrimListModel() {
-		generatedNumbers = new ArrayList<>();
-		generatedNumbers.add(1);
+		generatedNumbers[size++] = 1;
 		listeners = new ArrayList<>();
 	}
 
 	/**
 	 * Generates the next prime number and adds it to the list of generated
 	 * numbers, i.e. calls its listeners so that they now that an interval has
-	 * been added to the list.
+	 * been added to the list. If primes are being generated in the background,
+	 * the primes generated so far are added first.
 	 *
 	 */
 	public void next() {
-		generatedNumbers.add(getNextPrimNumber());
-		ListDataEvent event = new ListDataEvent(this, ListDataEvent.INTERVAL_ADDED, generatedNumbers.size() - 1,
-				generatedNumbers.size() - 1);
-		for (ListDataListener l : listeners) {
-			l.intervalAdded(event);
+		int[] buffered;
+		int buffer;
+		int prime;
+		synchronized (lock) {
+			buffered = pending;
+			buffer = pendingSize;
+			pending = new int[0];
+			pendingSize = 0;
+			prime = sieve.getPrime(taken++);
+			lock.notifyAll();
 		}
+		add(buffered, buffer);
+		add(new int[] { prime }, 1);
+	}
 
+	/**
+	 * Starts generating the specified number of the next primes in the
+	 * background. The primes are added to the list on the event dispatch
+	 * thread as they are generated. If a generation is already in progress,
+	 * the new one starts after it.
+	 *
+	 * @param count
+	 *            number of primes to generate
+	 */
+	public void generate(int count) {
+		if (count < 0) {
+			throw new IllegalArgumentException("The number of primes must not be negative.");
+		}
+		synchronized (lock) {
+			int started = cancellations;
+			generation = EXECUTOR.submit(() -> produce(count, started));
+		}
+		flushTimer.start();
 	}
 
 	/**
-	 * Calculates the next prime number.
+	 * Cancels all the started background generations. The primes which were
+	 * already generated are still added to the list.
+	 */
+	public void cancel() {
+		synchronized (lock) {
+			cancellations++;
+			lock.notifyAll();
+		}
+	}
+
+	/**
+	 * Checks whether the primes are being generated in the background or the
+	 * generated primes are not yet all added to the list.
 	 *
-	 * @return the next prime number
+	 * @return true if the background generation is not finished
 	 */
-	private Integer getNextPrimNumber() {
-		int lastAdded = generatedNumbers.get(generatedNumbers.size() - 1);
-		for (int num = lastAdded + 1;; num++) {
-			if (isPrimeNumber(num)) {
-				return num;
-			}
+	public boolean isGenerating() {
+		synchronized (lock) {
+			return generation != null && !generation.isDone() || pendingSize > 0;
 		}
 	}
 
 	/**
-	 * Checks if the specified number is a prime number.
+	 * Generates the specified number of primes in chunks and puts them into
+	 * the buffer. Runs in the background thread and waits while the buffer is
+	 * full.
 	 *
-	 * @param number
-	 *            number that is to be checked
-	 * @return true if the specified number is a prime number
+	 * @param count
+	 *            number of primes to generate
+	 * @param started
+	 *            number of cancellations when the generation was started
 	 */
-	private boolean isPrimeNumber(int number) {
-		for (int num = 2; num <= number / 2; num++) {
-			if (number % num == 0) {
-				return false;
+	private void produce(int count, int started) {
+		int remaining = count;
+		while (remaining > 0) {
+			int chunk = Math.min(remaining, CHUNK_SIZE);
+			int from;
+			synchronized (lock) {
+				if (cancellations != started) {
+					return;
+				}
+				from = taken;
+			}
+			// sieving happens outside of the lock, so next() is not blocked
+			int[] primes = sieve.primes(from + chunk);
+
+			synchronized (lock) {
+				while (pendingSize >= MAX_PENDING && cancellations == started) {
+					try {
+						lock.wait();
+					} catch (InterruptedException ex) {
+						return;
+					}
+				}
+				if (cancellations != started) {
+					return;
+				}
+				if (taken != from) {
+					// next() took some of the primes in the meantime, so the
+					// sieve is asked again for the primes after them
+					continue;
+				}
+				if (pendingSize + chunk > pending.length) {
+					pending = Arrays.copyOf(pending, Math.max(pendingSize + chunk, pending.length * 2));
+				}
+				System.arraycopy(primes, taken, pending, pendingSize, chunk);
+				pendingSize += chunk;
+				taken += chunk;
 			}
+			remaining -= chunk;
+		}
+	}
+
+	/**
+	 * Moves the buffered primes to the list. Runs on the event dispatch thread
+	 * every frame while the background generation is in progress.
+	 */
+	private void flush() {
+		int[] buffered;
+		int buffer;
+		boolean finished;
+		synchronized (lock) {
+			buffered = pending;
+			buffer = pendingSize;
+			pending = new int[0];
+			pendingSize = 0;
+			finished = generation == null || generation.isDone();
+			lock.notifyAll();
+		}
+		add(buffered, buffer);
+		if (finished) {
+			flushTimer.stop();
+		}
+	}
+
+	/**
+	 * Adds the specified primes to the list and notifies the listeners with a
+	 * single event.
+	 *
+	 * @param primes
+	 *            array whose first elements are the primes
+	 * @param count
+	 *            number of primes to add
+	 */
+	private void add(int[] primes, int count) {
+		if (count == 0) {
+			return;
+		}
+		if (size + count > generatedNumbers.length) {
+			generatedNumbers = Arrays.copyOf(generatedNumbers, Math.max(size + count, generatedNumbers.length * 2));
+		}
+		System.arraycopy(primes, 0, generatedNumbers, size, count);
+		size += count;
+
+		ListDataEvent event = new ListDataEvent(this, ListDataEvent.INTERVAL_ADDED, size - count, size - 1);
+		for (ListDataListener l : listeners) {
+			l.intervalAdded(event);
 		}
-		return true;
 	}
 
 	@Override
 	public int getSize() {
-		return generatedNumbers.size();
+		return size;
 	}
 
 	@Override
 	public Integer getElementAt(int index) {
-		return generatedNumbers.get(index);
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+		}
+		return generatedNumbers[index];
 	}
 
 	@Override
@@ -0,0 +1,229 @@
+package hr.fer.zemris.java.gui.prim;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A generator of prime numbers based on the segmented sieve of Eratosthenes.
+ * The primes are generated in order, one segment of odd numbers at a time:
+ * each segment is a bit set in which the multiples of the already generated
+ * primes are crossed out, and the numbers that remain are the primes of that
+ * segment. All the generated primes are kept, so a sieve can be shared by any
+ * number of iterators, and each prime is generated only once.
+ * <p>
+ * A parallel sieve generates several segments at the same time, as long as
+ * all the primes needed to sieve them have already been generated.
+ * </p>
+ * <p>
+ * This class is thread safe.
+ * </p>
+ *
+ * @author Alen Magdić
+ *
+ */
+public class PrimeSieve {
+	/** Number of 64-bit words in a segment. **/
+	private static final int SEGMENT_WORDS = 4096;
+	/** Number of odd numbers in a segment. **/
+	private static final int SEGMENT_BITS = SEGMENT_WORDS * 64;
+	/** Number of parallel segments per available processor. **/
+	private static final int SEGMENTS_PER_PROCESSOR = 2;
+
+	/** Generated primes, in ascending order. **/
+	private int[] primes = { 2 };
+	/** Number of generated primes. **/
+	private int count = 1;
+	/** The first odd number which is not sieved yet. **/
+	private long nextLow = 3;
+	/** Flag which determines whether segments are sieved in parallel. **/
+	private final boolean parallel;
+	/** Bit set used for sequential sieving. **/
+	private final long[] segment = new long[SEGMENT_WORDS];
+
+	/**
+	 * Constructor. Creates a sieve which sieves one segment at a time.
+	 */
+	public PrimeSieve() {
+		this(false);
+	}
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parallel
+	 *            true if segments should be sieved in parallel
+	 */
+	public PrimeSieve(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Gets the prime number that is at the specified index, i.e. the
+	 * (index+1)-th prime number, generating more primes if needed.
+	 *
+	 * @param index
+	 *            index of the prime number
+	 * @return the prime number at the specified index
+	 */
+	public int getPrime(int index) {
+		return primes(index + 1)[index];
+	}
+
+	/**
+	 * Generates at least the specified number of primes and returns the array
+	 * which contains them in its first elements. The returned array is never
+	 * modified in those elements, so the caller can read them without
+	 * synchronization.
+	 *
+	 * @param minCount
+	 *            the minimal number of primes in the returned array
+	 * @return array which contains at least the specified number of primes
+	 */
+	public synchronized int[] primes(int minCount) {
+		if (minCount < 0) {
+			throw new IllegalArgumentException("The number of primes must not be negative.");
+		}
+		while (count < minCount) {
+			if (parallel && nextLow > SEGMENT_BITS * 2L) {
+				sieveParallel();
+			} else {
+				append(sieve(nextLow, segment));
+				nextLow += SEGMENT_BITS * 2L;
+			}
+		}
+		return primes;
+	}
+
+	/**
+	 * Gets the number of generated primes.
+	 *
+	 * @return number of generated primes
+	 */
+	public synchronized int generated() {
+		return count;
+	}
+
+	/**
+	 * Sieves as many segments in parallel as there are available processors
+	 * times {@link #SEGMENTS_PER_PROCESSOR}, but only those which can be
+	 * sieved with the primes generated so far.
+	 */
+	private void sieveParallel() {
+		long largest = primes[count - 1];
+		long span = SEGMENT_BITS * 2L;
+		int maxSegments = Runtime.getRuntime().availableProcessors() * SEGMENTS_PER_PROCESSOR;
+		long sievable = (largest * largest - nextLow) / span;
+		int segments = (int) Math.max(1, Math.min(maxSegments, sievable));
+
+		long low = nextLow;
+		int[][] results = IntStream.range(0, segments).parallel()
+				.mapToObj(i -> sieve(low + i * span, new long[SEGMENT_WORDS])).toArray(int[][]::new);
+		for (int[] result : results) {
+			append(result);
+		}
+		nextLow += segments * span;
+	}
+
+	/**
+	 * Appends the specified primes to the generated primes.
+	 *
+	 * @param segmentPrimes
+	 *            primes of a segment
+	 */
+	private void append(int[] segmentPrimes) {
+		if (count + segmentPrimes.length > primes.length) {
+			primes = Arrays.copyOf(primes, Math.max(count + segmentPrimes.length, primes.length * 2));
+		}
+		System.arraycopy(segmentPrimes, 0, primes, count, segmentPrimes.length);
+		count += segmentPrimes.length;
+	}
+
+	/**
+	 * Sieves the segment of odd numbers which starts at the specified number
+	 * and returns the primes in it. All the primes up to the square root of
+	 * the end of the segment must already be generated, except for the first
+	 * segment, which is sieved with its own primes.
+	 *
+	 * @param low
+	 *            the first number of the segment, an odd number
+	 * @param bits
+	 *            bit set in which the segment is sieved
+	 * @return the primes in the segment
+	 */
+	private int[] sieve(long low, long[] bits) {
+		long high = low + SEGMENT_BITS * 2L;
+		if (high > Integer.MAX_VALUE) {
+			throw new IllegalStateException("Primes larger than " + Integer.MAX_VALUE + " are not supported.");
+		}
+		Arrays.fill(bits, 0);
+
+		if (low == 3) {
+			// the first segment contains its own sieving primes
+			for (long p = 3; p * p < high; p += 2) {
+				int index = (int) ((p - low) >>> 1);
+				if ((bits[index >>> 6] & (1L << index)) == 0) {
+					crossOut(bits, low, p, p * p);
+				}
+			}
+		} else {
+			for (int i = 1; i < count; i++) {
+				long p = primes[i];
+				if (p * p >= high) {
+					break;
+				}
+				long start = (low + p - 1) / p * p;
+				if ((start & 1) == 0) {
+					start += p;
+				}
+				crossOut(bits, low, p, Math.max(start, p * p));
+			}
+		}
+
+		int[] result = new int[SEGMENT_BITS - bitCount(bits)];
+		int found = 0;
+		for (int word = 0; word < SEGMENT_WORDS; word++) {
+			long remaining = ~bits[word];
+			while (remaining != 0) {
+				int bit = Long.numberOfTrailingZeros(remaining);
+				result[found++] = (int) (low + 2L * (word * 64 + bit));
+				remaining &= remaining - 1;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Crosses out the odd multiples of the specified prime in the segment,
+	 * starting at the specified odd multiple.
+	 *
+	 * @param bits
+	 *            bit set of the segment
+	 * @param low
+	 *            the first number of the segment
+	 * @param p
+	 *            odd prime
+	 * @param start
+	 *            the first odd multiple which is crossed out
+	 */
+	private static void crossOut(long[] bits, long low, long p, long start) {
+		int step = (int) p;
+		for (long index = (start - low) >>> 1; index < SEGMENT_BITS; index += step) {
+			bits[(int) (index >>> 6)] |= 1L << index;
+		}
+	}
+
+	/**
+	 * Counts the crossed out numbers in the segment.
+	 *
+	 * @param bits
+	 *            bit set of the segment
+	 * @return number of crossed out numbers
+	 */
+	private static int bitCount(long[] bits) {
+		int crossed = 0;
+		for (long word : bits) {
+			crossed += Long.bitCount(word);
+		}
+		return crossed;
+	}
+}
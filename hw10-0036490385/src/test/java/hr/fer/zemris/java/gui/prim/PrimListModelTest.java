@@ -1,5 +1,8 @@
 package hr.fer.zemris.java.gui.prim;
 
+import java.lang.reflect.InvocationTargetException;
+
+import javax.swing.SwingUtilities;
 import javax.swing.event.ListDataEvent;
 import javax.swing.event.ListDataListener;
 
@@ -64,6 +67,79 @@ public class PrimListModelTest {
 		model.getElementAt(2);
 	}
 
+	@Test
+	public void testBackgroundGeneration() throws InvocationTargetException, InterruptedException {
+		PrimListModel[] model = new PrimListModel[1];
+		CountingListener listener = new CountingListener();
+		SwingUtilities.invokeAndWait(() -> {
+			model[0] = new PrimListModel();
+			model[0].addListDataListener(listener);
+			model[0].next();
+			model[0].generate(300_000);
+		});
+		waitUntilGenerated(model[0]);
+
+		PrimeSieve sieve = new PrimeSieve();
+		SwingUtilities.invokeAndWait(() -> {
+			Assert.assertEquals(300_002, model[0].getSize());
+			Assert.assertEquals(Integer.valueOf(1), model[0].getElementAt(0));
+			for (int i = 1; i < model[0].getSize(); i++) {
+				Assert.assertEquals(sieve.getPrime(i - 1), (int) model[0].getElementAt(i));
+			}
+		});
+		Assert.assertEquals(300_001, listener.added);
+		Assert.assertEquals(true, listener.events < 300_000 / 1000);
+	}
+
+	@Test
+	public void testNextDuringBackgroundGeneration() throws InvocationTargetException, InterruptedException {
+		PrimListModel[] model = new PrimListModel[1];
+		SwingUtilities.invokeAndWait(() -> {
+			model[0] = new PrimListModel();
+			model[0].generate(200_000);
+		});
+		for (int i = 0; i < 10; i++) {
+			SwingUtilities.invokeAndWait(() -> model[0].next());
+		}
+		waitUntilGenerated(model[0]);
+
+		PrimeSieve sieve = new PrimeSieve();
+		SwingUtilities.invokeAndWait(() -> {
+			Assert.assertEquals(200_011, model[0].getSize());
+			for (int i = 1; i < model[0].getSize(); i++) {
+				Assert.assertEquals(sieve.getPrime(i - 1), (int) model[0].getElementAt(i));
+			}
+		});
+	}
+
+	private static void waitUntilGenerated(PrimListModel model) throws InterruptedException {
+		for (int i = 0; i < 1000 && model.isGenerating(); i++) {
+			Thread.sleep(20);
+		}
+		// the last flush of the timer
+		Thread.sleep(100);
+		Assert.assertEquals(false, model.isGenerating());
+	}
+
+	private static class CountingListener implements ListDataListener {
+		private int added;
+		private int events;
+
+		@Override
+		public void intervalAdded(ListDataEvent e) {
+			added += e.getIndex1() - e.getIndex0() + 1;
+			events++;
+		}
+
+		@Override
+		public void intervalRemoved(ListDataEvent e) {
+		}
+
+		@Override
+		public void contentsChanged(ListDataEvent e) {
+		}
+	}
+
 	private static class Listener implements ListDataListener {
 
 		private boolean wasNotified = false;
@@ -8,6 +8,7 @@ import java.nio.file.Paths;
 import hr.fer.zemris.java.custom.scripting.elems.Element;
 import hr.fer.zemris.java.custom.scripting.elems.ElementFunction;
 import hr.fer.zemris.java.custom.scripting.elems.ElementString;
+import hr.fer.zemris.java.custom.scripting.exec.SmartScriptOptimizer;
 import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
 import hr.fer.zemris.java.custom.scripting.nodes.EchoNode;
 import hr.fer.zemris.java.custom.scripting.nodes.ForLoopNode;
@@ -19,12 +20,15 @@ import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParserException;
 /**
  * Program koji prima putanju do datoteke kao argument, parsira skriptu zapisanu
  * u toj datoteci te iz dobivenog stabla ponovno rekreira originalni zapis
- * skripte.
+ * skripte. Ako se kao drugi argument zada zastavica <code>--optimize</code>,
+ * ispisuje se stablo optimizirano pomoću {@link SmartScriptOptimizer}.
  *
  * @author Alen Magdić
  *
  */
 public class TreeWriter {
+	/** Zastavica kojom se traži ispis optimiziranog stabla. **/
+	private static final String OPTIMIZE_FLAG = "--optimize";
 
 	/**
 	 * Metoda od koje počinje izvođenje programa.
@@ -33,9 +37,9 @@ public class TreeWriter {
 	 *            ulazni argumenti
 	 */
 	public static void main(String[] args) {
-		if (args.length != 1) {
-			System.out.println("Unexpected number of arguments. Expected only one argument. Number of arguments given: "
-					+ args.length);
+		if (args.length != 1 && (args.length != 2 || !args[1].equals(OPTIMIZE_FLAG))) {
+			System.out.println("Unexpected arguments. Expected a document path, optionally followed by "
+					+ OPTIMIZE_FLAG + ". Number of arguments given: " + args.length);
 			return;
 		}
 
@@ -55,8 +59,13 @@ public class TreeWriter {
 			System.exit(-1);
 		}
 
+		DocumentNode documentNode = parser.getDocumentNode();
+		if (args.length == 2) {
+			documentNode = SmartScriptOptimizer.optimize(documentNode);
+		}
+
 		WriterVisitor visitor = new WriterVisitor();
-		parser.getDocumentNode().accept(visitor);
+		documentNode.accept(visitor);
 	}
 
 	/**
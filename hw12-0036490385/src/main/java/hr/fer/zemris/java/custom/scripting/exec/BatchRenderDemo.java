@@ -0,0 +1,62 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import hr.fer.zemris.java.custom.scripting.exec.SmartScriptBatchRenderer.BatchResult;
+import hr.fer.zemris.java.custom.scripting.exec.SmartScriptBatchRenderer.RenderTask;
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+
+/**
+ * Program koji demonstrira rad klase {@link SmartScriptBatchRenderer}. Skripte
+ * osnovni.smscr i zbrajanje.smscr izvodi zadani broj puta (sa različitim
+ * parametrima), izlaze zapisuje u privremenu mapu te ispisuje ukupnu
+ * propusnost.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class BatchRenderDemo {
+	/**
+	 * Metoda od koje počinje izvođenje programa.
+	 *
+	 * @param args
+	 *            ulazni argumenti; opcionalno broj dokumenata koje treba
+	 *            generirati (zadano 1000)
+	 * @throws IOException
+	 *             ukoliko dođe do problema sa čitanjem skripti ili zapisom
+	 *             izlaza
+	 */
+	public static void main(String[] args) throws IOException {
+		int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+
+		SmartScriptTemplateCache cache = new SmartScriptTemplateCache();
+		DocumentNode osnovni = cache.getTemplate(Paths.get("webroot/scripts/osnovni.smscr"));
+		DocumentNode zbrajanje = cache.getTemplate(Paths.get("webroot/scripts/zbrajanje.smscr"));
+
+		Path outputDir = Files.createTempDirectory("smscr-batch");
+		List<RenderTask> tasks = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Map<String, String> parameters = new HashMap<>();
+			parameters.put("a", Integer.toString(i));
+			parameters.put("b", Integer.toString(2 * i));
+			DocumentNode document = i % 2 == 0 ? osnovni : zbrajanje;
+			tasks.add(new RenderTask(document, parameters, outputDir.resolve("report" + i + ".txt")));
+		}
+
+		SmartScriptBatchRenderer renderer = new SmartScriptBatchRenderer();
+		try {
+			BatchResult result = renderer.render(tasks);
+			System.out.println("Output directory: " + outputDir);
+			System.out.println(result);
+		} finally {
+			renderer.shutdown();
+		}
+	}
+}
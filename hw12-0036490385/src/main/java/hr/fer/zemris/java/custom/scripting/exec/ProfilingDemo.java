@@ -0,0 +1,52 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParser;
+import hr.fer.zemris.java.webserver.RequestContext;
+import hr.fer.zemris.java.webserver.RequestContext.RCCookie;
+
+/**
+ * Program koji demonstrira rad klase {@link SmartScriptProfiler}. Zadanu
+ * skriptu izvodi zadani broj puta te ispisuje tablični izvještaj i izvještaj u
+ * sažetom zapisu stogova.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class ProfilingDemo {
+	/**
+	 * Metoda od koje počinje izvođenje programa.
+	 *
+	 * @param args
+	 *            ulazni argumenti; putanja do skripte (zadano
+	 *            webroot/scripts/osnovni.smscr) i broj izvođenja (zadano 1000)
+	 * @throws IOException
+	 *             ukoliko dođe do problema sa čitanjem skripte
+	 */
+	public static void main(String[] args) throws IOException {
+		String path = args.length > 0 ? args[0] : "webroot/scripts/osnovni.smscr";
+		int repetitions = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+		String documentBody = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+		SmartScriptParser parser = new SmartScriptParser(documentBody);
+		SmartScriptProfiler profiler = new SmartScriptProfiler();
+
+		for (int i = 0; i < repetitions; i++) {
+			RequestContext rc = new RequestContext(new ByteArrayOutputStream(), new HashMap<String, String>(),
+					new HashMap<String, String>(), new ArrayList<RCCookie>());
+			SmartScriptEngine engine = new SmartScriptEngine(parser.getDocumentNode(), rc, true);
+			engine.setProfiler(profiler);
+			engine.execute();
+		}
+
+		System.out.println(profiler.toSummary());
+		System.out.print(profiler.toCollapsedStacks());
+	}
+}
@@ -0,0 +1,239 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+import hr.fer.zemris.java.webserver.RequestContext;
+import hr.fer.zemris.java.webserver.RequestContext.RCCookie;
+
+/**
+ * Klasa koja paralelno izvodi velik broj skripti i njihove izlaze zapisuje u
+ * datoteke. Svaki zadatak se izvodi sa vlastitim {@link SmartScriptEngine}
+ * (pa time i vlastitim {@link ObjectMultistack}) i vlastitim
+ * {@link RequestContext}, dok se stabla skripti dijele između zadataka. Za
+ * dohvat stabala skripti preporuča se koristiti
+ * {@link SmartScriptTemplateCache}.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class SmartScriptBatchRenderer {
+	/** Bazen dretvi na kojem se izvode skripte. **/
+	private ForkJoinPool pool;
+
+	/**
+	 * Konstruktor. Skripte će se izvoditi na onoliko dretvi koliko je
+	 * procesora dostupno.
+	 */
+	public SmartScriptBatchRenderer() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Konstruktor.
+	 *
+	 * @param parallelism
+	 *            broj dretvi na kojima se izvode skripte
+	 */
+	public SmartScriptBatchRenderer(int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be at least 1. Given: " + parallelism);
+		}
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	/**
+	 * Izvodi sve zadane zadatke i čeka njihov završetak. Ako izvođenje nekog
+	 * od zadataka ne uspije, ostali zadaci se svejedno izvode do kraja, a
+	 * nakon toga se baca {@link RuntimeException} sa uzrokom prve pogreške.
+	 *
+	 * @param tasks
+	 *            zadaci koje treba izvesti
+	 * @return statistika izvođenja
+	 */
+	public BatchResult render(List<RenderTask> tasks) {
+		List<Callable<Long>> callables = new ArrayList<>(tasks.size());
+		for (RenderTask task : tasks) {
+			callables.add(() -> renderTask(task));
+		}
+
+		long start = System.nanoTime();
+		List<Future<Long>> futures = pool.invokeAll(callables);
+
+		long totalBytes = 0;
+		Throwable failure = null;
+		for (Future<Long> future : futures) {
+			try {
+				totalBytes += future.get();
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException("Rendering interrupted.", e);
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+
+		if (failure != null) {
+			throw new RuntimeException("Unable to render all documents.", failure);
+		}
+		return new BatchResult(tasks.size(), totalBytes, elapsed);
+	}
+
+	/**
+	 * Gasi bazen dretvi. Nakon poziva ove metode više nije moguće izvoditi
+	 * skripte.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Izvodi jedan zadatak.
+	 *
+	 * @param task
+	 *            zadatak koji treba izvesti
+	 * @return broj bajtova zapisanih u izlaznu datoteku
+	 * @throws IOException
+	 *             ukoliko dođe do problema sa zapisivanjem izlaza
+	 */
+	private static long renderTask(RenderTask task) throws IOException {
+		try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(task.output))) {
+			RequestContext context = new RequestContext(os, new HashMap<>(task.parameters),
+					new HashMap<String, String>(), new ArrayList<RCCookie>());
+			new SmartScriptEngine(task.documentNode, context, true).execute();
+		}
+		return Files.size(task.output);
+	}
+
+	/**
+	 * Zadatak izvođenja jedne skripte sa zadanim parametrima pri čemu se izlaz
+	 * zapisuje u zadanu datoteku.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	public static class RenderTask {
+		/** Stablo skripte koju treba izvesti. **/
+		private final DocumentNode documentNode;
+		/** Parametri skripte. **/
+		private final Map<String, String> parameters;
+		/** Datoteka u koju se zapisuje izlaz. **/
+		private final Path output;
+
+		/**
+		 * Konstruktor.
+		 *
+		 * @param documentNode
+		 *            stablo skripte koju treba izvesti
+		 * @param parameters
+		 *            parametri skripte
+		 * @param output
+		 *            datoteka u koju se zapisuje izlaz
+		 */
+		public RenderTask(DocumentNode documentNode, Map<String, String> parameters, Path output) {
+			if (documentNode == null || parameters == null || output == null) {
+				throw new IllegalArgumentException("Arguments can not be null.");
+			}
+			this.documentNode = documentNode;
+			this.parameters = parameters;
+			this.output = output;
+		}
+	}
+
+	/**
+	 * Statistika izvođenja skupa zadataka.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	public static class BatchResult {
+		/** Broj izvedenih skripti. **/
+		private final int documents;
+		/** Ukupan broj zapisanih bajtova. **/
+		private final long bytes;
+		/** Ukupno trajanje izvođenja u nanosekundama. **/
+		private final long elapsedNanos;
+
+		/**
+		 * Konstruktor.
+		 *
+		 * @param documents
+		 *            broj izvedenih skripti
+		 * @param bytes
+		 *            ukupan broj zapisanih bajtova
+		 * @param elapsedNanos
+		 *            ukupno trajanje izvođenja u nanosekundama
+		 */
+		public BatchResult(int documents, long bytes, long elapsedNanos) {
+			this.documents = documents;
+			this.bytes = bytes;
+			this.elapsedNanos = elapsedNanos;
+		}
+
+		/**
+		 * Vraća broj izvedenih skripti.
+		 *
+		 * @return broj izvedenih skripti
+		 */
+		public int getDocuments() {
+			return documents;
+		}
+
+		/**
+		 * Vraća ukupan broj zapisanih bajtova.
+		 *
+		 * @return ukupan broj zapisanih bajtova
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * Vraća ukupno trajanje izvođenja u nanosekundama.
+		 *
+		 * @return ukupno trajanje izvođenja u nanosekundama
+		 */
+		public long getElapsedNanos() {
+			return elapsedNanos;
+		}
+
+		/**
+		 * Vraća broj izvedenih skripti u sekundi.
+		 *
+		 * @return broj izvedenih skripti u sekundi
+		 */
+		public double getDocumentsPerSecond() {
+			return elapsedNanos == 0 ? 0 : documents * 1e9 / elapsedNanos;
+		}
+
+		/**
+		 * Vraća broj zapisanih megabajta u sekundi.
+		 *
+		 * @return broj zapisanih megabajta u sekundi
+		 */
+		public double getMegabytesPerSecond() {
+			return elapsedNanos == 0 ? 0 : bytes / (1024.0 * 1024.0) * 1e9 / elapsedNanos;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d documents, %d bytes in %.3f s (%.1f documents/s, %.2f MB/s)", documents, bytes,
+					elapsedNanos / 1e9, getDocumentsPerSecond(), getMegabytesPerSecond());
+		}
+	}
+}
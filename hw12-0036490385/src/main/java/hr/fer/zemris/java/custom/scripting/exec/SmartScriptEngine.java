@@ -27,12 +27,31 @@ import hr.fer.zemris.java.webserver.RequestContext;
  *
  */
 public class SmartScriptEngine {
+	/** Veličina međuspremnika izlaza u bajtovima. **/
+	private static final int OUTPUT_BUFFER_SIZE = 8192;
+
 	/** Korijen stabla dobivenog parsiranjem skripte. **/
 	private DocumentNode documentNode;
 	/** Kontekst zahtjeva. **/
 	private RequestContext requestContext;
 	/** Multi-stog korišten za pohranu vrijednosti varijabli. **/
 	private ObjectMultistack multistack = new ObjectMultistack();
+	/**
+	 * Zastavica koja označava koristi li se međuspremnik izlaza i unaprijed
+	 * kodirani tekst tekstualnih čvorova.
+	 **/
+	private boolean buffered;
+	/** Međuspremnik izlaza. Stvara se pri prvom izvođenju u buffered načinu. **/
+	private byte[] outputBuffer;
+	/** Broj bajtova trenutno pohranjenih u međuspremniku izlaza. **/
+	private int outputBufferCount;
+	/**
+	 * Zastavica koja označava je li u trenutnom izvođenju nešto već zapisano
+	 * na kontekst zahtjeva, odnosno je li zaglavlje već generirano.
+	 **/
+	private boolean outputStarted;
+	/** Profiler izvođenja ili <code>null</code> ako se izvođenje ne prati. **/
+	private SmartScriptProfiler profiler;
 
 	/**
 	 * Posjetitelj stabla dobivenog parsiranjem. Obilaskom stabla vrši izvođenje
@@ -47,7 +66,15 @@ public class SmartScriptEngine {
 				return;
 			}
 			try {
-				requestContext.write(node.getText());
+				if (buffered) {
+					writeToBuffer(node.getBytes(requestContext.getCharset()));
+				} else if (profiler != null) {
+					byte[] data = node.getText().getBytes(requestContext.getCharset());
+					profiler.bytesWritten(data.length);
+					requestContext.write(data);
+				} else {
+					requestContext.write(node.getText());
+				}
 			} catch (IOException e) {
 				throw new RuntimeException(e);
 			}
@@ -90,6 +117,15 @@ public class SmartScriptEngine {
 					Object res = calculateOperation(op1, op2, el.asText());
 					tempStack.push(res);
 				} else if (el instanceof ElementFunction) {
+					if (buffered && !outputStarted) {
+						// funkcija može mijenjati zaglavlje (npr. setMimeType), pa
+						// ono mora biti generirano ako je izlaz već postojao
+						try {
+							flushBuffer();
+						} catch (IOException e) {
+							throw new RuntimeException("Unable to write output.");
+						}
+					}
 					FunctionExecutions.execute(el.asText(), tempStack, requestContext);
 				}
 			}
@@ -100,46 +136,22 @@ public class SmartScriptEngine {
 			}
 			for (int i = remainingElements.size() - 1; i >= 0; i--) {
 				try {
-					requestContext.write(remainingElements.get(i).toString());
+					String text = remainingElements.get(i).toString();
+					if (buffered) {
+						writeToBuffer(text.getBytes(requestContext.getCharset()));
+					} else if (profiler != null) {
+						byte[] data = text.getBytes(requestContext.getCharset());
+						profiler.bytesWritten(data.length);
+						requestContext.write(data);
+					} else {
+						requestContext.write(text);
+					}
 				} catch (IOException e) {
 					throw new RuntimeException("Unable to write output.");
 				}
 			}
 		}
 
-		/**
-		 * Pomoćna metoda koja vrši izračun zadane operacije sa zadanim
-		 * operandima. Podržane operacije su +,-,*,/.
-		 *
-		 * @param op1
-		 *            prvi operand
-		 * @param op2
-		 *            drugi operand
-		 * @param operator
-		 *            operator +,-,*,/
-		 * @return rezultat izvođenja operacije
-		 */
-		private Object calculateOperation(Object op1, Object op2, String operator) {
-			ValueWrapper op1Wrapper = new ValueWrapper(op1);
-			switch (operator) {
-			case "+":
-				op1Wrapper.add(op2);
-				break;
-			case "-":
-				op1Wrapper.subtract(op2);
-				break;
-			case "*":
-				op1Wrapper.multiply(op2);
-				break;
-			case "/":
-				op1Wrapper.divide(op2);
-				break;
-			default:
-				throw new UnsupportedOperationException("Operator '" + operator + "' is not supported.");
-			}
-			return op1Wrapper.getValue();
-		}
-
 		@Override
 		public void visitDocumentNode(DocumentNode node) {
 			acceptChildren(node);
@@ -153,7 +165,17 @@ public class SmartScriptEngine {
 		 */
 		private void acceptChildren(Node node) {
 			for (int i = 0, n = node.numberOfChildren(); i < n; i++) {
-				node.getChild(i).accept(this);
+				Node child = node.getChild(i);
+				if (profiler == null) {
+					child.accept(this);
+				} else {
+					profiler.enter(child);
+					try {
+						child.accept(this);
+					} finally {
+						profiler.exit();
+					}
+				}
 			}
 		}
 
@@ -173,10 +195,155 @@ public class SmartScriptEngine {
 		this.requestContext = requestContext;
 	}
 
+	/**
+	 * Konstruktor. Ako je zastavica <code>buffered</code> postavljena, sadržaj
+	 * tekstualnih čvorova se kodira samo jednom po stablu, a sav izlaz se
+	 * prikuplja u međuspremnik koji se na kontekst zahtjeva zapisuje u većim
+	 * blokovima. Ponašanje skripte je jednako kao bez međuspremnika: prije
+	 * prvog poziva funkcije međuspremnik se prazni, pa promjena zaglavlja
+	 * nakon ispisanog teksta i dalje izaziva iznimku, a izlaz zapisan prije
+	 * iznimke u skripti se zapisuje na kontekst zahtjeva. Tekst se kodira
+	 * kodnom stranicom koju kontekst ima u trenutku zapisivanja u
+	 * međuspremnik, pa se ona za vrijeme izvođenja ne smije mijenjati.
+	 *
+	 * @param documentNode
+	 *            vrh stabla dobivenog parsiranjem skripte
+	 * @param requestContext
+	 *            kontekst zahtjeva odnosno objekt koji vrši ispis izlaza
+	 *            skripte zajedno sa prikladnim zaglavljem
+	 * @param buffered
+	 *            true ako se izlaz treba zapisivati preko međuspremnika
+	 */
+	public SmartScriptEngine(DocumentNode documentNode, RequestContext requestContext, boolean buffered) {
+		this(documentNode, requestContext);
+		this.buffered = buffered;
+	}
+
+	/**
+	 * Postavlja profiler koji prati izvođenje skripte. Ako je zadan
+	 * <code>null</code>, izvođenje se ne prati.
+	 *
+	 * @param profiler
+	 *            profiler ili <code>null</code>
+	 */
+	public void setProfiler(SmartScriptProfiler profiler) {
+		this.profiler = profiler;
+	}
+
 	/**
 	 * Metoda koja pokreće izršavanje skripte.
 	 */
 	public void execute() {
-		documentNode.accept(visitor);
+		outputBufferCount = 0;
+		outputStarted = false;
+		try {
+			if (profiler == null) {
+				documentNode.accept(visitor);
+			} else {
+				profiler.enter(documentNode);
+				try {
+					documentNode.accept(visitor);
+				} finally {
+					profiler.exit();
+				}
+			}
+		} catch (RuntimeException e) {
+			if (buffered) {
+				// izlaz zapisan prije iznimke se ne odbacuje
+				try {
+					flushBuffer();
+				} catch (IOException | RuntimeException ex) {
+					e.addSuppressed(ex);
+				}
+			}
+			throw e;
+		}
+		if (buffered) {
+			try {
+				flushBuffer();
+			} catch (IOException e) {
+				throw new RuntimeException("Unable to write output.");
+			}
+		}
+	}
+
+	/**
+	 * Pomoćna metoda koja vrši izračun zadane operacije sa zadanim
+	 * operandima. Podržane operacije su +,-,*,/. Koristi se i pri
+	 * optimizaciji stabla kako bi rezultat bio jednak onome pri izvođenju.
+	 *
+	 * @param op1
+	 *            prvi operand
+	 * @param op2
+	 *            drugi operand
+	 * @param operator
+	 *            operator +,-,*,/
+	 * @return rezultat izvođenja operacije
+	 */
+	static Object calculateOperation(Object op1, Object op2, String operator) {
+		ValueWrapper op1Wrapper = new ValueWrapper(op1);
+		switch (operator) {
+		case "+":
+			op1Wrapper.add(op2);
+			break;
+		case "-":
+			op1Wrapper.subtract(op2);
+			break;
+		case "*":
+			op1Wrapper.multiply(op2);
+			break;
+		case "/":
+			op1Wrapper.divide(op2);
+			break;
+		default:
+			throw new UnsupportedOperationException("Operator '" + operator + "' is not supported.");
+		}
+		return op1Wrapper.getValue();
+	}
+
+	/**
+	 * Dodaje zadane bajtove u međuspremnik izlaza. Ako u međuspremniku nema
+	 * dovoljno mjesta, međuspremnik se prvo prazni, a podaci veći od samog
+	 * međuspremnika zapisuju se izravno.
+	 *
+	 * @param data
+	 *            bajtovi koje treba zapisati
+	 * @throws IOException
+	 *             ukoliko dođe do problema sa zapisivanjem
+	 */
+	private void writeToBuffer(byte[] data) throws IOException {
+		if (profiler != null) {
+			profiler.bytesWritten(data.length);
+		}
+		if (outputBuffer == null) {
+			outputBuffer = new byte[OUTPUT_BUFFER_SIZE];
+		}
+		if (outputBufferCount + data.length > outputBuffer.length) {
+			flushBuffer();
+		}
+		if (data.length > outputBuffer.length) {
+			outputStarted = true;
+			requestContext.write(data);
+			return;
+		}
+		System.arraycopy(data, 0, outputBuffer, outputBufferCount, data.length);
+		outputBufferCount += data.length;
+	}
+
+	/**
+	 * Zapisuje sadržaj međuspremnika izlaza na kontekst zahtjeva i prazni
+	 * međuspremnik.
+	 *
+	 * @throws IOException
+	 *             ukoliko dođe do problema sa zapisivanjem
+	 */
+	private void flushBuffer() throws IOException {
+		if (outputBufferCount == 0) {
+			return;
+		}
+		int count = outputBufferCount;
+		outputBufferCount = 0;
+		outputStarted = true;
+		requestContext.write(outputBuffer, 0, count);
 	}
 }
@@ -0,0 +1,203 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Stack;
+
+import hr.fer.zemris.java.custom.scripting.elems.Element;
+import hr.fer.zemris.java.custom.scripting.elems.ElementConstantDouble;
+import hr.fer.zemris.java.custom.scripting.elems.ElementConstantInteger;
+import hr.fer.zemris.java.custom.scripting.elems.ElementOperator;
+import hr.fer.zemris.java.custom.scripting.elems.ElementString;
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+import hr.fer.zemris.java.custom.scripting.nodes.EchoNode;
+import hr.fer.zemris.java.custom.scripting.nodes.ForLoopNode;
+import hr.fer.zemris.java.custom.scripting.nodes.INodeVisitor;
+import hr.fer.zemris.java.custom.scripting.nodes.Node;
+import hr.fer.zemris.java.custom.scripting.nodes.TextNode;
+
+/**
+ * Klasa koja optimizira stablo dobiveno parsiranjem skripte. Optimizacija ne
+ * mijenja izlaz skripte, a sastoji se od sljedećeg:
+ * <ul>
+ * <li>izračunavaju se operacije čija su oba operanda konstante,</li>
+ * <li>{@link EchoNode} koji sadrži samo konstante zamjenjuje se s
+ * {@link TextNode},</li>
+ * <li>susjedni {@link TextNode} čvorovi se spajaju u jedan, a prazni se
+ * uklanjaju,</li>
+ * <li>uklanjaju se FOR petlje čija je početna vrijednost veća od završne.</li>
+ * </ul>
+ * Zadano stablo se ne mijenja, već se gradi novo stablo.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class SmartScriptOptimizer {
+
+	/**
+	 * Vraća optimiziranu verziju zadanog stabla.
+	 *
+	 * @param documentNode
+	 *            vrh stabla dobivenog parsiranjem skripte
+	 * @return vrh optimiziranog stabla
+	 */
+	public static DocumentNode optimize(DocumentNode documentNode) {
+		OptimizerVisitor visitor = new OptimizerVisitor();
+		documentNode.accept(visitor);
+		return (DocumentNode) visitor.result;
+	}
+
+	/**
+	 * Posjetitelj koji obilaskom stabla gradi optimizirano stablo.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private static class OptimizerVisitor implements INodeVisitor {
+		/**
+		 * Optimizirana inačica posljednjeg posjećenog čvora ili
+		 * <code>null</code> ako je čvor uklonjen.
+		 */
+		private Node result;
+
+		@Override
+		public void visitTextNode(TextNode node) {
+			result = node;
+		}
+
+		@Override
+		public void visitForLoopNode(ForLoopNode node) {
+			if (isDeadLoop(node)) {
+				result = null;
+				return;
+			}
+
+			ForLoopNode optimized = new ForLoopNode(node.getVariable(), node.getStartExpression(),
+					node.getEndExpression(), node.getStepExpression());
+			optimized.setSourcePosition(node.getLine(), node.getColumn());
+			optimizeChildren(node, optimized);
+			result = optimized;
+		}
+
+		@Override
+		public void visitEchoNode(EchoNode node) {
+			Element[] elements = node.getElements();
+			List<Element> folded = new ArrayList<>();
+			if (elements.length > 0) {
+				folded.add(elements[0]);
+			}
+
+			// broj uzastopnih konstanti na kraju liste folded
+			int constants = 0;
+			for (int i = 1; i < elements.length; i++) {
+				Element el = elements[i];
+				if (isConstant(el)) {
+					folded.add(el);
+					constants++;
+				} else if (el instanceof ElementOperator && constants >= 2) {
+					Element op1 = folded.get(folded.size() - 1);
+					Element op2 = folded.get(folded.size() - 2);
+					Object res;
+					try {
+						res = SmartScriptEngine.calculateOperation(op1.asText(), op2.asText(), el.asText());
+					} catch (RuntimeException ex) {
+						// pogreška se prepušta izvođenju skripte
+						folded.add(el);
+						constants = 0;
+						continue;
+					}
+					folded.remove(folded.size() - 1);
+					folded.set(folded.size() - 1, new ElementString(res.toString()));
+					constants--;
+				} else {
+					folded.add(el);
+					constants = 0;
+				}
+			}
+
+			if (constants == folded.size() - 1) {
+				StringBuilder sb = new StringBuilder();
+				for (int i = 1, n = folded.size(); i < n; i++) {
+					sb.append(folded.get(i).asText());
+				}
+				result = new TextNode(sb.toString());
+			} else {
+				result = new EchoNode(folded.toArray(new Element[folded.size()]));
+			}
+			result.setSourcePosition(node.getLine(), node.getColumn());
+		}
+
+		@Override
+		public void visitDocumentNode(DocumentNode node) {
+			DocumentNode optimized = new DocumentNode();
+			optimizeChildren(node, optimized);
+			result = optimized;
+		}
+
+		/**
+		 * Optimizira djecu zadanog čvora i dodaje ih kao djecu zadanog
+		 * optimiziranog čvora. Susjedni tekstualni čvorovi se pritom spajaju,
+		 * a prazni se izostavljaju.
+		 *
+		 * @param node
+		 *            čvor čija se djeca optimiziraju
+		 * @param optimized
+		 *            optimizirani čvor kojem se dodaju optimizirana djeca
+		 */
+		private void optimizeChildren(Node node, Node optimized) {
+			Stack<Node> children = new Stack<>();
+			for (int i = 0, n = node.numberOfChildren(); i < n; i++) {
+				node.getChild(i).accept(this);
+				if (result == null) {
+					continue;
+				}
+				if (result instanceof TextNode) {
+					String text = ((TextNode) result).getText();
+					if (text.isEmpty()) {
+						continue;
+					}
+					if (!children.isEmpty() && children.peek() instanceof TextNode) {
+						Node previous = children.pop();
+						result = new TextNode(((TextNode) previous).getText() + text);
+						result.setSourcePosition(previous.getLine(), previous.getColumn());
+					}
+				}
+				children.push(result);
+			}
+
+			for (Node child : children) {
+				optimized.addChildNode(child);
+			}
+		}
+
+		/**
+		 * Provjerava je li zadani element konstanta.
+		 *
+		 * @param el
+		 *            element
+		 * @return true ako je element konstanta, inače false
+		 */
+		private static boolean isConstant(Element el) {
+			return el instanceof ElementConstantInteger || el instanceof ElementConstantDouble
+					|| el instanceof ElementString;
+		}
+
+		/**
+		 * Provjerava je li tijelo zadane petlje sigurno neće izvesti niti
+		 * jednom, odnosno je li početna vrijednost petlje veća od završne.
+		 *
+		 * @param node
+		 *            čvor petlje
+		 * @return true ako se tijelo petlje neće izvesti niti jednom
+		 */
+		private static boolean isDeadLoop(ForLoopNode node) {
+			try {
+				ValueWrapper start = new ValueWrapper(node.getStartExpression().asText());
+				return start.numCompare(node.getEndExpression().asText()) > 0;
+			} catch (RuntimeException ex) {
+				// pogreška se prepušta izvođenju skripte
+				return false;
+			}
+		}
+	}
+}
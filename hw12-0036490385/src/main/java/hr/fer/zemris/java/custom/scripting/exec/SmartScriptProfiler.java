@@ -0,0 +1,213 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+import hr.fer.zemris.java.custom.scripting.nodes.EchoNode;
+import hr.fer.zemris.java.custom.scripting.nodes.ForLoopNode;
+import hr.fer.zemris.java.custom.scripting.nodes.Node;
+import hr.fer.zemris.java.custom.scripting.nodes.TextNode;
+
+/**
+ * Profiler izvođenja skripte. Za svaki čvor stabla bilježi broj izvođenja,
+ * ukupno vrijeme izvođenja te broj zapisanih bajtova. Čvorovi su označeni
+ * svojim tipom i pozicijom u izvornom kodu (npr. <code>echo@4:5</code>).
+ * Profiler se predaje {@link SmartScriptEngine} metodom
+ * {@link SmartScriptEngine#setProfiler(SmartScriptProfiler)}, a jedan
+ * primjerak se može koristiti za više uzastopnih izvođenja. Klasa nije
+ * sigurna za istovremeno korištenje iz više dretvi.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class SmartScriptProfiler {
+	/** Statistika po stogu poziva, ključ je stog u sažetom zapisu. **/
+	private Map<String, NodeStats> stacks = new LinkedHashMap<>();
+	/** Trenutno aktivni okviri, od korijena prema vrhu. **/
+	private List<Frame> frames = new ArrayList<>();
+
+	/**
+	 * Bilježi početak izvođenja zadanog čvora.
+	 *
+	 * @param node
+	 *            čvor čije izvođenje počinje
+	 */
+	void enter(Node node) {
+		String label = labelOf(node);
+		String key = frames.isEmpty() ? label : frames.get(frames.size() - 1).key + ";" + label;
+		NodeStats stats = stacks.get(key);
+		if (stats == null) {
+			stats = new NodeStats(label);
+			stacks.put(key, stats);
+		}
+		frames.add(new Frame(key, stats, System.nanoTime()));
+	}
+
+	/**
+	 * Bilježi kraj izvođenja čvora čije je izvođenje posljednje započelo.
+	 */
+	void exit() {
+		Frame frame = frames.remove(frames.size() - 1);
+		long elapsed = System.nanoTime() - frame.start;
+		frame.stats.invocations++;
+		frame.stats.totalNanos += elapsed;
+		if (!frames.isEmpty()) {
+			frames.get(frames.size() - 1).stats.childNanos += elapsed;
+		}
+	}
+
+	/**
+	 * Bilježi da je čvor koji se trenutno izvodi zapisao zadani broj bajtova.
+	 *
+	 * @param count
+	 *            broj zapisanih bajtova
+	 */
+	void bytesWritten(int count) {
+		if (!frames.isEmpty()) {
+			frames.get(frames.size() - 1).stats.bytes += count;
+		}
+	}
+
+	/**
+	 * Vraća izvještaj u sažetom zapisu stogova (engl. collapsed stacks) koji
+	 * je moguće izravno predati alatima za crtanje flame grafova (npr.
+	 * flamegraph.pl). Svaki redak sadrži stog čvorova odvojenih znakom ';' te
+	 * vlastito vrijeme izvođenja vrha stoga u nanosekundama.
+	 *
+	 * @return izvještaj u sažetom zapisu stogova
+	 */
+	public String toCollapsedStacks() {
+		StringBuilder sb = new StringBuilder();
+		for (Entry<String, NodeStats> entry : stacks.entrySet()) {
+			long selfNanos = entry.getValue().totalNanos - entry.getValue().childNanos;
+			sb.append(entry.getKey()).append(' ').append(Math.max(selfNanos, 0)).append('\n');
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Vraća tablični izvještaj sa statistikom za svaki čvor. Statistika čvora
+	 * koji se izvodio unutar različitih stogova je zbrojena.
+	 *
+	 * @return tablični izvještaj
+	 */
+	public String toSummary() {
+		Map<String, NodeStats> byNode = new LinkedHashMap<>();
+		for (NodeStats stats : stacks.values()) {
+			NodeStats total = byNode.get(stats.label);
+			if (total == null) {
+				total = new NodeStats(stats.label);
+				byNode.put(stats.label, total);
+			}
+			total.invocations += stats.invocations;
+			total.totalNanos += stats.totalNanos;
+			total.childNanos += stats.childNanos;
+			total.bytes += stats.bytes;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%-24s %12s %14s %14s %12s%n", "node", "invocations", "total [us]", "self [us]",
+				"bytes"));
+		for (NodeStats stats : byNode.values()) {
+			sb.append(String.format("%-24s %12d %14.1f %14.1f %12d%n", stats.label, stats.invocations,
+					stats.totalNanos / 1e3, (stats.totalNanos - stats.childNanos) / 1e3, stats.bytes));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Briše svu prikupljenu statistiku.
+	 */
+	public void reset() {
+		stacks.clear();
+		frames.clear();
+	}
+
+	/**
+	 * Vraća oznaku zadanog čvora koja se sastoji od tipa čvora i pozicije u
+	 * izvornom kodu.
+	 *
+	 * @param node
+	 *            čvor
+	 * @return oznaka čvora
+	 */
+	private static String labelOf(Node node) {
+		String type;
+		if (node instanceof DocumentNode) {
+			return "document";
+		} else if (node instanceof ForLoopNode) {
+			type = "for(" + ((ForLoopNode) node).getVariable().asText() + ")";
+		} else if (node instanceof EchoNode) {
+			type = "echo";
+		} else if (node instanceof TextNode) {
+			type = "text";
+		} else {
+			type = node.getClass().getSimpleName();
+		}
+		return type + "@" + node.getLine() + ":" + node.getColumn();
+	}
+
+	/**
+	 * Statistika izvođenja jednog čvora unutar jednog stoga.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private static class NodeStats {
+		/** Oznaka čvora. **/
+		private final String label;
+		/** Broj izvođenja. **/
+		private long invocations;
+		/** Ukupno vrijeme izvođenja u nanosekundama. **/
+		private long totalNanos;
+		/** Vrijeme izvođenja djece u nanosekundama. **/
+		private long childNanos;
+		/** Broj zapisanih bajtova. **/
+		private long bytes;
+
+		/**
+		 * Konstruktor.
+		 *
+		 * @param label
+		 *            oznaka čvora
+		 */
+		private NodeStats(String label) {
+			this.label = label;
+		}
+	}
+
+	/**
+	 * Okvir čvora koji se trenutno izvodi.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private static class Frame {
+		/** Stog u sažetom zapisu, zaključno s ovim čvorom. **/
+		private final String key;
+		/** Statistika ovog stoga. **/
+		private final NodeStats stats;
+		/** Trenutak početka izvođenja u nanosekundama. **/
+		private final long start;
+
+		/**
+		 * Konstruktor.
+		 *
+		 * @param key
+		 *            stog u sažetom zapisu
+		 * @param stats
+		 *            statistika stoga
+		 * @param start
+		 *            trenutak početka izvođenja u nanosekundama
+		 */
+		private Frame(String key, NodeStats stats, long start) {
+			this.key = key;
+			this.stats = stats;
+			this.start = start;
+		}
+	}
+}
@@ -0,0 +1,143 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParser;
+
+/**
+ * Priručna memorija parsiranih skripti. Svaka skripta se parsira samo jednom, a
+ * dobiveno stablo se dijeli između svih dretvi koje ju izvode. Stablo se nakon
+ * parsiranja ne mijenja pa ga je sigurno istovremeno izvoditi iz više dretvi.
+ * Ako se datoteka skripte promijeni na disku, skripta se ponovno parsira.
+ * Parsirana stabla se prije pohrane optimiziraju pomoću
+ * {@link SmartScriptOptimizer}. Broj pohranjenih skripti je ograničen; kada
+ * se ograničenje prijeđe, izbacuje se najdulje nekorištena skripta.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class SmartScriptTemplateCache {
+	/** Zadani najveći broj pohranjenih skripti. **/
+	public static final int DEFAULT_MAX_SIZE = 256;
+
+	/**
+	 * Mapa koja putanju skripte mapira na parsiranu skriptu, od najdulje do
+	 * najnedavnije korištene. Pristup je sinkroniziran na samoj mapi.
+	 **/
+	private final Map<Path, CachedTemplate> templates;
+
+	/**
+	 * Konstruktor. Pohranjuje najviše {@link #DEFAULT_MAX_SIZE} skripti.
+	 */
+	public SmartScriptTemplateCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+
+	/**
+	 * Konstruktor.
+	 *
+	 * @param maxSize
+	 *            najveći broj pohranjenih skripti
+	 */
+	public SmartScriptTemplateCache(int maxSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Maximal size must be at least 1. Given: " + maxSize);
+		}
+		templates = new LinkedHashMap<Path, CachedTemplate>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Path, CachedTemplate> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Vraća stablo skripte zapisane u zadanoj datoteci. Skripta se parsira
+	 * samo ako još nije parsirana ili ako je datoteka promijenjena od
+	 * posljednjeg parsiranja.
+	 *
+	 * @param path
+	 *            putanja do datoteke skripte
+	 * @return stablo dobiveno parsiranjem skripte
+	 * @throws IOException
+	 *             ukoliko dođe do problema sa čitanjem skripte
+	 */
+	public DocumentNode getTemplate(Path path) throws IOException {
+		Path key = path.toAbsolutePath().normalize();
+		FileTime lastModified = Files.getLastModifiedTime(key);
+
+		CachedTemplate cached;
+		synchronized (templates) {
+			cached = templates.get(key);
+		}
+		if (cached != null && cached.lastModified.equals(lastModified)) {
+			return cached.documentNode;
+		}
+
+		String documentBody = new String(Files.readAllBytes(key), StandardCharsets.UTF_8);
+		DocumentNode documentNode = new SmartScriptParser(documentBody).getDocumentNode();
+		cached = new CachedTemplate(SmartScriptOptimizer.optimize(documentNode), lastModified);
+		// parsiranje je izvan sinkronizacije, pa iste skripte može
+		// istovremeno parsirati više dretvi, što ne mijenja rezultat
+		synchronized (templates) {
+			templates.put(key, cached);
+		}
+		return cached.documentNode;
+	}
+
+	/**
+	 * Vraća broj skripti pohranjenih u priručnoj memoriji.
+	 *
+	 * @return broj pohranjenih skripti
+	 */
+	public int size() {
+		synchronized (templates) {
+			return templates.size();
+		}
+	}
+
+	/**
+	 * Briše sve skripte iz priručne memorije.
+	 */
+	public void clear() {
+		synchronized (templates) {
+			templates.clear();
+		}
+	}
+
+	/**
+	 * Parsirana skripta zajedno s vremenom posljednje izmjene datoteke iz koje
+	 * je parsirana.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private static class CachedTemplate {
+		/** Stablo dobiveno parsiranjem skripte. **/
+		private final DocumentNode documentNode;
+		/** Vrijeme posljednje izmjene datoteke skripte. **/
+		private final FileTime lastModified;
+
+		/**
+		 * Konstruktor.
+		 *
+		 * @param documentNode
+		 *            stablo dobiveno parsiranjem skripte
+		 * @param lastModified
+		 *            vrijeme posljednje izmjene datoteke skripte
+		 */
+		private CachedTemplate(DocumentNode documentNode, FileTime lastModified) {
+			this.documentNode = documentNode;
+			this.lastModified = lastModified;
+		}
+	}
+}
@@ -329,6 +329,15 @@ public class Lexer {
 		return token = new Token(TokenType.TEXT, tokenSB.toString());
 	}
 
+	/**
+	 * Vraća poziciju prvog neobrađenog znaka izvornog koda.
+	 *
+	 * @return pozicija prvog neobrađenog znaka
+	 */
+	public int getCurrentIndex() {
+		return currentIndex;
+	}
+
 	/**
 	 * Vraća zadnje generirani token.
 	 *
@@ -14,6 +14,10 @@ public abstract class Node {
 	 * Kolekcija u koju se pohranjuju djeca čvora.
 	 */
 	private ArrayIndexedCollection children;
+	/** Redak izvornog koda u kojem čvor počinje, 0 ako nije poznat. **/
+	private int line;
+	/** Stupac izvornog koda u kojem čvor počinje, 0 ako nije poznat. **/
+	private int column;
 
 	/**
 	 * Evidentira zadani čvor kao dijete ovoga čvora.
@@ -57,6 +61,38 @@ public abstract class Node {
 		return (Node) children.get(index);
 	}
 
+	/**
+	 * Postavlja poziciju u izvornom kodu na kojoj čvor počinje. Redci i stupci
+	 * broje se od 1.
+	 *
+	 * @param line
+	 *            redak u kojem čvor počinje
+	 * @param column
+	 *            stupac u kojem čvor počinje
+	 */
+	public void setSourcePosition(int line, int column) {
+		this.line = line;
+		this.column = column;
+	}
+
+	/**
+	 * Vraća redak izvornog koda u kojem čvor počinje.
+	 *
+	 * @return redak u kojem čvor počinje ili 0 ako nije poznat
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	/**
+	 * Vraća stupac izvornog koda u kojem čvor počinje.
+	 *
+	 * @return stupac u kojem čvor počinje ili 0 ako nije poznat
+	 */
+	public int getColumn() {
+		return column;
+	}
+
 	/**
 	 * Prihvaća zadani posjetitelj na način da poziva odgovarajuću metodu
 	 * posjetitelja.
@@ -1,5 +1,7 @@
 package hr.fer.zemris.java.custom.scripting.nodes;
 
+import java.nio.charset.Charset;
+
 /**
  * Node koji sadrži tekstualni podatak.
  *
@@ -9,6 +11,11 @@ package hr.fer.zemris.java.custom.scripting.nodes;
 public class TextNode extends Node {
 	/** Tekstualni podatak **/
 	private String text;
+	/**
+	 * Tekstualni podatak kodiran u bajtove zajedno s kodnom stranicom kojom je
+	 * kodiran. Čuva se kako se isti tekst ne bi kodirao pri svakom izvođenju.
+	 **/
+	private volatile EncodedText encoded;
 
 	/** Konstruktor. Prima referencu na tekstualni podatak. **/
 	public TextNode(String text) {
@@ -21,8 +28,52 @@ public class TextNode extends Node {
 		return text;
 	}
 
+	/**
+	 * Vraća pohranjeni tekstualni podatak kodiran zadanom kodnom stranicom.
+	 * Kodiranje se obavlja samo prvi put, a svaki sljedeći poziv s istom kodnom
+	 * stranicom vraća već kodirane bajtove. Vraćeno polje se ne smije mijenjati.
+	 *
+	 * @param charset
+	 *            kodna stranica
+	 * @return tekstualni podatak kodiran zadanom kodnom stranicom
+	 */
+	public byte[] getBytes(Charset charset) {
+		EncodedText current = encoded;
+		if (current == null || !current.charset.equals(charset)) {
+			current = new EncodedText(charset, text.getBytes(charset));
+			encoded = current;
+		}
+		return current.bytes;
+	}
+
 	@Override
 	public void accept(INodeVisitor visitor) {
 		visitor.visitTextNode(this);
 	}
+
+	/**
+	 * Par kodne stranice i teksta kodiranog tom kodnom stranicom.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	private static class EncodedText {
+		/** Kodna stranica **/
+		private final Charset charset;
+		/** Kodirani tekst **/
+		private final byte[] bytes;
+
+		/**
+		 * Konstruktor.
+		 *
+		 * @param charset
+		 *            kodna stranica
+		 * @param bytes
+		 *            kodirani tekst
+		 */
+		private EncodedText(Charset charset, byte[] bytes) {
+			this.charset = charset;
+			this.bytes = bytes;
+		}
+	}
 }
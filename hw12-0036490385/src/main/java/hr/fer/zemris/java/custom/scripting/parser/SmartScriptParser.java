@@ -39,6 +39,14 @@ public class SmartScriptParser {
 	 * omogućuje izgradnju dokumentnog stabla.
 	 **/
 	private ObjectStack stack;
+	/** Izvorni kod koji se parsira **/
+	private String document;
+	/** Pozicija u izvornom kodu do koje su izbrojani redci i stupci **/
+	private int countedIndex;
+	/** Redak u kojem se nalazi znak na poziciji countedIndex **/
+	private int countedLine = 1;
+	/** Stupac u kojem se nalazi znak na poziciji countedIndex **/
+	private int countedColumn = 1;
 
 	/**
 	 * Konstruktor. Prima referencu na sadržaj koda kojeg je potrebno parsirati.
@@ -52,6 +60,7 @@ public class SmartScriptParser {
 			throw new IllegalArgumentException("Argument: null");
 		}
 
+		this.document = document;
 		stack = new ObjectStack();
 		lexer = new Lexer(document);
 		parse();
@@ -65,20 +74,26 @@ public class SmartScriptParser {
 		stack.push(docNode);
 
 		while (true) {
+			int tokenStart = lexer.getCurrentIndex();
 			Token token = nextToken();
 
 			if (token.getType() == TokenType.TEXT) {
-				((Node) stack.peek()).addChildNode(new TextNode((String) token.getValue()));
+				TextNode node = new TextNode((String) token.getValue());
+				setSourcePosition(node, tokenStart);
+				((Node) stack.peek()).addChildNode(node);
 			} else if (token.getType() == TokenType.OPEN_TAG) {
 				token = nextToken();
 
 				if (token.getType() == TokenType.NAME && ((String) token.getValue()).toLowerCase().equals("for")) {
 					createForNode();
+					setSourcePosition((Node) stack.peek(), tokenStart);
 				} else if (token.getType() == TokenType.NAME
 						&& ((String) token.getValue()).toLowerCase().equals("end")) {
 					parseEndTag();
 				} else {
+					Node parent = (Node) stack.peek();
 					createEchoNode();
+					setSourcePosition(parent.getChild(parent.numberOfChildren() - 1), tokenStart);
 				}
 			} else if (token.getType() == TokenType.EOF) {
 				break;
@@ -277,6 +292,28 @@ public class SmartScriptParser {
 		((Node) stack.peek()).addChildNode(new EchoNode(elementsArray));
 	}
 
+	/**
+	 * Postavlja čvoru poziciju u izvornom kodu koja odgovara zadanom indeksu
+	 * znaka. Indeksi moraju biti zadavani redom kojim se pojavljuju u
+	 * izvornom kodu.
+	 *
+	 * @param node
+	 *            čvor
+	 * @param index
+	 *            indeks znaka na kojem čvor počinje
+	 */
+	private void setSourcePosition(Node node, int index) {
+		for (; countedIndex < index; countedIndex++) {
+			if (document.charAt(countedIndex) == '\n') {
+				countedLine++;
+				countedColumn = 1;
+			} else {
+				countedColumn++;
+			}
+		}
+		node.setSourcePosition(countedLine, countedColumn);
+	}
+
 	/**
 	 * Vraća konstruirano dokumentno stablo.
 	 *
@@ -320,6 +320,40 @@ public class RequestContext {
 		outputStream.write(data);
 	}
 
+	/**
+	 * Zapisuje zadani dio polja bajtova na {@link OutputStream} zadan u
+	 * konstruktoru.
+	 *
+	 * @param data
+	 *            polje bajtova
+	 * @param offset
+	 *            index prvog bajta koji će biti zapisan
+	 * @param length
+	 *            broj bajtova koji će biti zapisani
+	 * @throws IOException
+	 *             ukoliko dođe do problema sa zapisivanjem
+	 */
+	public void write(byte[] data, int offset, int length) throws IOException {
+		if (!headerGenerated) {
+			generateAndWriteHeader();
+		}
+		outputStream.write(data, offset, length);
+	}
+
+	/**
+	 * Vraća kodnu stranicu kojom se zapisuje tekst. Ako zaglavlje još nije
+	 * generirano, vraća kodnu stranicu koja odgovara trenutno postavljenom
+	 * encodingu.
+	 *
+	 * @return kodna stranica kojom se zapisuje tekst
+	 */
+	public Charset getCharset() {
+		if (charset != null) {
+			return charset;
+		}
+		return Charset.forName(encoding);
+	}
+
 	/**
 	 * Zapisuje zadani tekst na {@link OutputStream} zadan u konstruktoru.
 	 *
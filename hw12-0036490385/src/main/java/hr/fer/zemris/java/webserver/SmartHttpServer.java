@@ -26,7 +26,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import hr.fer.zemris.java.custom.scripting.exec.SmartScriptEngine;
-import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParser;
+import hr.fer.zemris.java.custom.scripting.exec.SmartScriptTemplateCache;
 import hr.fer.zemris.java.webserver.RequestContext.RCCookie;
 
 /**
@@ -94,6 +94,10 @@ public class SmartHttpServer {
 	 * brojeva sjednica.
 	 */
 	private Random sessionRandom = new Random();
+	/**
+	 * Priručna memorija parsiranih skripti koju dijele sve dretve radnice.
+	 */
+	private SmartScriptTemplateCache templateCache = new SmartScriptTemplateCache();
 	/**
 	 * Pristupna točka preko koje poslužitelj prihvaća zahtjeve klijenata.
 	 */
@@ -732,8 +736,7 @@ public class SmartHttpServer {
 			}
 
 			if (extension.equals("smscr")) {
-				String documentBody = readFromDisk(reqPath);
-				new SmartScriptEngine(new SmartScriptParser(documentBody).getDocumentNode(), context).execute();
+				new SmartScriptEngine(templateCache.getTemplate(reqPath), context, true).execute();
 			} else {
 
 				String mimeType = mimeTypes.get(extension);
@@ -751,18 +754,5 @@ public class SmartHttpServer {
 			}
 		}
 
-		/**
-		 * Učitava zadanu datoteka i vraća njen sadržaj kao {@link String}.
-		 *
-		 * @param path
-		 *            datoteka koju je potrebno pročitati
-		 * @return sadržaj zadane datoteke
-		 * @throws IOException
-		 *             ako dođe do problema s čitanjem datoteke
-		 */
-		private String readFromDisk(Path path) throws IOException {
-			return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
-		}
-
 	}
 }
\ No newline at end of file
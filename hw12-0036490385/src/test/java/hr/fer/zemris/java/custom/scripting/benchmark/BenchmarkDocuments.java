@@ -0,0 +1,113 @@
+package hr.fer.zemris.java.custom.scripting.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dokumenti nad kojima se izvode mjerenja. Osim skripti iz mape
+ * webroot/scripts, podržana su i dva umjetno generirana dokumenta:
+ * <ul>
+ * <li><code>large</code> - dokument veličine oko 1 MB s puno teksta i
+ * kratkih tagova,</li>
+ * <li><code>loops</code> - manji dokument s ugniježđenim petljama koje
+ * izvode 10 000 echo tagova.</li>
+ * </ul>
+ * Mjerenja je potrebno pokretati iz korijenske mape projekta.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class BenchmarkDocuments {
+	/** Mapa koja se koristi za parametre skripti. **/
+	private static final Map<String, String> PARAMETERS = new HashMap<>();
+
+	static {
+		PARAMETERS.put("a", "4");
+		PARAMETERS.put("b", "2");
+	}
+
+	/**
+	 * Vraća sadržaj dokumenta sa zadanim imenom.
+	 *
+	 * @param name
+	 *            ime skripte iz mape webroot/scripts (bez ekstenzije) ili
+	 *            <code>large</code> ili <code>loops</code>
+	 * @return sadržaj dokumenta
+	 */
+	public static String get(String name) {
+		switch (name) {
+		case "large":
+			return generateLarge(1024);
+		case "loops":
+			return generateLoops(200, 50);
+		default:
+			try {
+				return new String(Files.readAllBytes(Paths.get("webroot/scripts", name + ".smscr")),
+						StandardCharsets.UTF_8);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Vraća parametre s kojima se izvode skripte.
+	 *
+	 * @return parametri skripti
+	 */
+	public static Map<String, String> parameters() {
+		return new HashMap<>(PARAMETERS);
+	}
+
+	/**
+	 * Generira dokument s puno teksta zadane približne veličine.
+	 *
+	 * @param kilobytes
+	 *            približna veličina dokumenta u kilobajtima
+	 * @return generirani dokument
+	 */
+	public static String generateLarge(int kilobytes) {
+		StringBuilder sb = new StringBuilder(kilobytes * 1024 + 256);
+		for (int i = 0; sb.length() < kilobytes * 1024; i++) {
+			sb.append("Line ").append(i).append(" of a generated report with some static text in it.\n");
+			sb.append("Total: {$= \"sum\" 1 2 + $}, value {$= 3.5 2 * \"0.00\" @decfmt $}\n");
+			sb.append("{$FOR j 1 3 1$} item {$= j $}{$END$}\n");
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Generira dokument s dvije ugniježđene petlje.
+	 *
+	 * @param outer
+	 *            broj iteracija vanjske petlje
+	 * @param inner
+	 *            broj iteracija unutarnje petlje
+	 * @return generirani dokument
+	 */
+	public static String generateLoops(int outer, int inner) {
+		return "{$FOR i 1 " + outer + " 1$}{$FOR j 1 " + inner + " 1$}{$= i j * \" \" $}{$END$}\n{$END$}";
+	}
+
+	/**
+	 * {@link OutputStream} koji odbacuje sve zapisane podatke.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	public static class NullOutputStream extends OutputStream {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package hr.fer.zemris.java.custom.scripting.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Pokreće JMH mjerenja leksičkog analizatora, parsera i izvođenja skripti uz
+ * uključeno praćenje alokacija (GC profiler). Pokreće se iz korijenske mape
+ * projekta naredbom <code>mvn -Pbenchmark test-compile exec:exec</code>, a
+ * izbor mjerenja se može suziti sa <code>-Dbenchmark=regex</code>.
+ *
+ * @author Alen Magdić
+ *
+ */
+public class BenchmarkRunner {
+	/**
+	 * Metoda od koje počinje izvođenje programa.
+	 *
+	 * @param args
+	 *            opcionalno regularni izraz koji odabire mjerenja
+	 * @throws RunnerException
+	 *             ukoliko dođe do problema s izvođenjem mjerenja
+	 */
+	public static void main(String[] args) throws RunnerException {
+		String include = args.length > 0 ? args[0] : ".*";
+		Options options = new OptionsBuilder()
+				.include(BenchmarkRunner.class.getPackage().getName() + "\\..*" + include)
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
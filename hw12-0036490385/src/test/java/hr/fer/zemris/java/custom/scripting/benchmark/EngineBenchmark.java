@@ -0,0 +1,76 @@
+package hr.fer.zemris.java.custom.scripting.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.custom.scripting.exec.SmartScriptEngine;
+import hr.fer.zemris.java.custom.scripting.exec.SmartScriptOptimizer;
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParser;
+import hr.fer.zemris.java.webserver.RequestContext;
+import hr.fer.zemris.java.webserver.RequestContext.RCCookie;
+
+/**
+ * Mjeri vrijeme izvođenja već parsiranih skripti, sa i bez međuspremnika
+ * izlaza te sa i bez optimizacije stabla.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EngineBenchmark {
+	/** Ime dokumenta koji se izvodi. **/
+	@Param({ "osnovni", "fibonacci", "zbrajanje", "brojPoziva", "large", "loops" })
+	public String document;
+	/** Koristi li se međuspremnik izlaza. **/
+	@Param({ "false", "true" })
+	public boolean buffered;
+	/** Izvodi li se optimizirano stablo. **/
+	@Param({ "false", "true" })
+	public boolean optimized;
+
+	/** Stablo dokumenta. **/
+	private DocumentNode documentNode;
+
+	/**
+	 * Parsira dokument.
+	 */
+	@Setup
+	public void setup() {
+		documentNode = new SmartScriptParser(BenchmarkDocuments.get(document)).getDocumentNode();
+		if (optimized) {
+			documentNode = SmartScriptOptimizer.optimize(documentNode);
+		}
+	}
+
+	/**
+	 * Izvodi skriptu pri čemu se izlaz odbacuje.
+	 *
+	 * @return kontekst zahtjeva
+	 */
+	@Benchmark
+	public RequestContext execute() {
+		RequestContext context = new RequestContext(new BenchmarkDocuments.NullOutputStream(),
+				BenchmarkDocuments.parameters(), new HashMap<String, String>(), new ArrayList<RCCookie>());
+		new SmartScriptEngine(documentNode, context, buffered).execute();
+		return context;
+	}
+}
@@ -0,0 +1,87 @@
+package hr.fer.zemris.java.custom.scripting.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hr.fer.zemris.java.custom.scripting.lexer.Lexer;
+import hr.fer.zemris.java.custom.scripting.lexer.Token;
+import hr.fer.zemris.java.custom.scripting.lexer.TokenType;
+
+/**
+ * Mjeri propusnost leksičkog analizatora. Brojač <code>bytes</code> daje
+ * propusnost u bajtovima (UTF-8) u sekundi.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LexerBenchmark {
+	/** Ime dokumenta koji se analizira. **/
+	@Param({ "osnovni", "fibonacci", "zbrajanje", "brojPoziva", "large", "loops" })
+	public String document;
+
+	/** Sadržaj dokumenta. **/
+	private String body;
+	/** Veličina dokumenta u bajtovima. **/
+	private long size;
+
+	/**
+	 * Učitava dokument.
+	 */
+	@Setup
+	public void setup() {
+		body = BenchmarkDocuments.get(document);
+		size = body.getBytes(StandardCharsets.UTF_8).length;
+	}
+
+	/**
+	 * Brojač obrađenih bajtova.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		/** Broj obrađenih bajtova. **/
+		public long bytes;
+	}
+
+	/**
+	 * Analizira cijeli dokument.
+	 *
+	 * @param counters
+	 *            brojač obrađenih bajtova
+	 * @param bh
+	 *            crna rupa koja prima tokene
+	 */
+	@Benchmark
+	public void lex(Counters counters, Blackhole bh) {
+		Lexer lexer = new Lexer(body);
+		Token token;
+		do {
+			token = lexer.nextToken();
+			bh.consume(token);
+		} while (token.getType() != TokenType.EOF);
+		counters.bytes += size;
+	}
+}
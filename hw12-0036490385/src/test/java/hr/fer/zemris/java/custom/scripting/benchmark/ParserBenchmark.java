@@ -0,0 +1,80 @@
+package hr.fer.zemris.java.custom.scripting.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParser;
+
+/**
+ * Mjeri vrijeme parsiranja dokumenata. Brojač <code>kilobytes</code> daje broj
+ * parsiranih kilobajta u sekundi, iz čega se dobiva vrijeme parsiranja po
+ * kilobajtu.
+ *
+ * @author Alen Magdić
+ *
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+	/** Ime dokumenta koji se parsira. **/
+	@Param({ "osnovni", "fibonacci", "zbrajanje", "brojPoziva", "large", "loops" })
+	public String document;
+
+	/** Sadržaj dokumenta. **/
+	private String body;
+	/** Veličina dokumenta u kilobajtima. **/
+	private double kilobytes;
+
+	/**
+	 * Učitava dokument.
+	 */
+	@Setup
+	public void setup() {
+		body = BenchmarkDocuments.get(document);
+		kilobytes = body.getBytes(StandardCharsets.UTF_8).length / 1024.0;
+	}
+
+	/**
+	 * Brojač parsiranih kilobajta.
+	 *
+	 * @author Alen Magdić
+	 *
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		/** Broj parsiranih kilobajta. **/
+		public double kilobytes;
+	}
+
+	/**
+	 * Parsira cijeli dokument.
+	 *
+	 * @param counters
+	 *            brojač parsiranih kilobajta
+	 * @return stablo dokumenta
+	 */
+	@Benchmark
+	public DocumentNode parse(Counters counters) {
+		counters.kilobytes += kilobytes;
+		return new SmartScriptParser(body).getDocumentNode();
+	}
+}
@@ -0,0 +1,119 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hr.fer.zemris.java.custom.scripting.exec.SmartScriptBatchRenderer.BatchResult;
+import hr.fer.zemris.java.custom.scripting.exec.SmartScriptBatchRenderer.RenderTask;
+import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParser;
+import hr.fer.zemris.java.webserver.RequestContext;
+import hr.fer.zemris.java.webserver.RequestContext.RCCookie;
+
+public class SmartScriptBatchRendererTest {
+	/** Skripte koje se izvode bez pogreške. **/
+	private static final String[] SCRIPTS = { "osnovni", "zbrajanje", "fibonacci" };
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testBatchMatchesSequentialOutput() throws IOException {
+		SmartScriptTemplateCache cache = new SmartScriptTemplateCache();
+		List<RenderTask> tasks = new ArrayList<>();
+		List<byte[]> expected = new ArrayList<>();
+		for (int i = 0; i < 60; i++) {
+			Path script = Paths.get("webroot/scripts", SCRIPTS[i % SCRIPTS.length] + ".smscr");
+			Map<String, String> parameters = new HashMap<>();
+			parameters.put("a", Integer.toString(i));
+			parameters.put("b", Integer.toString(3 * i));
+
+			tasks.add(new RenderTask(cache.getTemplate(script), parameters, output(i)));
+			expected.add(renderSequentially(script, parameters));
+		}
+
+		SmartScriptBatchRenderer renderer = new SmartScriptBatchRenderer(4);
+		BatchResult result;
+		try {
+			result = renderer.render(tasks);
+		} finally {
+			renderer.shutdown();
+		}
+
+		long bytes = 0;
+		for (int i = 0; i < tasks.size(); i++) {
+			byte[] actual = Files.readAllBytes(output(i));
+			Assert.assertArrayEquals("Document " + i, expected.get(i), actual);
+			bytes += actual.length;
+		}
+		Assert.assertEquals(tasks.size(), result.getDocuments());
+		Assert.assertEquals(bytes, result.getBytes());
+	}
+
+	@Test
+	public void testFailureIsReportedAfterAllTasks() throws IOException {
+		SmartScriptTemplateCache cache = new SmartScriptTemplateCache();
+		List<RenderTask> tasks = new ArrayList<>();
+		Path failing = folder.getRoot().toPath().resolve("failing.smscr");
+		Files.write(failing, "Text{$= \"text/plain\" @setMimeType $}".getBytes(StandardCharsets.UTF_8));
+		tasks.add(new RenderTask(cache.getTemplate(failing), new HashMap<>(), output(0)));
+		tasks.add(new RenderTask(cache.getTemplate(Paths.get("webroot/scripts/osnovni.smscr")), new HashMap<>(),
+				output(1)));
+
+		SmartScriptBatchRenderer renderer = new SmartScriptBatchRenderer(2);
+		try {
+			renderer.render(tasks);
+			Assert.fail("Rendering failure expected.");
+		} catch (RuntimeException e) {
+			Assert.assertTrue(e.getCause().getMessage()
+					.endsWith("Can not set mime type after the header has been generated."));
+		} finally {
+			renderer.shutdown();
+		}
+		Assert.assertArrayEquals(renderSequentially(Paths.get("webroot/scripts/osnovni.smscr"), new HashMap<>()),
+				Files.readAllBytes(output(1)));
+	}
+
+	/**
+	 * Vraća putanju izlazne datoteke zadanog dokumenta.
+	 *
+	 * @param index
+	 *            redni broj dokumenta
+	 * @return putanja izlazne datoteke
+	 */
+	private Path output(int index) {
+		return folder.getRoot().toPath().resolve("document" + index + ".txt");
+	}
+
+	/**
+	 * Izvodi zadanu skriptu bez optimizacije i međuspremnika.
+	 *
+	 * @param script
+	 *            putanja do skripte
+	 * @param parameters
+	 *            parametri skripte
+	 * @return izlaz skripte zajedno sa zaglavljem
+	 * @throws IOException
+	 *             ukoliko dođe do problema sa čitanjem skripte
+	 */
+	private static byte[] renderSequentially(Path script, Map<String, String> parameters) throws IOException {
+		String text = new String(Files.readAllBytes(script), StandardCharsets.UTF_8);
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		RequestContext rc = new RequestContext(os, new HashMap<>(parameters), new HashMap<>(),
+				new ArrayList<RCCookie>());
+		new SmartScriptEngine(new SmartScriptParser(text).getDocumentNode(), rc).execute();
+		return os.toByteArray();
+	}
+}
@@ -0,0 +1,165 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParser;
+import hr.fer.zemris.java.webserver.RequestContext;
+import hr.fer.zemris.java.webserver.RequestContext.RCCookie;
+
+public class SmartScriptEngineTest {
+
+	@Test
+	public void testBufferedOutputOfScriptsIsUnchanged() throws IOException {
+		try (DirectoryStream<Path> scripts = Files.newDirectoryStream(Paths.get("webroot/scripts"), "*.smscr")) {
+			for (Path script : scripts) {
+				DocumentNode document = parse(new String(Files.readAllBytes(script), StandardCharsets.UTF_8));
+				Result unbuffered = run(document, false);
+				Result buffered = run(document, true);
+				Assert.assertEquals(script.toString(), unbuffered.output, buffered.output);
+				Assert.assertEquals(script.toString(), unbuffered.error, buffered.error);
+			}
+		}
+	}
+
+	@Test
+	public void testLargeOutputIsUnchanged() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 2000; i++) {
+			sb.append("Line ").append(i).append(" čćžšđ {$= \"x\" ").append(i).append(" $}\n");
+		}
+		sb.append("{$FOR i 1 3000 1$}{$= i $}{$END$}");
+		DocumentNode document = parse(sb.toString());
+
+		Result unbuffered = run(document, false);
+		Result buffered = run(document, true);
+		Assert.assertNull(unbuffered.error);
+		Assert.assertEquals(unbuffered.output, buffered.output);
+	}
+
+	@Test
+	public void testSetMimeTypeAfterTextFails() {
+		DocumentNode document = parse("Text{$= \"text/plain\" @setMimeType $}");
+
+		Result unbuffered = run(document, false);
+		Result buffered = run(document, true);
+		Assert.assertEquals("Can not set mime type after the header has been generated.", unbuffered.error);
+		Assert.assertEquals(unbuffered.error, buffered.error);
+		Assert.assertEquals(unbuffered.output, buffered.output);
+	}
+
+	@Test
+	public void testSetMimeTypeBeforeText() {
+		DocumentNode document = parse("{$= \"text/plain\" @setMimeType $}Text");
+
+		Result buffered = run(document, true);
+		Assert.assertNull(buffered.error);
+		Assert.assertTrue(buffered.output.contains("Content-Type: text/plain"));
+		Assert.assertEquals(run(document, false).output, buffered.output);
+	}
+
+	@Test
+	public void testOutputBeforeFailureIsWritten() {
+		DocumentNode document = parse("Before {$= 0 1 / $} after");
+
+		Result unbuffered = run(document, false);
+		Result buffered = run(document, true);
+		Assert.assertEquals("Can not divide by zero!", buffered.error);
+		Assert.assertTrue(buffered.output.endsWith("Before "));
+		Assert.assertEquals(unbuffered.output, buffered.output);
+	}
+
+	@Test
+	public void testEngineReusedAfterFailure() {
+		DocumentNode document = parse("Before {$= \"d\" \"1\" @tparamGet 0 / $} after");
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		Map<String, String> temporary = new HashMap<>();
+		RequestContext rc = new RequestContext(os, new HashMap<>(), new HashMap<>(), new ArrayList<RCCookie>(),
+				temporary, null);
+		SmartScriptEngine engine = new SmartScriptEngine(document, rc, true);
+
+		temporary.put("d", "0");
+		try {
+			engine.execute();
+			Assert.fail("Division by zero expected.");
+		} catch (ArithmeticException expected) {
+		}
+		temporary.put("d", "2");
+		engine.execute();
+
+		String output = new String(os.toByteArray(), StandardCharsets.UTF_8);
+		Assert.assertTrue(output.endsWith("\r\n\r\nBefore Before 0 after"));
+	}
+
+	/**
+	 * Parsira zadani dokument.
+	 *
+	 * @param document
+	 *            tekst dokumenta
+	 * @return korijen stabla dokumenta
+	 */
+	private static DocumentNode parse(String document) {
+		return new SmartScriptParser(document).getDocumentNode();
+	}
+
+	/**
+	 * Izvodi zadani dokument i vraća zapisani izlaz te poruku iznimke, ako je
+	 * do nje došlo.
+	 *
+	 * @param document
+	 *            korijen stabla dokumenta
+	 * @param buffered
+	 *            true ako se izlaz zapisuje preko međuspremnika
+	 * @return rezultat izvođenja
+	 */
+	private static Result run(DocumentNode document, boolean buffered) {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		Map<String, String> parameters = new HashMap<>();
+		parameters.put("a", "4");
+		parameters.put("b", "2");
+		RequestContext rc = new RequestContext(os, parameters, new HashMap<>(), new ArrayList<RCCookie>());
+
+		String error = null;
+		try {
+			new SmartScriptEngine(document, rc, buffered).execute();
+		} catch (RuntimeException e) {
+			error = e.getMessage();
+		}
+		return new Result(new String(os.toByteArray(), StandardCharsets.UTF_8), error);
+	}
+
+	/**
+	 * Rezultat izvođenja skripte.
+	 */
+	private static class Result {
+		/** Zapisani izlaz, zajedno sa zaglavljem. **/
+		private final String output;
+		/** Poruka iznimke ili <code>null</code>. **/
+		private final String error;
+
+		/**
+		 * Konstruktor.
+		 *
+		 * @param output
+		 *            zapisani izlaz
+		 * @param error
+		 *            poruka iznimke
+		 */
+		private Result(String output, String error) {
+			this.output = output;
+			this.error = error;
+		}
+	}
+}
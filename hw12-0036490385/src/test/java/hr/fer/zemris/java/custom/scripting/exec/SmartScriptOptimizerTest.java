@@ -0,0 +1,193 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.java.custom.scripting.elems.Element;
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+import hr.fer.zemris.java.custom.scripting.nodes.EchoNode;
+import hr.fer.zemris.java.custom.scripting.nodes.ForLoopNode;
+import hr.fer.zemris.java.custom.scripting.nodes.Node;
+import hr.fer.zemris.java.custom.scripting.nodes.TextNode;
+import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParser;
+import hr.fer.zemris.java.webserver.RequestContext;
+import hr.fer.zemris.java.webserver.RequestContext.RCCookie;
+
+public class SmartScriptOptimizerTest {
+
+	@Test
+	public void testOutputOfScriptsIsUnchanged() throws IOException {
+		try (DirectoryStream<Path> scripts = Files.newDirectoryStream(Paths.get("webroot/scripts"), "*.smscr")) {
+			for (Path script : scripts) {
+				DocumentNode document = parse(new String(Files.readAllBytes(script), StandardCharsets.UTF_8));
+				assertSameOutput(script.toString(), document);
+			}
+		}
+	}
+
+	@Test
+	public void testOutputOfMixedDocumentIsUnchanged() {
+		assertSameOutput("mixed", parse("A {$= 1 2 + \"x\" $} B {$= 2.5 2 * 1 - $}\n"
+				+ "{$FOR i 1 3 1$}[{$= i 1 2 + * $}]{$END$}{$FOR j 3 1 1$}dead{$END$} C"));
+	}
+
+	@Test
+	public void testConstantEchoIsFolded() {
+		DocumentNode optimized = SmartScriptOptimizer.optimize(parse("{$= 1 2 + \"x\" $}"));
+
+		Assert.assertEquals(1, optimized.numberOfChildren());
+		Assert.assertEquals("3x", ((TextNode) optimized.getChild(0)).getText());
+	}
+
+	@Test
+	public void testAdjacentTextIsMerged() {
+		DocumentNode optimized = SmartScriptOptimizer.optimize(parse("Before {$= 1 2 + \"x\" $} after"));
+
+		Assert.assertEquals(1, optimized.numberOfChildren());
+		Assert.assertEquals("Before 3x after", ((TextNode) optimized.getChild(0)).getText());
+	}
+
+	@Test
+	public void testDeadLoopIsRemoved() {
+		DocumentNode optimized = SmartScriptOptimizer
+				.optimize(parse("Before {$FOR i 5 1 1$}body {$= i $}{$END$}after"));
+
+		Assert.assertEquals(1, optimized.numberOfChildren());
+		Assert.assertEquals("Before after", ((TextNode) optimized.getChild(0)).getText());
+	}
+
+	@Test
+	public void testLiveLoopIsKept() {
+		DocumentNode optimized = SmartScriptOptimizer.optimize(parse("{$FOR i 1 1 1$}body{$END$}"));
+
+		Assert.assertEquals(1, optimized.numberOfChildren());
+		Assert.assertTrue(optimized.getChild(0) instanceof ForLoopNode);
+		Assert.assertEquals("body", ((TextNode) optimized.getChild(0).getChild(0)).getText());
+	}
+
+	@Test
+	public void testEchoWithVariableIsKept() {
+		assertEchoKept("{$FOR i 1 2 1$}{$= i 1 + $}{$END$}");
+	}
+
+	@Test
+	public void testEchoWithFunctionsIsKept() {
+		assertEchoKept("{$= \"text/plain\" @setMimeType $}");
+		assertEchoKept("{$= \"a\" \"0\" @tparamGet $}");
+	}
+
+	@Test
+	public void testFailingEchoIsKept() {
+		assertEchoKept("{$= 0 1 / $}");
+
+		try {
+			run(SmartScriptOptimizer.optimize(parse("{$= 0 1 / $}")));
+			Assert.fail("Division by zero expected.");
+		} catch (ArithmeticException expected) {
+		}
+	}
+
+	/**
+	 * Provjerava da je echo čvor zadanog dokumenta ostao nepromijenjen nakon
+	 * optimizacije.
+	 *
+	 * @param text
+	 *            tekst dokumenta s jednim echo čvorom
+	 */
+	private static void assertEchoKept(String text) {
+		EchoNode original = findEcho(parse(text));
+		EchoNode optimized = findEcho(SmartScriptOptimizer.optimize(parse(text)));
+
+		Assert.assertNotNull(optimized);
+		Element[] expected = original.getElements();
+		Element[] actual = optimized.getElements();
+		Assert.assertEquals(expected.length, actual.length);
+		for (int i = 0; i < expected.length; i++) {
+			Assert.assertEquals(expected[i].getClass(), actual[i].getClass());
+			Assert.assertEquals(expected[i].asText(), actual[i].asText());
+		}
+	}
+
+	/**
+	 * Vraća prvi echo čvor u zadanom podstablu.
+	 *
+	 * @param node
+	 *            korijen podstabla
+	 * @return prvi echo čvor ili <code>null</code> ako ga nema
+	 */
+	private static EchoNode findEcho(Node node) {
+		if (node instanceof EchoNode) {
+			return (EchoNode) node;
+		}
+		for (int i = 0, n = node.numberOfChildren(); i < n; i++) {
+			EchoNode echo = findEcho(node.getChild(i));
+			if (echo != null) {
+				return echo;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Provjerava da izvorno i optimizirano stablo daju jednak izlaz.
+	 *
+	 * @param message
+	 *            poruka u slučaju neuspjeha
+	 * @param document
+	 *            izvorno stablo
+	 */
+	private static void assertSameOutput(String message, DocumentNode document) {
+		String expected;
+		try {
+			expected = run(document);
+		} catch (RuntimeException e) {
+			try {
+				run(SmartScriptOptimizer.optimize(document));
+				Assert.fail(message + ": " + e.getMessage() + " expected.");
+			} catch (RuntimeException ex) {
+				Assert.assertEquals(message, e.getMessage(), ex.getMessage());
+			}
+			return;
+		}
+		Assert.assertEquals(message, expected, run(SmartScriptOptimizer.optimize(document)));
+	}
+
+	/**
+	 * Parsira zadani dokument.
+	 *
+	 * @param document
+	 *            tekst dokumenta
+	 * @return korijen stabla dokumenta
+	 */
+	private static DocumentNode parse(String document) {
+		return new SmartScriptParser(document).getDocumentNode();
+	}
+
+	/**
+	 * Izvodi zadano stablo i vraća izlaz zajedno sa zaglavljem.
+	 *
+	 * @param document
+	 *            korijen stabla
+	 * @return izlaz skripte
+	 */
+	private static String run(DocumentNode document) {
+		ByteArrayOutputStream os = new ByteArrayOutputStream();
+		Map<String, String> parameters = new HashMap<>();
+		parameters.put("a", "4");
+		parameters.put("b", "2");
+		RequestContext rc = new RequestContext(os, parameters, new HashMap<>(), new ArrayList<RCCookie>());
+		new SmartScriptEngine(document, rc).execute();
+		return new String(os.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,126 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.java.custom.scripting.parser.SmartScriptParser;
+import hr.fer.zemris.java.webserver.RequestContext;
+import hr.fer.zemris.java.webserver.RequestContext.RCCookie;
+
+public class SmartScriptProfilerTest {
+	/** Skripta s petljom. **/
+	private static final String LOOP = "Start\n{$FOR i 1 3 1$}x{$= i $}{$END$}";
+
+	@Test
+	public void testCollapsedStacks() {
+		SmartScriptProfiler profiler = new SmartScriptProfiler();
+		run(LOOP, profiler, false);
+
+		List<String> stacks = new ArrayList<>();
+		for (String line : profiler.toCollapsedStacks().split("\n")) {
+			int space = line.lastIndexOf(' ');
+			Assert.assertTrue(Long.parseLong(line.substring(space + 1)) >= 0);
+			stacks.add(line.substring(0, space));
+		}
+		Assert.assertEquals(Arrays.asList("document", "document;text@1:1", "document;for(i)@2:1",
+				"document;for(i)@2:1;text@2:16", "document;for(i)@2:1;echo@2:17",
+				"document;for(i)@2:1;text@2:25"), stacks);
+	}
+
+	@Test
+	public void testCountsAndBytes() {
+		for (boolean buffered : new boolean[] { false, true }) {
+			SmartScriptProfiler profiler = new SmartScriptProfiler();
+			run(LOOP, profiler, buffered);
+
+			Map<String, long[]> summary = summary(profiler);
+			Assert.assertArrayEquals(new long[] { 1, 0 }, summary.get("document"));
+			Assert.assertArrayEquals(new long[] { 1, 6 }, summary.get("text@1:1"));
+			Assert.assertArrayEquals(new long[] { 1, 0 }, summary.get("for(i)@2:1"));
+			Assert.assertArrayEquals(new long[] { 3, 3 }, summary.get("text@2:16"));
+			Assert.assertArrayEquals(new long[] { 3, 3 }, summary.get("echo@2:17"));
+		}
+	}
+
+	@Test
+	public void testProfilerReusedAfterFailure() {
+		SmartScriptProfiler profiler = new SmartScriptProfiler();
+		try {
+			run("{$FOR i 1 2 1$}{$= 0 1 / $}{$END$}", profiler, false);
+			Assert.fail("Division by zero expected.");
+		} catch (ArithmeticException expected) {
+		}
+		profiler.reset();
+		run(LOOP, profiler, false);
+		run(LOOP, profiler, false);
+
+		for (String line : profiler.toCollapsedStacks().split("\n")) {
+			Assert.assertTrue(line, line.startsWith("document"));
+			Assert.assertEquals(line, line.indexOf("document"), line.lastIndexOf("document"));
+		}
+		Assert.assertArrayEquals(new long[] { 6, 6 }, summary(profiler).get("echo@2:17"));
+	}
+
+	@Test
+	public void testFailedNodesAreCounted() {
+		SmartScriptProfiler profiler = new SmartScriptProfiler();
+		for (int i = 0; i < 2; i++) {
+			try {
+				run("{$FOR i 1 2 1$}{$= 0 1 / $}{$END$}", profiler, true);
+				Assert.fail("Division by zero expected.");
+			} catch (ArithmeticException expected) {
+			}
+		}
+
+		Map<String, long[]> summary = summary(profiler);
+		Assert.assertEquals(2, summary.get("document")[0]);
+		Assert.assertEquals(2, summary.get("echo@1:16")[0]);
+		Assert.assertFalse(profiler.toCollapsedStacks().contains(";document"));
+	}
+
+	/**
+	 * Izvodi zadanu skriptu uz zadani profiler.
+	 *
+	 * @param script
+	 *            tekst skripte
+	 * @param profiler
+	 *            profiler
+	 * @param buffered
+	 *            true ako se izlaz zapisuje preko međuspremnika
+	 */
+	private static void run(String script, SmartScriptProfiler profiler, boolean buffered) {
+		RequestContext rc = new RequestContext(new ByteArrayOutputStream(), new HashMap<>(), new HashMap<>(),
+				new ArrayList<RCCookie>());
+		SmartScriptEngine engine = new SmartScriptEngine(new SmartScriptParser(script).getDocumentNode(), rc,
+				buffered);
+		engine.setProfiler(profiler);
+		engine.execute();
+	}
+
+	/**
+	 * Vraća broj izvođenja i broj zapisanih bajtova svakog čvora iz tabličnog
+	 * izvještaja zadanog profilera.
+	 *
+	 * @param profiler
+	 *            profiler
+	 * @return mapa koja oznaku čvora mapira na broj izvođenja i broj bajtova
+	 */
+	private static Map<String, long[]> summary(SmartScriptProfiler profiler) {
+		Map<String, long[]> summary = new LinkedHashMap<>();
+		String[] lines = profiler.toSummary().split("\\R");
+		for (int i = 1; i < lines.length; i++) {
+			String[] columns = lines[i].trim().split("\\s+");
+			summary.put(columns[0],
+					new long[] { Long.parseLong(columns[1]), Long.parseLong(columns[columns.length - 1]) });
+		}
+		return summary;
+	}
+}
@@ -0,0 +1,96 @@
+package hr.fer.zemris.java.custom.scripting.exec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hr.fer.zemris.java.custom.scripting.nodes.DocumentNode;
+import hr.fer.zemris.java.custom.scripting.nodes.TextNode;
+
+public class SmartScriptTemplateCacheTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testCacheHit() throws IOException {
+		Path script = write("script.smscr", "Text {$= \"a\" $}");
+		SmartScriptTemplateCache cache = new SmartScriptTemplateCache();
+
+		DocumentNode first = cache.getTemplate(script);
+		Assert.assertSame(first, cache.getTemplate(script));
+		Assert.assertSame(first, cache.getTemplate(script.getParent().resolve("./script.smscr")));
+		Assert.assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testReparseAfterModification() throws IOException {
+		Path script = write("script.smscr", "First");
+		SmartScriptTemplateCache cache = new SmartScriptTemplateCache();
+		DocumentNode first = cache.getTemplate(script);
+
+		write("script.smscr", "Second");
+		Files.setLastModifiedTime(script, FileTime.fromMillis(Files.getLastModifiedTime(script).toMillis() + 2000));
+		DocumentNode second = cache.getTemplate(script);
+
+		Assert.assertNotSame(first, second);
+		Assert.assertEquals("Second", ((TextNode) second.getChild(0)).getText());
+		Assert.assertSame(second, cache.getTemplate(script));
+		Assert.assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testCachedTreeIsOptimized() throws IOException {
+		Path script = write("script.smscr", "Sum: {$= 1 2 + $}.");
+		DocumentNode document = new SmartScriptTemplateCache().getTemplate(script);
+
+		Assert.assertEquals(1, document.numberOfChildren());
+		Assert.assertEquals("Sum: 3.", ((TextNode) document.getChild(0)).getText());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() throws IOException {
+		Path a = write("a.smscr", "a");
+		Path b = write("b.smscr", "b");
+		Path c = write("c.smscr", "c");
+		SmartScriptTemplateCache cache = new SmartScriptTemplateCache(2);
+
+		DocumentNode first = cache.getTemplate(a);
+		DocumentNode second = cache.getTemplate(b);
+		cache.getTemplate(a);
+		cache.getTemplate(c);
+
+		Assert.assertEquals(2, cache.size());
+		Assert.assertSame(first, cache.getTemplate(a));
+		Assert.assertNotSame(second, cache.getTemplate(b));
+		Assert.assertEquals(2, cache.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidMaxSize() {
+		new SmartScriptTemplateCache(0);
+	}
+
+	/**
+	 * Zapisuje skriptu u privremenu mapu.
+	 *
+	 * @param name
+	 *            ime datoteke
+	 * @param text
+	 *            tekst skripte
+	 * @return putanja do zapisane datoteke
+	 * @throws IOException
+	 *             ukoliko dođe do problema sa zapisivanjem
+	 */
+	private Path write(String name, String text) throws IOException {
+		Path path = folder.getRoot().toPath().resolve(name);
+		Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+		return path;
+	}
+}